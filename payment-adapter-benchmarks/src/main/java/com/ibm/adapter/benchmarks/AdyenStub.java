@@ -0,0 +1,108 @@
+/*
+IBM Confidential
+IBM Sterling OMS Payment Integration Adapter
+(C) Copyright IBM Corp. 2022
+Licensed under the Apache License, Version 2.0 (the "License");
+you may not use this file except in compliance with the License.
+http://www.apache.org/licenses/LICENSE-2.0
+Unless required by applicable law or agreed to in writing, software
+distributed under the License is distributed on an "AS IS" BASIS,
+WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+See the License for the specific language governing permissions and
+limitations under the License.
+*/
+package com.ibm.adapter.benchmarks;
+
+import java.io.IOException;
+import java.net.InetAddress;
+import java.net.ServerSocket;
+import java.net.Socket;
+
+import javax.net.ServerSocketFactory;
+
+import okhttp3.mockwebserver.Dispatcher;
+import okhttp3.mockwebserver.MockResponse;
+import okhttp3.mockwebserver.MockWebServer;
+import okhttp3.mockwebserver.RecordedRequest;
+
+/**
+ * In process stub of the Adyen checkout API, listening on the url configured in
+ * the benchmarks' adyen.properties. Each endpoint answers with the canned
+ * response of {@link BenchmarkData}. TCP_NODELAY is set on the accepted
+ * sockets, otherwise MockWebServer writing the headers and the body apart adds
+ * the delayed acknowledgement of the client to each request of a reused
+ * connection.
+ */
+public class AdyenStub {
+
+    public static final int PORT = 8086;
+
+    private final MockWebServer mockWebServer = new MockWebServer();
+
+    public void start() throws IOException {
+	mockWebServer.setServerSocketFactory(new NoDelayServerSocketFactory());
+	mockWebServer.setDispatcher(new Dispatcher() {
+	    @Override
+	    public MockResponse dispatch(RecordedRequest request) {
+		String path = request.getPath();
+		if (path.endsWith("/captures")) {
+		    return new MockResponse().setResponseCode(201).setBody(BenchmarkData.CAPTURE_RESPONSE);
+		} else if (path.endsWith("/refunds")) {
+		    return new MockResponse().setResponseCode(201).setBody(BenchmarkData.REFUND_RESPONSE);
+		} else if (path.endsWith("/cancels")) {
+		    return new MockResponse().setResponseCode(201).setBody(BenchmarkData.REVERSE_RESPONSE);
+		} else if (path.endsWith("/amountUpdates")) {
+		    return new MockResponse().setResponseCode(201).setBody(BenchmarkData.AMEND_AUTH_RESPONSE);
+		} else if (path.endsWith("/payments")) {
+		    return new MockResponse().setResponseCode(200).setBody(BenchmarkData.AUTH_RESPONSE);
+		}
+		return new MockResponse().setResponseCode(404).setBody("{\"message\":\"Not Found\"}");
+	    }
+	});
+	mockWebServer.start(PORT);
+    }
+
+    public void shutdown() throws IOException {
+	mockWebServer.shutdown();
+    }
+
+    private static class NoDelayServerSocketFactory extends ServerSocketFactory {
+
+	@Override
+	public ServerSocket createServerSocket() throws IOException {
+	    return new NoDelayServerSocket();
+	}
+
+	@Override
+	public ServerSocket createServerSocket(int port) throws IOException {
+	    return new NoDelayServerSocket(port, 50, null);
+	}
+
+	@Override
+	public ServerSocket createServerSocket(int port, int backlog) throws IOException {
+	    return new NoDelayServerSocket(port, backlog, null);
+	}
+
+	@Override
+	public ServerSocket createServerSocket(int port, int backlog, InetAddress ifAddress) throws IOException {
+	    return new NoDelayServerSocket(port, backlog, ifAddress);
+	}
+    }
+
+    private static class NoDelayServerSocket extends ServerSocket {
+
+	NoDelayServerSocket() throws IOException {
+	}
+
+	NoDelayServerSocket(int port, int backlog, InetAddress ifAddress) throws IOException {
+	    super(port, backlog, ifAddress);
+	}
+
+	@Override
+	public Socket accept() throws IOException {
+	    Socket socket = super.accept();
+	    socket.setTcpNoDelay(true);
+	    return socket;
+	}
+    }
+}
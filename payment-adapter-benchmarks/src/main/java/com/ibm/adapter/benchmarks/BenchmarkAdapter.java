@@ -0,0 +1,78 @@
+/*
+IBM Confidential
+IBM Sterling OMS Payment Integration Adapter
+(C) Copyright IBM Corp. 2022
+Licensed under the Apache License, Version 2.0 (the "License");
+you may not use this file except in compliance with the License.
+http://www.apache.org/licenses/LICENSE-2.0
+Unless required by applicable law or agreed to in writing, software
+distributed under the License is distributed on an "AS IS" BASIS,
+WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+See the License for the specific language governing permissions and
+limitations under the License.
+*/
+package com.ibm.adapter.benchmarks;
+
+import com.ibm.adapter.context.PaymentContextRegistry;
+import com.ibm.adapter.context.PaymentServiceContext;
+import com.ibm.adapter.context.RequestContext;
+import com.ibm.adapter.enums.PaymentServiceProvider;
+import com.ibm.adapter.payment.model.PaymentCollectionInput;
+import com.ibm.adapter.payment.model.PaymentCollectionOutput;
+import com.ibm.adapter.service.interfaces.IPaymentProcessingAdapter;
+
+/**
+ * Adapter used by the end to end benchmarks. It is wired the same way as the
+ * sample AdyenAdapter, through the PaymentContextRegistry, but takes the
+ * adapter's model as its client specific model so that the benchmarks measure
+ * the adapter only.
+ */
+public class BenchmarkAdapter implements IPaymentProcessingAdapter<PaymentCollectionInput, PaymentCollectionOutput> {
+
+    private final PaymentServiceContext paymentServiceContext;
+
+    public BenchmarkAdapter() {
+	this.paymentServiceContext = PaymentContextRegistry.getServiceContext(PaymentServiceProvider.ADYEN);
+    }
+
+    @Override
+    public PaymentCollectionInput preProcess(RequestContext requestContext,
+	    PaymentCollectionInput paymentCollectionInput) {
+	return paymentCollectionInput;
+    }
+
+    @Override
+    public PaymentCollectionOutput performCharge(RequestContext requestContext,
+	    PaymentCollectionInput paymentCollectionInput) {
+	return paymentServiceContext.getCaptureEngine().execute(requestContext, paymentCollectionInput);
+    }
+
+    @Override
+    public PaymentCollectionOutput performReverseAuth(RequestContext requestContext,
+	    PaymentCollectionInput paymentCollectionInput) {
+	return paymentServiceContext.getReverseEngine().execute(requestContext, paymentCollectionInput);
+    }
+
+    @Override
+    public PaymentCollectionOutput performRefund(RequestContext requestContext,
+	    PaymentCollectionInput paymentCollectionInput) {
+	return paymentServiceContext.getRefundEngine().execute(requestContext, paymentCollectionInput);
+    }
+
+    @Override
+    public PaymentCollectionOutput amendAuthorization(RequestContext requestContext,
+	    PaymentCollectionInput paymentCollectionInput) {
+	return paymentServiceContext.getAmendAuthEngine().execute(requestContext, paymentCollectionInput);
+    }
+
+    @Override
+    public PaymentCollectionOutput processPayment(RequestContext requestContext,
+	    PaymentCollectionInput paymentCollectionInput) {
+	return paymentServiceContext.getProcessPaymentEngine().execute(requestContext, paymentCollectionInput);
+    }
+
+    @Override
+    public PaymentCollectionOutput postProcess(RequestContext requestContext, PaymentCollectionOutput paymentOutput) {
+	return paymentOutput;
+    }
+}
@@ -0,0 +1,121 @@
+/*
+IBM Confidential
+IBM Sterling OMS Payment Integration Adapter
+(C) Copyright IBM Corp. 2022
+Licensed under the Apache License, Version 2.0 (the "License");
+you may not use this file except in compliance with the License.
+http://www.apache.org/licenses/LICENSE-2.0
+Unless required by applicable law or agreed to in writing, software
+distributed under the License is distributed on an "AS IS" BASIS,
+WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+See the License for the specific language governing permissions and
+limitations under the License.
+*/
+package com.ibm.adapter.benchmarks;
+
+import java.math.BigDecimal;
+
+import com.ibm.adapter.enums.TransactionType;
+import com.ibm.adapter.payment.model.PaymentCollectionInput;
+
+/**
+ * Sample payloads shared by the benchmarks. The inputs are built the same way
+ * OMS builds them, and the responses are the bodies returned by the Adyen
+ * checkout API for the respective service type.
+ */
+public final class BenchmarkData {
+
+    public static final String PSP_REFERENCE = "CXXHRJJWKXSKGK82";
+
+    public static final String AUTH_RESPONSE = "{\"pspReference\":\"D84R7TVTWTTFWR82\",\"resultCode\":\"Authorised\","
+	    + "\"amount\":{\"currency\":\"USD\",\"value\":50000},\"merchantReference\":\"Y100000003\"}";
+
+    public static final String CAPTURE_RESPONSE = "{\"merchantAccount\":\"IBMAccount480ECOM\","
+	    + "\"paymentPspReference\":\"" + PSP_REFERENCE + "\",\"pspReference\":\"TDL4B4549L2GWR82\","
+	    + "\"reference\":\"Y100000003\",\"status\":\"received\",\"amount\":{\"currency\":\"USD\",\"value\":50000}}";
+
+    public static final String REFUND_RESPONSE = "{\"merchantAccount\":\"IBMAccount480ECOM\","
+	    + "\"paymentPspReference\":\"" + PSP_REFERENCE + "\",\"pspReference\":\"KR4L4BQ3J8QRWR82\","
+	    + "\"reference\":\"Y100000003\",\"status\":\"received\",\"amount\":{\"currency\":\"USD\",\"value\":10000}}";
+
+    public static final String REVERSE_RESPONSE = "{\"merchantAccount\":\"IBMAccount480ECOM\","
+	    + "\"paymentPspReference\":\"" + PSP_REFERENCE + "\",\"pspReference\":\"G6FG5T6QTRRXGN82\","
+	    + "\"reference\":\"Y100000003\",\"status\":\"received\"}";
+
+    public static final String AMEND_AUTH_RESPONSE = "{\"merchantAccount\":\"IBMAccount480ECOM\","
+	    + "\"paymentPspReference\":\"" + PSP_REFERENCE + "\",\"pspReference\":\"M3NKZ5JTJ5RXGN82\","
+	    + "\"reference\":\"Y100000003\",\"status\":\"received\",\"amount\":{\"currency\":\"USD\",\"value\":40000}}";
+
+    private BenchmarkData() {
+    }
+
+    /**
+     * @return The input of a charge of 500 USD against an existing authorisation,
+     *         determined as CAPTURE.
+     */
+    public static PaymentCollectionInput captureInput() {
+	PaymentCollectionInput paymentCollectionInput = authorizedInput();
+	paymentCollectionInput.setTransactionType(TransactionType.CHARGE.name());
+	paymentCollectionInput.setRequestAmount(new BigDecimal("500.00"));
+	return paymentCollectionInput;
+    }
+
+    /**
+     * @return The input of a refund of 100 USD, determined as REFUND.
+     */
+    public static PaymentCollectionInput refundInput() {
+	PaymentCollectionInput paymentCollectionInput = authorizedInput();
+	paymentCollectionInput.setTransactionType(TransactionType.CHARGE.name());
+	paymentCollectionInput.setRequestAmount(new BigDecimal("-100.00"));
+	return paymentCollectionInput;
+    }
+
+    /**
+     * @return The input of the cancellation of the whole authorisation, determined
+     *         as REVERSE.
+     */
+    public static PaymentCollectionInput reverseInput() {
+	PaymentCollectionInput paymentCollectionInput = authorizedInput();
+	paymentCollectionInput.setTransactionType(TransactionType.AUTHORIZATION.name());
+	paymentCollectionInput.setRequestAmount(new BigDecimal("-500.00"));
+	return paymentCollectionInput;
+    }
+
+    /**
+     * @return The input of a decrease of the authorisation by 100 USD, determined
+     *         as AMEND_AUTHORIZATION.
+     */
+    public static PaymentCollectionInput amendAuthInput() {
+	PaymentCollectionInput paymentCollectionInput = authorizedInput();
+	paymentCollectionInput.setTransactionType(TransactionType.AUTHORIZATION.name());
+	paymentCollectionInput.setRequestAmount(new BigDecimal("-100.00"));
+	return paymentCollectionInput;
+    }
+
+    /**
+     * @return The input of a new authorisation of 500 USD, determined as
+     *         PROCESS_PAYMENTS.
+     */
+    public static PaymentCollectionInput processPaymentInput() {
+	PaymentCollectionInput paymentCollectionInput = authorizedInput();
+	paymentCollectionInput.setTransactionType(TransactionType.AUTHORIZATION.name());
+	paymentCollectionInput.setRequestAmount(new BigDecimal("500.00"));
+	paymentCollectionInput.setAuthorizationId(null);
+	paymentCollectionInput.setPaymentReference2("HGDSYYI12223");
+	paymentCollectionInput.setPaymentReference3("8415995487234100");
+	return paymentCollectionInput;
+    }
+
+    private static PaymentCollectionInput authorizedInput() {
+	PaymentCollectionInput paymentCollectionInput = new PaymentCollectionInput();
+	paymentCollectionInput.setAuthorizationId(PSP_REFERENCE);
+	paymentCollectionInput.setPaymentReference(PSP_REFERENCE);
+	paymentCollectionInput.setMerchantId("IBMAccount480ECOM");
+	paymentCollectionInput.setPaymentKey("Y100000003");
+	paymentCollectionInput.setOrderNo("Y100000003");
+	paymentCollectionInput.setCurrency("USD");
+	paymentCollectionInput.setPaymentType("scheme");
+	paymentCollectionInput.setAuthorizedAmount(new BigDecimal("500.00"));
+	return paymentCollectionInput;
+    }
+}
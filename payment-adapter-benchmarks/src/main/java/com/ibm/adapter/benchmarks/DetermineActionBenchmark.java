@@ -0,0 +1,61 @@
+/*
+IBM Confidential
+IBM Sterling OMS Payment Integration Adapter
+(C) Copyright IBM Corp. 2022
+Licensed under the Apache License, Version 2.0 (the "License");
+you may not use this file except in compliance with the License.
+http://www.apache.org/licenses/LICENSE-2.0
+Unless required by applicable law or agreed to in writing, software
+distributed under the License is distributed on an "AS IS" BASIS,
+WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+See the License for the specific language governing permissions and
+limitations under the License.
+*/
+package com.ibm.adapter.benchmarks;
+
+import java.util.concurrent.TimeUnit;
+
+import com.ibm.adapter.payment.model.PaymentCollectionInput;
+import com.ibm.adapter.util.ServiceUtils;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Benchmarks of {@link ServiceUtils#determineAction(PaymentCollectionInput)}
+ * for the first and the last action it evaluates.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class DetermineActionBenchmark {
+
+    private PaymentCollectionInput reverseInput;
+    private PaymentCollectionInput processPaymentInput;
+
+    @Setup
+    public void setup() {
+	reverseInput = BenchmarkData.reverseInput();
+	processPaymentInput = BenchmarkData.processPaymentInput();
+    }
+
+    @Benchmark
+    public String reverse() {
+	return ServiceUtils.determineAction(reverseInput);
+    }
+
+    @Benchmark
+    public String processPayments() {
+	return ServiceUtils.determineAction(processPaymentInput);
+    }
+}
@@ -0,0 +1,95 @@
+/*
+IBM Confidential
+IBM Sterling OMS Payment Integration Adapter
+(C) Copyright IBM Corp. 2022
+Licensed under the Apache License, Version 2.0 (the "License");
+you may not use this file except in compliance with the License.
+http://www.apache.org/licenses/LICENSE-2.0
+Unless required by applicable law or agreed to in writing, software
+distributed under the License is distributed on an "AS IS" BASIS,
+WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+See the License for the specific language governing permissions and
+limitations under the License.
+*/
+package com.ibm.adapter.benchmarks;
+
+import java.util.concurrent.TimeUnit;
+
+import com.ibm.adapter.context.RequestContext;
+import com.ibm.adapter.payment.enums.ServiceType;
+import com.ibm.adapter.payment.model.PaymentCollectionInput;
+import com.ibm.adapter.payment.model.PaymentCollectionOutput;
+import com.ibm.payment.infra.util.IdempotentResponseCache;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * End to end benchmark of the adapter's execute method for each service type,
+ * from the determination of the action to the mapping of the Adyen response,
+ * against the in process {@link AdyenStub}.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class ExecuteBenchmark {
+
+    @Param({ "CAPTURE", "REFUND", "REVERSE", "AMEND_AUTHORIZATION", "PROCESS_PAYMENTS" })
+    private ServiceType serviceType;
+
+    private AdyenStub adyenStub;
+    private BenchmarkAdapter adapter;
+    private RequestContext requestContext;
+    private PaymentCollectionInput paymentCollectionInput;
+
+    @Setup(Level.Trial)
+    public void setup() throws Exception {
+	// the inputs are replayed with the same idempotency key, the cache would
+	// answer every call after the first without reaching the stub
+	IdempotentResponseCache.configure(0, 0);
+	adyenStub = new AdyenStub();
+	adyenStub.start();
+	adapter = new BenchmarkAdapter();
+	requestContext = new RequestContext();
+	requestContext.getProperties().put("content-type", "application/json");
+	paymentCollectionInput = input(serviceType);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws Exception {
+	adyenStub.shutdown();
+    }
+
+    @Benchmark
+    public PaymentCollectionOutput execute() {
+	return adapter.execute(requestContext, paymentCollectionInput);
+    }
+
+    static PaymentCollectionInput input(ServiceType serviceType) {
+	switch (serviceType) {
+	case CAPTURE:
+	    return BenchmarkData.captureInput();
+	case REFUND:
+	    return BenchmarkData.refundInput();
+	case REVERSE:
+	    return BenchmarkData.reverseInput();
+	case AMEND_AUTHORIZATION:
+	    return BenchmarkData.amendAuthInput();
+	default:
+	    return BenchmarkData.processPaymentInput();
+	}
+    }
+}
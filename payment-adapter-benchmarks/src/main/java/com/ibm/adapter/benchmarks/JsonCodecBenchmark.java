@@ -0,0 +1,76 @@
+/*
+IBM Confidential
+IBM Sterling OMS Payment Integration Adapter
+(C) Copyright IBM Corp. 2022
+Licensed under the Apache License, Version 2.0 (the "License");
+you may not use this file except in compliance with the License.
+http://www.apache.org/licenses/LICENSE-2.0
+Unless required by applicable law or agreed to in writing, software
+distributed under the License is distributed on an "AS IS" BASIS,
+WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+See the License for the specific language governing permissions and
+limitations under the License.
+*/
+package com.ibm.adapter.benchmarks;
+
+import java.util.concurrent.TimeUnit;
+
+import com.ibm.model.adyen.AdyenRequest;
+import com.ibm.model.adyen.AdyenResponse;
+import com.ibm.payment.infra.mapper.PaymentToAdyenRequestMapper;
+import com.ibm.payment.infra.response.RestHttpClientResponse;
+import com.ibm.payment.infra.util.InfraServiceUtils;
+import com.ibm.payment.infra.util.JsonCodec;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Benchmarks of the Jackson encoding of the Adyen request, as done by the
+ * StandardHttpClient, and of the decoding of the Adyen response, as done by
+ * {@link InfraServiceUtils#getResponse(RestHttpClientResponse)}.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class JsonCodecBenchmark {
+
+    private AdyenRequest captureRequest;
+    private AdyenRequest paymentsRequest;
+    private RestHttpClientResponse captureResponse;
+
+    @Setup
+    public void setup() {
+	captureRequest = PaymentToAdyenRequestMapper.MAPPER.paymentToAdyenCaptureReq(BenchmarkData.captureInput());
+	paymentsRequest = PaymentToAdyenRequestMapper.MAPPER
+		.paymentToAdyenPayments(BenchmarkData.processPaymentInput());
+	captureResponse = new RestHttpClientResponse();
+	captureResponse.setResponseCode(201);
+	captureResponse.setResponse(BenchmarkData.CAPTURE_RESPONSE);
+    }
+
+    @Benchmark
+    public String encodeCaptureRequest() throws Exception {
+	return JsonCodec.writeValueAsString(captureRequest);
+    }
+
+    @Benchmark
+    public String encodePaymentsRequest() throws Exception {
+	return JsonCodec.writeValueAsString(paymentsRequest);
+    }
+
+    @Benchmark
+    public AdyenResponse decodeCaptureResponse() {
+	return InfraServiceUtils.getResponse(captureResponse);
+    }
+}
@@ -0,0 +1,87 @@
+/*
+IBM Confidential
+IBM Sterling OMS Payment Integration Adapter
+(C) Copyright IBM Corp. 2022
+Licensed under the Apache License, Version 2.0 (the "License");
+you may not use this file except in compliance with the License.
+http://www.apache.org/licenses/LICENSE-2.0
+Unless required by applicable law or agreed to in writing, software
+distributed under the License is distributed on an "AS IS" BASIS,
+WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+See the License for the specific language governing permissions and
+limitations under the License.
+*/
+package com.ibm.adapter.benchmarks;
+
+import java.util.concurrent.TimeUnit;
+
+import com.ibm.adapter.payment.model.PaymentCollectionInput;
+import com.ibm.adapter.payment.model.PaymentCollectionOutput;
+import com.ibm.model.adyen.AdyenRequest;
+import com.ibm.model.adyen.AdyenResponse;
+import com.ibm.payment.infra.mapper.AdyenToPaymentResponseMapper;
+import com.ibm.payment.infra.mapper.PaymentToAdyenRequestMapper;
+import com.ibm.payment.infra.util.JsonCodec;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Benchmarks of the mapstruct mappers between the adapter's model and the Adyen
+ * request and response objects.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class MapperBenchmark {
+
+    private PaymentCollectionInput captureInput;
+    private PaymentCollectionInput amendAuthInput;
+    private PaymentCollectionInput processPaymentInput;
+    private AdyenResponse captureResponse;
+    private AdyenResponse authResponse;
+
+    @Setup
+    public void setup() throws Exception {
+	captureInput = BenchmarkData.captureInput();
+	amendAuthInput = BenchmarkData.amendAuthInput();
+	processPaymentInput = BenchmarkData.processPaymentInput();
+	captureResponse = JsonCodec.readAdyenResponse(BenchmarkData.CAPTURE_RESPONSE);
+	authResponse = JsonCodec.readAdyenResponse(BenchmarkData.AUTH_RESPONSE);
+    }
+
+    @Benchmark
+    public AdyenRequest captureRequest() {
+	return PaymentToAdyenRequestMapper.MAPPER.paymentToAdyenCaptureReq(captureInput);
+    }
+
+    @Benchmark
+    public AdyenRequest amountUpdatesRequest() {
+	return PaymentToAdyenRequestMapper.MAPPER.paymentToAdyenAmountUpdatesReq(amendAuthInput);
+    }
+
+    @Benchmark
+    public AdyenRequest paymentsRequest() {
+	return PaymentToAdyenRequestMapper.MAPPER.paymentToAdyenPayments(processPaymentInput);
+    }
+
+    @Benchmark
+    public PaymentCollectionOutput captureResponse() {
+	return AdyenToPaymentResponseMapper.MAPPER.adyenToPaymentCaptureResponse(captureResponse);
+    }
+
+    @Benchmark
+    public PaymentCollectionOutput paymentsResponse() {
+	return AdyenToPaymentResponseMapper.MAPPER.adyenToPaymentsResponse(authResponse);
+    }
+}
@@ -0,0 +1,210 @@
+/*
+IBM Confidential
+IBM Sterling OMS Payment Integration Adapter
+(C) Copyright IBM Corp. 2022
+Licensed under the Apache License, Version 2.0 (the "License");
+you may not use this file except in compliance with the License.
+http://www.apache.org/licenses/LICENSE-2.0
+Unless required by applicable law or agreed to in writing, software
+distributed under the License is distributed on an "AS IS" BASIS,
+WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+See the License for the specific language governing permissions and
+limitations under the License.
+*/
+package com.ibm.payment.infra.client;
+
+import java.util.concurrent.TimeUnit;
+import java.util.function.LongSupplier;
+
+import com.ibm.payment.infra.exception.PaymentRejectedException;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+/**
+ * AdaptiveRateLimiter class limits the calls of a merchant account to the
+ * payment provider, so the adapter stays under the throttling limits of the
+ * payment provider instead of discovering them as failed payments.
+ * <ul>
+ * <li>The calls take their turn from a token bucket refilled at the current
+ * rate, holding up to one second of calls.</li>
+ * <li>A call finding no token waits for its turn up to ratelimitmaxwait
+ * milliseconds, or is rejected with {@link PaymentRejectedException} so the
+ * payment is marked for retry.</li>
+ * <li>The rate is multiplied by ratelimitdecrease on a 429 or 503 response, at
+ * most once a second, and the calls are held back for the Retry-After delay
+ * sent by the payment provider.</li>
+ * <li>The rate is increased by ratelimitincrease for each second of successful
+ * calls, up to ratelimitmaxrate.</li>
+ * </ul>
+ */
+public class AdaptiveRateLimiter {
+
+    private static final Logger logger = LogManager.getLogger(AdaptiveRateLimiter.class);
+
+    private static final long NANOS_PER_SECOND = TimeUnit.SECONDS.toNanos(1);
+
+    private final String name;
+
+    private final RateLimiterConfig config;
+
+    private final LongSupplier nanoClock;
+
+    private double rate;
+
+    private double tokens;
+
+    private long lastRefill;
+
+    private long lastDecrease;
+
+    private long delayedCalls;
+
+    private long rejectedCalls;
+
+    private long throttledResponses;
+
+    /**
+     * Constructor creates the rate limiter of a merchant account starting at the
+     * maximum rate.
+     * 
+     * @param name   Holds the name of the merchant account, used in the logs.
+     * @param config Holds the {@link RateLimiterConfig} object.
+     */
+    public AdaptiveRateLimiter(String name, RateLimiterConfig config) {
+	this(name, config, System::nanoTime);
+    }
+
+    AdaptiveRateLimiter(String name, RateLimiterConfig config, LongSupplier nanoClock) {
+	this.name = name;
+	this.config = config;
+	this.nanoClock = nanoClock;
+	this.rate = config.getMaxRate();
+	this.tokens = Math.max(1, rate);
+	this.lastRefill = nanoClock.getAsLong();
+	this.lastDecrease = lastRefill - NANOS_PER_SECOND;
+    }
+
+    /**
+     * Method used to take the turn of a call, waiting up to ratelimitmaxwait
+     * milliseconds for it.
+     * 
+     * @throws PaymentRejectedException if the turn is beyond the maximum wait
+     *                                  or the thread is interrupted.
+     */
+    public void acquire() {
+	long waitNanos = reserve(TimeUnit.MILLISECONDS.toNanos(config.getMaxWait()));
+	if (waitNanos > 0) {
+	    try {
+		TimeUnit.NANOSECONDS.sleep(waitNanos);
+	    } catch (InterruptedException e) {
+		Thread.currentThread().interrupt();
+		throw new PaymentRejectedException("Interrupted while waiting for the rate limit of " + name);
+	    }
+	}
+    }
+
+    /**
+     * Method used to take the turn of a call without waiting, used by the
+     * asynchronous calls which must not block the calling thread.
+     * 
+     * @throws PaymentRejectedException if no call is permitted now.
+     */
+    public void tryAcquire() {
+	reserve(0);
+    }
+
+    /**
+     * Method used to reserve the next turn.
+     * 
+     * @param maxWaitNanos Holds the maximum nanoseconds the call can wait.
+     * @return The nanoseconds the call has to wait for its turn.
+     * @throws PaymentRejectedException if the turn is beyond the maximum wait.
+     */
+    synchronized long reserve(long maxWaitNanos) {
+	refill(nanoClock.getAsLong());
+	if (tokens >= 1) {
+	    tokens--;
+	    return 0;
+	}
+	long waitNanos = (long) ((1 - tokens) / rate * NANOS_PER_SECOND);
+	if (waitNanos > maxWaitNanos) {
+	    rejectedCalls++;
+	    throw new PaymentRejectedException("Rate limit of " + name + " exceeded, current rate "
+		    + String.format("%.1f", rate) + " calls per second");
+	}
+	tokens--;
+	delayedCalls++;
+	return waitNanos;
+    }
+
+    private void refill(long now) {
+	tokens = Math.min(Math.max(1, rate), tokens + (now - lastRefill) * rate / NANOS_PER_SECOND);
+	lastRefill = now;
+    }
+
+    /**
+     * Method used to increase the rate after a successful call, so that the rate
+     * grows by ratelimitincrease for each second of successful calls.
+     */
+    public synchronized void onSuccess() {
+	if (rate < config.getMaxRate()) {
+	    rate = Math.min(config.getMaxRate(), rate + config.getRateIncrease() / rate);
+	}
+    }
+
+    /**
+     * Method used to decrease the rate after a 429 or 503 response.
+     * 
+     * @param retryAfterMillis Holds the Retry-After delay of the response in
+     *                         milliseconds, 0 if it is not sent.
+     */
+    public synchronized void onThrottled(long retryAfterMillis) {
+	long now = nanoClock.getAsLong();
+	throttledResponses++;
+	refill(now);
+	// the responses of the calls sent before the last decrease are already accounted
+	if (now - lastDecrease >= NANOS_PER_SECOND) {
+	    lastDecrease = now;
+	    rate = Math.max(config.getMinRate(), rate * config.getRateDecrease());
+	    tokens = Math.min(tokens, Math.max(1, rate));
+	    logger.warn("AdaptiveRateLimiter - {} is throttled, rate decreased to {} calls per second", name,
+		    String.format("%.1f", rate));
+	}
+	if (retryAfterMillis > 0) {
+	    tokens = Math.min(tokens, -rate * retryAfterMillis / 1000);
+	}
+    }
+
+    public String getName() {
+	return name;
+    }
+
+    /**
+     * @return The current rate in calls per second.
+     */
+    public synchronized double getRate() {
+	return rate;
+    }
+
+    /**
+     * @return The number of the calls which waited for their turn.
+     */
+    public synchronized long getDelayedCalls() {
+	return delayedCalls;
+    }
+
+    /**
+     * @return The number of the calls rejected by the rate limit.
+     */
+    public synchronized long getRejectedCalls() {
+	return rejectedCalls;
+    }
+
+    /**
+     * @return The number of the 429 and 503 responses.
+     */
+    public synchronized long getThrottledResponses() {
+	return throttledResponses;
+    }
+
+}
@@ -0,0 +1,65 @@
+/*
+IBM Confidential
+IBM Sterling OMS Payment Integration Adapter
+(C) Copyright IBM Corp. 2022
+Licensed under the Apache License, Version 2.0 (the "License");
+you may not use this file except in compliance with the License.
+http://www.apache.org/licenses/LICENSE-2.0
+Unless required by applicable law or agreed to in writing, software
+distributed under the License is distributed on an "AS IS" BASIS,
+WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+See the License for the specific language governing permissions and
+limitations under the License.
+*/
+package com.ibm.payment.infra.client;
+
+import java.io.ByteArrayOutputStream;
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * CapturingInputStream class keeps a copy of the first bytes read from the
+ * response stream, bounded by the capture buffer size, so that the response
+ * can still be logged in the streaming mode without buffering the whole body.
+ */
+class CapturingInputStream extends FilterInputStream {
+
+    private final ByteArrayOutputStream captured;
+
+    private final int limit;
+
+    CapturingInputStream(InputStream in, int limit) {
+	super(in);
+	this.limit = limit;
+	this.captured = new ByteArrayOutputStream(Math.min(limit, 1024));
+    }
+
+    @Override
+    public int read() throws IOException {
+	int b = super.read();
+	if (b != -1 && captured.size() < limit) {
+	    captured.write(b);
+	}
+	return b;
+    }
+
+    @Override
+    public int read(byte[] b, int off, int len) throws IOException {
+	int count = super.read(b, off, len);
+	if (count > 0 && captured.size() < limit) {
+	    captured.write(b, off, Math.min(count, limit - captured.size()));
+	}
+	return count;
+    }
+
+    /**
+     * Method used to get the captured part of the response.
+     * 
+     * @return The captured bytes as UTF-8 string.
+     */
+    String getCaptured() {
+	return new String(captured.toByteArray(), StandardCharsets.UTF_8);
+    }
+}
@@ -0,0 +1,235 @@
+/*
+IBM Confidential
+IBM Sterling OMS Payment Integration Adapter
+(C) Copyright IBM Corp. 2022
+Licensed under the Apache License, Version 2.0 (the "License");
+you may not use this file except in compliance with the License.
+http://www.apache.org/licenses/LICENSE-2.0
+Unless required by applicable law or agreed to in writing, software
+distributed under the License is distributed on an "AS IS" BASIS,
+WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+See the License for the specific language governing permissions and
+limitations under the License.
+*/
+package com.ibm.payment.infra.client;
+
+import java.util.concurrent.TimeUnit;
+import java.util.function.LongSupplier;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+/**
+ * CircuitBreaker class guards an endpoint of the payment provider, so the
+ * payment calls fail fast while the endpoint is failing instead of waiting for
+ * the socket timeout on every call.
+ * <ul>
+ * <li>CLOSED - the calls are permitted and their outcomes are kept in a
+ * sliding window of the last circuitbreakerwindowsize calls. The circuit is
+ * opened when the failure rate or the slow call rate of the window reaches its
+ * threshold.</li>
+ * <li>OPEN - the calls are rejected until circuitbreakeropenduration
+ * milliseconds have elapsed.</li>
+ * <li>HALF_OPEN - circuitbreakerhalfopencalls trial calls are permitted. The
+ * circuit is closed if their rates stay below the thresholds, or opened
+ * again. The trial calls are counted apart from the sliding window, so the
+ * rates of the last circuitbreakerwindowsize trial calls decide when more
+ * trial calls than the window size are configured.</li>
+ * </ul>
+ * The calls failing with an I/O error or a 5xx response are counted as failed.
+ * The outcomes of the calls completing while the circuit is open are ignored.
+ */
+public class CircuitBreaker {
+
+    private static final Logger logger = LogManager.getLogger(CircuitBreaker.class);
+
+    private static final byte FAILED = 1;
+
+    private static final byte SLOW = 2;
+
+    public enum State {
+	CLOSED, OPEN, HALF_OPEN
+    }
+
+    private final String name;
+
+    private final CircuitBreakerConfig config;
+
+    private final LongSupplier nanoClock;
+
+    private final long slowCallNanos;
+
+    private final long openStateNanos;
+
+    private final byte[] window;
+
+    private volatile State state = State.CLOSED;
+
+    private int windowIndex;
+
+    private int totalCalls;
+
+    private int failedCalls;
+
+    private int slowCalls;
+
+    private int halfOpenPermits;
+
+    private int halfOpenCalls;
+
+    private long openedAt;
+
+    private long notPermittedCalls;
+
+    /**
+     * Constructor creates the closed circuit breaker of an endpoint.
+     * 
+     * @param name   Holds the name of the endpoint, used in the logs.
+     * @param config Holds the {@link CircuitBreakerConfig} of the endpoint.
+     */
+    public CircuitBreaker(String name, CircuitBreakerConfig config) {
+	this(name, config, System::nanoTime);
+    }
+
+    CircuitBreaker(String name, CircuitBreakerConfig config, LongSupplier nanoClock) {
+	this.name = name;
+	this.config = config;
+	this.nanoClock = nanoClock;
+	this.slowCallNanos = TimeUnit.MILLISECONDS.toNanos(config.getSlowCallDuration());
+	this.openStateNanos = TimeUnit.MILLISECONDS.toNanos(config.getOpenStateDuration());
+	this.window = new byte[Math.max(1, config.getSlidingWindowSize())];
+    }
+
+    /**
+     * Method used to acquire the permission to call the endpoint. A permitted
+     * call must report its outcome to {@link #onSuccess(long)} or
+     * {@link #onFailure(long)}, or give the permission back by
+     * {@link #releasePermission()} if the call was not sent.
+     * 
+     * @return true if the call is permitted, false if the circuit is open.
+     */
+    public boolean tryAcquirePermission() {
+	if (state == State.CLOSED) {
+	    return true;
+	}
+	synchronized (this) {
+	    if (state == State.OPEN && nanoClock.getAsLong() - openedAt >= openStateNanos) {
+		transitionTo(State.HALF_OPEN);
+	    }
+	    if (state == State.CLOSED) {
+		return true;
+	    }
+	    if (state == State.HALF_OPEN && halfOpenPermits > 0) {
+		halfOpenPermits--;
+		return true;
+	    }
+	    notPermittedCalls++;
+	    return false;
+	}
+    }
+
+    /**
+     * Method used to give back the permission of a call which did not reach the
+     * endpoint.
+     */
+    public synchronized void releasePermission() {
+	if (state == State.HALF_OPEN) {
+	    halfOpenPermits++;
+	}
+    }
+
+    /**
+     * Method used to record a call completed by the endpoint.
+     * 
+     * @param durationNanos Holds the duration of the call in nanoseconds.
+     */
+    public void onSuccess(long durationNanos) {
+	record(durationNanos >= slowCallNanos ? SLOW : 0);
+    }
+
+    /**
+     * Method used to record a call failed by an I/O error or a 5xx response.
+     * 
+     * @param durationNanos Holds the duration of the call in nanoseconds.
+     */
+    public void onFailure(long durationNanos) {
+	record((byte) (durationNanos >= slowCallNanos ? FAILED | SLOW : FAILED));
+    }
+
+    private synchronized void record(byte outcome) {
+	if (state == State.OPEN) {
+	    return;
+	}
+	if (totalCalls == window.length) {
+	    byte evicted = window[windowIndex];
+	    failedCalls -= evicted & FAILED;
+	    slowCalls -= (evicted & SLOW) >> 1;
+	} else {
+	    totalCalls++;
+	}
+	window[windowIndex] = outcome;
+	windowIndex = (windowIndex + 1) % window.length;
+	failedCalls += outcome & FAILED;
+	slowCalls += (outcome & SLOW) >> 1;
+
+	if (state == State.HALF_OPEN) {
+	    if (++halfOpenCalls >= config.getHalfOpenCalls()) {
+		transitionTo(isAboveThresholds() ? State.OPEN : State.CLOSED);
+	    }
+	} else if (totalCalls >= config.getMinimumNumberOfCalls() && isAboveThresholds()) {
+	    transitionTo(State.OPEN);
+	}
+    }
+
+    private boolean isAboveThresholds() {
+	return failedCalls * 100L >= (long) config.getFailureRateThreshold() * totalCalls
+		|| slowCalls * 100L >= (long) config.getSlowCallRateThreshold() * totalCalls;
+    }
+
+    private void transitionTo(State newState) {
+	if (newState == State.OPEN) {
+	    logger.warn("CircuitBreaker - {} is opened for {} ms, failed calls {}/{}, slow calls {}/{}", name,
+		    config.getOpenStateDuration(), failedCalls, totalCalls, slowCalls, totalCalls);
+	    openedAt = nanoClock.getAsLong();
+	} else {
+	    logger.warn("CircuitBreaker - {} is {}", name, newState);
+	}
+	state = newState;
+	halfOpenPermits = newState == State.HALF_OPEN ? Math.max(1, config.getHalfOpenCalls()) : 0;
+	halfOpenCalls = 0;
+	windowIndex = 0;
+	totalCalls = 0;
+	failedCalls = 0;
+	slowCalls = 0;
+    }
+
+    public String getName() {
+	return name;
+    }
+
+    public State getState() {
+	return state;
+    }
+
+    /**
+     * @return The number of the calls rejected while the circuit was open.
+     */
+    public synchronized long getNotPermittedCalls() {
+	return notPermittedCalls;
+    }
+
+    /**
+     * @return The percent of the failed calls in the sliding window.
+     */
+    public synchronized float getFailureRate() {
+	return totalCalls == 0 ? 0 : failedCalls * 100f / totalCalls;
+    }
+
+    /**
+     * @return The percent of the slow calls in the sliding window.
+     */
+    public synchronized float getSlowCallRate() {
+	return totalCalls == 0 ? 0 : slowCalls * 100f / totalCalls;
+    }
+
+}
@@ -0,0 +1,167 @@
+/*
+IBM Confidential
+IBM Sterling OMS Payment Integration Adapter
+(C) Copyright IBM Corp. 2022
+Licensed under the Apache License, Version 2.0 (the "License");
+you may not use this file except in compliance with the License.
+http://www.apache.org/licenses/LICENSE-2.0
+Unless required by applicable law or agreed to in writing, software
+distributed under the License is distributed on an "AS IS" BASIS,
+WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+See the License for the specific language governing permissions and
+limitations under the License.
+*/
+package com.ibm.payment.infra.client;
+
+import java.util.Properties;
+
+/**
+ * CircuitBreakerConfig class holds the configurations of the
+ * {@link CircuitBreaker} guarding an endpoint of the payment provider. The
+ * values are loaded from the payment provider's properties file, each property
+ * can be overridden for an endpoint by suffixing its key with the API name,
+ * e.g. circuitbreakerfailurerate.CAPTURE. The default values are used if they
+ * are not configured.
+ * <ul>
+ * <li>circuitbreakerenabled - false to disable the circuit breakers.</li>
+ * <li>circuitbreakerfailurerate - percent of failed calls in the sliding window
+ * at which the circuit is opened.</li>
+ * <li>circuitbreakerslowcallrate - percent of slow calls in the sliding window
+ * at which the circuit is opened.</li>
+ * <li>circuitbreakerslowcallduration - milliseconds after which a call is
+ * counted as slow.</li>
+ * <li>circuitbreakerwindowsize - number of the last calls kept in the sliding
+ * window.</li>
+ * <li>circuitbreakerminimumcalls - minimum calls in the sliding window before
+ * the rates are evaluated.</li>
+ * <li>circuitbreakeropenduration - milliseconds the circuit stays open before
+ * trial calls are permitted.</li>
+ * <li>circuitbreakerhalfopencalls - number of trial calls permitted while the
+ * circuit is half-open.</li>
+ * </ul>
+ */
+public class CircuitBreakerConfig {
+
+    public static final String CIRCUIT_BREAKER_ENABLED = "circuitbreakerenabled";
+    public static final String FAILURE_RATE_THRESHOLD = "circuitbreakerfailurerate";
+    public static final String SLOW_CALL_RATE_THRESHOLD = "circuitbreakerslowcallrate";
+    public static final String SLOW_CALL_DURATION = "circuitbreakerslowcallduration";
+    public static final String SLIDING_WINDOW_SIZE = "circuitbreakerwindowsize";
+    public static final String MINIMUM_NUMBER_OF_CALLS = "circuitbreakerminimumcalls";
+    public static final String OPEN_STATE_DURATION = "circuitbreakeropenduration";
+    public static final String HALF_OPEN_CALLS = "circuitbreakerhalfopencalls";
+
+    private boolean enabled = true;
+
+    private int failureRateThreshold = 50;
+
+    private int slowCallRateThreshold = 100;
+
+    private long slowCallDuration = 10000;
+
+    private int slidingWindowSize = 50;
+
+    private int minimumNumberOfCalls = 20;
+
+    private long openStateDuration = 30000;
+
+    private int halfOpenCalls = 5;
+
+    /**
+     * Method used to create the circuit breaker configurations of an endpoint
+     * from the payment provider's properties.
+     * 
+     * @param properties Holds the payment provider's properties.
+     * @param apiName    Holds the API name of the endpoint, or null for the
+     *                   configurations shared by all the endpoints.
+     * @return The {@link CircuitBreakerConfig} object.
+     */
+    public static CircuitBreakerConfig fromProperties(Properties properties, String apiName) {
+	CircuitBreakerConfig config = new CircuitBreakerConfig();
+	config.setEnabled(Boolean.parseBoolean(getProperty(properties, CIRCUIT_BREAKER_ENABLED, apiName, "true")));
+	config.setFailureRateThreshold(
+		Integer.parseInt(getProperty(properties, FAILURE_RATE_THRESHOLD, apiName, "50")));
+	config.setSlowCallRateThreshold(
+		Integer.parseInt(getProperty(properties, SLOW_CALL_RATE_THRESHOLD, apiName, "100")));
+	config.setSlowCallDuration(Long.parseLong(getProperty(properties, SLOW_CALL_DURATION, apiName, "10000")));
+	config.setSlidingWindowSize(Integer.parseInt(getProperty(properties, SLIDING_WINDOW_SIZE, apiName, "50")));
+	config.setMinimumNumberOfCalls(
+		Integer.parseInt(getProperty(properties, MINIMUM_NUMBER_OF_CALLS, apiName, "20")));
+	config.setOpenStateDuration(Long.parseLong(getProperty(properties, OPEN_STATE_DURATION, apiName, "30000")));
+	config.setHalfOpenCalls(Integer.parseInt(getProperty(properties, HALF_OPEN_CALLS, apiName, "5")));
+	return config;
+    }
+
+    private static String getProperty(Properties properties, String key, String apiName, String defaultValue) {
+	String value = apiName == null ? null : properties.getProperty(key + "." + apiName);
+	if (value == null) {
+	    value = properties.getProperty(key, defaultValue);
+	}
+	return value.trim();
+    }
+
+    public boolean isEnabled() {
+	return enabled;
+    }
+
+    public void setEnabled(boolean enabled) {
+	this.enabled = enabled;
+    }
+
+    public int getFailureRateThreshold() {
+	return failureRateThreshold;
+    }
+
+    public void setFailureRateThreshold(int failureRateThreshold) {
+	this.failureRateThreshold = failureRateThreshold;
+    }
+
+    public int getSlowCallRateThreshold() {
+	return slowCallRateThreshold;
+    }
+
+    public void setSlowCallRateThreshold(int slowCallRateThreshold) {
+	this.slowCallRateThreshold = slowCallRateThreshold;
+    }
+
+    public long getSlowCallDuration() {
+	return slowCallDuration;
+    }
+
+    public void setSlowCallDuration(long slowCallDuration) {
+	this.slowCallDuration = slowCallDuration;
+    }
+
+    public int getSlidingWindowSize() {
+	return slidingWindowSize;
+    }
+
+    public void setSlidingWindowSize(int slidingWindowSize) {
+	this.slidingWindowSize = slidingWindowSize;
+    }
+
+    public int getMinimumNumberOfCalls() {
+	return minimumNumberOfCalls;
+    }
+
+    public void setMinimumNumberOfCalls(int minimumNumberOfCalls) {
+	this.minimumNumberOfCalls = minimumNumberOfCalls;
+    }
+
+    public long getOpenStateDuration() {
+	return openStateDuration;
+    }
+
+    public void setOpenStateDuration(long openStateDuration) {
+	this.openStateDuration = openStateDuration;
+    }
+
+    public int getHalfOpenCalls() {
+	return halfOpenCalls;
+    }
+
+    public void setHalfOpenCalls(int halfOpenCalls) {
+	this.halfOpenCalls = halfOpenCalls;
+    }
+
+}
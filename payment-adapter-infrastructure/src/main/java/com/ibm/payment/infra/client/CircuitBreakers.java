@@ -0,0 +1,92 @@
+/*
+IBM Confidential
+IBM Sterling OMS Payment Integration Adapter
+(C) Copyright IBM Corp. 2022
+Licensed under the Apache License, Version 2.0 (the "License");
+you may not use this file except in compliance with the License.
+http://www.apache.org/licenses/LICENSE-2.0
+Unless required by applicable law or agreed to in writing, software
+distributed under the License is distributed on an "AS IS" BASIS,
+WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+See the License for the specific language governing permissions and
+limitations under the License.
+*/
+package com.ibm.payment.infra.client;
+
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+import com.ibm.payment.infra.exception.PaymentRejectedException;
+
+/**
+ * CircuitBreakers class holds the {@link CircuitBreaker} of each endpoint
+ * called by a HttpClient, created on the first call of the endpoint.
+ */
+class CircuitBreakers {
+
+    private final String clientName;
+
+    private final HttpClientConfig httpClientConfig;
+
+    private final ConcurrentMap<String, CircuitBreaker> circuitBreakers = new ConcurrentHashMap<>();
+
+    CircuitBreakers(String clientName, HttpClientConfig httpClientConfig) {
+	this.clientName = clientName;
+	this.httpClientConfig = httpClientConfig;
+    }
+
+    /**
+     * @param apiName Holds the API name of the endpoint.
+     * @return The {@link CircuitBreaker} of the endpoint, or null if the circuit
+     *         breaker is disabled for the endpoint.
+     */
+    CircuitBreaker get(String apiName) {
+	CircuitBreaker circuitBreaker = circuitBreakers.get(apiName);
+	if (circuitBreaker == null) {
+	    CircuitBreakerConfig config = httpClientConfig.getCircuitBreakerConfig(apiName);
+	    if (!config.isEnabled()) {
+		return null;
+	    }
+	    circuitBreaker = circuitBreakers.computeIfAbsent(apiName,
+		    name -> new CircuitBreaker(clientName + "-" + name, config));
+	}
+	return circuitBreaker;
+    }
+
+    /**
+     * Method used to acquire the permission to call the endpoint.
+     * 
+     * @param apiName Holds the API name of the endpoint.
+     * @return The {@link CircuitBreaker} of the endpoint which permitted the call,
+     *         or null if the circuit breaker is disabled.
+     * @throws PaymentRejectedException if the circuit of the endpoint is open.
+     */
+    CircuitBreaker acquirePermission(String apiName) {
+	CircuitBreaker circuitBreaker = get(apiName);
+	if (circuitBreaker != null && !circuitBreaker.tryAcquirePermission()) {
+	    throw new PaymentRejectedException("Circuit breaker is open for the endpoint " + apiName);
+	}
+	return circuitBreaker;
+    }
+
+    /**
+     * Method used to record the response of a permitted call, the 5xx responses
+     * are counted as failed.
+     * 
+     * @param circuitBreaker Holds the {@link CircuitBreaker} of the endpoint, or
+     *                       null if it is disabled.
+     * @param httpStatus     Holds the status code of the response.
+     * @param durationNanos  Holds the duration of the call in nanoseconds.
+     */
+    static void onResponse(CircuitBreaker circuitBreaker, int httpStatus, long durationNanos) {
+	if (circuitBreaker == null) {
+	    return;
+	}
+	if (httpStatus >= 500) {
+	    circuitBreaker.onFailure(durationNanos);
+	} else {
+	    circuitBreaker.onSuccess(durationNanos);
+	}
+    }
+
+}
@@ -0,0 +1,333 @@
+/*
+IBM Confidential
+IBM Sterling OMS Payment Integration Adapter
+(C) Copyright IBM Corp. 2022
+Licensed under the Apache License, Version 2.0 (the "License");
+you may not use this file except in compliance with the License.
+http://www.apache.org/licenses/LICENSE-2.0
+Unless required by applicable law or agreed to in writing, software
+distributed under the License is distributed on an "AS IS" BASIS,
+WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+See the License for the specific language governing permissions and
+limitations under the License.
+*/
+package com.ibm.payment.infra.client;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReentrantLock;
+
+import org.HdrHistogram.Histogram;
+import org.HdrHistogram.Recorder;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import com.ibm.payment.infra.metrics.HedgingMetrics;
+import com.ibm.payment.infra.metrics.PaymentMetrics;
+import com.ibm.payment.infra.response.RestHttpClientResponse;
+import com.ibm.payment.infra.util.IdempotencyKeys;
+
+/**
+ * HedgedAsyncHttpClient class implements from {@link IAsyncRestHttpClient}
+ * interface, it sends a call to a secondary endpoint of the payment provider,
+ * such as another region, when the primary endpoint is slow or fails. <br>
+ * <ul>
+ * <li>The call is hedged when the primary endpoint has not answered within the
+ * configured percentile of its recent latencies, bounded by the minimum and
+ * maximum delays, so the latency of the call is at most the maximum delay plus
+ * the latency of the secondary endpoint.</li>
+ * <li>The call fails over to the secondary endpoint as soon as the primary
+ * endpoint fails with a connection error or a server error.</li>
+ * <li>The first successful (2xx) answer completes the call. A client error
+ * (4xx) of one endpoint waits for the other endpoint, as the payment provider
+ * answers a call still in flight under the same idempotency key with a client
+ * error. If neither endpoint succeeds, the call completes with the outcome of
+ * the primary endpoint.</li>
+ * </ul>
+ * Only the calls holding an {@link IdempotencyKeys#IDEMPOTENCY_KEY} are hedged,
+ * the same key is sent to both endpoints, so that the payment provider
+ * processes the payment once. The hedges after the delay are limited to the
+ * configured percent of the calls, the failovers are not limited.
+ *
+ * @param IRequest               Client specific input, request object of the
+ *                               various payment providers.
+ * @param IRequestPathParameters Client specific input, RequestPathParam object
+ *                               of the various payment providers.
+ */
+public class HedgedAsyncHttpClient<IRequest, IRequestPathParameters>
+	implements IAsyncRestHttpClient<IRequest, IRequestPathParameters>, Closeable {
+
+    private static final Logger logger = LogManager.getLogger(HedgedAsyncHttpClient.class);
+
+    private static final long MAX_LATENCY_MICROS = TimeUnit.MINUTES.toMicros(10);
+    // below this count of latencies the percentile is not representative
+    private static final long MIN_SAMPLES = 100;
+    private static final long RECOMPUTE_INTERVAL_NANOS = TimeUnit.SECONDS.toNanos(1);
+
+    private static final AtomicInteger clientCount = new AtomicInteger();
+
+    private final IAsyncRestHttpClient<IRequest, IRequestPathParameters> primaryClient;
+
+    private final IAsyncRestHttpClient<IRequest, IRequestPathParameters> secondaryClient;
+
+    private final HedgingConfig hedgingConfig;
+
+    private final HedgingMetrics hedgingMetrics;
+
+    private final ScheduledExecutorService scheduler;
+
+    private final Recorder primaryLatencyRecorder = new Recorder(MAX_LATENCY_MICROS, 2);
+
+    private final ReentrantLock recomputeLock = new ReentrantLock();
+
+    private final AtomicLong nextRecomputeTime = new AtomicLong(System.nanoTime());
+
+    private Histogram primaryLatencies;
+
+    private Histogram intervalHistogram;
+
+    private volatile long hedgeDelayMicros;
+
+    /**
+     * Constructor injects the clients of the primary and the secondary endpoints
+     * of the payment provider.
+     * 
+     * @param primaryClient   Holds the client of the primary endpoint.
+     * @param secondaryClient Holds the client of the secondary endpoint.
+     * @param hedgingConfig   Holds {@link HedgingConfig} object contains the
+     *                        hedging configurations.
+     */
+    public HedgedAsyncHttpClient(IAsyncRestHttpClient<IRequest, IRequestPathParameters> primaryClient,
+	    IAsyncRestHttpClient<IRequest, IRequestPathParameters> secondaryClient, HedgingConfig hedgingConfig) {
+	this.primaryClient = primaryClient;
+	this.secondaryClient = secondaryClient;
+	this.hedgingConfig = hedgingConfig;
+	String name = "HedgedAsyncHttpClient-" + clientCount.incrementAndGet();
+	this.hedgingMetrics = new HedgingMetrics(name);
+	this.hedgeDelayMicros = TimeUnit.MILLISECONDS.toMicros(hedgingConfig.getMaxDelay());
+	this.hedgingMetrics.setHedgeDelayMicros(hedgeDelayMicros);
+	this.scheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+	    Thread thread = new Thread(runnable, name);
+	    thread.setDaemon(true);
+	    return thread;
+	});
+	PaymentMetrics.registerHedgingMetrics(hedgingMetrics);
+    }
+
+    /**
+     * @return The {@link HedgingMetrics} of the calls of this client.
+     */
+    public HedgingMetrics getHedgingMetrics() {
+	return hedgingMetrics;
+    }
+
+    /**
+     * Method used to invoke the POST API on the primary endpoint, and on the
+     * secondary endpoint when the primary one is slow or fails.
+     * 
+     * @param apiName           Holds the API name of the adapter used in
+     *                          constructing the resources URL.
+     * @param requestConfig     Contains the request header configuration values.
+     * @param request           Holds the post body request object of the respective
+     *                          payment providers and is mandatory for the POST API.
+     * @param requestPathParams Holds request path parameters based on the payment
+     *                          gateway used for constructing the URL.
+     * @return The {@link CompletableFuture} completed with the first
+     *         {@link RestHttpClientResponse} which is not a server error.
+     */
+    @Override
+    public CompletableFuture<RestHttpClientResponse> sendPostAsync(String apiName, Map<String, String> requestConfig,
+	    IRequest request, IRequestPathParameters requestPathParams) {
+	if (requestConfig == null || requestConfig.get(IdempotencyKeys.IDEMPOTENCY_KEY) == null) {
+	    return primaryClient.sendPostAsync(apiName, requestConfig, request, requestPathParams);
+	}
+	hedgingMetrics.recordCall();
+	HedgedCall call = new HedgedCall(apiName, requestConfig, request, requestPathParams);
+	primaryClient.sendPostAsync(apiName, requestConfig, request, requestPathParams)
+		.whenComplete((response, throwable) -> {
+		    primaryLatencyRecorder.recordValue(Math.min(
+			    TimeUnit.NANOSECONDS.toMicros(System.nanoTime() - call.startTime), MAX_LATENCY_MICROS));
+		    call.onAnswer(response, throwable, false);
+		});
+	if (!call.result.isDone()) {
+	    ScheduledFuture<?> hedge = scheduler.schedule(call::hedge, getHedgeDelayMicros(), TimeUnit.MICROSECONDS);
+	    call.result.whenComplete((response, throwable) -> hedge.cancel(false));
+	}
+	return call.result;
+    }
+
+    /**
+     * Method used to get the delay before a call is hedged, recomputed at most
+     * once per second from the latencies of the primary endpoint.
+     * 
+     * @return The delay in microseconds.
+     */
+    long getHedgeDelayMicros() {
+	long now = System.nanoTime();
+	long nextTime = nextRecomputeTime.get();
+	if (now - nextTime >= 0 && nextRecomputeTime.compareAndSet(nextTime, now + RECOMPUTE_INTERVAL_NANOS)
+		&& recomputeLock.tryLock()) {
+	    try {
+		recomputeHedgeDelay();
+	    } finally {
+		recomputeLock.unlock();
+	    }
+	}
+	return hedgeDelayMicros;
+    }
+
+    private void recomputeHedgeDelay() {
+	intervalHistogram = primaryLatencyRecorder.getIntervalHistogram(intervalHistogram);
+	if (primaryLatencies == null) {
+	    primaryLatencies = intervalHistogram.copy();
+	} else {
+	    primaryLatencies.add(intervalHistogram);
+	}
+	if (primaryLatencies.getTotalCount() < MIN_SAMPLES) {
+	    return;
+	}
+	// the window restarts once representative, so the delay follows the current latencies
+	long percentileMicros = primaryLatencies.getValueAtPercentile(hedgingConfig.getPercentile());
+	primaryLatencies.reset();
+	long minDelayMicros = TimeUnit.MILLISECONDS.toMicros(hedgingConfig.getMinDelay());
+	long maxDelayMicros = TimeUnit.MILLISECONDS.toMicros(hedgingConfig.getMaxDelay());
+	hedgeDelayMicros = Math.min(Math.max(percentileMicros, minDelayMicros), maxDelayMicros);
+	hedgingMetrics.setHedgeDelayMicros(hedgeDelayMicros);
+    }
+
+    /**
+     * @return true if a hedge keeps the hedged calls within the maximum rate.
+     */
+    private boolean acquireHedge() {
+	return hedgingMetrics.getHedgedCalls() * 100 < hedgingMetrics.getCalls() * hedgingConfig.getMaxRate();
+    }
+
+    /**
+     * Closes the scheduler of the hedges. The primary and secondary clients are
+     * closed by their owner.
+     */
+    @Override
+    public void close() throws IOException {
+	scheduler.shutdownNow();
+	PaymentMetrics.unregisterHedgingMetrics(hedgingMetrics);
+    }
+
+    private static boolean isSuccessful(RestHttpClientResponse response) {
+	return response.getResponseCode() >= 200 && response.getResponseCode() < 300;
+    }
+
+    /**
+     * The state of a call sent to one or both endpoints.
+     */
+    private final class HedgedCall {
+
+	private final String apiName;
+	private final Map<String, String> requestConfig;
+	private final IRequest request;
+	private final IRequestPathParameters requestPathParams;
+	private final long startTime = System.nanoTime();
+	private final CompletableFuture<RestHttpClientResponse> result = new CompletableFuture<>();
+	private final AtomicBoolean answered = new AtomicBoolean();
+
+	private boolean secondarySent;
+	private int pendingAnswers = 1;
+	private RestHttpClientResponse failedResponse;
+	private Throwable failure;
+
+	HedgedCall(String apiName, Map<String, String> requestConfig, IRequest request,
+		IRequestPathParameters requestPathParams) {
+	    this.apiName = apiName;
+	    this.requestConfig = requestConfig;
+	    this.request = request;
+	    this.requestPathParams = requestPathParams;
+	}
+
+	/**
+	 * Invoked by the scheduler when the primary endpoint has not answered
+	 * within the hedge delay.
+	 */
+	void hedge() {
+	    if (result.isDone()) {
+		return;
+	    }
+	    if (!acquireHedge()) {
+		hedgingMetrics.recordSkippedHedge();
+		return;
+	    }
+	    sendSecondary(false);
+	}
+
+	private void sendSecondary(boolean failover) {
+	    synchronized (this) {
+		if (secondarySent || result.isDone()) {
+		    return;
+		}
+		secondarySent = true;
+		pendingAnswers++;
+	    }
+	    // recorded before sending, as the secondary endpoint may release the caller at once
+	    if (failover) {
+		hedgingMetrics.recordFailover();
+		logger.debug("HedgedAsyncHttpClient - failed over {}", apiName);
+	    } else {
+		hedgingMetrics.recordHedge();
+		logger.debug("HedgedAsyncHttpClient - hedged {} after {} micros", apiName, hedgeDelayMicros);
+	    }
+	    CompletableFuture<RestHttpClientResponse> secondaryFuture;
+	    try {
+		secondaryFuture = secondaryClient.sendPostAsync(apiName, requestConfig, request, requestPathParams);
+	    } catch (RuntimeException e) {
+		onAnswer(null, e, true);
+		return;
+	    }
+	    secondaryFuture.whenComplete((response, throwable) -> onAnswer(response, throwable, true));
+	}
+
+	void onAnswer(RestHttpClientResponse response, Throwable throwable, boolean secondary) {
+	    if (throwable == null && isSuccessful(response)) {
+		// the winner is recorded before the caller is released by the result
+		if (answered.compareAndSet(false, true)) {
+		    hedgingMetrics.recordAnswer(System.nanoTime() - startTime, secondary);
+		    result.complete(response);
+		}
+		return;
+	    }
+	    if (!secondary) {
+		// the outcome of the primary endpoint completes the call if neither succeeds
+		synchronized (this) {
+		    failedResponse = response;
+		    failure = throwable;
+		}
+		if (throwable != null || response.getResponseCode() >= 500) {
+		    sendSecondary(true);
+		}
+	    }
+	    boolean lastAnswer;
+	    synchronized (this) {
+		lastAnswer = --pendingAnswers == 0;
+	    }
+	    if (!lastAnswer) {
+		return;
+	    }
+	    hedgingMetrics.recordAnswer(System.nanoTime() - startTime, false);
+	    if (failure != null) {
+		result.completeExceptionally(failure instanceof CompletionException && failure.getCause() != null
+			? failure.getCause()
+			: failure);
+	    } else {
+		result.complete(failedResponse);
+	    }
+	}
+    }
+
+}
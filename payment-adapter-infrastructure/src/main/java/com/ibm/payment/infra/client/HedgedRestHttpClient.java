@@ -0,0 +1,181 @@
+/*
+IBM Confidential
+IBM Sterling OMS Payment Integration Adapter
+(C) Copyright IBM Corp. 2022
+Licensed under the Apache License, Version 2.0 (the "License");
+you may not use this file except in compliance with the License.
+http://www.apache.org/licenses/LICENSE-2.0
+Unless required by applicable law or agreed to in writing, software
+distributed under the License is distributed on an "AS IS" BASIS,
+WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+See the License for the specific language governing permissions and
+limitations under the License.
+*/
+package com.ibm.payment.infra.client;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.SynchronousQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import com.ibm.payment.infra.exception.PaymentConnectionException;
+import com.ibm.payment.infra.exception.PaymentException;
+import com.ibm.payment.infra.response.RestHttpClientResponse;
+import com.ibm.payment.infra.util.IdempotencyKeys;
+
+/**
+ * HedgedRestHttpClient class implements from {@link IRestHttpClient}
+ * interface, it is the blocking counterpart of {@link HedgedAsyncHttpClient}.
+ * The calls of the primary and secondary clients run on a bounded pool of
+ * threads and are hedged the same way, the caller waits for the first answer.
+ * <br>
+ * <ul>
+ * <li>The primary client is the one of the infra services, so the failed calls
+ * are still journaled and the rate limiter still waits for a permit.</li>
+ * <li>The calls without an idempotency key are sent to the primary client on
+ * the caller's thread, as are the calls made while all the threads are
+ * busy.</li>
+ * <li>The caller waits at most the configured timeout, an interrupted or timed
+ * out wait fails with a {@link PaymentConnectionException}.</li>
+ * </ul>
+ *
+ * @param IRequest               Client specific input, request object of the
+ *                               various payment providers.
+ * @param IRequestPathParameters Client specific input, RequestPathParam object
+ *                               of the various payment providers.
+ */
+public class HedgedRestHttpClient<IRequest, IRequestPathParameters>
+	implements IRestHttpClient<IRequest, IRequestPathParameters>, Closeable {
+
+    private static final Logger logger = LogManager.getLogger(HedgedRestHttpClient.class);
+
+    private static final AtomicInteger clientCount = new AtomicInteger();
+
+    private final IRestHttpClient<IRequest, IRequestPathParameters> primaryClient;
+
+    private final HedgedAsyncHttpClient<IRequest, IRequestPathParameters> hedgedClient;
+
+    private final ThreadPoolExecutor executor;
+
+    private final long timeout;
+
+    /**
+     * Constructor injects the blocking clients of the primary and the secondary
+     * endpoints of the payment provider.
+     * 
+     * @param primaryClient   Holds the client of the primary endpoint.
+     * @param secondaryClient Holds the client of the secondary endpoint.
+     * @param hedgingConfig   Holds {@link HedgingConfig} object contains the
+     *                        hedging configurations.
+     */
+    public HedgedRestHttpClient(IRestHttpClient<IRequest, IRequestPathParameters> primaryClient,
+	    IRestHttpClient<IRequest, IRequestPathParameters> secondaryClient, HedgingConfig hedgingConfig) {
+	this.primaryClient = primaryClient;
+	this.timeout = hedgingConfig.getTimeout();
+	String name = "HedgedRestHttpClient-" + clientCount.incrementAndGet();
+	AtomicInteger threadCount = new AtomicInteger();
+	this.executor = new ThreadPoolExecutor(0, hedgingConfig.getThreads(), 60, TimeUnit.SECONDS,
+		new SynchronousQueue<>(), runnable -> {
+		    Thread thread = new Thread(runnable, name + "-" + threadCount.incrementAndGet());
+		    thread.setDaemon(true);
+		    return thread;
+		});
+	this.hedgedClient = new HedgedAsyncHttpClient<>(
+		(apiName, requestConfig, request, requestPathParams) -> sendPrimary(apiName, requestConfig, request,
+			requestPathParams),
+		(apiName, requestConfig, request, requestPathParams) -> CompletableFuture.supplyAsync(
+			() -> secondaryClient.sendPost(apiName, requestConfig, request, requestPathParams), executor),
+		hedgingConfig);
+    }
+
+    /**
+     * @return The {@link HedgedAsyncHttpClient} hedging the blocking calls, which
+     *         holds their metrics.
+     */
+    public HedgedAsyncHttpClient<IRequest, IRequestPathParameters> getHedgedClient() {
+	return hedgedClient;
+    }
+
+    /**
+     * Method used to invoke the POST API on the primary endpoint, and on the
+     * secondary endpoint when the primary one is slow or fails.
+     * 
+     * @param apiName           Holds the API name of the adapter used in
+     *                          constructing the resources URL.
+     * @param requestConfig     Contains the request header configuration values.
+     * @param request           Holds the post body request object of the respective
+     *                          payment providers and is mandatory for the POST API.
+     * @param requestPathParams Holds request path parameters based on the payment
+     *                          gateway used for constructing the URL.
+     * @return The first {@link RestHttpClientResponse} which is not a server
+     *         error.
+     */
+    @Override
+    public RestHttpClientResponse sendPost(String apiName, Map<String, String> requestConfig, IRequest request,
+	    IRequestPathParameters requestPathParams) {
+	if (requestConfig == null || requestConfig.get(IdempotencyKeys.IDEMPOTENCY_KEY) == null) {
+	    return primaryClient.sendPost(apiName, requestConfig, request, requestPathParams);
+	}
+	CompletableFuture<RestHttpClientResponse> future = hedgedClient.sendPostAsync(apiName, requestConfig,
+		request, requestPathParams);
+	try {
+	    return future.get(timeout, TimeUnit.MILLISECONDS);
+	} catch (InterruptedException e) {
+	    Thread.currentThread().interrupt();
+	    throw new PaymentConnectionException("Interrupted while waiting for the hedged call", e);
+	} catch (TimeoutException e) {
+	    logger.error("HedgedRestHttpClient - sendPost - no answer to the {} call within {} ms", apiName, timeout);
+	    throw new PaymentConnectionException("Timeout while waiting for the hedged call", e);
+	} catch (ExecutionException e) {
+	    Throwable cause = e.getCause();
+	    if (cause instanceof RuntimeException) {
+		throw (RuntimeException) cause;
+	    }
+	    if (cause instanceof Error) {
+		throw (Error) cause;
+	    }
+	    throw new PaymentException(cause);
+	}
+    }
+
+    /**
+     * Method used to run the primary call on the pool, or on the caller's thread
+     * when all the threads are busy, in which case the call is not hedged.
+     */
+    private CompletableFuture<RestHttpClientResponse> sendPrimary(String apiName, Map<String, String> requestConfig,
+	    IRequest request, IRequestPathParameters requestPathParams) {
+	try {
+	    return CompletableFuture.supplyAsync(
+		    () -> primaryClient.sendPost(apiName, requestConfig, request, requestPathParams), executor);
+	} catch (RejectedExecutionException e) {
+	    CompletableFuture<RestHttpClientResponse> future = new CompletableFuture<>();
+	    try {
+		future.complete(primaryClient.sendPost(apiName, requestConfig, request, requestPathParams));
+	    } catch (RuntimeException primaryException) {
+		future.completeExceptionally(primaryException);
+	    }
+	    return future;
+	}
+    }
+
+    /**
+     * Closes the pool and the scheduler of the hedges. The primary and secondary
+     * clients are closed by their owner.
+     */
+    @Override
+    public void close() throws IOException {
+	hedgedClient.close();
+	executor.shutdownNow();
+    }
+
+}
@@ -0,0 +1,164 @@
+/*
+IBM Confidential
+IBM Sterling OMS Payment Integration Adapter
+(C) Copyright IBM Corp. 2022
+Licensed under the Apache License, Version 2.0 (the "License");
+you may not use this file except in compliance with the License.
+http://www.apache.org/licenses/LICENSE-2.0
+Unless required by applicable law or agreed to in writing, software
+distributed under the License is distributed on an "AS IS" BASIS,
+WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+See the License for the specific language governing permissions and
+limitations under the License.
+*/
+package com.ibm.payment.infra.client;
+
+import java.util.Properties;
+
+/**
+ * HedgingConfig class holds the configurations of the
+ * {@link HedgedAsyncHttpClient} sending the authorisations to a secondary
+ * endpoint of the payment provider. The values are loaded from the payment
+ * provider's properties file and the default values are used if they are not
+ * configured.
+ * <ul>
+ * <li>hedgingenabled - true to hedge the authorisations.</li>
+ * <li>hedgingsecondaryurl - URL of the secondary endpoint, such as the live
+ * URL prefix of another region, the calls are not hedged if it is not
+ * configured.</li>
+ * <li>hedgingpercentile - percentile of the primary endpoint's latency after
+ * which the call is sent to the secondary endpoint.</li>
+ * <li>hedgingmindelay - minimum milliseconds before the call is sent to the
+ * secondary endpoint.</li>
+ * <li>hedgingmaxdelay - maximum milliseconds before the call is sent to the
+ * secondary endpoint, also used until enough latencies are recorded.</li>
+ * <li>hedgingmaxrate - maximum percent of the calls sent to the secondary
+ * endpoint after the delay, the failover of a failed call is not
+ * limited.</li>
+ * <li>hedgingthreads - maximum threads running the blocking calls of the
+ * synchronous hedged client.</li>
+ * <li>hedgingtimeout - maximum milliseconds a synchronous hedged call waits
+ * for the answer of both endpoints.</li>
+ * </ul>
+ */
+public class HedgingConfig {
+
+    public static final String HEDGING_ENABLED = "hedgingenabled";
+    public static final String HEDGING_SECONDARY_URL = "hedgingsecondaryurl";
+    public static final String HEDGING_PERCENTILE = "hedgingpercentile";
+    public static final String HEDGING_MIN_DELAY = "hedgingmindelay";
+    public static final String HEDGING_MAX_DELAY = "hedgingmaxdelay";
+    public static final String HEDGING_MAX_RATE = "hedgingmaxrate";
+    public static final String HEDGING_THREADS = "hedgingthreads";
+    public static final String HEDGING_TIMEOUT = "hedgingtimeout";
+
+    private boolean enabled;
+
+    private String secondaryUrl;
+
+    private double percentile = 95;
+
+    private long minDelay = 50;
+
+    private long maxDelay = 500;
+
+    private double maxRate = 10;
+
+    private int threads = 40;
+
+    private long timeout = 30000;
+
+    /**
+     * Method used to create the hedging configurations from the payment provider's
+     * properties.
+     * 
+     * @param properties Holds the payment provider's properties.
+     * @return The {@link HedgingConfig} object.
+     */
+    public static HedgingConfig fromProperties(Properties properties) {
+	HedgingConfig config = new HedgingConfig();
+	config.setEnabled(Boolean.parseBoolean(properties.getProperty(HEDGING_ENABLED, "false").trim()));
+	String secondaryUrl = properties.getProperty(HEDGING_SECONDARY_URL, "").trim();
+	config.setSecondaryUrl(secondaryUrl.isEmpty() ? null : secondaryUrl);
+	config.setPercentile(Double.parseDouble(properties.getProperty(HEDGING_PERCENTILE, "95").trim()));
+	config.setMinDelay(Long.parseLong(properties.getProperty(HEDGING_MIN_DELAY, "50").trim()));
+	config.setMaxDelay(Long.parseLong(properties.getProperty(HEDGING_MAX_DELAY, "500").trim()));
+	config.setMaxRate(Double.parseDouble(properties.getProperty(HEDGING_MAX_RATE, "10").trim()));
+	config.setThreads(Integer.parseInt(properties.getProperty(HEDGING_THREADS, "40").trim()));
+	config.setTimeout(Long.parseLong(properties.getProperty(HEDGING_TIMEOUT, "30000").trim()));
+	return config;
+    }
+
+    /**
+     * @return true if the hedging is enabled and the secondary endpoint is
+     *         configured.
+     */
+    public boolean isActive() {
+	return enabled && secondaryUrl != null;
+    }
+
+    public boolean isEnabled() {
+	return enabled;
+    }
+
+    public void setEnabled(boolean enabled) {
+	this.enabled = enabled;
+    }
+
+    public String getSecondaryUrl() {
+	return secondaryUrl;
+    }
+
+    public void setSecondaryUrl(String secondaryUrl) {
+	this.secondaryUrl = secondaryUrl;
+    }
+
+    public double getPercentile() {
+	return percentile;
+    }
+
+    public void setPercentile(double percentile) {
+	this.percentile = percentile;
+    }
+
+    public long getMinDelay() {
+	return minDelay;
+    }
+
+    public void setMinDelay(long minDelay) {
+	this.minDelay = minDelay;
+    }
+
+    public long getMaxDelay() {
+	return maxDelay;
+    }
+
+    public void setMaxDelay(long maxDelay) {
+	this.maxDelay = maxDelay;
+    }
+
+    public double getMaxRate() {
+	return maxRate;
+    }
+
+    public void setMaxRate(double maxRate) {
+	this.maxRate = maxRate;
+    }
+
+    public int getThreads() {
+	return threads;
+    }
+
+    public void setThreads(int threads) {
+	this.threads = threads;
+    }
+
+    public long getTimeout() {
+	return timeout;
+    }
+
+    public void setTimeout(long timeout) {
+	this.timeout = timeout;
+    }
+
+}
@@ -0,0 +1,248 @@
+/*
+IBM Confidential
+IBM Sterling OMS Payment Integration Adapter
+(C) Copyright IBM Corp. 2022
+Licensed under the Apache License, Version 2.0 (the "License");
+you may not use this file except in compliance with the License.
+http://www.apache.org/licenses/LICENSE-2.0
+Unless required by applicable law or agreed to in writing, software
+distributed under the License is distributed on an "AS IS" BASIS,
+WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+See the License for the specific language governing permissions and
+limitations under the License.
+*/
+package com.ibm.payment.infra.client;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Properties;
+
+import org.apache.http.conn.ConnectionKeepAliveStrategy;
+import org.apache.http.impl.client.DefaultConnectionKeepAliveStrategy;
+
+/**
+ * HttpClientConfig class holds the connection pool configurations used by
+ * {@link StandardHttpClient} to build one long-lived, pooled HttpClient which
+ * is reused across the payment calls. The values are loaded from the payment
+ * provider's properties file and the default values are used if they are not
+ * configured.
+ * <ul>
+ * <li>maxconnectionstotal - maximum connections kept in the pool.</li>
+ * <li>maxconnectionsperroute - maximum connections kept per route(host).</li>
+ * <li>idleconnectiontimeout - milliseconds after which idle connections are
+ * evicted from the pool.</li>
+ * <li>validateafterinactivity - milliseconds of inactivity after which a
+ * pooled connection is validated before it is leased again.</li>
+ * <li>keepaliveduration - milliseconds a connection is kept alive when the
+ * payment provider does not send a Keep-Alive header.</li>
+ * <li>streamingmode - true to write the request straight into the connection
+ * and parse the response from the entity stream. Only the blocking client
+ * streams, the non-blocking client buffers the request and the whole response
+ * and only parses the successful responses from the buffer.</li>
+ * <li>capturebuffersize - maximum bytes of a streamed response kept for debug
+ * logging.</li>
+ * <li>poolsaturationthreshold - percent of the maximum connections leased at
+ * which the pool is reported as saturated.</li>
+ * <li>callbackthreads - threads of {@link StandardAsyncHttpClient} completing
+ * the response futures, so the dependent stages do not run on the I/O
+ * dispatcher threads.</li>
+ * </ul>
+ * The circuit breaker configurations of the endpoints are described in
+ * {@link CircuitBreakerConfig}, and the rate limit configurations of the
+ * merchant accounts in {@link RateLimiterConfig}.
+ */
+public class HttpClientConfig {
+
+    public static final String MAX_CONNECTIONS_TOTAL = "maxconnectionstotal";
+    public static final String MAX_CONNECTIONS_PER_ROUTE = "maxconnectionsperroute";
+    public static final String IDLE_CONNECTION_TIMEOUT = "idleconnectiontimeout";
+    public static final String VALIDATE_AFTER_INACTIVITY = "validateafterinactivity";
+    public static final String KEEP_ALIVE_DURATION = "keepaliveduration";
+    public static final String STREAMING_MODE = "streamingmode";
+    public static final String CAPTURE_BUFFER_SIZE = "capturebuffersize";
+    public static final String POOL_SATURATION_THRESHOLD = "poolsaturationthreshold";
+    public static final String CALLBACK_THREADS = "callbackthreads";
+
+    private int maxConnectionsTotal = 40;
+
+    private int maxConnectionsPerRoute = 20;
+
+    private long idleConnectionTimeout = 30000;
+
+    private int validateAfterInactivity = 2000;
+
+    private long keepAliveDuration = 30000;
+
+    private boolean streamingMode = false;
+
+    private int captureBufferSize = 4096;
+
+    private int poolSaturationThreshold = 90;
+
+    private int callbackThreads = 8;
+
+    private CircuitBreakerConfig circuitBreakerConfig = new CircuitBreakerConfig();
+
+    private Map<String, CircuitBreakerConfig> endpointCircuitBreakerConfigs = new HashMap<>();
+
+    private RateLimiterConfig rateLimiterConfig = new RateLimiterConfig();
+
+    /**
+     * Method used to create the HttpClient configurations from the payment
+     * provider's properties. Default values are used for the properties which are
+     * not configured.
+     * 
+     * @param properties Holds the payment provider's properties.
+     * @return The {@link HttpClientConfig} object.
+     */
+    public static HttpClientConfig fromProperties(Properties properties) {
+	HttpClientConfig config = new HttpClientConfig();
+	config.setMaxConnectionsTotal(
+		Integer.parseInt(properties.getProperty(MAX_CONNECTIONS_TOTAL, "40").trim()));
+	config.setMaxConnectionsPerRoute(
+		Integer.parseInt(properties.getProperty(MAX_CONNECTIONS_PER_ROUTE, "20").trim()));
+	config.setIdleConnectionTimeout(
+		Long.parseLong(properties.getProperty(IDLE_CONNECTION_TIMEOUT, "30000").trim()));
+	config.setValidateAfterInactivity(
+		Integer.parseInt(properties.getProperty(VALIDATE_AFTER_INACTIVITY, "2000").trim()));
+	config.setKeepAliveDuration(Long.parseLong(properties.getProperty(KEEP_ALIVE_DURATION, "30000").trim()));
+	config.setStreamingMode(Boolean.parseBoolean(properties.getProperty(STREAMING_MODE, "false").trim()));
+	config.setCaptureBufferSize(Integer.parseInt(properties.getProperty(CAPTURE_BUFFER_SIZE, "4096").trim()));
+	config.setPoolSaturationThreshold(
+		Integer.parseInt(properties.getProperty(POOL_SATURATION_THRESHOLD, "90").trim()));
+	config.setCallbackThreads(Integer.parseInt(properties.getProperty(CALLBACK_THREADS, "8").trim()));
+	config.setCircuitBreakerConfig(CircuitBreakerConfig.fromProperties(properties, null));
+	for (String key : properties.stringPropertyNames()) {
+	    // circuitbreakerfailurerate.CAPTURE overrides the property for the CAPTURE endpoint
+	    int separator = key.indexOf('.');
+	    if (key.startsWith("circuitbreaker") && separator > 0) {
+		String apiName = key.substring(separator + 1);
+		config.getEndpointCircuitBreakerConfigs().computeIfAbsent(apiName,
+			name -> CircuitBreakerConfig.fromProperties(properties, name));
+	    }
+	}
+	config.setRateLimiterConfig(RateLimiterConfig.fromProperties(properties));
+	return config;
+    }
+
+    /**
+     * Keep-alive strategy honours the Keep-Alive header sent by the payment
+     * provider, capped to the configured keep-alive duration. The configured
+     * duration is used if the header is not present.
+     * 
+     * @return The {@link ConnectionKeepAliveStrategy} object.
+     */
+    public ConnectionKeepAliveStrategy getKeepAliveStrategy() {
+	long maxDuration = keepAliveDuration;
+	return (response, context) -> {
+	    long duration = DefaultConnectionKeepAliveStrategy.INSTANCE.getKeepAliveDuration(response, context);
+	    return (duration > 0 && duration < maxDuration) ? duration : maxDuration;
+	};
+    }
+
+    /**
+     * @param apiName Holds the API name of the endpoint.
+     * @return The {@link CircuitBreakerConfig} of the endpoint, or the shared
+     *         configurations if the endpoint does not override them.
+     */
+    public CircuitBreakerConfig getCircuitBreakerConfig(String apiName) {
+	return endpointCircuitBreakerConfigs.getOrDefault(apiName, circuitBreakerConfig);
+    }
+
+    public int getMaxConnectionsTotal() {
+	return maxConnectionsTotal;
+    }
+
+    public void setMaxConnectionsTotal(int maxConnectionsTotal) {
+	this.maxConnectionsTotal = maxConnectionsTotal;
+    }
+
+    public int getMaxConnectionsPerRoute() {
+	return maxConnectionsPerRoute;
+    }
+
+    public void setMaxConnectionsPerRoute(int maxConnectionsPerRoute) {
+	this.maxConnectionsPerRoute = maxConnectionsPerRoute;
+    }
+
+    public long getIdleConnectionTimeout() {
+	return idleConnectionTimeout;
+    }
+
+    public void setIdleConnectionTimeout(long idleConnectionTimeout) {
+	this.idleConnectionTimeout = idleConnectionTimeout;
+    }
+
+    public int getValidateAfterInactivity() {
+	return validateAfterInactivity;
+    }
+
+    public void setValidateAfterInactivity(int validateAfterInactivity) {
+	this.validateAfterInactivity = validateAfterInactivity;
+    }
+
+    public long getKeepAliveDuration() {
+	return keepAliveDuration;
+    }
+
+    public void setKeepAliveDuration(long keepAliveDuration) {
+	this.keepAliveDuration = keepAliveDuration;
+    }
+
+    public boolean isStreamingMode() {
+	return streamingMode;
+    }
+
+    public void setStreamingMode(boolean streamingMode) {
+	this.streamingMode = streamingMode;
+    }
+
+    public int getCaptureBufferSize() {
+	return captureBufferSize;
+    }
+
+    public void setCaptureBufferSize(int captureBufferSize) {
+	this.captureBufferSize = captureBufferSize;
+    }
+
+    public int getPoolSaturationThreshold() {
+	return poolSaturationThreshold;
+    }
+
+    public void setPoolSaturationThreshold(int poolSaturationThreshold) {
+	this.poolSaturationThreshold = poolSaturationThreshold;
+    }
+
+    public int getCallbackThreads() {
+	return callbackThreads;
+    }
+
+    public void setCallbackThreads(int callbackThreads) {
+	this.callbackThreads = callbackThreads;
+    }
+
+    public CircuitBreakerConfig getCircuitBreakerConfig() {
+	return circuitBreakerConfig;
+    }
+
+    public void setCircuitBreakerConfig(CircuitBreakerConfig circuitBreakerConfig) {
+	this.circuitBreakerConfig = circuitBreakerConfig;
+    }
+
+    public Map<String, CircuitBreakerConfig> getEndpointCircuitBreakerConfigs() {
+	return endpointCircuitBreakerConfigs;
+    }
+
+    public void setEndpointCircuitBreakerConfigs(Map<String, CircuitBreakerConfig> endpointCircuitBreakerConfigs) {
+	this.endpointCircuitBreakerConfigs = endpointCircuitBreakerConfigs;
+    }
+
+    public RateLimiterConfig getRateLimiterConfig() {
+	return rateLimiterConfig;
+    }
+
+    public void setRateLimiterConfig(RateLimiterConfig rateLimiterConfig) {
+	this.rateLimiterConfig = rateLimiterConfig;
+    }
+
+}
@@ -0,0 +1,62 @@
+/*
+IBM Confidential
+IBM Sterling OMS Payment Integration Adapter
+(C) Copyright IBM Corp. 2022
+Licensed under the Apache License, Version 2.0 (the "License");
+you may not use this file except in compliance with the License.
+http://www.apache.org/licenses/LICENSE-2.0
+Unless required by applicable law or agreed to in writing, software
+distributed under the License is distributed on an "AS IS" BASIS,
+WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+See the License for the specific language governing permissions and
+limitations under the License.
+*/
+package com.ibm.payment.infra.client;
+
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+
+import com.ibm.payment.infra.response.RestHttpClientResponse;
+
+/**
+ * <ul>
+ * <li>IAsyncRestHttpClient interface is the non-blocking counterpart of
+ * {@link IRestHttpClient}. The API is invoked without blocking the calling
+ * thread for the whole round-trip and the response is completed in the returned
+ * {@link CompletableFuture}.</li>
+ * 
+ * <li>Connectivity issues are reported by completing the future exceptionally
+ * with PaymentConnectionException, same as the exception thrown by
+ * {@link IRestHttpClient#sendPost}.</li>
+ * </ul>
+ *
+ * @param IRequest               Client specific input, Request object of the
+ *                               corresponding payment providers used for
+ *                               invoking the API's.
+ * @param IRequestPathParameters Client specific input, RequestPathParam object
+ *                               of the respective payment providers used for
+ *                               constructing path parameters.
+ */
+public interface IAsyncRestHttpClient<IRequest, IRequestPathParameters> {
+
+    /**
+     * Method used to invoke POST API asynchronously. The resources URL, header
+     * parameters and input requests are obtained the same way as
+     * {@link IRestHttpClient#sendPost}.
+     *
+     * @param apiName           Holds the API name is specific to adapters, used in
+     *                          getting the resources URL.
+     * @param requestConfig     Contains the request header configuration values
+     *                          mandatory to invoke the API.
+     * @param request           Holds the post body request of the respective
+     *                          payment providers and is mandatory for the POST API.
+     * @param requestPathParams Contains RequestPathParams object specific to the
+     *                          payment gateway, required for constructing the URL.
+     * @return The {@link CompletableFuture} completed with the
+     *         {@link RestHttpClientResponse} object contains response code and
+     *         responses from the invoked POST API.
+     */
+    public CompletableFuture<RestHttpClientResponse> sendPostAsync(String apiName, Map<String, String> requestConfig,
+	    IRequest request, IRequestPathParameters requestPathParams);
+
+}
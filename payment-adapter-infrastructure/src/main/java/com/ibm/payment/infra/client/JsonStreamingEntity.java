@@ -0,0 +1,120 @@
+/*
+IBM Confidential
+IBM Sterling OMS Payment Integration Adapter
+(C) Copyright IBM Corp. 2022
+Licensed under the Apache License, Version 2.0 (the "License");
+you may not use this file except in compliance with the License.
+http://www.apache.org/licenses/LICENSE-2.0
+Unless required by applicable law or agreed to in writing, software
+distributed under the License is distributed on an "AS IS" BASIS,
+WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+See the License for the specific language governing permissions and
+limitations under the License.
+*/
+package com.ibm.payment.infra.client;
+
+import java.io.ByteArrayInputStream;
+import java.io.FilterOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+
+import org.apache.http.entity.AbstractHttpEntity;
+import org.apache.http.entity.ContentType;
+
+import com.ibm.payment.infra.util.JsonCodec;
+
+/**
+ * JsonStreamingEntity class is the request entity used in the streaming mode
+ * of the HTTP clients. The request object is serialized by the shared
+ * {@link JsonCodec} writer straight into the connection's output stream, so no
+ * intermediate String or byte array copy of the request is created. The entity
+ * is repeatable as the request is serialized again on every write.
+ * 
+ * The length of the request is not known before it is written, so the request
+ * is sent chunked and the bytes written are counted instead, see
+ * {@link #getWrittenBytes()}. Only the blocking {@link StandardHttpClient}
+ * streams the request, the non-blocking client sends it with its content
+ * length.
+ */
+public class JsonStreamingEntity extends AbstractHttpEntity {
+
+    private final Object request;
+
+    private volatile long writtenBytes = -1;
+
+    /**
+     * Constructor holds the request object to be serialized.
+     * 
+     * @param request Holds the post body request object.
+     */
+    public JsonStreamingEntity(Object request) {
+	this.request = request;
+	setContentType(ContentType.APPLICATION_JSON.toString());
+    }
+
+    @Override
+    public boolean isRepeatable() {
+	return true;
+    }
+
+    @Override
+    public long getContentLength() {
+	return -1;
+    }
+
+    /**
+     * Serializes the request into a byte array, used only by the consumers which
+     * read the entity content instead of writing it to the connection.
+     */
+    @Override
+    public InputStream getContent() throws IOException {
+	byte[] content = JsonCodec.writerFor(request).writeValueAsBytes(request);
+	writtenBytes = content.length;
+	return new ByteArrayInputStream(content);
+    }
+
+    @Override
+    public void writeTo(OutputStream outstream) throws IOException {
+	CountingOutputStream countingStream = new CountingOutputStream(outstream);
+	JsonCodec.writerFor(request).writeValue(countingStream, request);
+	writtenBytes = countingStream.count;
+    }
+
+    /**
+     * @return The number of bytes of the request last written or read, -1 if it
+     *         was not written yet.
+     */
+    public long getWrittenBytes() {
+	return writtenBytes;
+    }
+
+    @Override
+    public boolean isStreaming() {
+	return false;
+    }
+
+    /**
+     * Output stream counting the bytes written to the connection.
+     */
+    private static final class CountingOutputStream extends FilterOutputStream {
+
+	private long count;
+
+	CountingOutputStream(OutputStream out) {
+	    super(out);
+	}
+
+	@Override
+	public void write(int b) throws IOException {
+	    out.write(b);
+	    count++;
+	}
+
+	@Override
+	public void write(byte[] b, int off, int len) throws IOException {
+	    out.write(b, off, len);
+	    count += len;
+	}
+    }
+}
@@ -0,0 +1,97 @@
+/*
+IBM Confidential
+IBM Sterling OMS Payment Integration Adapter
+(C) Copyright IBM Corp. 2022
+Licensed under the Apache License, Version 2.0 (the "License");
+you may not use this file except in compliance with the License.
+http://www.apache.org/licenses/LICENSE-2.0
+Unless required by applicable law or agreed to in writing, software
+distributed under the License is distributed on an "AS IS" BASIS,
+WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+See the License for the specific language governing permissions and
+limitations under the License.
+*/
+package com.ibm.payment.infra.client;
+
+import java.io.IOException;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+import org.apache.http.concurrent.FutureCallback;
+import org.apache.http.conn.ConnectionPoolTimeoutException;
+import org.apache.http.conn.routing.HttpRoute;
+import org.apache.http.impl.nio.conn.PoolingNHttpClientConnectionManager;
+import org.apache.http.nio.NHttpClientConnection;
+import org.apache.http.nio.reactor.ConnectingIOReactor;
+import org.apache.http.protocol.HttpContext;
+
+import com.ibm.payment.infra.metrics.ConnectionPoolMetrics;
+
+/**
+ * 
+ * MonitoredAsyncConnectionManager class is the
+ * {@link PoolingNHttpClientConnectionManager} of
+ * {@link StandardAsyncHttpClient}, which records the lease waits, the lease
+ * timeouts and the connections created in its {@link ConnectionPoolMetrics}.
+ * The lease completes on the I/O reactor, so the lease wait includes the
+ * connect of the new connections.
+ *
+ */
+class MonitoredAsyncConnectionManager extends PoolingNHttpClientConnectionManager {
+
+    private final ConnectionPoolMetrics connectionPoolMetrics;
+
+    MonitoredAsyncConnectionManager(String name, ConnectingIOReactor ioReactor, HttpClientConfig httpClientConfig) {
+	super(ioReactor);
+	setMaxTotal(httpClientConfig.getMaxConnectionsTotal());
+	setDefaultMaxPerRoute(httpClientConfig.getMaxConnectionsPerRoute());
+	this.connectionPoolMetrics = new ConnectionPoolMetrics(name, this,
+		httpClientConfig.getPoolSaturationThreshold());
+    }
+
+    ConnectionPoolMetrics getConnectionPoolMetrics() {
+	return connectionPoolMetrics;
+    }
+
+    @Override
+    public Future<NHttpClientConnection> requestConnection(HttpRoute route, Object state, long connectTimeout,
+	    long leaseTimeout, TimeUnit timeUnit, FutureCallback<NHttpClientConnection> callback) {
+	long startTime = System.nanoTime();
+	return super.requestConnection(route, state, connectTimeout, leaseTimeout, timeUnit,
+		new FutureCallback<NHttpClientConnection>() {
+
+		    @Override
+		    public void completed(NHttpClientConnection connection) {
+			connectionPoolMetrics.recordLease(System.nanoTime() - startTime);
+			if (callback != null) {
+			    callback.completed(connection);
+			}
+		    }
+
+		    @Override
+		    public void failed(Exception e) {
+			if (e instanceof TimeoutException || e instanceof ConnectionPoolTimeoutException) {
+			    connectionPoolMetrics.recordLeaseTimeout();
+			}
+			if (callback != null) {
+			    callback.failed(e);
+			}
+		    }
+
+		    @Override
+		    public void cancelled() {
+			if (callback != null) {
+			    callback.cancelled();
+			}
+		    }
+		});
+    }
+
+    @Override
+    public void startRoute(NHttpClientConnection managedConn, HttpRoute route, HttpContext context)
+	    throws IOException {
+	super.startRoute(managedConn, route, context);
+	connectionPoolMetrics.recordConnectionCreated();
+    }
+}
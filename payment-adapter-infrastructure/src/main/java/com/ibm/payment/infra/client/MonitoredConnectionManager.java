@@ -0,0 +1,117 @@
+/*
+IBM Confidential
+IBM Sterling OMS Payment Integration Adapter
+(C) Copyright IBM Corp. 2022
+Licensed under the Apache License, Version 2.0 (the "License");
+you may not use this file except in compliance with the License.
+http://www.apache.org/licenses/LICENSE-2.0
+Unless required by applicable law or agreed to in writing, software
+distributed under the License is distributed on an "AS IS" BASIS,
+WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+See the License for the specific language governing permissions and
+limitations under the License.
+*/
+package com.ibm.payment.infra.client;
+
+import java.io.IOException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+
+import org.apache.http.HttpClientConnection;
+import org.apache.http.conn.ConnectionPoolTimeoutException;
+import org.apache.http.conn.ConnectionRequest;
+import org.apache.http.conn.routing.HttpRoute;
+import org.apache.http.impl.conn.PoolingHttpClientConnectionManager;
+import org.apache.http.protocol.HttpContext;
+
+import com.ibm.payment.infra.metrics.ConnectionPoolMetrics;
+
+/**
+ * 
+ * MonitoredConnectionManager class is the {@link PoolingHttpClientConnectionManager}
+ * of {@link StandardHttpClient}, which records the lease waits, the lease
+ * timeouts, the connections created and the connections evicted in its
+ * {@link ConnectionPoolMetrics}. The time waited for the leases is also kept
+ * for the calling thread, to be recorded as the lease phase of the call.
+ *
+ */
+class MonitoredConnectionManager extends PoolingHttpClientConnectionManager {
+
+    // time the calling thread waited for pooled connections since the last reset
+    private static final ThreadLocal<long[]> leaseNanos = ThreadLocal.withInitial(() -> new long[1]);
+
+    private final ConnectionPoolMetrics connectionPoolMetrics;
+
+    MonitoredConnectionManager(String name, HttpClientConfig httpClientConfig) {
+	setMaxTotal(httpClientConfig.getMaxConnectionsTotal());
+	setDefaultMaxPerRoute(httpClientConfig.getMaxConnectionsPerRoute());
+	setValidateAfterInactivity(httpClientConfig.getValidateAfterInactivity());
+	this.connectionPoolMetrics = new ConnectionPoolMetrics(name, this,
+		httpClientConfig.getPoolSaturationThreshold());
+    }
+
+    /**
+     * Method used to reset the time the calling thread waited for the leases.
+     * 
+     * @return The cell holding the nanoseconds waited by the calling thread from
+     *         now on.
+     */
+    static long[] resetLeaseNanos() {
+	long[] lease = leaseNanos.get();
+	lease[0] = 0;
+	return lease;
+    }
+
+    ConnectionPoolMetrics getConnectionPoolMetrics() {
+	return connectionPoolMetrics;
+    }
+
+    @Override
+    public ConnectionRequest requestConnection(HttpRoute route, Object state) {
+	ConnectionRequest connectionRequest = super.requestConnection(route, state);
+	return new ConnectionRequest() {
+
+	    @Override
+	    public HttpClientConnection get(long timeout, TimeUnit timeUnit)
+		    throws InterruptedException, ExecutionException, ConnectionPoolTimeoutException {
+		long startTime = System.nanoTime();
+		try {
+		    HttpClientConnection connection = connectionRequest.get(timeout, timeUnit);
+		    connectionPoolMetrics.recordLease(System.nanoTime() - startTime);
+		    return connection;
+		} catch (ConnectionPoolTimeoutException e) {
+		    connectionPoolMetrics.recordLeaseTimeout();
+		    throw e;
+		} finally {
+		    leaseNanos.get()[0] += System.nanoTime() - startTime;
+		}
+	    }
+
+	    @Override
+	    public boolean cancel() {
+		return connectionRequest.cancel();
+	    }
+	};
+    }
+
+    @Override
+    public void connect(HttpClientConnection managedConn, HttpRoute route, int connectTimeout, HttpContext context)
+	    throws IOException {
+	super.connect(managedConn, route, connectTimeout, context);
+	connectionPoolMetrics.recordConnectionCreated();
+    }
+
+    @Override
+    public void closeExpiredConnections() {
+	int available = getTotalStats().getAvailable();
+	super.closeExpiredConnections();
+	connectionPoolMetrics.recordConnectionsEvicted(available - getTotalStats().getAvailable());
+    }
+
+    @Override
+    public void closeIdleConnections(long idleTimeout, TimeUnit timeUnit) {
+	int available = getTotalStats().getAvailable();
+	super.closeIdleConnections(idleTimeout, timeUnit);
+	connectionPoolMetrics.recordConnectionsEvicted(available - getTotalStats().getAvailable());
+    }
+}
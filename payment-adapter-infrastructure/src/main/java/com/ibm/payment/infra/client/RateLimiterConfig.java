@@ -0,0 +1,126 @@
+/*
+IBM Confidential
+IBM Sterling OMS Payment Integration Adapter
+(C) Copyright IBM Corp. 2022
+Licensed under the Apache License, Version 2.0 (the "License");
+you may not use this file except in compliance with the License.
+http://www.apache.org/licenses/LICENSE-2.0
+Unless required by applicable law or agreed to in writing, software
+distributed under the License is distributed on an "AS IS" BASIS,
+WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+See the License for the specific language governing permissions and
+limitations under the License.
+*/
+package com.ibm.payment.infra.client;
+
+import java.util.Properties;
+
+/**
+ * RateLimiterConfig class holds the configurations of the
+ * {@link AdaptiveRateLimiter} of each merchant account. The values are loaded
+ * from the payment provider's properties file and the default values are used
+ * if they are not configured.
+ * <ul>
+ * <li>ratelimitenabled - true to limit the calls of each merchant account,
+ * false by default. The maximum rate should be set to the rate agreed with the
+ * payment provider before enabling it.</li>
+ * <li>ratelimitmaxrate - maximum calls per second of a merchant account, also
+ * the rate a merchant account starts with.</li>
+ * <li>ratelimitminrate - minimum calls per second the rate is decreased
+ * to.</li>
+ * <li>ratelimitincrease - calls per second added to the rate for each second
+ * of successful calls.</li>
+ * <li>ratelimitdecrease - factor the rate is multiplied by on a 429 or 503
+ * response.</li>
+ * <li>ratelimitmaxwait - maximum milliseconds a call waits for its turn before
+ * it is rejected.</li>
+ * </ul>
+ */
+public class RateLimiterConfig {
+
+    public static final String RATE_LIMIT_ENABLED = "ratelimitenabled";
+    public static final String MAX_RATE = "ratelimitmaxrate";
+    public static final String MIN_RATE = "ratelimitminrate";
+    public static final String RATE_INCREASE = "ratelimitincrease";
+    public static final String RATE_DECREASE = "ratelimitdecrease";
+    public static final String MAX_WAIT = "ratelimitmaxwait";
+
+    private boolean enabled = false;
+
+    private double maxRate = 50;
+
+    private double minRate = 1;
+
+    private double rateIncrease = 1;
+
+    private double rateDecrease = 0.5;
+
+    private long maxWait = 1000;
+
+    /**
+     * Method used to create the rate limiter configurations from the payment
+     * provider's properties.
+     * 
+     * @param properties Holds the payment provider's properties.
+     * @return The {@link RateLimiterConfig} object.
+     */
+    public static RateLimiterConfig fromProperties(Properties properties) {
+	RateLimiterConfig config = new RateLimiterConfig();
+	config.setEnabled(Boolean.parseBoolean(properties.getProperty(RATE_LIMIT_ENABLED, "false").trim()));
+	config.setMaxRate(Double.parseDouble(properties.getProperty(MAX_RATE, "50").trim()));
+	config.setMinRate(Double.parseDouble(properties.getProperty(MIN_RATE, "1").trim()));
+	config.setRateIncrease(Double.parseDouble(properties.getProperty(RATE_INCREASE, "1").trim()));
+	config.setRateDecrease(Double.parseDouble(properties.getProperty(RATE_DECREASE, "0.5").trim()));
+	config.setMaxWait(Long.parseLong(properties.getProperty(MAX_WAIT, "1000").trim()));
+	return config;
+    }
+
+    public boolean isEnabled() {
+	return enabled;
+    }
+
+    public void setEnabled(boolean enabled) {
+	this.enabled = enabled;
+    }
+
+    public double getMaxRate() {
+	return maxRate;
+    }
+
+    public void setMaxRate(double maxRate) {
+	this.maxRate = maxRate;
+    }
+
+    public double getMinRate() {
+	return minRate;
+    }
+
+    public void setMinRate(double minRate) {
+	this.minRate = minRate;
+    }
+
+    public double getRateIncrease() {
+	return rateIncrease;
+    }
+
+    public void setRateIncrease(double rateIncrease) {
+	this.rateIncrease = rateIncrease;
+    }
+
+    public double getRateDecrease() {
+	return rateDecrease;
+    }
+
+    public void setRateDecrease(double rateDecrease) {
+	this.rateDecrease = rateDecrease;
+    }
+
+    public long getMaxWait() {
+	return maxWait;
+    }
+
+    public void setMaxWait(long maxWait) {
+	this.maxWait = maxWait;
+    }
+
+}
@@ -0,0 +1,99 @@
+/*
+IBM Confidential
+IBM Sterling OMS Payment Integration Adapter
+(C) Copyright IBM Corp. 2022
+Licensed under the Apache License, Version 2.0 (the "License");
+you may not use this file except in compliance with the License.
+http://www.apache.org/licenses/LICENSE-2.0
+Unless required by applicable law or agreed to in writing, software
+distributed under the License is distributed on an "AS IS" BASIS,
+WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+See the License for the specific language governing permissions and
+limitations under the License.
+*/
+package com.ibm.payment.infra.client;
+
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+import org.apache.http.Header;
+import org.apache.http.HttpResponse;
+import org.apache.http.HttpStatus;
+
+/**
+ * RateLimiters class holds the {@link AdaptiveRateLimiter} of each merchant
+ * account, created on the first call of the merchant account. The rate limit
+ * of the payment provider applies to the merchant account whatever the client
+ * calling it, so one RateLimiters is shared by the HttpClients of a
+ * configuration.
+ */
+public class RateLimiters {
+
+    private static final String DEFAULT_MERCHANT_ACCOUNT = "default";
+
+    private static final int SC_TOO_MANY_REQUESTS = 429;
+
+    private final RateLimiterConfig config;
+
+    private final ConcurrentMap<String, AdaptiveRateLimiter> rateLimiters = new ConcurrentHashMap<>();
+
+    public RateLimiters(RateLimiterConfig config) {
+	this.config = config;
+    }
+
+    /**
+     * @param merchantAccount Holds the merchant account of the call, the calls
+     *                        without merchant account share one rate limiter.
+     * @return The {@link AdaptiveRateLimiter} of the merchant account, or null if
+     *         the rate limit is disabled.
+     */
+    AdaptiveRateLimiter get(String merchantAccount) {
+	if (!config.isEnabled()) {
+	    return null;
+	}
+	String key = merchantAccount == null ? DEFAULT_MERCHANT_ACCOUNT : merchantAccount;
+	AdaptiveRateLimiter rateLimiter = rateLimiters.get(key);
+	if (rateLimiter == null) {
+	    rateLimiter = rateLimiters.computeIfAbsent(key, name -> new AdaptiveRateLimiter(name, config));
+	}
+	return rateLimiter;
+    }
+
+    /**
+     * Method used to adapt the rate of the merchant account to the response of a
+     * call. The 429 and 503 responses decrease the rate, the other successful
+     * responses increase it.
+     * 
+     * @param rateLimiter  Holds the {@link AdaptiveRateLimiter} of the merchant
+     *                     account, or null if it is disabled.
+     * @param httpresponse Holds the HTTP response from the payment provider.
+     */
+    static void onResponse(AdaptiveRateLimiter rateLimiter, HttpResponse httpresponse) {
+	if (rateLimiter == null) {
+	    return;
+	}
+	int statusCode = httpresponse.getStatusLine().getStatusCode();
+	if (statusCode == SC_TOO_MANY_REQUESTS || statusCode == HttpStatus.SC_SERVICE_UNAVAILABLE) {
+	    rateLimiter.onThrottled(retryAfterMillis(httpresponse));
+	} else if (statusCode < HttpStatus.SC_INTERNAL_SERVER_ERROR) {
+	    rateLimiter.onSuccess();
+	}
+    }
+
+    /**
+     * @return The Retry-After delay of the response in milliseconds, 0 if it is
+     *         not sent in seconds.
+     */
+    static long retryAfterMillis(HttpResponse httpresponse) {
+	Header retryAfter = httpresponse.getFirstHeader("Retry-After");
+	if (retryAfter != null) {
+	    try {
+		return Math.max(0, Long.parseLong(retryAfter.getValue().trim()) * 1000);
+	    } catch (NumberFormatException e) {
+		// HTTP-date values are not honoured
+	    }
+	}
+	return 0;
+    }
+
+}
@@ -0,0 +1,421 @@
+/*
+IBM Confidential
+IBM Sterling OMS Payment Integration Adapter
+(C) Copyright IBM Corp. 2022
+Licensed under the Apache License, Version 2.0 (the "License");
+you may not use this file except in compliance with the License.
+http://www.apache.org/licenses/LICENSE-2.0
+Unless required by applicable law or agreed to in writing, software
+distributed under the License is distributed on an "AS IS" BASIS,
+WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+See the License for the specific language governing permissions and
+limitations under the License.
+*/
+package com.ibm.payment.infra.client;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.apache.http.HttpResponse;
+import org.apache.http.client.config.RequestConfig;
+import org.apache.http.client.methods.HttpPost;
+import org.apache.http.concurrent.FutureCallback;
+import org.apache.http.impl.nio.client.CloseableHttpAsyncClient;
+import org.apache.http.impl.nio.client.HttpAsyncClients;
+import org.apache.http.impl.nio.conn.PoolingNHttpClientConnectionManager;
+import org.apache.http.impl.nio.reactor.DefaultConnectingIOReactor;
+import org.apache.http.nio.reactor.IOReactorException;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.ibm.payment.infra.exception.PaymentConnectionException;
+import com.ibm.payment.infra.exception.PaymentException;
+import com.ibm.payment.infra.jfr.PaymentEvents;
+import com.ibm.payment.infra.metrics.ConnectionPoolMetrics;
+import com.ibm.payment.infra.metrics.PaymentMetrics;
+import com.ibm.payment.infra.metrics.PaymentPhase;
+import com.ibm.payment.infra.requestHandlers.interfaces.RequestHandler;
+import com.ibm.payment.infra.response.RestHttpClientResponse;
+
+/**
+ *
+ * StandardAsyncHttpClient class implement from {@link IAsyncRestHttpClient}
+ * interface, have the implementation of non-blocking CloseableHttpAsyncClient
+ * used to invoke API from various payment gateways. A handful of I/O dispatcher
+ * threads serve all the in-flight payment calls, so the calling threads are not
+ * blocked on the socket for the whole round-trip. The returned futures are
+ * completed on the callback threads of the client, so the response decoding
+ * and the dependent stages of the callers never run on the I/O dispatcher
+ * threads.
+ * 
+ * The resource URL, request headers and request configs are obtained from the
+ * same {@link RequestHandler} used by {@link StandardHttpClient}, and each
+ * endpoint is guarded by its own {@link CircuitBreaker} the same way. The
+ * calls beyond the {@link AdaptiveRateLimiter} of the merchant account are
+ * rejected without waiting, so the calling thread is never blocked.
+ * 
+ * @param IRequest               Client specific input, Request object of the
+ *                               various payment providers.
+ * @param IRequestPathParameters Client specific input, RequestPathParam object
+ *                               of the various payment providers.
+ */
+public class StandardAsyncHttpClient<IRequest, IRequestPathParameters>
+	implements IAsyncRestHttpClient<IRequest, IRequestPathParameters>, Closeable {
+
+    private static final Logger logger = LogManager.getLogger(StandardAsyncHttpClient.class);
+
+    private RequestHandler<IRequest, IRequestPathParameters, RequestConfig> requestHeaderHandler;
+
+    private final CloseableHttpAsyncClient httpAsyncClient;
+
+    private final HttpClientConfig httpClientConfig;
+
+    private final ObjectReader responseReader;
+
+    private static final AtomicInteger clientCount = new AtomicInteger();
+
+    private final MonitoredAsyncConnectionManager connectionManager;
+
+    private final CircuitBreakers circuitBreakers;
+
+    private final RateLimiters rateLimiters;
+
+    private final ThreadPoolExecutor callbackExecutor;
+
+    /**
+     * Constructor injects the corresponding payment provider's request handlers,
+     * builds and starts the pooled HttpAsyncClient. The request configs (socket
+     * timeout, connection request timeout, connect timeout) from the request
+     * handler are set as the default request configs of the HttpAsyncClient.
+     * 
+     * @param requestHandler   Holds {@link RequestHandler} object injects request
+     *                         handler specific to payment gateways.
+     * @param httpClientConfig Holds {@link HttpClientConfig} object contains the
+     *                         connection pool configurations.
+     */
+    public StandardAsyncHttpClient(RequestHandler<IRequest, IRequestPathParameters, RequestConfig> requestHandler,
+	    HttpClientConfig httpClientConfig) {
+	this(requestHandler, httpClientConfig, null);
+    }
+
+    /**
+     * Constructor injects the corresponding payment provider's request handlers
+     * along with the reader used to parse the successful responses in the
+     * streaming mode, builds and starts the pooled HttpAsyncClient.
+     * 
+     * @param requestHandler   Holds {@link RequestHandler} object injects request
+     *                         handler specific to payment gateways.
+     * @param httpClientConfig Holds {@link HttpClientConfig} object contains the
+     *                         connection pool configurations.
+     * @param responseReader   Holds the {@link ObjectReader} of the payment
+     *                         provider's response, the responses are returned as
+     *                         string if it is null.
+     */
+    public StandardAsyncHttpClient(RequestHandler<IRequest, IRequestPathParameters, RequestConfig> requestHandler,
+	    HttpClientConfig httpClientConfig, ObjectReader responseReader) {
+	this(requestHandler, httpClientConfig, responseReader,
+		new RateLimiters(httpClientConfig.getRateLimiterConfig()));
+    }
+
+    /**
+     * Constructor injects the corresponding payment provider's request handlers
+     * along with the rate limiters shared with the other HttpClients of the
+     * configuration, builds and starts the pooled HttpAsyncClient.
+     * 
+     * @param requestHandler   Holds {@link RequestHandler} object injects request
+     *                         handler specific to payment gateways.
+     * @param httpClientConfig Holds {@link HttpClientConfig} object contains the
+     *                         connection pool configurations.
+     * @param responseReader   Holds the {@link ObjectReader} of the payment
+     *                         provider's response, the responses are returned as
+     *                         string if it is null.
+     * @param rateLimiters     Holds the {@link RateLimiters} of the merchant
+     *                         accounts of the configuration.
+     */
+    public StandardAsyncHttpClient(RequestHandler<IRequest, IRequestPathParameters, RequestConfig> requestHandler,
+	    HttpClientConfig httpClientConfig, ObjectReader responseReader, RateLimiters rateLimiters) {
+	this.requestHeaderHandler = requestHandler;
+	this.httpClientConfig = httpClientConfig;
+	this.responseReader = httpClientConfig.isStreamingMode() ? responseReader : null;
+	this.connectionManager = createConnectionManager(httpClientConfig);
+	this.circuitBreakers = new CircuitBreakers(connectionManager.getConnectionPoolMetrics().getName(),
+		httpClientConfig);
+	this.rateLimiters = rateLimiters;
+	this.callbackExecutor = createCallbackExecutor(connectionManager.getConnectionPoolMetrics().getName(),
+		httpClientConfig.getCallbackThreads());
+	this.httpAsyncClient = createHttpAsyncClient(connectionManager, requestHandler.getRequestConfig(),
+		httpClientConfig);
+	this.httpAsyncClient.start();
+	PaymentMetrics.registerConnectionPool(connectionManager.getConnectionPoolMetrics());
+    }
+
+    /**
+     * @return The {@link ConnectionPoolMetrics} of the connection pool of this
+     *         client.
+     */
+    public ConnectionPoolMetrics getConnectionPoolMetrics() {
+	return connectionManager.getConnectionPoolMetrics();
+    }
+
+    /**
+     * Method used to create the monitored {@link PoolingNHttpClientConnectionManager}
+     * with its I/O reactor.
+     * 
+     * @param httpClientConfig Holds the connection pool configurations.
+     * @return The {@link MonitoredAsyncConnectionManager} object.
+     */
+    private static MonitoredAsyncConnectionManager createConnectionManager(HttpClientConfig httpClientConfig) {
+	try {
+	    return new MonitoredAsyncConnectionManager("StandardAsyncHttpClient-" + clientCount.incrementAndGet(),
+		    new DefaultConnectingIOReactor(), httpClientConfig);
+	} catch (IOReactorException e) {
+	    logger.error("StandardAsyncHttpClient - IOReactorException occurs while creating the I/O reactor", e);
+	    throw new PaymentException(e);
+	}
+    }
+
+    /**
+     * Method used to create the executor completing the response futures, its
+     * idle threads are stopped after a minute.
+     * 
+     * @param name    Holds the name of the client, used as thread name prefix.
+     * @param threads Holds the number of callback threads.
+     * @return The {@link ThreadPoolExecutor} object.
+     */
+    private static ThreadPoolExecutor createCallbackExecutor(String name, int threads) {
+	AtomicInteger threadCount = new AtomicInteger();
+	ThreadPoolExecutor executor = new ThreadPoolExecutor(threads, threads, 60, TimeUnit.SECONDS,
+		new LinkedBlockingQueue<>(), runnable -> {
+		    Thread thread = new Thread(runnable, name + "-callback-" + threadCount.incrementAndGet());
+		    thread.setDaemon(true);
+		    return thread;
+		});
+	executor.allowCoreThreadTimeOut(true);
+	return executor;
+    }
+
+    /**
+     * Method used to build the CloseableHttpAsyncClient backed by the pooled
+     * connection manager.
+     * 
+     * @param connectionManager Holds the monitored connection pool.
+     * @param requestConfig     Holds the default request configs.
+     * @param httpClientConfig  Holds the connection pool configurations.
+     * @return The pooled {@link CloseableHttpAsyncClient} object.
+     */
+    private static CloseableHttpAsyncClient createHttpAsyncClient(MonitoredAsyncConnectionManager connectionManager,
+	    RequestConfig requestConfig, HttpClientConfig httpClientConfig) {
+	return HttpAsyncClients.custom().setConnectionManager(connectionManager)
+		.setDefaultRequestConfig(requestConfig).setKeepAliveStrategy(httpClientConfig.getKeepAliveStrategy())
+		.build();
+    }
+
+    /**
+     * <ul>
+     * <li>This method invokes POST API using the non-blocking
+     * CloseableHttpAsyncClient. The {@link HttpPost} is constructed the same way
+     * as {@link StandardHttpClient#sendPost}, except that the request is never
+     * streamed.</li>
+     * 
+     * <li>The returned future completes exceptionally with
+     * {@link PaymentConnectionException} when connectivity issues such as Socket
+     * Timeout etc. are encountered when connecting to the payment gateway.</li>
+     * 
+     * <li>The response is converted and the returned future is completed on a
+     * callback thread of the client, not on the I/O dispatcher thread.</li>
+     * </ul>
+     * 
+     * @param apiName           Holds the API name of the adapter used in
+     *                          constructing the resources URL.
+     * @param requestConfig     Contains the request header configuration values.
+     * @param request           Holds the post body request object of the respective
+     *                          payment providers and is mandatory for the POST API.
+     * @param requestPathParams Holds request path parameters based on the payment
+     *                          gateway used for constructing the URL.
+     * @return The {@link CompletableFuture} completed with the
+     *         {@link RestHttpClientResponse} object.
+     */
+    @Override
+    public CompletableFuture<RestHttpClientResponse> sendPostAsync(String apiName, Map<String, String> requestConfig,
+	    IRequest request, IRequestPathParameters requestPathParams) {
+	logger.debug("StandardAsyncHttpClient - sendPostAsync");
+	CompletableFuture<RestHttpClientResponse> responseFuture = new CompletableFuture<>();
+	CircuitBreaker circuitBreaker;
+	try {
+	    // the calls rejected by an open circuit do not take the rate of the merchant account
+	    circuitBreaker = circuitBreakers.acquirePermission(apiName);
+	} catch (PaymentConnectionException e) {
+	    responseFuture.completeExceptionally(e);
+	    return responseFuture;
+	}
+	AdaptiveRateLimiter rateLimiter;
+	try {
+	    rateLimiter = rateLimiters.get(requestHeaderHandler.getMerchantAccount(request));
+	    if (rateLimiter != null) {
+		rateLimiter.tryAcquire();
+	    }
+	} catch (RuntimeException e) {
+	    releasePermission(circuitBreaker);
+	    responseFuture.completeExceptionally(e);
+	    return responseFuture;
+	}
+	HttpPost httppost;
+	try {
+	    // the request is read into a buffer by the I/O reactor anyway, so it is never streamed
+	    httppost = StandardHttpClient.createHttpPost(requestHeaderHandler, apiName, requestConfig, request,
+		    requestPathParams, false);
+	} catch (IOException e) {
+	    releasePermission(circuitBreaker);
+	    logger.error("StandardAsyncHttpClient - sendPostAsync - IOException occurs while creating the request", e);
+	    responseFuture.completeExceptionally(
+		    new PaymentConnectionException("IOException occurs while making HttpAsyncClient connection", e));
+	    return responseFuture;
+	} catch (RuntimeException e) {
+	    releasePermission(circuitBreaker);
+	    responseFuture.completeExceptionally(e);
+	    return responseFuture;
+	}
+
+	Object paymentCallEvent = PaymentEvents.beginCall();
+	// the connection is leased on the I/O reactor, so the lease is part of the network wait
+	long startTime = System.nanoTime();
+	FutureCallback<HttpResponse> callback = new FutureCallback<HttpResponse>() {
+
+	    @Override
+	    public void completed(HttpResponse httpresponse) {
+		long networkWait = System.nanoTime() - startTime;
+		CircuitBreakers.onResponse(circuitBreaker, httpresponse.getStatusLine().getStatusCode(), networkWait);
+		RateLimiters.onResponse(rateLimiter, httpresponse);
+		PaymentMetrics.recordPhase(apiName, PaymentPhase.NETWORK_WAIT, networkWait);
+		dispatch(() -> complete(httpresponse));
+	    }
+
+	    private void complete(HttpResponse httpresponse) {
+		try {
+		    StandardHttpClient.recordPayloadSizes(apiName, httppost, httpresponse);
+		    responseFuture.complete(StandardHttpClient.toRestHttpClientResponse(httpresponse, responseReader,
+			    httpClientConfig.getCaptureBufferSize()));
+		} catch (IOException e) {
+		    fail(e);
+		    return;
+		} catch (RuntimeException e) {
+		    responseFuture.completeExceptionally(e);
+		}
+		commitCall(httpresponse.getStatusLine().getStatusCode(),
+			StandardHttpClient.contentLength(httpresponse.getEntity()), false);
+	    }
+
+	    @Override
+	    public void failed(Exception e) {
+		if (e instanceof CancellationException) {
+		    // the request was not sent, such as when the client is closed
+		    releasePermission(circuitBreaker);
+		} else if (circuitBreaker != null) {
+		    circuitBreaker.onFailure(System.nanoTime() - startTime);
+		}
+		dispatch(() -> fail(e));
+	    }
+
+	    private void fail(Exception e) {
+		logger.error(
+			"StandardAsyncHttpClient - sendPostAsync - Exception occurs while making httpasyncclient connection",
+			e);
+		responseFuture.completeExceptionally(
+			new PaymentConnectionException("IOException occurs while making HttpAsyncClient connection", e));
+		commitCall(0, -1, true);
+	    }
+
+	    private void commitCall(int httpStatus, long responseBytes, boolean retry) {
+		commitPaymentCall(paymentCallEvent, apiName, request, httppost, httpStatus, responseBytes, retry);
+	    }
+
+	    @Override
+	    public void cancelled() {
+		releasePermission(circuitBreaker);
+		dispatch(() -> {
+		    responseFuture.cancel(false);
+		    commitCall(0, -1, false);
+		});
+	    }
+	};
+	try {
+	    httpAsyncClient.execute(httppost, callback);
+	} catch (RuntimeException e) {
+	    releasePermission(circuitBreaker);
+	    logger.error("StandardAsyncHttpClient - sendPostAsync - Exception occurs while executing the request", e);
+	    responseFuture.completeExceptionally(
+		    new PaymentConnectionException("Exception occurs while making HttpAsyncClient connection", e));
+	    commitPaymentCall(paymentCallEvent, apiName, request, httppost, 0, -1, true);
+	}
+	return responseFuture;
+    }
+
+    /**
+     * Method used to commit the Flight Recorder event of a payment call.
+     */
+    private void commitPaymentCall(Object paymentCallEvent, String apiName, IRequest request, HttpPost httppost,
+	    int httpStatus, long responseBytes, boolean retry) {
+	if (paymentCallEvent != null) {
+	    PaymentEvents.commitCall(paymentCallEvent, apiName, requestHeaderHandler.getMerchantAccount(request),
+		    httpStatus, StandardHttpClient.contentLength(httppost.getEntity()), responseBytes, retry);
+	}
+    }
+
+    /**
+     * Method used to run the completion of a response future on a callback
+     * thread, it runs on the calling thread once the client is closed.
+     */
+    private void dispatch(Runnable completion) {
+	try {
+	    callbackExecutor.execute(completion);
+	} catch (RejectedExecutionException e) {
+	    completion.run();
+	}
+    }
+
+    /**
+     * @param apiName Holds the API name of the endpoint.
+     * @return The {@link CircuitBreaker} guarding the endpoint, or null if the
+     *         circuit breaker is disabled for the endpoint.
+     */
+    public CircuitBreaker getCircuitBreaker(String apiName) {
+	return circuitBreakers.get(apiName);
+    }
+
+    /**
+     * @param merchantAccount Holds the merchant account of the calls.
+     * @return The {@link AdaptiveRateLimiter} of the merchant account, or null if
+     *         the rate limit is disabled.
+     */
+    public AdaptiveRateLimiter getRateLimiter(String merchantAccount) {
+	return rateLimiters.get(merchantAccount);
+    }
+
+    private static void releasePermission(CircuitBreaker circuitBreaker) {
+	if (circuitBreaker != null) {
+	    circuitBreaker.releasePermission();
+	}
+    }
+
+    /**
+     * Closes the pooled HttpAsyncClient and its I/O reactor, stops the callback
+     * threads once the pending completions are run, and unregisters the metrics
+     * of its pool. Should be invoked only when the adapter is shut down.
+     */
+    @Override
+    public void close() throws IOException {
+	PaymentMetrics.unregisterConnectionPool(connectionManager.getConnectionPoolMetrics());
+	httpAsyncClient.close();
+	callbackExecutor.shutdown();
+    }
+
+}
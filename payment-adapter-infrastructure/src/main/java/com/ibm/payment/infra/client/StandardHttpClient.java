@@ -13,39 +13,70 @@ limitations under the License.
 */
 package com.ibm.payment.infra.client;
 
+import java.io.Closeable;
 import java.io.IOException;
-import java.util.Arrays;
+import java.io.InputStream;
 import java.util.Map;
-import java.util.Objects;
-import java.util.stream.Collectors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
 
-import com.fasterxml.jackson.databind.DeserializationFeature;
-import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectReader;
 import com.ibm.payment.infra.exception.PaymentConnectionException;
 import com.ibm.payment.infra.exception.PaymentException;
+import com.ibm.payment.infra.exception.PaymentMappingException;
+import com.ibm.payment.infra.jfr.PaymentEvents;
+import com.ibm.payment.infra.metrics.ConnectionPoolMetrics;
+import com.ibm.payment.infra.metrics.OperationMetrics;
+import com.ibm.payment.infra.metrics.PaymentMetrics;
+import com.ibm.payment.infra.metrics.PaymentPhase;
 import com.ibm.payment.infra.requestHandlers.interfaces.RequestHandler;
 import com.ibm.payment.infra.response.ExceptionError;
 import com.ibm.payment.infra.response.RestHttpClientResponse;
+import com.ibm.payment.infra.util.InfraServiceUtils;
+import com.ibm.payment.infra.util.JsonCodec;
+import com.ibm.payment.infra.util.LogPayloads;
 import org.apache.http.HttpEntity;
+import org.apache.http.HttpResponse;
 import org.apache.http.client.config.RequestConfig;
 import org.apache.http.client.methods.CloseableHttpResponse;
 import org.apache.http.client.methods.HttpPost;
 import org.apache.http.entity.StringEntity;
 import org.apache.http.impl.client.CloseableHttpClient;
 import org.apache.http.impl.client.HttpClientBuilder;
+import org.apache.http.impl.conn.PoolingHttpClientConnectionManager;
 import org.apache.http.util.EntityUtils;
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
 import org.json.JSONObject;
 
-import com.fasterxml.jackson.databind.ObjectMapper;
-
 /**
  *
  * StandardHttpClient class implement from {@link IRestHttpClient} interfaces,
  * have the implementation of CloseableHttpClient used to invoke API from
  * various payment gateways.
  * 
+ * The CloseableHttpClient is created once and is backed by a
+ * {@link PoolingHttpClientConnectionManager}, so the connections (and their TLS
+ * sessions) are reused across the payment calls. The statistics of the pool
+ * are exposed by its {@link ConnectionPoolMetrics}. The instance is thread-safe
+ * and is expected to be shared by all the infra services.
+ * 
+ * Each endpoint is guarded by its own {@link CircuitBreaker}, so the calls
+ * fail fast while the endpoint is failing. When the rate limit is enabled, the
+ * calls of each merchant account are paced by its own
+ * {@link AdaptiveRateLimiter}, which slows down on the 429 and 503 responses.
+ * 
+ * In the streaming mode, the request is written straight into the connection
+ * by {@link JsonStreamingEntity} and the successful responses are parsed from
+ * the response stream by the response reader, without the intermediate String
+ * copies of the payloads.
+ * 
+ * The time spent in {@link PaymentPhase#JSON_ENCODE},
+ * {@link PaymentPhase#CONNECTION_LEASE} and {@link PaymentPhase#NETWORK_WAIT}
+ * is recorded in the {@link PaymentMetrics} of each call, and each call is
+ * emitted as a Flight Recorder event by {@link PaymentEvents}.
+ * 
  * 
  * @param IRequest               Client specific input, Request object of the
  *                               various payment providers.
@@ -53,30 +84,153 @@ import com.fasterxml.jackson.databind.ObjectMapper;
  *                               of the various payment providers.
  */
 public class StandardHttpClient<IRequest, IRequestPathParameters>
-	implements IRestHttpClient<IRequest, IRequestPathParameters> {
+	implements IRestHttpClient<IRequest, IRequestPathParameters>, Closeable {
 
     private static final Logger logger = LogManager.getLogger(StandardHttpClient.class);
 
-    private ObjectMapper objectMapper = new ObjectMapper()
-	    .configure(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES, false)
-	    .enable(SerializationFeature.INDENT_OUTPUT);
-
     private RequestHandler<IRequest, IRequestPathParameters, RequestConfig> requestHeaderHandler;
 
+    private final CloseableHttpClient httpclient;
+
+    private final HttpClientConfig httpClientConfig;
+
+    private final ObjectReader responseReader;
+
+    private static final AtomicInteger clientCount = new AtomicInteger();
+
+    private final MonitoredConnectionManager connectionManager;
+
+    private final CircuitBreakers circuitBreakers;
+
+    private final RateLimiters rateLimiters;
+
     /**
      * Constructor injects the corresponding payment provider's request handlers.
+     * Default connection pool configurations are used.
      * 
      * @param requestHandler Holds {@link RequestHandler} object injects request
      *                       handler specific to payment gateways.
      */
     public StandardHttpClient(RequestHandler<IRequest, IRequestPathParameters, RequestConfig> requestHandler) {
+	this(requestHandler, new HttpClientConfig());
+    }
+
+    /**
+     * Constructor injects the corresponding payment provider's request handlers
+     * and builds the pooled HttpClient. The request configs (socket timeout,
+     * connection request timeout, connect timeout) from the request handler are
+     * set as the default request configs of the HttpClient.
+     * 
+     * @param requestHandler   Holds {@link RequestHandler} object injects request
+     *                         handler specific to payment gateways.
+     * @param httpClientConfig Holds {@link HttpClientConfig} object contains the
+     *                         connection pool configurations.
+     */
+    public StandardHttpClient(RequestHandler<IRequest, IRequestPathParameters, RequestConfig> requestHandler,
+	    HttpClientConfig httpClientConfig) {
+	this(requestHandler, httpClientConfig, null);
+    }
+
+    /**
+     * Constructor injects the corresponding payment provider's request handlers
+     * along with the reader used to parse the successful responses in the
+     * streaming mode, and builds the pooled HttpClient.
+     * 
+     * @param requestHandler   Holds {@link RequestHandler} object injects request
+     *                         handler specific to payment gateways.
+     * @param httpClientConfig Holds {@link HttpClientConfig} object contains the
+     *                         connection pool configurations.
+     * @param responseReader   Holds the {@link ObjectReader} of the payment
+     *                         provider's response, the responses are returned as
+     *                         string if it is null.
+     */
+    public StandardHttpClient(RequestHandler<IRequest, IRequestPathParameters, RequestConfig> requestHandler,
+	    HttpClientConfig httpClientConfig, ObjectReader responseReader) {
+	this(requestHandler, httpClientConfig, responseReader,
+		new RateLimiters(httpClientConfig.getRateLimiterConfig()));
+    }
+
+    /**
+     * Constructor injects the corresponding payment provider's request handlers
+     * along with the rate limiters shared with the other HttpClients of the
+     * configuration, and builds the pooled HttpClient.
+     * 
+     * @param requestHandler   Holds {@link RequestHandler} object injects request
+     *                         handler specific to payment gateways.
+     * @param httpClientConfig Holds {@link HttpClientConfig} object contains the
+     *                         connection pool configurations.
+     * @param responseReader   Holds the {@link ObjectReader} of the payment
+     *                         provider's response, the responses are returned as
+     *                         string if it is null.
+     * @param rateLimiters     Holds the {@link RateLimiters} of the merchant
+     *                         accounts of the configuration.
+     */
+    public StandardHttpClient(RequestHandler<IRequest, IRequestPathParameters, RequestConfig> requestHandler,
+	    HttpClientConfig httpClientConfig, ObjectReader responseReader, RateLimiters rateLimiters) {
 	this.requestHeaderHandler = requestHandler;
+	this.httpClientConfig = httpClientConfig;
+	this.responseReader = httpClientConfig.isStreamingMode() ? responseReader : null;
+	String clientName = "StandardHttpClient-" + clientCount.incrementAndGet();
+	this.connectionManager = new MonitoredConnectionManager(clientName, httpClientConfig);
+	this.circuitBreakers = new CircuitBreakers(clientName, httpClientConfig);
+	this.rateLimiters = rateLimiters;
+	this.httpclient = createHttpClient(connectionManager, requestHandler.getRequestConfig(), httpClientConfig);
+	PaymentMetrics.registerConnectionPool(connectionManager.getConnectionPoolMetrics());
+    }
+
+    /**
+     * @return The {@link ConnectionPoolMetrics} of the connection pool of this
+     *         client.
+     */
+    public ConnectionPoolMetrics getConnectionPoolMetrics() {
+	return connectionManager.getConnectionPoolMetrics();
+    }
+
+    /**
+     * @param apiName Holds the API name of the endpoint.
+     * @return The {@link CircuitBreaker} guarding the endpoint, or null if the
+     *         circuit breaker is disabled for the endpoint.
+     */
+    public CircuitBreaker getCircuitBreaker(String apiName) {
+	return circuitBreakers.get(apiName);
+    }
+
+    /**
+     * @param merchantAccount Holds the merchant account of the calls.
+     * @return The {@link AdaptiveRateLimiter} of the merchant account, or null if
+     *         the rate limit is disabled.
+     */
+    public AdaptiveRateLimiter getRateLimiter(String merchantAccount) {
+	return rateLimiters.get(merchantAccount);
+    }
+
+    /**
+     * Method used to build the CloseableHttpClient backed by
+     * {@link PoolingHttpClientConnectionManager}. Expired and idle connections are
+     * evicted by a background thread, and the connections idle for
+     * validateafterinactivity milliseconds are validated before being leased.
+     * 
+     * @param connectionManager Holds the monitored connection pool.
+     * @param requestConfig    Holds the default request configs.
+     * @param httpClientConfig Holds the connection pool configurations.
+     * @return The pooled {@link CloseableHttpClient} object.
+     */
+    private static CloseableHttpClient createHttpClient(MonitoredConnectionManager connectionManager,
+	    RequestConfig requestConfig, HttpClientConfig httpClientConfig) {
+	HttpClientBuilder httpClientBuilder = HttpClientBuilder.create().setConnectionManager(connectionManager)
+		.setDefaultRequestConfig(requestConfig)
+		.setKeepAliveStrategy(httpClientConfig.getKeepAliveStrategy())
+		.evictExpiredConnections();
+	if (httpClientConfig.getIdleConnectionTimeout() > 0) {
+	    httpClientBuilder.evictIdleConnections(httpClientConfig.getIdleConnectionTimeout(), TimeUnit.MILLISECONDS);
+	}
+	return httpClientBuilder.build();
     }
 
     /**
      * <ul>
-     * <li>This method is the default implementation of invoking POST API using
-     * closeablehttpclient and is created using {@link HttpClientBuilder}. Using
+     * <li>This method is the default implementation of invoking POST API using the
+     * pooled closeablehttpclient created using {@link HttpClientBuilder}. Using
      * {@link HttpPost}, the HTTP client executes to get the payment provider
      * response based on the API name.</li>
      * 
@@ -88,6 +242,10 @@ public class StandardHttpClient<IRequest, IRequestPathParameters>
      * <li>Also, throws {@link PaymentConnectionException} when connectivity issues
      * such as Socket Timeout etc. are encountered when connecting to the payment
      * gateway.</li>
+     * 
+     * <li>Fails fast with {@link PaymentConnectionException} while the
+     * {@link CircuitBreaker} of the endpoint is open, or when the call is beyond
+     * the {@link AdaptiveRateLimiter} of the merchant account.</li>
      * </ul>
      * 
      * @param apiName           Holds the API name of the adapter used in
@@ -108,51 +266,227 @@ public class StandardHttpClient<IRequest, IRequestPathParameters>
     public RestHttpClientResponse sendPost(String apiName, Map<String, String> requestConfig, IRequest request,
 	    IRequestPathParameters requestPathParams) {
 	logger.debug("StandardHttpClient - sendPost");
-	RestHttpClientResponse restHttpClientResponse = new RestHttpClientResponse();
-
-	try (CloseableHttpClient httpclient = HttpClientBuilder.create()
-		.setDefaultRequestConfig(requestHeaderHandler.getRequestConfig()).build()) {
-	    String url = requestHeaderHandler.getResourceURL(apiName, requestPathParams);
-	    logger.debug("Input URL: " + url);
-	    HttpPost httppost = new HttpPost(url);
-
-	    Map<String, String> requestHeader = requestHeaderHandler.getHeader(requestConfig, request);
-
-	    requestHeader.forEach((key, value) -> {
-		logger.debug("Input Header: " + key + ", Value: " + value);
-		httppost.addHeader(key, value);
-	    });
-
-	    if (request == null) {
-		logger.error("Mandatory Properties Missing - Request is Null ");
-		JSONObject errorJSON = new JSONObject();
-		errorJSON.put("errorDescription", "Request post object is null");
-		throw new PaymentException(ExceptionError.PAY0005, errorJSON);
+	// the calls rejected by an open circuit do not take the rate of the merchant account
+	CircuitBreaker circuitBreaker = circuitBreakers.acquirePermission(apiName);
+	AdaptiveRateLimiter rateLimiter = rateLimiters.get(requestHeaderHandler.getMerchantAccount(request));
+	if (rateLimiter != null) {
+	    try {
+		rateLimiter.acquire();
+	    } catch (RuntimeException e) {
+		if (circuitBreaker != null) {
+		    circuitBreaker.releasePermission();
+		}
+		throw e;
 	    }
-	    String content = objectMapper.writeValueAsString(request);
-	    StringEntity params = new StringEntity(content);
-	    logger.debug("Input POST body content - {}", content);
-	    httppost.setEntity(params);
+	}
+	RestHttpClientResponse restHttpClientResponse = new RestHttpClientResponse();
+	Object paymentCallEvent = PaymentEvents.beginCall();
+	HttpPost httppost = null;
+	long responseBytes = -1;
+	boolean retry = false;
+	long startTime = 0;
+	boolean recorded = false;
 
+	try {
+	    httppost = createHttpPost(requestHeaderHandler, apiName, requestConfig, request, requestPathParams,
+		    httpClientConfig.isStreamingMode());
+	    long[] lease = MonitoredConnectionManager.resetLeaseNanos();
+	    startTime = System.nanoTime();
 	    try (CloseableHttpResponse httpresponse = httpclient.execute(httppost)) {
 		if (httpresponse != null) {
-		    restHttpClientResponse.setResponseCode(httpresponse.getStatusLine().getStatusCode());
-		    logger.debug("Output ResponseCode - {}", httpresponse.getStatusLine().getStatusCode());
-		    if (httpresponse.getEntity() != null) {
-			HttpEntity entity = httpresponse.getEntity();
-			String response = EntityUtils.toString(entity);
-			logger.debug("Response - {}", response);
-			restHttpClientResponse.setResponse(response);
-		    }
+		    CircuitBreakers.onResponse(circuitBreaker, httpresponse.getStatusLine().getStatusCode(),
+			    System.nanoTime() - startTime);
+		    recorded = true;
+		    RateLimiters.onResponse(rateLimiter, httpresponse);
+		    recordPayloadSizes(apiName, httppost, httpresponse);
+		    responseBytes = contentLength(httpresponse.getEntity());
+		    restHttpClientResponse = toRestHttpClientResponse(httpresponse, responseReader,
+			    httpClientConfig.getCaptureBufferSize());
 		}
+	    } finally {
+		PaymentMetrics.recordPhase(apiName, PaymentPhase.CONNECTION_LEASE, lease[0]);
+		PaymentMetrics.recordPhase(apiName, PaymentPhase.NETWORK_WAIT, System.nanoTime() - startTime - lease[0]);
 	    }
 	} catch (IOException e) {
-	    logger.error("StandardHttpClient - sendPost - IOException occurs while making httpclient connection - {}"
-		    + Arrays.asList(e.getStackTrace()).stream().map(Objects::toString)
-			    .collect(Collectors.joining("\n")));
+	    retry = true;
+	    if (circuitBreaker != null && !recorded && startTime != 0) {
+		circuitBreaker.onFailure(System.nanoTime() - startTime);
+		recorded = true;
+	    }
+	    logger.error("StandardHttpClient - sendPost - IOException occurs while making httpclient connection", e);
 	    throw new PaymentConnectionException("IOException occurs while making HttpClient connection", e.getCause());
+	} finally {
+	    if (circuitBreaker != null && !recorded) {
+		// the request was not sent
+		circuitBreaker.releasePermission();
+	    }
+	    if (paymentCallEvent != null) {
+		PaymentEvents.commitCall(paymentCallEvent, apiName, requestHeaderHandler.getMerchantAccount(request),
+			restHttpClientResponse.getResponseCode(),
+			httppost == null ? -1 : contentLength(httppost.getEntity()), responseBytes, retry);
+	    }
+	}
+	return restHttpClientResponse;
+    }
+
+    /**
+     * Method used to construct the {@link HttpPost} for the API with the resource
+     * URL, request headers and the post body request obtained from the payment
+     * provider's request handlers. Shared by the blocking and non-blocking HTTP
+     * clients. The request is serialized to compact JSON by the shared
+     * {@link JsonCodec}, straight into the connection in the streaming mode of
+     * the blocking client.
+     * 
+     * @param requestHandler    Holds the payment provider's request handler.
+     * @param apiName           Holds the API name of the adapter used in
+     *                          constructing the resources URL.
+     * @param requestConfig     Contains the request header configuration values.
+     * @param request           Holds the post body request object.
+     * @param requestPathParams Holds request path parameters based on the payment
+     *                          gateway.
+     * @param streamingMode     true to use the {@link JsonStreamingEntity}.
+     * @return The {@link HttpPost} object.
+     * @throws IOException if the request could not be serialized.
+     */
+    static <IRequest, IRequestPathParameters> HttpPost createHttpPost(
+	    RequestHandler<IRequest, IRequestPathParameters, RequestConfig> requestHandler, String apiName,
+	    Map<String, String> requestConfig, IRequest request, IRequestPathParameters requestPathParams,
+	    boolean streamingMode) throws IOException {
+	String url = requestHandler.getResourceURL(apiName, requestPathParams);
+	logger.debug("Input URL: {}", url);
+	HttpPost httppost = new HttpPost(url);
+
+	Map<String, String> requestHeader = requestHandler.getHeader(requestConfig, request);
+
+	requestHeader.forEach((key, value) -> {
+	    logger.debug("Input Header: {}, Value: {}", () -> key, () -> LogPayloads.maskHeader(key, value));
+	    httppost.addHeader(key, value);
+	});
+
+	if (request == null) {
+	    logger.error("Mandatory Properties Missing - Request is Null ");
+	    JSONObject errorJSON = new JSONObject();
+	    errorJSON.put("errorDescription", "Request post object is null");
+	    throw new PaymentException(ExceptionError.PAY0005, errorJSON);
+	}
+	if (streamingMode) {
+	    logger.debug("Input POST body content - {}", () -> LogPayloads.toMaskedJson(request));
+	    httppost.setEntity(new JsonStreamingEntity(request));
+	    return httppost;
+	}
+	long startTime = System.nanoTime();
+	String content = JsonCodec.writeValueAsString(request);
+	PaymentMetrics.recordPhase(apiName, PaymentPhase.JSON_ENCODE, System.nanoTime() - startTime);
+	StringEntity params = new StringEntity(content);
+	logger.debug("Input POST body content - {}", () -> LogPayloads.mask(content));
+	httppost.setEntity(params);
+	return httppost;
+    }
+
+    /**
+     * Method used to record the size of the request and response payloads in the
+     * {@link PaymentMetrics} of the API, when their content length is known.
+     * 
+     * @param apiName      Holds the API name of the adapter.
+     * @param httppost     Holds the HTTP request.
+     * @param httpresponse Holds the HTTP response from the payment provider.
+     */
+    static void recordPayloadSizes(String apiName, HttpPost httppost, HttpResponse httpresponse) {
+	OperationMetrics operationMetrics = PaymentMetrics.getOperationMetrics(apiName);
+	if (operationMetrics == null) {
+	    return;
+	}
+	long requestBytes = contentLength(httppost.getEntity());
+	if (requestBytes >= 0) {
+	    operationMetrics.recordRequestBytes(requestBytes);
+	}
+	long responseBytes = contentLength(httpresponse.getEntity());
+	if (responseBytes >= 0) {
+	    operationMetrics.recordResponseBytes(responseBytes);
+	}
+    }
+
+    /**
+     * @param entity Holds the request or response entity, may be null.
+     * @return The content length of the entity, or the bytes written of a
+     *         streamed request, -1 if it is not known.
+     */
+    static long contentLength(HttpEntity entity) {
+	if (entity instanceof JsonStreamingEntity) {
+	    return ((JsonStreamingEntity) entity).getWrittenBytes();
+	}
+	return entity == null ? -1 : entity.getContentLength();
+    }
+
+    /**
+     * Method used to convert the HTTP response to {@link RestHttpClientResponse}
+     * holding the response code and the response body. When the response reader
+     * is given, the successful responses are parsed straight from the response
+     * stream, only the first capture buffer size bytes are kept for the debug
+     * logging. The error responses are always read as string for the error
+     * mapping.
+     * 
+     * @param httpresponse      Holds the HTTP response from the payment provider.
+     * @param responseReader    Holds the reader of the successful responses, or
+     *                          null to read the responses as string.
+     * @param captureBufferSize Holds the maximum bytes of the streamed response
+     *                          kept for the debug logging.
+     * @return The {@link RestHttpClientResponse} object.
+     * @throws IOException if the response body could not be read.
+     */
+    static RestHttpClientResponse toRestHttpClientResponse(HttpResponse httpresponse, ObjectReader responseReader,
+	    int captureBufferSize) throws IOException {
+	RestHttpClientResponse restHttpClientResponse = new RestHttpClientResponse();
+	restHttpClientResponse.setResponseCode(httpresponse.getStatusLine().getStatusCode());
+	logger.debug("Output ResponseCode - {}", httpresponse.getStatusLine().getStatusCode());
+	if (httpresponse.getEntity() != null) {
+	    HttpEntity entity = httpresponse.getEntity();
+	    if (responseReader != null && InfraServiceUtils.isGoodClientResponse(restHttpClientResponse)) {
+		restHttpClientResponse.setResponseBody(readResponseBody(entity, responseReader, captureBufferSize));
+	    } else {
+		String response = EntityUtils.toString(entity);
+		logger.debug("Response - {}", () -> LogPayloads.mask(response));
+		restHttpClientResponse.setResponse(response);
+	    }
 	}
 	return restHttpClientResponse;
     }
 
+    /**
+     * Method used to parse the response straight from the response stream.
+     * 
+     * @param entity            Holds the response entity.
+     * @param responseReader    Holds the reader of the response.
+     * @param captureBufferSize Holds the maximum bytes kept for the debug logging.
+     * @return The parsed response object.
+     * @throws IOException if the response body could not be read.
+     */
+    private static Object readResponseBody(HttpEntity entity, ObjectReader responseReader, int captureBufferSize)
+	    throws IOException {
+	try (InputStream content = entity.getContent()) {
+	    if (logger.isDebugEnabled()) {
+		CapturingInputStream capturingContent = new CapturingInputStream(content, captureBufferSize);
+		Object responseBody = responseReader.readValue(capturingContent);
+		logger.debug("Response - {}", () -> LogPayloads.mask(capturingContent.getCaptured()));
+		return responseBody;
+	    }
+	    return responseReader.readValue(content);
+	} catch (JsonProcessingException e) {
+	    logger.error("StandardHttpClient - JsonProcessingException occurs while parsing the response stream", e);
+	    JSONObject errorJSON = new JSONObject();
+	    errorJSON.put("errorDescription", e.getOriginalMessage());
+	    throw new PaymentMappingException(ExceptionError.PAY0006, errorJSON);
+	}
+    }
+
+    /**
+     * Closes the pooled HttpClient and its connections, and unregisters the
+     * metrics of its pool. Should be invoked only when the adapter is shut down.
+     */
+    @Override
+    public void close() throws IOException {
+	PaymentMetrics.unregisterConnectionPool(connectionManager.getConnectionPoolMetrics());
+	httpclient.close();
+    }
+
 }
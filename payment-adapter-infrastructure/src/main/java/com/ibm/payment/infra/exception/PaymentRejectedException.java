@@ -0,0 +1,40 @@
+/*
+IBM Confidential
+IBM Sterling OMS Payment Integration Adapter
+(C) Copyright IBM Corp. 2022
+Licensed under the Apache License, Version 2.0 (the "License");
+you may not use this file except in compliance with the License.
+http://www.apache.org/licenses/LICENSE-2.0
+Unless required by applicable law or agreed to in writing, software
+distributed under the License is distributed on an "AS IS" BASIS,
+WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+See the License for the specific language governing permissions and
+limitations under the License.
+*/
+package com.ibm.payment.infra.exception;
+
+/**
+ * <ul>
+ * <li>Custom Exception extends from {@link PaymentConnectionException} used
+ * when a call is rejected before it is sent to the payment provider, such as
+ * an open circuit breaker, an exceeded rate limit or a full bulkhead.</li>
+ * 
+ * <li>The transaction is still marked for retry by OMS, but the call is not
+ * replayed in the background since the payment provider was never
+ * reached.</li>
+ * </ul>
+ * 
+ */
+public class PaymentRejectedException extends PaymentConnectionException {
+
+    /**
+     * 
+     * serial Version ID
+     */
+    private static final long serialVersionUID = 1L;
+
+    public PaymentRejectedException(String errorMessage) {
+	super(errorMessage);
+    }
+
+}
@@ -14,6 +14,7 @@ limitations under the License.
 package com.ibm.payment.infra.implementation;
 
 import java.util.Map;
+import java.util.concurrent.CompletableFuture;
 
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
@@ -22,15 +23,21 @@ import com.ibm.adapter.payment.model.PaymentCollectionInput;
 import com.ibm.adapter.payment.model.PaymentCollectionOutput;
 import com.ibm.model.adyen.AdyenRequest;
 import com.ibm.model.adyen.AdyenResponse;
+import com.ibm.payment.infra.client.IAsyncRestHttpClient;
 import com.ibm.payment.infra.client.IRestHttpClient;
 import com.ibm.payment.infra.context.AdyenRequestPathParam;
 import com.ibm.payment.infra.interfaces.IAmendAuthInfraService;
 import com.ibm.payment.infra.interfaces.IAmountUpdatesResponseHandler;
 import com.ibm.payment.infra.mapper.PaymentToAdyenRequestMapper;
+import com.ibm.payment.infra.metrics.PaymentMetrics;
+import com.ibm.payment.infra.metrics.PaymentPhase;
 import com.ibm.payment.infra.response.RestHttpClientResponse;
 import com.ibm.payment.infra.responseHandlers.AdyenResponseHandler;
+import com.ibm.payment.infra.util.IdempotencyKeys;
 import com.ibm.payment.infra.util.InfraServiceUtils;
 import com.ibm.payment.infra.util.RestHttpClientUtils;
+import com.ibm.payment.infra.util.RestHttpClients;
+import com.ibm.payment.infra.webhook.PendingRequests;
 
 import lombok.SneakyThrows;
 
@@ -47,12 +54,22 @@ public class AmendAuthInfraService<I> implements IAmendAuthInfraService<I> {
     private static final Logger logger = LogManager.getLogger(AmendAuthInfraService.class);
 
     private IRestHttpClient<AdyenRequest, AdyenRequestPathParam> iRestHttpClient;
+    private RestHttpClients restHttpClients;
     private IAmountUpdatesResponseHandler<AdyenResponse, ?> amountUpdatesResponseHandler;
 
-    @SuppressWarnings("unchecked")
     public AmendAuthInfraService() {
+	this(RestHttpClientUtils.getDefaultClients());
+    }
+
+    /**
+     * @param restHttpClients holds the request handler and the RestHttpClients of
+     *                        the configuration of payment provider.
+     */
+    @SuppressWarnings("unchecked")
+    public AmendAuthInfraService(RestHttpClients restHttpClients) {
+	this.restHttpClients = restHttpClients;
 	this.amountUpdatesResponseHandler = new AdyenResponseHandler();
-	this.iRestHttpClient = RestHttpClientUtils.getRestHttpClient();
+	this.iRestHttpClient = restHttpClients.getRestHttpClient();
     }
 
     /**
@@ -96,11 +113,68 @@ public class AmendAuthInfraService<I> implements IAmendAuthInfraService<I> {
     public PaymentCollectionOutput performAmendAuth(PaymentCollectionInput paymentCollectionInput,
 	    Map<String, String> config, String apiName, I requestPathParams) {
 	logger.debug("AmendAuthInfraService - performAmendAuth");
-	AdyenRequest adyenRequest = PaymentToAdyenRequestMapper.MAPPER
-		.paymentToAdyenAmountUpdatesReq(paymentCollectionInput);
-	RestHttpClientResponse restHttpClientResponse = this.iRestHttpClient.sendPost(apiName, config, adyenRequest,
+	AdyenRequest adyenRequest = toAdyenRequest(paymentCollectionInput, apiName);
+	Map<String, String> requestConfig = IdempotencyKeys.withIdempotencyKey(config, apiName,
+		    paymentCollectionInput);
+	RestHttpClientResponse restHttpClientResponse = this.iRestHttpClient.sendPost(apiName, requestConfig, adyenRequest,
 		(AdyenRequestPathParam) requestPathParams);
-	AdyenResponse adyenResponse = InfraServiceUtils.getResponse(restHttpClientResponse);
-	return (PaymentCollectionOutput) amountUpdatesResponseHandler.applyAmountUpdatesResponse(adyenResponse);
+	return PendingRequests.register(apiName, paymentCollectionInput,
+		toPaymentCollectionOutput(restHttpClientResponse, apiName));
+    }
+
+    /**
+     * Performs the same mapping and response handling as {@link #performAmendAuth},
+     * but invokes the payment provider through the non-blocking
+     * {@link IAsyncRestHttpClient}, so no thread is held while waiting for the
+     * response.
+     * 
+     * @param paymentCollectionInput Holds {@link PaymentCollectionInput} payment
+     *                               input object.
+     * @param config                 holds map value containing the request's
+     *                               headers and path parameters.
+     * @param apiName                Holds API names like payment processing,
+     *                               capture, refund, reverse and amend auth.
+     * @param requestPathParams      Holds payment provider's request path
+     *                               parameters.
+     * @return The {@link CompletableFuture} completed with the
+     *         {@link PaymentCollectionOutput} object.
+     */
+    @SuppressWarnings("unchecked")
+    @Override
+    public CompletableFuture<PaymentCollectionOutput> performAmendAuthAsync(
+	    PaymentCollectionInput paymentCollectionInput,
+	    Map<String, String> config, String apiName, I requestPathParams) {
+	logger.debug("AmendAuthInfraService - performAmendAuthAsync");
+	AdyenRequest adyenRequest = toAdyenRequest(paymentCollectionInput, apiName);
+	Map<String, String> requestConfig = IdempotencyKeys.withIdempotencyKey(config, apiName,
+		    paymentCollectionInput);
+	IAsyncRestHttpClient<AdyenRequest, AdyenRequestPathParam> iAsyncRestHttpClient = restHttpClients
+		.getAsyncRestHttpClient();
+	return iAsyncRestHttpClient
+		.sendPostAsync(apiName, requestConfig, adyenRequest, (AdyenRequestPathParam) requestPathParams)
+		.thenApply(restHttpClientResponse -> PendingRequests.register(apiName, paymentCollectionInput,
+			toPaymentCollectionOutput(restHttpClientResponse, apiName)));
+    }
+
+    /**
+     * Method used to map the adapter's input object to the amend auth request, the
+     * time spent is recorded as {@link PaymentPhase#REQUEST_MAPPING}.
+     */
+    private static AdyenRequest toAdyenRequest(PaymentCollectionInput paymentCollectionInput, String apiName) {
+	return PaymentMetrics.time(apiName, PaymentPhase.REQUEST_MAPPING,
+		() -> PaymentToAdyenRequestMapper.MAPPER.paymentToAdyenAmountUpdatesReq(paymentCollectionInput));
+    }
+
+    /**
+     * Method used to convert the HTTP client response to the adapter's output
+     * object, the time spent is recorded as {@link PaymentPhase#JSON_DECODE} and
+     * {@link PaymentPhase#RESPONSE_MAPPING}.
+     */
+    private PaymentCollectionOutput toPaymentCollectionOutput(RestHttpClientResponse restHttpClientResponse,
+	    String apiName) {
+	AdyenResponse adyenResponse = PaymentMetrics.time(apiName, PaymentPhase.JSON_DECODE,
+		() -> InfraServiceUtils.getResponse(restHttpClientResponse));
+	return PaymentMetrics.time(apiName, PaymentPhase.RESPONSE_MAPPING,
+		() -> (PaymentCollectionOutput) amountUpdatesResponseHandler.applyAmountUpdatesResponse(adyenResponse));
     }
 }
@@ -14,6 +14,7 @@ limitations under the License.
 package com.ibm.payment.infra.implementation;
 
 import java.util.Map;
+import java.util.concurrent.CompletableFuture;
 
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
@@ -22,15 +23,22 @@ import com.ibm.adapter.payment.model.PaymentCollectionInput;
 import com.ibm.adapter.payment.model.PaymentCollectionOutput;
 import com.ibm.model.adyen.AdyenRequest;
 import com.ibm.model.adyen.AdyenResponse;
+import com.ibm.payment.infra.client.HedgedRestHttpClient;
+import com.ibm.payment.infra.client.IAsyncRestHttpClient;
 import com.ibm.payment.infra.client.IRestHttpClient;
 import com.ibm.payment.infra.context.AdyenRequestPathParam;
 import com.ibm.payment.infra.interfaces.IProcessPaymentResponseHandler;
 import com.ibm.payment.infra.interfaces.IProcessPaymentsInfraService;
 import com.ibm.payment.infra.mapper.PaymentToAdyenRequestMapper;
+import com.ibm.payment.infra.metrics.PaymentMetrics;
+import com.ibm.payment.infra.metrics.PaymentPhase;
 import com.ibm.payment.infra.response.RestHttpClientResponse;
 import com.ibm.payment.infra.responseHandlers.AdyenResponseHandler;
+import com.ibm.payment.infra.util.IdempotencyKeys;
 import com.ibm.payment.infra.util.InfraServiceUtils;
 import com.ibm.payment.infra.util.RestHttpClientUtils;
+import com.ibm.payment.infra.util.RestHttpClients;
+import com.ibm.payment.infra.webhook.PendingRequests;
 
 import lombok.SneakyThrows;
 
@@ -61,12 +69,25 @@ public class ProcessPaymentsInfraService<I> implements IProcessPaymentsInfraServ
     private static final Logger logger = LogManager.getLogger(ProcessPaymentsInfraService.class);
 
     private IRestHttpClient<AdyenRequest, AdyenRequestPathParam> iRestHttpClient;
+    private RestHttpClients restHttpClients;
     private IProcessPaymentResponseHandler<AdyenResponse, ?> paymentResponseHandler;
 
-    @SuppressWarnings("unchecked")
     public ProcessPaymentsInfraService() {
+	this(RestHttpClientUtils.getDefaultClients());
+    }
+
+    /**
+     * @param restHttpClients holds the request handler and the RestHttpClients of
+     *                        the configuration of payment provider.
+     */
+    @SuppressWarnings("unchecked")
+    public ProcessPaymentsInfraService(RestHttpClients restHttpClients) {
+	this.restHttpClients = restHttpClients;
 	this.paymentResponseHandler = new AdyenResponseHandler();
-	this.iRestHttpClient = RestHttpClientUtils.getRestHttpClient();
+	IRestHttpClient<AdyenRequest, AdyenRequestPathParam> hedgedRestHttpClient = restHttpClients
+		.getHedgedRestHttpClient();
+	this.iRestHttpClient = hedgedRestHttpClient == null ? restHttpClients.getRestHttpClient()
+		: hedgedRestHttpClient;
     }
     
     /**
@@ -87,6 +108,9 @@ public class ProcessPaymentsInfraService<I> implements IProcessPaymentsInfraServ
      * created. Customer has added additional items to the order and the order total
      * is now $250.Oms creates an additional authorisation request for $50.</li>
      * </ul>
+     * When the hedging is configured, the request is sent through the
+     * {@link HedgedRestHttpClient}, so that a slow or failed primary endpoint is
+     * hedged to the secondary one with the same idempotency key.
      * 
      * @param paymentCollectionInput Holds {@link PaymentCollectionInput} object
      *                               used to perform process payment.
@@ -101,10 +125,71 @@ public class ProcessPaymentsInfraService<I> implements IProcessPaymentsInfraServ
     public PaymentCollectionOutput performPayment(PaymentCollectionInput paymentCollectionInput, Map config,
 	    String apiName, Object requestPathParams) {
 	logger.debug("ProcessPaymentsInfraService - performPayment");
-	AdyenRequest adyenRequest = PaymentToAdyenRequestMapper.MAPPER.paymentToAdyenPayments(paymentCollectionInput);
-	RestHttpClientResponse restHttpClientResponse = this.iRestHttpClient.sendPost(apiName, config,
+	AdyenRequest adyenRequest = toAdyenRequest(paymentCollectionInput, apiName);
+	Map<String, String> requestConfig = IdempotencyKeys.withIdempotencyKey(config, apiName,
+		    paymentCollectionInput);
+	RestHttpClientResponse restHttpClientResponse = this.iRestHttpClient.sendPost(apiName, requestConfig,
 		(AdyenRequest) adyenRequest, (AdyenRequestPathParam) requestPathParams);
-	AdyenResponse adyenResponse = InfraServiceUtils.getResponse(restHttpClientResponse);
-	return (PaymentCollectionOutput) this.paymentResponseHandler.applyPaymentsResponse(adyenResponse);
+	return PendingRequests.register(apiName, paymentCollectionInput,
+		toPaymentCollectionOutput(restHttpClientResponse, apiName));
+    }
+
+    /**
+     * Performs the same mapping and response handling as {@link #performPayment},
+     * but invokes the payment provider through the non-blocking
+     * {@link IAsyncRestHttpClient}, so no thread is held while waiting for the
+     * response.
+     * 
+     * @param paymentCollectionInput Holds {@link PaymentCollectionInput} payment
+     *                               input object.
+     * @param config                 holds map value containing the request's
+     *                               headers and path parameters.
+     * @param apiName                Holds API names like payment processing,
+     *                               capture, refund, reverse and amend auth.
+     * @param requestPathParams      Holds payment provider's request path
+     *                               parameters.
+     * @return The {@link CompletableFuture} completed with the
+     *         {@link PaymentCollectionOutput} object.
+     */
+    @SuppressWarnings("unchecked")
+    @Override
+    public CompletableFuture<PaymentCollectionOutput> performPaymentAsync(
+	    PaymentCollectionInput paymentCollectionInput,
+	    Map config, String apiName, Object requestPathParams) {
+	logger.debug("ProcessPaymentsInfraService - performPaymentAsync");
+	AdyenRequest adyenRequest = toAdyenRequest(paymentCollectionInput, apiName);
+	Map<String, String> requestConfig = IdempotencyKeys.withIdempotencyKey(config, apiName,
+		    paymentCollectionInput);
+	IAsyncRestHttpClient<AdyenRequest, AdyenRequestPathParam> iAsyncRestHttpClient = restHttpClients
+		.getHedgedAsyncRestHttpClient();
+	if (iAsyncRestHttpClient == null) {
+	    iAsyncRestHttpClient = restHttpClients.getAsyncRestHttpClient();
+	}
+	return iAsyncRestHttpClient
+		.sendPostAsync(apiName, requestConfig, adyenRequest, (AdyenRequestPathParam) requestPathParams)
+		.thenApply(restHttpClientResponse -> PendingRequests.register(apiName, paymentCollectionInput,
+			toPaymentCollectionOutput(restHttpClientResponse, apiName)));
+    }
+
+    /**
+     * Method used to map the adapter's input object to the payments request, the
+     * time spent is recorded as {@link PaymentPhase#REQUEST_MAPPING}.
+     */
+    private static AdyenRequest toAdyenRequest(PaymentCollectionInput paymentCollectionInput, String apiName) {
+	return PaymentMetrics.time(apiName, PaymentPhase.REQUEST_MAPPING,
+		() -> PaymentToAdyenRequestMapper.MAPPER.paymentToAdyenPayments(paymentCollectionInput));
+    }
+
+    /**
+     * Method used to convert the HTTP client response to the adapter's output
+     * object, the time spent is recorded as {@link PaymentPhase#JSON_DECODE} and
+     * {@link PaymentPhase#RESPONSE_MAPPING}.
+     */
+    private PaymentCollectionOutput toPaymentCollectionOutput(RestHttpClientResponse restHttpClientResponse,
+	    String apiName) {
+	AdyenResponse adyenResponse = PaymentMetrics.time(apiName, PaymentPhase.JSON_DECODE,
+		() -> InfraServiceUtils.getResponse(restHttpClientResponse));
+	return PaymentMetrics.time(apiName, PaymentPhase.RESPONSE_MAPPING,
+		() -> (PaymentCollectionOutput) this.paymentResponseHandler.applyPaymentsResponse(adyenResponse));
     }
 }
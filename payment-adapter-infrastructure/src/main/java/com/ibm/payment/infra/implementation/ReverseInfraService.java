@@ -15,6 +15,7 @@ limitations under the License.
 package com.ibm.payment.infra.implementation;
 
 import java.util.Map;
+import java.util.concurrent.CompletableFuture;
 
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
@@ -23,15 +24,21 @@ import com.ibm.adapter.payment.model.PaymentCollectionInput;
 import com.ibm.adapter.payment.model.PaymentCollectionOutput;
 import com.ibm.model.adyen.AdyenRequest;
 import com.ibm.model.adyen.AdyenResponse;
+import com.ibm.payment.infra.client.IAsyncRestHttpClient;
 import com.ibm.payment.infra.client.IRestHttpClient;
 import com.ibm.payment.infra.context.AdyenRequestPathParam;
 import com.ibm.payment.infra.interfaces.IReverseInfraService;
 import com.ibm.payment.infra.interfaces.IReverseResponseHandler;
 import com.ibm.payment.infra.mapper.PaymentToAdyenRequestMapper;
+import com.ibm.payment.infra.metrics.PaymentMetrics;
+import com.ibm.payment.infra.metrics.PaymentPhase;
 import com.ibm.payment.infra.response.RestHttpClientResponse;
 import com.ibm.payment.infra.responseHandlers.AdyenResponseHandler;
+import com.ibm.payment.infra.util.IdempotencyKeys;
 import com.ibm.payment.infra.util.InfraServiceUtils;
 import com.ibm.payment.infra.util.RestHttpClientUtils;
+import com.ibm.payment.infra.util.RestHttpClients;
+import com.ibm.payment.infra.webhook.PendingRequests;
 
 import lombok.SneakyThrows;
 
@@ -46,12 +53,22 @@ public class ReverseInfraService<I> implements IReverseInfraService<I> {
     private static final Logger logger = LogManager.getLogger(ReverseInfraService.class);
 
     private IRestHttpClient<AdyenRequest, AdyenRequestPathParam> iRestHttpClient;
+    private RestHttpClients restHttpClients;
     private IReverseResponseHandler<AdyenResponse, ?> reverseResponseHandler;
 
-    @SuppressWarnings("unchecked")
     public ReverseInfraService() {
+	this(RestHttpClientUtils.getDefaultClients());
+    }
+
+    /**
+     * @param restHttpClients holds the request handler and the RestHttpClients of
+     *                        the configuration of payment provider.
+     */
+    @SuppressWarnings("unchecked")
+    public ReverseInfraService(RestHttpClients restHttpClients) {
+	this.restHttpClients = restHttpClients;
 	reverseResponseHandler = new AdyenResponseHandler();
-	this.iRestHttpClient = RestHttpClientUtils.getRestHttpClient();
+	this.iRestHttpClient = restHttpClients.getRestHttpClient();
     }
 
     /**
@@ -99,12 +116,68 @@ public class ReverseInfraService<I> implements IReverseInfraService<I> {
     public PaymentCollectionOutput performReverseAuth(PaymentCollectionInput paymentCollectionInput,
 	    Map<String, String> config, String apiName, I requestPathParams) {
 	logger.debug("ReverseInfraService - performReverse");
-	AdyenRequest adyenRequest = PaymentToAdyenRequestMapper.MAPPER
-		.paymentToAdyenFullReverseReq(paymentCollectionInput);
-	RestHttpClientResponse restHttpClientResponse = this.iRestHttpClient.sendPost(apiName, config,
+	AdyenRequest adyenRequest = toAdyenRequest(paymentCollectionInput, apiName);
+	Map<String, String> requestConfig = IdempotencyKeys.withIdempotencyKey(config, apiName,
+		    paymentCollectionInput);
+	RestHttpClientResponse restHttpClientResponse = this.iRestHttpClient.sendPost(apiName, requestConfig,
 		(AdyenRequest) adyenRequest, (AdyenRequestPathParam) requestPathParams);
-	AdyenResponse adyenResponse = InfraServiceUtils.getResponse(restHttpClientResponse);
-	return (PaymentCollectionOutput) reverseResponseHandler.applyReverseResponse(adyenResponse);
+	return PendingRequests.register(apiName, paymentCollectionInput,
+		toPaymentCollectionOutput(restHttpClientResponse, apiName));
+    }
+
+    /**
+     * Performs the same mapping and response handling as
+     * {@link #performReverseAuth}, but invokes the payment provider through the
+     * non-blocking {@link IAsyncRestHttpClient}, so no thread is held while waiting
+     * for the response.
+     * 
+     * @param paymentCollectionInput Holds {@link PaymentCollectionInput} payment
+     *                               input object.
+     * @param config                 holds map value containing the request's
+     *                               headers and path parameters.
+     * @param apiName                Holds API names like payment processing,
+     *                               capture, refund, reverse and amend auth.
+     * @param requestPathParams      Holds payment provider's request path
+     *                               parameters.
+     * @return The {@link CompletableFuture} completed with the
+     *         {@link PaymentCollectionOutput} object.
+     */
+    @SuppressWarnings("unchecked")
+    @Override
+    public CompletableFuture<PaymentCollectionOutput> performReverseAuthAsync(
+	    PaymentCollectionInput paymentCollectionInput,
+	    Map<String, String> config, String apiName, I requestPathParams) {
+	logger.debug("ReverseInfraService - performReverseAuthAsync");
+	AdyenRequest adyenRequest = toAdyenRequest(paymentCollectionInput, apiName);
+	Map<String, String> requestConfig = IdempotencyKeys.withIdempotencyKey(config, apiName,
+		    paymentCollectionInput);
+	IAsyncRestHttpClient<AdyenRequest, AdyenRequestPathParam> iAsyncRestHttpClient = restHttpClients
+		.getAsyncRestHttpClient();
+	return iAsyncRestHttpClient
+		.sendPostAsync(apiName, requestConfig, adyenRequest, (AdyenRequestPathParam) requestPathParams)
+		.thenApply(restHttpClientResponse -> PendingRequests.register(apiName, paymentCollectionInput,
+			toPaymentCollectionOutput(restHttpClientResponse, apiName)));
     }
 
+    /**
+     * Method used to map the adapter's input object to the reverse request, the
+     * time spent is recorded as {@link PaymentPhase#REQUEST_MAPPING}.
+     */
+    private static AdyenRequest toAdyenRequest(PaymentCollectionInput paymentCollectionInput, String apiName) {
+	return PaymentMetrics.time(apiName, PaymentPhase.REQUEST_MAPPING,
+		() -> PaymentToAdyenRequestMapper.MAPPER.paymentToAdyenFullReverseReq(paymentCollectionInput));
+    }
+
+    /**
+     * Method used to convert the HTTP client response to the adapter's output
+     * object, the time spent is recorded as {@link PaymentPhase#JSON_DECODE} and
+     * {@link PaymentPhase#RESPONSE_MAPPING}.
+     */
+    private PaymentCollectionOutput toPaymentCollectionOutput(RestHttpClientResponse restHttpClientResponse,
+	    String apiName) {
+	AdyenResponse adyenResponse = PaymentMetrics.time(apiName, PaymentPhase.JSON_DECODE,
+		() -> InfraServiceUtils.getResponse(restHttpClientResponse));
+	return PaymentMetrics.time(apiName, PaymentPhase.RESPONSE_MAPPING,
+		() -> (PaymentCollectionOutput) reverseResponseHandler.applyReverseResponse(adyenResponse));
+    }
 }
@@ -14,6 +14,7 @@ limitations under the License.
 package com.ibm.payment.infra.interfaces;
 
 import java.util.Map;
+import java.util.concurrent.CompletableFuture;
 
 import com.ibm.adapter.payment.model.PaymentCollectionInput;
 import com.ibm.adapter.payment.model.PaymentCollectionOutput;
@@ -63,4 +64,25 @@ public interface ICaptureInfraService<I> {
 	 */
 	PaymentCollectionOutput performCapture(PaymentCollectionInput paymentCollectionInput, Map<String, String> config,
 			String apiName, I requestPathParams);
+
+	/**
+	 * Non-blocking counterpart of {@link #performCapture}, used for processing the
+	 * capture payment without holding the calling thread for the whole round-trip
+	 * to the payment provider. Connectivity issues complete the returned future
+	 * exceptionally with PaymentConnectionException.
+	 * 
+	 * @param paymentCollectionInput Holds {@link PaymentCollectionInput} payment
+	 *                               input object.
+	 * @param config                 holds map value containing the request's
+	 *                               headers and path parameters.
+	 * @param apiName                Holds API names like payment processing,
+	 *                               capture, refund, reverse and amend auth.
+	 * @param requestPathParams      Holds payment provider's request path
+	 *                               parameters.
+	 * @return The {@link CompletableFuture} completed with the
+	 *         {@link PaymentCollectionOutput} object.
+	 */
+	CompletableFuture<PaymentCollectionOutput> performCaptureAsync(
+			PaymentCollectionInput paymentCollectionInput,
+			Map<String, String> config, String apiName, I requestPathParams);
 }
@@ -0,0 +1,79 @@
+/*
+IBM Confidential
+IBM Sterling OMS Payment Integration Adapter
+(C) Copyright IBM Corp. 2022
+Licensed under the Apache License, Version 2.0 (the "License");
+you may not use this file except in compliance with the License.
+http://www.apache.org/licenses/LICENSE-2.0
+Unless required by applicable law or agreed to in writing, software
+distributed under the License is distributed on an "AS IS" BASIS,
+WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+See the License for the specific language governing permissions and
+limitations under the License.
+*/
+package com.ibm.payment.infra.jfr;
+
+import jdk.jfr.EventType;
+
+/**
+ * 
+ * JfrEvents class creates the Flight Recorder events. It is only loaded by
+ * {@link PaymentEvents} when the runtime has the jdk.jfr module.
+ *
+ */
+final class JfrEvents {
+
+    private static final EventType paymentCallEventType = EventType.getEventType(PaymentCallEvent.class);
+
+    private static final EventType paymentOperationEventType = EventType
+	    .getEventType(PaymentOperationEvent.class);
+
+    private JfrEvents() {
+    }
+
+    static Object beginCall() {
+	if (!paymentCallEventType.isEnabled()) {
+	    return null;
+	}
+	PaymentCallEvent event = new PaymentCallEvent();
+	event.begin();
+	return event;
+    }
+
+    static void commitCall(Object paymentCallEvent, String serviceType, String merchantAccount, int httpStatus,
+	    long requestBytes, long responseBytes, boolean retry) {
+	PaymentCallEvent event = (PaymentCallEvent) paymentCallEvent;
+	event.end();
+	if (event.shouldCommit()) {
+	    event.serviceType = serviceType;
+	    event.merchantAccount = merchantAccount;
+	    event.httpStatus = httpStatus;
+	    event.requestBytes = requestBytes;
+	    event.responseBytes = responseBytes;
+	    event.retry = retry;
+	    event.commit();
+	}
+    }
+
+    static Object beginOperation() {
+	if (!paymentOperationEventType.isEnabled()) {
+	    return null;
+	}
+	PaymentOperationEvent event = new PaymentOperationEvent();
+	event.begin();
+	return event;
+    }
+
+    static void commitOperation(Object paymentOperationEvent, String serviceType, String merchantAccount,
+	    String outcome, boolean retry) {
+	PaymentOperationEvent event = (PaymentOperationEvent) paymentOperationEvent;
+	event.end();
+	if (event.shouldCommit()) {
+	    event.serviceType = serviceType;
+	    event.merchantAccount = merchantAccount;
+	    event.outcome = outcome;
+	    event.retry = retry;
+	    event.commit();
+	}
+    }
+}
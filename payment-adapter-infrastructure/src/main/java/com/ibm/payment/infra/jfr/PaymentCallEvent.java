@@ -0,0 +1,61 @@
+/*
+IBM Confidential
+IBM Sterling OMS Payment Integration Adapter
+(C) Copyright IBM Corp. 2022
+Licensed under the Apache License, Version 2.0 (the "License");
+you may not use this file except in compliance with the License.
+http://www.apache.org/licenses/LICENSE-2.0
+Unless required by applicable law or agreed to in writing, software
+distributed under the License is distributed on an "AS IS" BASIS,
+WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+See the License for the specific language governing permissions and
+limitations under the License.
+*/
+package com.ibm.payment.infra.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.DataAmount;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * 
+ * PaymentCallEvent is the Flight Recorder event of a single HTTP call to the
+ * payment service provider. The duration of the event is the duration of the
+ * call.
+ *
+ */
+@Name(PaymentCallEvent.NAME)
+@Label("Payment Call")
+@Category(PaymentEvents.CATEGORY)
+@Description("HTTP call to the payment service provider")
+@StackTrace(false)
+class PaymentCallEvent extends Event {
+
+    static final String NAME = "com.ibm.payment.PaymentCall";
+
+    @Label("Service Type")
+    String serviceType;
+
+    @Label("Merchant Account")
+    String merchantAccount;
+
+    @Label("HTTP Status")
+    @Description("0 when no response was received")
+    int httpStatus;
+
+    @Label("Request Bytes")
+    @DataAmount
+    long requestBytes;
+
+    @Label("Response Bytes")
+    @DataAmount
+    long responseBytes;
+
+    @Label("Retry")
+    @Description("The call failed to connect and the payment is marked for retry")
+    boolean retry;
+}
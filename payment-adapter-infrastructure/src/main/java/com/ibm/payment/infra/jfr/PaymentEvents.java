@@ -0,0 +1,117 @@
+/*
+IBM Confidential
+IBM Sterling OMS Payment Integration Adapter
+(C) Copyright IBM Corp. 2022
+Licensed under the Apache License, Version 2.0 (the "License");
+you may not use this file except in compliance with the License.
+http://www.apache.org/licenses/LICENSE-2.0
+Unless required by applicable law or agreed to in writing, software
+distributed under the License is distributed on an "AS IS" BASIS,
+WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+See the License for the specific language governing permissions and
+limitations under the License.
+*/
+package com.ibm.payment.infra.jfr;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import com.ibm.payment.infra.exception.PaymentConnectionException;
+import com.ibm.payment.infra.metrics.PaymentOutcome;
+
+/**
+ * 
+ * PaymentEvents class emits the JDK Flight Recorder events of the adapter, so
+ * the payment latency can be correlated with the GC pauses and the thread
+ * contention of the same recording.
+ * <ul>
+ * <li>com.ibm.payment.PaymentCall - each HTTP call to the payment service
+ * provider.</li>
+ * <li>com.ibm.payment.PaymentOperation - each payment operation of the service
+ * layer.</li>
+ * </ul>
+ * The begin methods return null when no recording has the event enabled, or
+ * when the runtime has no Flight Recorder, and the commit methods ignore a null
+ * event, so nothing is allocated while recording is off. The events are
+ * committed on the thread completing the call.
+ *
+ */
+public final class PaymentEvents {
+
+    private static final Logger logger = LogManager.getLogger(PaymentEvents.class);
+
+    static final String CATEGORY = "OMS Payment Adapter";
+
+    private static final boolean jfrAvailable = isJfrAvailable();
+
+    private PaymentEvents() {
+    }
+
+    /**
+     * Method used to start the event of an HTTP call.
+     * 
+     * @return The started event, or null if it is not recorded.
+     */
+    public static Object beginCall() {
+	return jfrAvailable ? JfrEvents.beginCall() : null;
+    }
+
+    /**
+     * Method used to complete the event of an HTTP call.
+     * 
+     * @param paymentCallEvent holds the event returned by {@link #beginCall()}.
+     * @param serviceType      holds the API name of the call.
+     * @param merchantAccount  holds the merchant account of the request, if known.
+     * @param httpStatus       holds the HTTP status of the response, 0 when no
+     *                         response was received.
+     * @param requestBytes     holds the size of the request, -1 if unknown.
+     * @param responseBytes    holds the size of the response, -1 if unknown.
+     * @param retry            true if the call failed with a
+     *                         {@link PaymentConnectionException}.
+     */
+    public static void commitCall(Object paymentCallEvent, String serviceType, String merchantAccount,
+	    int httpStatus, long requestBytes, long responseBytes, boolean retry) {
+	if (paymentCallEvent != null) {
+	    JfrEvents.commitCall(paymentCallEvent, serviceType, merchantAccount, httpStatus, requestBytes,
+		    responseBytes, retry);
+	}
+    }
+
+    /**
+     * Method used to start the event of a payment operation.
+     * 
+     * @return The started event, or null if it is not recorded.
+     */
+    public static Object beginOperation() {
+	return jfrAvailable ? JfrEvents.beginOperation() : null;
+    }
+
+    /**
+     * Method used to complete the event of a payment operation.
+     * 
+     * @param paymentOperationEvent holds the event returned by
+     *                              {@link #beginOperation()}.
+     * @param serviceType           holds the service type of the operation.
+     * @param merchantAccount       holds the merchant account of the payment.
+     * @param throwable             holds the exception of the operation, or null
+     *                              if it succeeded.
+     */
+    public static void commitOperation(Object paymentOperationEvent, String serviceType, String merchantAccount,
+	    Throwable throwable) {
+	if (paymentOperationEvent != null) {
+	    PaymentOutcome outcome = throwable == null ? PaymentOutcome.SUCCESS : PaymentOutcome.of(throwable);
+	    JfrEvents.commitOperation(paymentOperationEvent, serviceType, merchantAccount, outcome.name(),
+		    outcome == PaymentOutcome.CONNECTION_RETRY);
+	}
+    }
+
+    private static boolean isJfrAvailable() {
+	try {
+	    Class.forName("jdk.jfr.FlightRecorder", false, PaymentEvents.class.getClassLoader());
+	    return true;
+	} catch (ClassNotFoundException | LinkageError e) {
+	    logger.debug("PaymentEvents - Flight Recorder is not available in this runtime");
+	    return false;
+	}
+    }
+}
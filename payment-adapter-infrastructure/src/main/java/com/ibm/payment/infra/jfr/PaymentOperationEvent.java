@@ -0,0 +1,52 @@
+/*
+IBM Confidential
+IBM Sterling OMS Payment Integration Adapter
+(C) Copyright IBM Corp. 2022
+Licensed under the Apache License, Version 2.0 (the "License");
+you may not use this file except in compliance with the License.
+http://www.apache.org/licenses/LICENSE-2.0
+Unless required by applicable law or agreed to in writing, software
+distributed under the License is distributed on an "AS IS" BASIS,
+WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+See the License for the specific language governing permissions and
+limitations under the License.
+*/
+package com.ibm.payment.infra.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * 
+ * PaymentOperationEvent is the Flight Recorder event of a payment operation
+ * executed by the service layer, such as capture or refund. The duration of the
+ * event includes the mapping and the HTTP calls of the operation.
+ *
+ */
+@Name(PaymentOperationEvent.NAME)
+@Label("Payment Operation")
+@Category(PaymentEvents.CATEGORY)
+@Description("Payment operation executed by the adapter")
+@StackTrace(false)
+class PaymentOperationEvent extends Event {
+
+    static final String NAME = "com.ibm.payment.PaymentOperation";
+
+    @Label("Service Type")
+    String serviceType;
+
+    @Label("Merchant Account")
+    String merchantAccount;
+
+    @Label("Outcome")
+    @Description("SUCCESS, the ExceptionError code, CONNECTION_RETRY or OTHER_FAILURE")
+    String outcome;
+
+    @Label("Retry")
+    @Description("The payment is marked for retry")
+    boolean retry;
+}
@@ -15,12 +15,13 @@ package com.ibm.payment.infra.mapper;
 
 import com.ibm.adapter.payment.model.PaymentCollectionInput;
 import com.ibm.model.adyen.AdyenRequest;
+import com.ibm.payment.infra.util.MinorUnits;
 import org.mapstruct.Mapper;
 import org.mapstruct.Mapping;
 import org.mapstruct.factory.Mappers;
 import java.math.BigDecimal;
 
-@Mapper
+@Mapper(imports = MinorUnits.class)
 public interface PaymentToAdyenRequestMapper {
     PaymentToAdyenRequestMapper MAPPER = Mappers.getMapper(PaymentToAdyenRequestMapper.class);
 
@@ -36,14 +37,14 @@ public interface PaymentToAdyenRequestMapper {
     // Capture
     @Mapping(source = "paymentKey", target = "reference")
     @Mapping(source = "currency", target = "amount.currency")
-    @Mapping(target = "amount.value", expression = "java( paymentCollectionInput.getRequestAmount().abs().multiply(java.math.BigDecimal.valueOf(100)) )")
+    @Mapping(target = "amount.value", expression = "java( MinorUnits.toAmountValue(paymentCollectionInput.getRequestAmount(), paymentCollectionInput.getCurrency()) )")
     @Mapping(source = "merchantId", target = "merchantAccount")
     AdyenRequest paymentToAdyenCaptureReq(PaymentCollectionInput paymentCollectionInput);
 
     // amount Update
     @Mapping(source = "paymentKey", target = "reference")
     @Mapping(source = "currency", target = "amount.currency")
-    @Mapping(target = "amount.value", expression = "java( (paymentCollectionInput.getRequestAmount().abs().add(paymentCollectionInput.getAuthorizedAmount().abs()).multiply(java.math.BigDecimal.valueOf(100)) ))")
+    @Mapping(target = "amount.value", expression = "java( MinorUnits.toAmountValue(paymentCollectionInput.getRequestAmount(), paymentCollectionInput.getAuthorizedAmount(), paymentCollectionInput.getCurrency()) )")
     @Mapping(source = "merchantId", target = "merchantAccount")
     AdyenRequest paymentToAdyenAmountUpdatesReq(PaymentCollectionInput paymentCollectionInput);
 
@@ -54,11 +55,11 @@ public interface PaymentToAdyenRequestMapper {
 
     @Mapping(source = "paymentKey", target = "reference")
     @Mapping(source = "currency", target = "amount.currency")
-    @Mapping(target = "amount.value", expression = "java(  paymentCollectionInput.getRequestAmount().abs().multiply(java.math.BigDecimal.valueOf(100)) )")
+    @Mapping(target = "amount.value", expression = "java( MinorUnits.toAmountValue(paymentCollectionInput.getRequestAmount(), paymentCollectionInput.getCurrency()) )")
     @Mapping(source = "merchantId", target = "merchantAccount")
     AdyenRequest paymentToAdyenPartialRefundReq(PaymentCollectionInput paymentCollectionInput);
 
-    @Mapping(target = "amount.value", expression = "java( paymentCollectionInput.getRequestAmount().abs().multiply(java.math.BigDecimal.valueOf(100)) )")
+    @Mapping(target = "amount.value", expression = "java( MinorUnits.toAmountValue(paymentCollectionInput.getRequestAmount(), paymentCollectionInput.getCurrency()) )")
     @Mapping(source = "currency", target = "amount.currency")
     @Mapping(constant = "scheme", target = "paymentMethod.type")
     @Mapping(source = "paymentReference3", target = "paymentMethod.storedPaymentMethodId")
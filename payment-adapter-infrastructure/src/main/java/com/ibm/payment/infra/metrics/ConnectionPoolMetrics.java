@@ -0,0 +1,220 @@
+/*
+IBM Confidential
+IBM Sterling OMS Payment Integration Adapter
+(C) Copyright IBM Corp. 2022
+Licensed under the Apache License, Version 2.0 (the "License");
+you may not use this file except in compliance with the License.
+http://www.apache.org/licenses/LICENSE-2.0
+Unless required by applicable law or agreed to in writing, software
+distributed under the License is distributed on an "AS IS" BASIS,
+WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+See the License for the specific language governing permissions and
+limitations under the License.
+*/
+package com.ibm.payment.infra.metrics;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+import org.HdrHistogram.ConcurrentHistogram;
+import org.HdrHistogram.Histogram;
+import org.apache.http.pool.ConnPoolControl;
+import org.apache.http.pool.PoolStats;
+
+/**
+ * 
+ * ConnectionPoolMetrics class records the metrics of an HTTP connection pool
+ * of the payment provider's clients.
+ * <ul>
+ * <li>The live leased, pending and available connections, read from the
+ * pool.</li>
+ * <li>The time waited for each lease, in an HdrHistogram with microsecond
+ * values, and the leases which timed out.</li>
+ * <li>The connections created and evicted, the closed connections are the
+ * created ones which are no longer in the pool.</li>
+ * </ul>
+ * The pool is saturated when a lease is pending or when the leased connections
+ * reach the saturation threshold percent of the maximum. The saturation is
+ * checked after each lease and raised through
+ * {@link PaymentMetrics#poolSaturated(ConnectionPoolSnapshot)} at most once per
+ * alarm interval.
+ *
+ */
+public class ConnectionPoolMetrics implements ConnectionPoolMetricsMXBean {
+
+    private static final long MAX_LEASE_WAIT_MICROS = TimeUnit.MINUTES.toMicros(10);
+    private static final int SIGNIFICANT_DIGITS = 2;
+    private static final long ALARM_INTERVAL_NANOS = TimeUnit.MINUTES.toNanos(1);
+
+    private final String name;
+    private final ConnPoolControl<?> connectionPool;
+    private final int saturationThreshold;
+    private final Histogram leaseWaitHistogram = new ConcurrentHistogram(MAX_LEASE_WAIT_MICROS,
+	    SIGNIFICANT_DIGITS);
+    private final LongAdder connectionsCreated = new LongAdder();
+    private final LongAdder connectionsEvicted = new LongAdder();
+    private final LongAdder leaseTimeouts = new LongAdder();
+    private final LongAdder saturationCount = new LongAdder();
+    private final AtomicLong lastAlarmTime = new AtomicLong(System.nanoTime() - ALARM_INTERVAL_NANOS);
+
+    /**
+     * @param name                holds the name of the pool, unique in the
+     *                            process.
+     * @param connectionPool      holds the pool whose live statistics are read.
+     * @param saturationThreshold holds the percent of the maximum connections
+     *                            leased at which the pool is saturated.
+     */
+    public ConnectionPoolMetrics(String name, ConnPoolControl<?> connectionPool, int saturationThreshold) {
+	this.name = name;
+	this.connectionPool = connectionPool;
+	this.saturationThreshold = saturationThreshold;
+    }
+
+    /**
+     * Method used to record a lease and check the saturation of the pool.
+     * 
+     * @param waitNanos holds the time waited for the connection in nanoseconds.
+     */
+    public void recordLease(long waitNanos) {
+	leaseWaitHistogram.recordValue(
+		Math.min(Math.max(TimeUnit.NANOSECONDS.toMicros(waitNanos), 0), MAX_LEASE_WAIT_MICROS));
+	checkSaturation();
+    }
+
+    /**
+     * Method used to record a lease which timed out, the pool is saturated.
+     */
+    public void recordLeaseTimeout() {
+	leaseTimeouts.increment();
+	saturated();
+    }
+
+    public void recordConnectionCreated() {
+	connectionsCreated.increment();
+    }
+
+    /**
+     * @param count holds the number of idle or expired connections evicted.
+     */
+    public void recordConnectionsEvicted(int count) {
+	if (count > 0) {
+	    connectionsEvicted.add(count);
+	}
+    }
+
+    /**
+     * Method used to take a copy of the metrics along with the live statistics of
+     * the pool.
+     * 
+     * @return The {@link ConnectionPoolSnapshot} of the pool.
+     */
+    public ConnectionPoolSnapshot snapshot() {
+	PoolStats poolStats = connectionPool.getTotalStats();
+	return new ConnectionPoolSnapshot(name, poolStats.getLeased(), poolStats.getPending(),
+		poolStats.getAvailable(), poolStats.getMax(), connectionPool.getDefaultMaxPerRoute(),
+		connectionsCreated.sum(), connectionsEvicted.sum(), leaseTimeouts.sum(), saturationCount.sum(),
+		leaseWaitHistogram.copy());
+    }
+
+    private void checkSaturation() {
+	PoolStats poolStats = connectionPool.getTotalStats();
+	if (isSaturated(poolStats)) {
+	    saturated();
+	}
+    }
+
+    private boolean isSaturated(PoolStats poolStats) {
+	return poolStats.getPending() > 0 || poolStats.getLeased() * 100L >= (long) poolStats.getMax()
+		* saturationThreshold;
+    }
+
+    private void saturated() {
+	saturationCount.increment();
+	long now = System.nanoTime();
+	long lastAlarm = lastAlarmTime.get();
+	if (now - lastAlarm >= ALARM_INTERVAL_NANOS && lastAlarmTime.compareAndSet(lastAlarm, now)) {
+	    PaymentMetrics.poolSaturated(snapshot());
+	}
+    }
+
+    @Override
+    public String getName() {
+	return name;
+    }
+
+    @Override
+    public int getLeased() {
+	return connectionPool.getTotalStats().getLeased();
+    }
+
+    @Override
+    public int getPending() {
+	return connectionPool.getTotalStats().getPending();
+    }
+
+    @Override
+    public int getAvailable() {
+	return connectionPool.getTotalStats().getAvailable();
+    }
+
+    @Override
+    public int getMaxTotal() {
+	return connectionPool.getMaxTotal();
+    }
+
+    @Override
+    public int getMaxPerRoute() {
+	return connectionPool.getDefaultMaxPerRoute();
+    }
+
+    @Override
+    public long getConnectionsCreated() {
+	return connectionsCreated.sum();
+    }
+
+    @Override
+    public long getConnectionsClosed() {
+	return snapshot().getConnectionsClosed();
+    }
+
+    @Override
+    public long getConnectionsEvicted() {
+	return connectionsEvicted.sum();
+    }
+
+    @Override
+    public long getLeaseCount() {
+	return leaseWaitHistogram.getTotalCount();
+    }
+
+    @Override
+    public long getLeaseTimeouts() {
+	return leaseTimeouts.sum();
+    }
+
+    @Override
+    public double getLeaseWaitMeanMicros() {
+	return leaseWaitHistogram.copy().getMean();
+    }
+
+    @Override
+    public long getLeaseWaitP99Micros() {
+	return leaseWaitHistogram.copy().getValueAtPercentile(99.0);
+    }
+
+    @Override
+    public long getLeaseWaitMaxMicros() {
+	return leaseWaitHistogram.copy().getMaxValue();
+    }
+
+    @Override
+    public long getSaturationCount() {
+	return saturationCount.sum();
+    }
+
+    @Override
+    public boolean isSaturated() {
+	return isSaturated(connectionPool.getTotalStats());
+    }
+}
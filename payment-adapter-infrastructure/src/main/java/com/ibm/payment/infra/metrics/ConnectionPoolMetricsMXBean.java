@@ -0,0 +1,55 @@
+/*
+IBM Confidential
+IBM Sterling OMS Payment Integration Adapter
+(C) Copyright IBM Corp. 2022
+Licensed under the Apache License, Version 2.0 (the "License");
+you may not use this file except in compliance with the License.
+http://www.apache.org/licenses/LICENSE-2.0
+Unless required by applicable law or agreed to in writing, software
+distributed under the License is distributed on an "AS IS" BASIS,
+WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+See the License for the specific language governing permissions and
+limitations under the License.
+*/
+package com.ibm.payment.infra.metrics;
+
+/**
+ * 
+ * ConnectionPoolMetricsMXBean interface exposes the metrics of an HTTP
+ * connection pool over JMX. The lease wait times are in microseconds.
+ *
+ */
+public interface ConnectionPoolMetricsMXBean {
+
+    String getName();
+
+    int getLeased();
+
+    int getPending();
+
+    int getAvailable();
+
+    int getMaxTotal();
+
+    int getMaxPerRoute();
+
+    long getConnectionsCreated();
+
+    long getConnectionsClosed();
+
+    long getConnectionsEvicted();
+
+    long getLeaseCount();
+
+    long getLeaseTimeouts();
+
+    double getLeaseWaitMeanMicros();
+
+    long getLeaseWaitP99Micros();
+
+    long getLeaseWaitMaxMicros();
+
+    long getSaturationCount();
+
+    boolean isSaturated();
+}
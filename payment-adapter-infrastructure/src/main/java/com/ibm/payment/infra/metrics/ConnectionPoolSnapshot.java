@@ -0,0 +1,122 @@
+/*
+IBM Confidential
+IBM Sterling OMS Payment Integration Adapter
+(C) Copyright IBM Corp. 2022
+Licensed under the Apache License, Version 2.0 (the "License");
+you may not use this file except in compliance with the License.
+http://www.apache.org/licenses/LICENSE-2.0
+Unless required by applicable law or agreed to in writing, software
+distributed under the License is distributed on an "AS IS" BASIS,
+WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+See the License for the specific language governing permissions and
+limitations under the License.
+*/
+package com.ibm.payment.infra.metrics;
+
+import org.HdrHistogram.Histogram;
+
+/**
+ * 
+ * ConnectionPoolSnapshot class holds the metrics of an HTTP connection pool at
+ * the time the snapshot is taken. The lease wait times are in microseconds.
+ *
+ */
+public class ConnectionPoolSnapshot {
+
+    private final String name;
+    private final int leased;
+    private final int pending;
+    private final int available;
+    private final int maxTotal;
+    private final int maxPerRoute;
+    private final long connectionsCreated;
+    private final long connectionsEvicted;
+    private final long leaseTimeouts;
+    private final long saturationCount;
+    private final Histogram leaseWaitHistogram;
+
+    public ConnectionPoolSnapshot(String name, int leased, int pending, int available, int maxTotal,
+	    int maxPerRoute, long connectionsCreated, long connectionsEvicted, long leaseTimeouts,
+	    long saturationCount, Histogram leaseWaitHistogram) {
+	this.name = name;
+	this.leased = leased;
+	this.pending = pending;
+	this.available = available;
+	this.maxTotal = maxTotal;
+	this.maxPerRoute = maxPerRoute;
+	this.connectionsCreated = connectionsCreated;
+	this.connectionsEvicted = connectionsEvicted;
+	this.leaseTimeouts = leaseTimeouts;
+	this.saturationCount = saturationCount;
+	this.leaseWaitHistogram = leaseWaitHistogram;
+    }
+
+    public String getName() {
+	return name;
+    }
+
+    public int getLeased() {
+	return leased;
+    }
+
+    public int getPending() {
+	return pending;
+    }
+
+    public int getAvailable() {
+	return available;
+    }
+
+    public int getMaxTotal() {
+	return maxTotal;
+    }
+
+    public int getMaxPerRoute() {
+	return maxPerRoute;
+    }
+
+    public long getConnectionsCreated() {
+	return connectionsCreated;
+    }
+
+    /**
+     * @return The connections created which are no longer in the pool.
+     */
+    public long getConnectionsClosed() {
+	return Math.max(0, connectionsCreated - leased - available);
+    }
+
+    public long getConnectionsEvicted() {
+	return connectionsEvicted;
+    }
+
+    public long getLeaseCount() {
+	return leaseWaitHistogram.getTotalCount();
+    }
+
+    public long getLeaseTimeouts() {
+	return leaseTimeouts;
+    }
+
+    public long getSaturationCount() {
+	return saturationCount;
+    }
+
+    public double getLeaseWaitMeanMicros() {
+	return leaseWaitHistogram.getMean();
+    }
+
+    public long getLeaseWaitMicrosAtPercentile(double percentile) {
+	return leaseWaitHistogram.getValueAtPercentile(percentile);
+    }
+
+    public Histogram getLeaseWaitHistogram() {
+	return leaseWaitHistogram;
+    }
+
+    @Override
+    public String toString() {
+	return "ConnectionPool[" + name + ", leased=" + leased + ", pending=" + pending + ", available=" + available
+		+ ", max=" + maxTotal + "]";
+    }
+}
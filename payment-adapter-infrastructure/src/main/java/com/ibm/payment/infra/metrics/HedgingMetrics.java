@@ -0,0 +1,144 @@
+/*
+IBM Confidential
+IBM Sterling OMS Payment Integration Adapter
+(C) Copyright IBM Corp. 2022
+Licensed under the Apache License, Version 2.0 (the "License");
+you may not use this file except in compliance with the License.
+http://www.apache.org/licenses/LICENSE-2.0
+Unless required by applicable law or agreed to in writing, software
+distributed under the License is distributed on an "AS IS" BASIS,
+WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+See the License for the specific language governing permissions and
+limitations under the License.
+*/
+package com.ibm.payment.infra.metrics;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+import org.HdrHistogram.ConcurrentHistogram;
+import org.HdrHistogram.Histogram;
+
+/**
+ * 
+ * HedgingMetrics class records the metrics of the calls hedged to a secondary
+ * endpoint of the payment provider.
+ * <ul>
+ * <li>The calls, the calls hedged after the delay, the calls failed over after
+ * an error of the primary endpoint and the hedges skipped because of the
+ * maximum hedge rate.</li>
+ * <li>The calls answered first by the secondary endpoint.</li>
+ * <li>The latency of each call as seen by the caller, in an HdrHistogram with
+ * microsecond values.</li>
+ * </ul>
+ *
+ */
+public class HedgingMetrics implements HedgingMetricsMXBean {
+
+    private static final long MAX_LATENCY_MICROS = TimeUnit.MINUTES.toMicros(10);
+    private static final int SIGNIFICANT_DIGITS = 2;
+
+    private final String name;
+    private final Histogram latencyHistogram = new ConcurrentHistogram(MAX_LATENCY_MICROS, SIGNIFICANT_DIGITS);
+    private final LongAdder calls = new LongAdder();
+    private final LongAdder hedgedCalls = new LongAdder();
+    private final LongAdder failoverCalls = new LongAdder();
+    private final LongAdder skippedHedges = new LongAdder();
+    private final LongAdder secondaryWins = new LongAdder();
+    private volatile long hedgeDelayMicros;
+
+    /**
+     * @param name holds the name of the hedged client, unique in the process.
+     */
+    public HedgingMetrics(String name) {
+	this.name = name;
+    }
+
+    public void recordCall() {
+	calls.increment();
+    }
+
+    public void recordHedge() {
+	hedgedCalls.increment();
+    }
+
+    public void recordFailover() {
+	failoverCalls.increment();
+    }
+
+    public void recordSkippedHedge() {
+	skippedHedges.increment();
+    }
+
+    /**
+     * Method used to record the answer of a call.
+     * 
+     * @param latencyNanos holds the latency of the call in nanoseconds.
+     * @param secondary    holds true if the secondary endpoint answered first.
+     */
+    public void recordAnswer(long latencyNanos, boolean secondary) {
+	latencyHistogram.recordValue(
+		Math.min(Math.max(TimeUnit.NANOSECONDS.toMicros(latencyNanos), 0), MAX_LATENCY_MICROS));
+	if (secondary) {
+	    secondaryWins.increment();
+	}
+    }
+
+    /**
+     * @param hedgeDelayMicros holds the current delay before a call is hedged.
+     */
+    public void setHedgeDelayMicros(long hedgeDelayMicros) {
+	this.hedgeDelayMicros = hedgeDelayMicros;
+    }
+
+    @Override
+    public String getName() {
+	return name;
+    }
+
+    @Override
+    public long getCalls() {
+	return calls.sum();
+    }
+
+    @Override
+    public long getHedgedCalls() {
+	return hedgedCalls.sum();
+    }
+
+    @Override
+    public long getFailoverCalls() {
+	return failoverCalls.sum();
+    }
+
+    @Override
+    public long getSkippedHedges() {
+	return skippedHedges.sum();
+    }
+
+    @Override
+    public long getSecondaryWins() {
+	return secondaryWins.sum();
+    }
+
+    @Override
+    public double getHedgeRate() {
+	long count = calls.sum();
+	return count == 0 ? 0 : (double) hedgedCalls.sum() / count;
+    }
+
+    @Override
+    public long getHedgeDelayMicros() {
+	return hedgeDelayMicros;
+    }
+
+    @Override
+    public long getLatencyP99Micros() {
+	return latencyHistogram.copy().getValueAtPercentile(99.0);
+    }
+
+    @Override
+    public long getLatencyMaxMicros() {
+	return latencyHistogram.copy().getMaxValue();
+    }
+}
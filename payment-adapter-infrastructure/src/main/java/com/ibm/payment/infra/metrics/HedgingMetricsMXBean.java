@@ -0,0 +1,44 @@
+/*
+IBM Confidential
+IBM Sterling OMS Payment Integration Adapter
+(C) Copyright IBM Corp. 2022
+Licensed under the Apache License, Version 2.0 (the "License");
+you may not use this file except in compliance with the License.
+http://www.apache.org/licenses/LICENSE-2.0
+Unless required by applicable law or agreed to in writing, software
+distributed under the License is distributed on an "AS IS" BASIS,
+WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+See the License for the specific language governing permissions and
+limitations under the License.
+*/
+package com.ibm.payment.infra.metrics;
+
+/**
+ * 
+ * HedgingMetricsMXBean interface exposes the metrics of the hedged calls over
+ * JMX. The delays and latencies are in microseconds, the hedge rate is the
+ * fraction of the calls sent to the secondary endpoint after the delay.
+ *
+ */
+public interface HedgingMetricsMXBean {
+
+    String getName();
+
+    long getCalls();
+
+    long getHedgedCalls();
+
+    long getFailoverCalls();
+
+    long getSkippedHedges();
+
+    long getSecondaryWins();
+
+    double getHedgeRate();
+
+    long getHedgeDelayMicros();
+
+    long getLatencyP99Micros();
+
+    long getLatencyMaxMicros();
+}
@@ -0,0 +1,67 @@
+/*
+IBM Confidential
+IBM Sterling OMS Payment Integration Adapter
+(C) Copyright IBM Corp. 2022
+Licensed under the Apache License, Version 2.0 (the "License");
+you may not use this file except in compliance with the License.
+http://www.apache.org/licenses/LICENSE-2.0
+Unless required by applicable law or agreed to in writing, software
+distributed under the License is distributed on an "AS IS" BASIS,
+WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+See the License for the specific language governing permissions and
+limitations under the License.
+*/
+package com.ibm.payment.infra.metrics;
+
+import java.util.List;
+
+/**
+ * 
+ * IMetricsReporter interface is implemented to export the payment metrics to a
+ * monitoring system. The reporters are either registered through
+ * {@link PaymentMetrics#registerReporter(IMetricsReporter)} or listed in
+ * META-INF/services/com.ibm.payment.infra.metrics.IMetricsReporter to be
+ * loaded with the {@link java.util.ServiceLoader} when the metrics are first
+ * used.
+ *
+ */
+public interface IMetricsReporter {
+
+    /**
+     * Method used to get the interval between two reports. The reporter is only
+     * invoked by {@link PaymentMetrics#report()} when the interval is not
+     * positive.
+     * 
+     * @return The report interval in seconds.
+     */
+    default long getReportIntervalSeconds() {
+	return 60;
+    }
+
+    /**
+     * Method used to export the metrics. The metrics are counted since the adapter
+     * is started.
+     * 
+     * @param snapshots holds the snapshot of each payment operation.
+     */
+    void report(List<OperationMetricsSnapshot> snapshots);
+
+    /**
+     * Method used to export the metrics of the HTTP connection pools, invoked
+     * along with {@link #report(List)}.
+     * 
+     * @param snapshots holds the snapshot of each connection pool.
+     */
+    default void reportConnectionPools(List<ConnectionPoolSnapshot> snapshots) {
+    }
+
+    /**
+     * Method used to raise the alarm of a saturated HTTP connection pool, the
+     * payments are queuing on the connection lease. It is invoked at most once a
+     * minute for each pool, on the thread which leased the connection.
+     * 
+     * @param snapshot holds the snapshot of the saturated pool.
+     */
+    default void poolSaturated(ConnectionPoolSnapshot snapshot) {
+    }
+}
@@ -0,0 +1,218 @@
+/*
+IBM Confidential
+IBM Sterling OMS Payment Integration Adapter
+(C) Copyright IBM Corp. 2022
+Licensed under the Apache License, Version 2.0 (the "License");
+you may not use this file except in compliance with the License.
+http://www.apache.org/licenses/LICENSE-2.0
+Unless required by applicable law or agreed to in writing, software
+distributed under the License is distributed on an "AS IS" BASIS,
+WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+See the License for the specific language governing permissions and
+limitations under the License.
+*/
+package com.ibm.payment.infra.metrics;
+
+import java.util.EnumMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+import org.HdrHistogram.ConcurrentHistogram;
+import org.HdrHistogram.Histogram;
+
+import com.ibm.adapter.payment.enums.ServiceType;
+
+/**
+ * 
+ * OperationMetrics class records the metrics of a payment operation, such as
+ * capture or refund.
+ * <ul>
+ * <li>The latency of each call, in an HdrHistogram with microsecond
+ * values.</li>
+ * <li>The count of each {@link PaymentOutcome}.</li>
+ * <li>The size of the request and response payloads, when it is known.</li>
+ * <li>The time spent in each {@link PaymentPhase} of the calls.</li>
+ * </ul>
+ * The recording methods are thread-safe and do not block each other.
+ *
+ */
+public class OperationMetrics implements OperationMetricsMXBean {
+
+    private static final long MAX_LATENCY_MICROS = TimeUnit.MINUTES.toMicros(10);
+    private static final long MAX_PAYLOAD_BYTES = 64L * 1024 * 1024;
+    // 1% precision keeps each histogram small enough to have one per operation
+    private static final int SIGNIFICANT_DIGITS = 2;
+
+    private final ServiceType serviceType;
+    private final Histogram latencyHistogram = new ConcurrentHistogram(MAX_LATENCY_MICROS, SIGNIFICANT_DIGITS);
+    private final Histogram requestBytesHistogram = new ConcurrentHistogram(MAX_PAYLOAD_BYTES, SIGNIFICANT_DIGITS);
+    private final Histogram responseBytesHistogram = new ConcurrentHistogram(MAX_PAYLOAD_BYTES, SIGNIFICANT_DIGITS);
+    private final Map<PaymentOutcome, LongAdder> outcomeCounters = new EnumMap<>(PaymentOutcome.class);
+    private final Map<PaymentPhase, Histogram> phaseHistograms = new EnumMap<>(PaymentPhase.class);
+
+    public OperationMetrics(ServiceType serviceType) {
+	this.serviceType = serviceType;
+	for (PaymentOutcome outcome : PaymentOutcome.values()) {
+	    outcomeCounters.put(outcome, new LongAdder());
+	}
+	for (PaymentPhase phase : PaymentPhase.values()) {
+	    phaseHistograms.put(phase, new ConcurrentHistogram(MAX_LATENCY_MICROS, SIGNIFICANT_DIGITS));
+	}
+    }
+
+    /**
+     * Method used to record a successful call.
+     * 
+     * @param startTime holds the {@link System#nanoTime()} when the call started.
+     */
+    public void recordSuccess(long startTime) {
+	record(System.nanoTime() - startTime, PaymentOutcome.SUCCESS);
+    }
+
+    /**
+     * Method used to record a failed call along with the outcome of its exception.
+     * 
+     * @param startTime holds the {@link System#nanoTime()} when the call started.
+     * @param throwable holds the exception of the call.
+     */
+    public void recordFailure(long startTime, Throwable throwable) {
+	record(System.nanoTime() - startTime, PaymentOutcome.of(throwable));
+    }
+
+    /**
+     * Method used to record the latency and the outcome of a call.
+     * 
+     * @param latencyNanos holds the latency of the call in nanoseconds.
+     * @param outcome      holds the outcome of the call.
+     */
+    public void record(long latencyNanos, PaymentOutcome outcome) {
+	latencyHistogram.recordValue(bounded(TimeUnit.NANOSECONDS.toMicros(latencyNanos), MAX_LATENCY_MICROS));
+	outcomeCounters.get(outcome).increment();
+    }
+
+    /**
+     * Method used to record the time spent in a phase of a call.
+     * 
+     * @param phase holds the phase of the call.
+     * @param nanos holds the time spent in nanoseconds.
+     */
+    public void recordPhase(PaymentPhase phase, long nanos) {
+	phaseHistograms.get(phase).recordValue(bounded(TimeUnit.NANOSECONDS.toMicros(nanos), MAX_LATENCY_MICROS));
+    }
+
+    /**
+     * @param bytes holds the size of the request payload.
+     */
+    public void recordRequestBytes(long bytes) {
+	requestBytesHistogram.recordValue(bounded(bytes, MAX_PAYLOAD_BYTES));
+    }
+
+    /**
+     * @param bytes holds the size of the response payload.
+     */
+    public void recordResponseBytes(long bytes) {
+	responseBytesHistogram.recordValue(bounded(bytes, MAX_PAYLOAD_BYTES));
+    }
+
+    /**
+     * Method used to take a consistent copy of the metrics.
+     * 
+     * @return The {@link OperationMetricsSnapshot} of the operation.
+     */
+    public OperationMetricsSnapshot snapshot() {
+	Map<PaymentOutcome, Long> outcomeCounts = new EnumMap<>(PaymentOutcome.class);
+	outcomeCounters.forEach((outcome, counter) -> outcomeCounts.put(outcome, counter.sum()));
+	Map<PaymentPhase, Histogram> phaseHistogramCopies = new EnumMap<>(PaymentPhase.class);
+	phaseHistograms.forEach((phase, histogram) -> phaseHistogramCopies.put(phase, histogram.copy()));
+	return new OperationMetricsSnapshot(serviceType, outcomeCounts, latencyHistogram.copy(),
+		requestBytesHistogram.copy(), responseBytesHistogram.copy(), phaseHistogramCopies);
+    }
+
+    @Override
+    public String getServiceType() {
+	return serviceType.name();
+    }
+
+    @Override
+    public long getCount() {
+	return latencyHistogram.getTotalCount();
+    }
+
+    @Override
+    public Map<String, Long> getOutcomeCounts() {
+	Map<String, Long> outcomeCounts = new LinkedHashMap<>();
+	outcomeCounters.forEach((outcome, counter) -> outcomeCounts.put(outcome.name(), counter.sum()));
+	return outcomeCounts;
+    }
+
+    @Override
+    public double getLatencyMeanMicros() {
+	return latencyHistogram.copy().getMean();
+    }
+
+    @Override
+    public long getLatencyP50Micros() {
+	return latencyHistogram.copy().getValueAtPercentile(50.0);
+    }
+
+    @Override
+    public long getLatencyP90Micros() {
+	return latencyHistogram.copy().getValueAtPercentile(90.0);
+    }
+
+    @Override
+    public long getLatencyP99Micros() {
+	return latencyHistogram.copy().getValueAtPercentile(99.0);
+    }
+
+    @Override
+    public long getLatencyP999Micros() {
+	return latencyHistogram.copy().getValueAtPercentile(99.9);
+    }
+
+    @Override
+    public long getLatencyMaxMicros() {
+	return latencyHistogram.copy().getMaxValue();
+    }
+
+    @Override
+    public double getRequestBytesMean() {
+	return requestBytesHistogram.copy().getMean();
+    }
+
+    @Override
+    public long getRequestBytesMax() {
+	return requestBytesHistogram.copy().getMaxValue();
+    }
+
+    @Override
+    public double getResponseBytesMean() {
+	return responseBytesHistogram.copy().getMean();
+    }
+
+    @Override
+    public long getResponseBytesMax() {
+	return responseBytesHistogram.copy().getMaxValue();
+    }
+
+    @Override
+    public Map<String, Double> getPhaseMeanMicros() {
+	Map<String, Double> phaseMeans = new LinkedHashMap<>();
+	phaseHistograms.forEach((phase, histogram) -> phaseMeans.put(phase.name(), histogram.copy().getMean()));
+	return phaseMeans;
+    }
+
+    @Override
+    public Map<String, Long> getPhaseP99Micros() {
+	Map<String, Long> phasePercentiles = new LinkedHashMap<>();
+	phaseHistograms.forEach(
+		(phase, histogram) -> phasePercentiles.put(phase.name(), histogram.copy().getValueAtPercentile(99.0)));
+	return phasePercentiles;
+    }
+
+    private static long bounded(long value, long maxValue) {
+	return Math.min(Math.max(value, 0), maxValue);
+    }
+}
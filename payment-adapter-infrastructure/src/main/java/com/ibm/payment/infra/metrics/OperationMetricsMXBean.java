@@ -0,0 +1,56 @@
+/*
+IBM Confidential
+IBM Sterling OMS Payment Integration Adapter
+(C) Copyright IBM Corp. 2022
+Licensed under the Apache License, Version 2.0 (the "License");
+you may not use this file except in compliance with the License.
+http://www.apache.org/licenses/LICENSE-2.0
+Unless required by applicable law or agreed to in writing, software
+distributed under the License is distributed on an "AS IS" BASIS,
+WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+See the License for the specific language governing permissions and
+limitations under the License.
+*/
+package com.ibm.payment.infra.metrics;
+
+import java.util.Map;
+
+/**
+ * 
+ * OperationMetricsMXBean interface exposes the metrics of a payment operation
+ * through JMX. The latencies are in microseconds and the payload sizes in
+ * bytes, all of them are counted since the adapter is started.
+ *
+ */
+public interface OperationMetricsMXBean {
+
+    String getServiceType();
+
+    long getCount();
+
+    Map<String, Long> getOutcomeCounts();
+
+    double getLatencyMeanMicros();
+
+    long getLatencyP50Micros();
+
+    long getLatencyP90Micros();
+
+    long getLatencyP99Micros();
+
+    long getLatencyP999Micros();
+
+    long getLatencyMaxMicros();
+
+    double getRequestBytesMean();
+
+    long getRequestBytesMax();
+
+    double getResponseBytesMean();
+
+    long getResponseBytesMax();
+
+    Map<String, Double> getPhaseMeanMicros();
+
+    Map<String, Long> getPhaseP99Micros();
+}
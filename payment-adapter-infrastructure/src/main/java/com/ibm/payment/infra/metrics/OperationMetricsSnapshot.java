@@ -0,0 +1,113 @@
+/*
+IBM Confidential
+IBM Sterling OMS Payment Integration Adapter
+(C) Copyright IBM Corp. 2022
+Licensed under the Apache License, Version 2.0 (the "License");
+you may not use this file except in compliance with the License.
+http://www.apache.org/licenses/LICENSE-2.0
+Unless required by applicable law or agreed to in writing, software
+distributed under the License is distributed on an "AS IS" BASIS,
+WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+See the License for the specific language governing permissions and
+limitations under the License.
+*/
+package com.ibm.payment.infra.metrics;
+
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.Map;
+
+import org.HdrHistogram.Histogram;
+
+import com.ibm.adapter.payment.enums.ServiceType;
+
+/**
+ * 
+ * OperationMetricsSnapshot class holds the metrics of a payment operation at
+ * the time the snapshot is taken. The latencies and the phase times are in
+ * microseconds and the payload sizes in bytes.
+ *
+ */
+public class OperationMetricsSnapshot {
+
+    private final ServiceType serviceType;
+    private final Map<PaymentOutcome, Long> outcomeCounts;
+    private final Histogram latencyHistogram;
+    private final Histogram requestBytesHistogram;
+    private final Histogram responseBytesHistogram;
+    private final Map<PaymentPhase, Histogram> phaseHistograms;
+
+    public OperationMetricsSnapshot(ServiceType serviceType, Map<PaymentOutcome, Long> outcomeCounts,
+	    Histogram latencyHistogram, Histogram requestBytesHistogram, Histogram responseBytesHistogram,
+	    Map<PaymentPhase, Histogram> phaseHistograms) {
+	this.serviceType = serviceType;
+	this.outcomeCounts = Collections.unmodifiableMap(new EnumMap<>(outcomeCounts));
+	this.latencyHistogram = latencyHistogram;
+	this.requestBytesHistogram = requestBytesHistogram;
+	this.responseBytesHistogram = responseBytesHistogram;
+	this.phaseHistograms = Collections.unmodifiableMap(new EnumMap<>(phaseHistograms));
+    }
+
+    public ServiceType getServiceType() {
+	return serviceType;
+    }
+
+    public long getCount() {
+	return latencyHistogram.getTotalCount();
+    }
+
+    public Map<PaymentOutcome, Long> getOutcomeCounts() {
+	return outcomeCounts;
+    }
+
+    public long getOutcomeCount(PaymentOutcome outcome) {
+	return outcomeCounts.getOrDefault(outcome, 0L);
+    }
+
+    public double getLatencyMeanMicros() {
+	return latencyHistogram.getMean();
+    }
+
+    public long getLatencyMicrosAtPercentile(double percentile) {
+	return latencyHistogram.getValueAtPercentile(percentile);
+    }
+
+    public long getLatencyMaxMicros() {
+	return latencyHistogram.getMaxValue();
+    }
+
+    public double getRequestBytesMean() {
+	return requestBytesHistogram.getMean();
+    }
+
+    public long getRequestBytesMax() {
+	return requestBytesHistogram.getMaxValue();
+    }
+
+    public double getResponseBytesMean() {
+	return responseBytesHistogram.getMean();
+    }
+
+    public long getResponseBytesMax() {
+	return responseBytesHistogram.getMaxValue();
+    }
+
+    /**
+     * @return The copy of the latency histogram, in microseconds.
+     */
+    public Histogram getLatencyHistogram() {
+	return latencyHistogram;
+    }
+
+    public double getPhaseMeanMicros(PaymentPhase phase) {
+	return phaseHistograms.get(phase).getMean();
+    }
+
+    public long getPhaseMicrosAtPercentile(PaymentPhase phase, double percentile) {
+	return phaseHistograms.get(phase).getValueAtPercentile(percentile);
+    }
+
+    public Histogram getPhaseHistogram(PaymentPhase phase) {
+	return phaseHistograms.get(phase);
+    }
+}
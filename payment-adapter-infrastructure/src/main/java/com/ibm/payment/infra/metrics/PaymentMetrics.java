@@ -0,0 +1,324 @@
+/*
+IBM Confidential
+IBM Sterling OMS Payment Integration Adapter
+(C) Copyright IBM Corp. 2022
+Licensed under the Apache License, Version 2.0 (the "License");
+you may not use this file except in compliance with the License.
+http://www.apache.org/licenses/LICENSE-2.0
+Unless required by applicable law or agreed to in writing, software
+distributed under the License is distributed on an "AS IS" BASIS,
+WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+See the License for the specific language governing permissions and
+limitations under the License.
+*/
+package com.ibm.payment.infra.metrics;
+
+import java.lang.management.ManagementFactory;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.ServiceLoader;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import com.ibm.adapter.payment.enums.ServiceType;
+
+/**
+ * 
+ * PaymentMetrics class holds the {@link OperationMetrics} of each
+ * {@link ServiceType} for the whole process.
+ * <ul>
+ * <li>The metrics of each service type are registered in the platform MBean
+ * server as com.ibm.payment.infra:type=PaymentMetrics,serviceType=NAME.</li>
+ * <li>The {@link ConnectionPoolMetrics} of each HTTP client are registered
+ * as com.ibm.payment.infra:type=ConnectionPool,name=NAME while the client is
+ * open.</li>
+ * <li>The {@link IMetricsReporter} implementations are invoked at their
+ * report interval on a daemon thread.</li>
+ * </ul>
+ *
+ */
+public final class PaymentMetrics {
+
+    private static final Logger logger = LogManager.getLogger(PaymentMetrics.class);
+
+    /** JMX domain of the MBeans of the adapter, of both its infra and service layers. */
+    public static final String JMX_DOMAIN = "com.ibm.payment.infra";
+
+    private static final String OBJECT_NAME = JMX_DOMAIN + ":type=PaymentMetrics,serviceType=";
+
+    private static final String POOL_OBJECT_NAME = JMX_DOMAIN + ":type=ConnectionPool,name=";
+
+    private static final String HEDGING_OBJECT_NAME = JMX_DOMAIN + ":type=Hedging,name=";
+
+    private static final Map<ServiceType, OperationMetrics> operations = new EnumMap<>(ServiceType.class);
+
+    private static final Map<String, OperationMetrics> operationsByName = new HashMap<>();
+
+    private static final List<ConnectionPoolMetrics> connectionPools = new CopyOnWriteArrayList<>();
+
+    private static final List<IMetricsReporter> reporters = new CopyOnWriteArrayList<>();
+
+    private static ScheduledExecutorService reportScheduler;
+
+    static {
+	for (ServiceType serviceType : ServiceType.values()) {
+	    OperationMetrics operationMetrics = new OperationMetrics(serviceType);
+	    operations.put(serviceType, operationMetrics);
+	    operationsByName.put(serviceType.toString(), operationMetrics);
+	}
+	registerMBeans();
+	for (IMetricsReporter reporter : ServiceLoader.load(IMetricsReporter.class,
+		PaymentMetrics.class.getClassLoader())) {
+	    registerReporter(reporter);
+	}
+    }
+
+    private PaymentMetrics() {
+    }
+
+    /**
+     * @param serviceType holds the service type of the payment operation.
+     * @return The {@link OperationMetrics} of the service type.
+     */
+    public static OperationMetrics getOperationMetrics(ServiceType serviceType) {
+	return operations.get(serviceType);
+    }
+
+    /**
+     * @param apiName holds the name of the service type, as passed to the HTTP
+     *                clients.
+     * @return The {@link OperationMetrics} of the service type, or null for an
+     *         unknown name.
+     */
+    public static OperationMetrics getOperationMetrics(String apiName) {
+	return apiName == null ? null : operationsByName.get(apiName);
+    }
+
+    /**
+     * Method used to record the time spent in a phase of a call, in the metrics
+     * of the service type and in the {@link PhaseTimings} attached to the current
+     * thread.
+     * 
+     * @param apiName holds the name of the service type, the time is only added
+     *                to the attached record for an unknown name.
+     * @param phase   holds the phase of the call.
+     * @param nanos   holds the time spent in nanoseconds.
+     */
+    public static void recordPhase(String apiName, PaymentPhase phase, long nanos) {
+	OperationMetrics operationMetrics = getOperationMetrics(apiName);
+	if (operationMetrics != null) {
+	    operationMetrics.recordPhase(phase, nanos);
+	}
+	PhaseTimings phaseTimings = PhaseTimings.current();
+	if (phaseTimings != null) {
+	    phaseTimings.add(phase, nanos);
+	}
+    }
+
+    /**
+     * Method used to run a phase of a call and record the time spent in it, also
+     * when it fails.
+     * 
+     * @param apiName holds the name of the service type.
+     * @param phase   holds the phase of the call.
+     * @param call    holds the phase to run.
+     * @return The result of the phase.
+     */
+    public static <T> T time(String apiName, PaymentPhase phase, Supplier<T> call) {
+	long startTime = System.nanoTime();
+	try {
+	    return call.get();
+	} finally {
+	    recordPhase(apiName, phase, System.nanoTime() - startTime);
+	}
+    }
+
+    /**
+     * Method used to take a snapshot of the metrics of every service type.
+     * 
+     * @return The {@link OperationMetricsSnapshot} of each service type.
+     */
+    public static List<OperationMetricsSnapshot> snapshot() {
+	List<OperationMetricsSnapshot> snapshots = new ArrayList<>(operations.size());
+	operations.values().forEach(operationMetrics -> snapshots.add(operationMetrics.snapshot()));
+	return Collections.unmodifiableList(snapshots);
+    }
+
+    /**
+     * Method used to register the metrics of an HTTP connection pool, when its
+     * client is created.
+     * 
+     * @param connectionPoolMetrics holds the metrics of the pool.
+     */
+    public static void registerConnectionPool(ConnectionPoolMetrics connectionPoolMetrics) {
+	connectionPools.add(connectionPoolMetrics);
+	try {
+	    ObjectName objectName = new ObjectName(POOL_OBJECT_NAME + connectionPoolMetrics.getName());
+	    MBeanServer mBeanServer = ManagementFactory.getPlatformMBeanServer();
+	    if (!mBeanServer.isRegistered(objectName)) {
+		mBeanServer.registerMBean(connectionPoolMetrics, objectName);
+	    }
+	} catch (Exception e) {
+	    logger.warn("PaymentMetrics - could not register the MBean of pool {}", connectionPoolMetrics.getName(), e);
+	}
+    }
+
+    /**
+     * Method used to unregister the metrics of an HTTP connection pool, when its
+     * client is closed.
+     * 
+     * @param connectionPoolMetrics holds the metrics of the pool.
+     */
+    public static void unregisterConnectionPool(ConnectionPoolMetrics connectionPoolMetrics) {
+	connectionPools.remove(connectionPoolMetrics);
+	try {
+	    ObjectName objectName = new ObjectName(POOL_OBJECT_NAME + connectionPoolMetrics.getName());
+	    MBeanServer mBeanServer = ManagementFactory.getPlatformMBeanServer();
+	    if (mBeanServer.isRegistered(objectName)) {
+		mBeanServer.unregisterMBean(objectName);
+	    }
+	} catch (Exception e) {
+	    logger.warn("PaymentMetrics - could not unregister the MBean of pool {}", connectionPoolMetrics.getName(),
+		    e);
+	}
+    }
+
+    /**
+     * Method used to register the metrics of a hedged client as an MBean.
+     * 
+     * @param hedgingMetrics holds the metrics of the hedged calls.
+     */
+    public static void registerHedgingMetrics(HedgingMetrics hedgingMetrics) {
+	try {
+	    ObjectName objectName = new ObjectName(HEDGING_OBJECT_NAME + hedgingMetrics.getName());
+	    MBeanServer mBeanServer = ManagementFactory.getPlatformMBeanServer();
+	    if (!mBeanServer.isRegistered(objectName)) {
+		mBeanServer.registerMBean(hedgingMetrics, objectName);
+	    }
+	} catch (Exception e) {
+	    logger.warn("PaymentMetrics - could not register the MBean of hedging {}", hedgingMetrics.getName(), e);
+	}
+    }
+
+    /**
+     * Method used to unregister the metrics of a hedged client, when the client
+     * is closed.
+     * 
+     * @param hedgingMetrics holds the metrics of the hedged calls.
+     */
+    public static void unregisterHedgingMetrics(HedgingMetrics hedgingMetrics) {
+	try {
+	    ObjectName objectName = new ObjectName(HEDGING_OBJECT_NAME + hedgingMetrics.getName());
+	    MBeanServer mBeanServer = ManagementFactory.getPlatformMBeanServer();
+	    if (mBeanServer.isRegistered(objectName)) {
+		mBeanServer.unregisterMBean(objectName);
+	    }
+	} catch (Exception e) {
+	    logger.warn("PaymentMetrics - could not unregister the MBean of hedging {}", hedgingMetrics.getName(), e);
+	}
+    }
+
+    /**
+     * Method used to take a snapshot of the metrics of every open HTTP connection
+     * pool.
+     * 
+     * @return The {@link ConnectionPoolSnapshot} of each pool.
+     */
+    public static List<ConnectionPoolSnapshot> connectionPoolSnapshot() {
+	List<ConnectionPoolSnapshot> snapshots = new ArrayList<>(connectionPools.size());
+	connectionPools.forEach(connectionPoolMetrics -> snapshots.add(connectionPoolMetrics.snapshot()));
+	return Collections.unmodifiableList(snapshots);
+    }
+
+    /**
+     * Method used to raise the alarm of a saturated HTTP connection pool to the
+     * log and to the registered reporters.
+     * 
+     * @param snapshot holds the snapshot of the saturated pool.
+     */
+    static void poolSaturated(ConnectionPoolSnapshot snapshot) {
+	logger.warn("PaymentMetrics - connection pool saturated, payments are queuing on the lease: {}", snapshot);
+	for (IMetricsReporter reporter : reporters) {
+	    try {
+		reporter.poolSaturated(snapshot);
+	    } catch (RuntimeException e) {
+		logger.warn("PaymentMetrics - reporter {} failed", reporter.getClass().getName(), e);
+	    }
+	}
+    }
+
+    /**
+     * Method used to register a reporter, it is invoked at its report interval
+     * from now on.
+     * 
+     * @param reporter holds the {@link IMetricsReporter} to register.
+     */
+    public static void registerReporter(IMetricsReporter reporter) {
+	reporters.add(reporter);
+	long interval = reporter.getReportIntervalSeconds();
+	if (interval > 0) {
+	    getReportScheduler().scheduleAtFixedRate(() -> report(reporter, snapshot(), connectionPoolSnapshot()),
+		    interval, interval, TimeUnit.SECONDS);
+	}
+	logger.debug("PaymentMetrics - registered reporter {}", reporter.getClass().getName());
+    }
+
+    /**
+     * Method used to invoke all the registered reporters now.
+     */
+    public static void report() {
+	List<OperationMetricsSnapshot> snapshots = snapshot();
+	List<ConnectionPoolSnapshot> connectionPoolSnapshots = connectionPoolSnapshot();
+	reporters.forEach(reporter -> report(reporter, snapshots, connectionPoolSnapshots));
+    }
+
+    private static void report(IMetricsReporter reporter, List<OperationMetricsSnapshot> snapshots,
+	    List<ConnectionPoolSnapshot> connectionPoolSnapshots) {
+	try {
+	    reporter.report(snapshots);
+	    reporter.reportConnectionPools(connectionPoolSnapshots);
+	} catch (RuntimeException e) {
+	    // a failing reporter must neither fail the others nor stop its schedule
+	    logger.warn("PaymentMetrics - reporter {} failed", reporter.getClass().getName(), e);
+	}
+    }
+
+    private static synchronized ScheduledExecutorService getReportScheduler() {
+	if (reportScheduler == null) {
+	    reportScheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+		Thread thread = new Thread(runnable, "payment-metrics-reporter");
+		thread.setDaemon(true);
+		return thread;
+	    });
+	}
+	return reportScheduler;
+    }
+
+    private static void registerMBeans() {
+	MBeanServer mBeanServer = ManagementFactory.getPlatformMBeanServer();
+	operations.forEach((serviceType, operationMetrics) -> {
+	    try {
+		ObjectName objectName = new ObjectName(OBJECT_NAME + serviceType.name());
+		if (!mBeanServer.isRegistered(objectName)) {
+		    mBeanServer.registerMBean(operationMetrics, objectName);
+		}
+	    } catch (Exception e) {
+		// the metrics are still recorded and reported without JMX
+		logger.warn("PaymentMetrics - could not register the MBean of {}", serviceType, e);
+	    }
+	});
+    }
+}
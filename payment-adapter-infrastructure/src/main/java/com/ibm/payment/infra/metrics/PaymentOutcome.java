@@ -0,0 +1,60 @@
+/*
+IBM Confidential
+IBM Sterling OMS Payment Integration Adapter
+(C) Copyright IBM Corp. 2022
+Licensed under the Apache License, Version 2.0 (the "License");
+you may not use this file except in compliance with the License.
+http://www.apache.org/licenses/LICENSE-2.0
+Unless required by applicable law or agreed to in writing, software
+distributed under the License is distributed on an "AS IS" BASIS,
+WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+See the License for the specific language governing permissions and
+limitations under the License.
+*/
+package com.ibm.payment.infra.metrics;
+
+import com.ibm.payment.infra.exception.PaymentConfigurationException;
+import com.ibm.payment.infra.exception.PaymentConnectionException;
+import com.ibm.payment.infra.exception.PaymentException;
+import com.ibm.payment.infra.exception.PaymentMappingException;
+import com.ibm.payment.infra.response.ExceptionError;
+
+/**
+ * 
+ * PaymentOutcome enum contains the outcomes counted for each payment
+ * operation. The payment exceptions are counted by their {@link ExceptionError}
+ * code, the connection failures are the payments marked for retry.
+ *
+ */
+public enum PaymentOutcome {
+    SUCCESS, PAY0001, PAY0002, PAY0003, PAY0004, PAY0005, PAY0006, PAY0007, CONNECTION_RETRY, OTHER_FAILURE;
+
+    /**
+     * Method used to get the outcome of the exception of a payment operation.
+     * 
+     * @param throwable holds the exception of the payment operation.
+     * @return The {@link PaymentOutcome} of the exception.
+     */
+    public static PaymentOutcome of(Throwable throwable) {
+	if (throwable instanceof PaymentConnectionException) {
+	    return CONNECTION_RETRY;
+	}
+	String errorCode = null;
+	if (throwable instanceof PaymentException) {
+	    errorCode = ((PaymentException) throwable).getErrorCode();
+	} else if (throwable instanceof PaymentConfigurationException) {
+	    errorCode = ((PaymentConfigurationException) throwable).getErrorCode();
+	} else if (throwable instanceof PaymentMappingException) {
+	    errorCode = ((PaymentMappingException) throwable).getErrorCode();
+	}
+	if (errorCode != null && errorCode.startsWith(PaymentException.PAY)) {
+	    // PAY0001, PAYCONFIG0005 and PAYMAP0006 end with the ExceptionError code
+	    for (ExceptionError error : ExceptionError.values()) {
+		if (errorCode.endsWith(error.getCode())) {
+		    return valueOf(error.name());
+		}
+	    }
+	}
+	return OTHER_FAILURE;
+    }
+}
@@ -0,0 +1,39 @@
+/*
+IBM Confidential
+IBM Sterling OMS Payment Integration Adapter
+(C) Copyright IBM Corp. 2022
+Licensed under the Apache License, Version 2.0 (the "License");
+you may not use this file except in compliance with the License.
+http://www.apache.org/licenses/LICENSE-2.0
+Unless required by applicable law or agreed to in writing, software
+distributed under the License is distributed on an "AS IS" BASIS,
+WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+See the License for the specific language governing permissions and
+limitations under the License.
+*/
+package com.ibm.payment.infra.metrics;
+
+/**
+ * 
+ * PaymentPhase enum contains the stages of a single payment call, in the order
+ * they run, timed to tell the adapter's own overhead apart from the connection
+ * pool and the payment provider.
+ * <ul>
+ * <li>PRE_PROCESS, DETERMINE_ACTION, POST_PROCESS - the adapter's preProcess,
+ * determineAction and postProcess.</li>
+ * <li>REQUEST_MAPPING, RESPONSE_MAPPING - the MapStruct mapping to the request
+ * and the mapping of the response to the adapter's output.</li>
+ * <li>JSON_ENCODE - the serialization of the request, it is part of
+ * NETWORK_WAIT in the streaming mode.</li>
+ * <li>CONNECTION_LEASE - the wait for a connection of the pool.</li>
+ * <li>NETWORK_WAIT - the time from sending the request until the response
+ * body is read.</li>
+ * <li>JSON_DECODE - the parsing of the response, it includes reading the
+ * response body in the streaming mode.</li>
+ * </ul>
+ *
+ */
+public enum PaymentPhase {
+    PRE_PROCESS, DETERMINE_ACTION, REQUEST_MAPPING, JSON_ENCODE, CONNECTION_LEASE, NETWORK_WAIT, JSON_DECODE,
+    RESPONSE_MAPPING, POST_PROCESS
+}
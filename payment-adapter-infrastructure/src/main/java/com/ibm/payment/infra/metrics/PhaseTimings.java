@@ -0,0 +1,106 @@
+/*
+IBM Confidential
+IBM Sterling OMS Payment Integration Adapter
+(C) Copyright IBM Corp. 2022
+Licensed under the Apache License, Version 2.0 (the "License");
+you may not use this file except in compliance with the License.
+http://www.apache.org/licenses/LICENSE-2.0
+Unless required by applicable law or agreed to in writing, software
+distributed under the License is distributed on an "AS IS" BASIS,
+WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+See the License for the specific language governing permissions and
+limitations under the License.
+*/
+package com.ibm.payment.infra.metrics;
+
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 
+ * PhaseTimings class is the timing record of a single payment call, holding
+ * the time spent in each {@link PaymentPhase}. The record is attached to the
+ * thread running the call, the phases recorded through
+ * {@link PaymentMetrics#recordPhase(String, PaymentPhase, long)} on that thread
+ * are added to it. The phases completed on the threads of the non-blocking
+ * client are not part of the record.
+ *
+ */
+public class PhaseTimings {
+
+    private static final PaymentPhase[] PHASES = PaymentPhase.values();
+
+    private static final ThreadLocal<PhaseTimings> current = new ThreadLocal<>();
+
+    private final long[] phaseNanos = new long[PHASES.length];
+
+    /**
+     * Method used to attach the record to the current thread.
+     * 
+     * @param phaseTimings holds the record, or null to detach the current one.
+     * @return The record previously attached, to be restored when the call is
+     *         completed.
+     */
+    public static PhaseTimings attach(PhaseTimings phaseTimings) {
+	PhaseTimings previous = current.get();
+	if (phaseTimings == null) {
+	    current.remove();
+	} else {
+	    current.set(phaseTimings);
+	}
+	return previous;
+    }
+
+    /**
+     * @return The record attached to the current thread, or null.
+     */
+    public static PhaseTimings current() {
+	return current.get();
+    }
+
+    /**
+     * Method used to add time to a phase, a phase run more than once is summed.
+     * 
+     * @param phase holds the phase of the call.
+     * @param nanos holds the time spent in nanoseconds.
+     */
+    public void add(PaymentPhase phase, long nanos) {
+	phaseNanos[phase.ordinal()] += nanos;
+    }
+
+    /**
+     * @param phase holds the phase of the call.
+     * @return The time spent in the phase in nanoseconds.
+     */
+    public long getNanos(PaymentPhase phase) {
+	return phaseNanos[phase.ordinal()];
+    }
+
+    /**
+     * @return The time spent in all the phases in nanoseconds.
+     */
+    public long getTotalNanos() {
+	long totalNanos = 0;
+	for (long nanos : phaseNanos) {
+	    totalNanos += nanos;
+	}
+	return totalNanos;
+    }
+
+    /**
+     * @return The time spent in each phase in microseconds.
+     */
+    public Map<PaymentPhase, Long> toMicros() {
+	Map<PaymentPhase, Long> phaseMicros = new EnumMap<>(PaymentPhase.class);
+	for (PaymentPhase phase : PHASES) {
+	    phaseMicros.put(phase, TimeUnit.NANOSECONDS.toMicros(phaseNanos[phase.ordinal()]));
+	}
+	return phaseMicros;
+    }
+
+    @Override
+    public String toString() {
+	return "PhaseTimings" + toMicros();
+    }
+}
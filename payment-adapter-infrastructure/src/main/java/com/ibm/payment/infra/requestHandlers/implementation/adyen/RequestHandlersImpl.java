@@ -15,15 +15,20 @@ package com.ibm.payment.infra.requestHandlers.implementation.adyen;
 
 import java.io.IOException;
 import java.io.InputStream;
+import java.util.Collections;
+import java.util.EnumMap;
 import java.util.HashMap;
 import java.util.Map;
 import java.util.Properties;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
 
 import com.ibm.model.adyen.AdyenRequest;
 import com.ibm.payment.infra.context.AdyenRequestPathParam;
 import com.ibm.payment.infra.exception.PaymentConfigurationException;
 import com.ibm.payment.infra.exception.PaymentException;
 import com.ibm.payment.infra.response.ExceptionError;
+import com.ibm.payment.infra.util.IdempotencyKeys;
 
 import org.apache.http.client.config.RequestConfig;
 import org.apache.logging.log4j.LogManager;
@@ -48,6 +53,9 @@ import com.ibm.payment.infra.requestHandlers.interfaces.RequestHandler;
  * timeout, and connect timeout used for configuring the timeout properties in
  * request configs in Httpclient for invoking the corresponding API.</li>
  * </ul>
+ * The URL templates of the service types and the request headers are built
+ * once from the properties when the handler is created, so that a call only
+ * appends the PSP reference to the URL.
  *
  * 
  * @param <IRequest>                Indicates the {@link AdyenRequest} object.
@@ -72,12 +80,26 @@ public class RequestHandlersImpl<IRequest, IRequestHeaderParameter, IRequestConf
     private static final String VERSION = "version";
     private static final String X_API_KEY = "xapikey";
     private static final String CONTENT_TYPE = "content-type";
+    private static final String IDEMPOTENCY_KEY_HEADER = "Idempotency-Key";
     private static final String CONNECTION_REQUEST_TIMEOUT = "connectionrequesttimeout";
     private static final String CONNECT_TIMEOUT = "connecttimeout";
     private static final String SOCKET_TIMEOUT = "sockettimeout";
 
+    private static final Map<String, ServiceType> SERVICE_TYPES = new HashMap<>();
+
+    static {
+	for (ServiceType serviceType : ServiceType.values()) {
+	    SERVICE_TYPES.put(serviceType.toString(), serviceType);
+	}
+    }
+
     public Properties adyenProperties = new Properties();
 
+    private final Map<ServiceType, UrlTemplate> urlTemplates = new EnumMap<>(ServiceType.class);
+    private boolean urlPropertiesPresent;
+    private Map<String, String> defaultHeaders;
+    private final ConcurrentMap<String, Map<String, String>> headersByContentType = new ConcurrentHashMap<>();
+
     /**
      * Constructor used to fetch the configurable Adyen properties file from the
      * resources folder.
@@ -94,33 +116,86 @@ public class RequestHandlersImpl<IRequest, IRequestHeaderParameter, IRequestConf
 	} catch (Exception e) {
 	    throw new PaymentException(e);
 	}
+	compileUrlTemplates();
+	compileHeaders();
+    }
+
+    /**
+     * Constructor used to create the handler of another endpoint of Adyen, such
+     * as the live URL prefix of a secondary region, from already loaded
+     * properties.
+     * 
+     * @param adyenProperties Holds the Adyen properties of the endpoint.
+     */
+    public RequestHandlersImpl(Properties adyenProperties) {
+	this.adyenProperties = adyenProperties;
+	compileUrlTemplates();
+	compileHeaders();
+    }
+
+    /**
+     * Method used to build the URL template of each service type from the URL and
+     * version loaded from the Adyen properties file.
+     */
+    private void compileUrlTemplates() {
+	urlPropertiesPresent = adyenProperties.containsKey(URL) || adyenProperties.containsKey(VERSION);
+	String payments = adyenProperties.getProperty(URL) + "/" + adyenProperties.getProperty(VERSION)
+		+ ENDPOINT_PAYMENTS;
+	urlTemplates.put(ServiceType.PROCESS_PAYMENTS, new UrlTemplate(payments, null));
+	urlTemplates.put(ServiceType.REVERSE, new UrlTemplate(payments + "/", ENDPOINT_CANCELS));
+	urlTemplates.put(ServiceType.CAPTURE, new UrlTemplate(payments + "/", ENDPOINT_CAPTURES));
+	urlTemplates.put(ServiceType.AMEND_AUTHORIZATION, new UrlTemplate(payments + "/", ENDPOINT_AMEND_AUTHORIZATION));
+	urlTemplates.put(ServiceType.REFUND, new UrlTemplate(payments + "/", ENDPOINT_REFUNDS));
+    }
+
+    /**
+     * Method used to build the immutable request headers without content type,
+     * when the mandatory xapikey is loaded from the Adyen properties file.
+     */
+    private void compileHeaders() {
+	if (adyenProperties.containsKey(X_API_KEY)) {
+	    defaultHeaders = createHeaders(null);
+	}
+    }
+
+    private Map<String, String> createHeaders(String contentType) {
+	Map<String, String> headerMap = new HashMap<String, String>();
+	headerMap.put("x-api-key", adyenProperties.getProperty(X_API_KEY));
+	headerMap.put(CONTENT_TYPE, contentType);
+	return Collections.unmodifiableMap(headerMap);
     }
 
     /**
      * Methods to get the request header parameters are required for Adyen payment
      * gateways to invoke the respective API. Validation happens for mandatory
-     * properties like xapikey loads from the Adyen properties file.
+     * properties like xapikey loads from the Adyen properties file. The
+     * Idempotency-Key header is added when the request configs hold the
+     * {@link IdempotencyKeys#IDEMPOTENCY_KEY} of the call.
      * 
      * @param requestConfig Holds the configuration value used to set the request
      *                      header.
      * @param request       Indicates the Adyen request object.
-     * @return The header map values.
+     * @return The immutable header map values, shared by the calls with the same
+     *         content type, or a new map when the call has an idempotency key.
      */
     @Override
     public Map<String, String> getHeader(Map<String, String> requestConfig, IRequest request) {
 	logger.debug("RequestHandlersImpl - getHeader ");
-	if (!adyenProperties.containsKey(X_API_KEY)) {
+	if (defaultHeaders == null) {
 	    logger.error("Mandatory Properties Missing");
 	    JSONObject errorJSON = new JSONObject();
 	    errorJSON.put(ERROR_DESCRIPTION, "Mandatory Properties Missing");
 	    throw new PaymentConfigurationException(ExceptionError.PAY0005, errorJSON);
 	}
-
-	String xapikey = adyenProperties.getProperty(X_API_KEY);
-	Map<String, String> headerMap = new HashMap<String, String>();
-	headerMap.put("x-api-key", xapikey);
-	headerMap.put("content-type", requestConfig.get(CONTENT_TYPE));
-
+	String contentType = requestConfig.get(CONTENT_TYPE);
+	Map<String, String> headers = contentType == null ? defaultHeaders
+		: headersByContentType.computeIfAbsent(contentType, this::createHeaders);
+	String idempotencyKey = requestConfig.get(IdempotencyKeys.IDEMPOTENCY_KEY);
+	if (idempotencyKey == null) {
+	    return headers;
+	}
+	Map<String, String> headerMap = new HashMap<>(headers);
+	headerMap.put(IDEMPOTENCY_KEY_HEADER, idempotencyKey);
 	return headerMap;
     }
 
@@ -137,34 +212,19 @@ public class RequestHandlersImpl<IRequest, IRequestHeaderParameter, IRequestConf
     @Override
     public String getResourceURL(String apiName, IRequestHeaderParameter requestPathParam) {
 	logger.debug("RequestHandlersImpl - getResourceURL ");
-	if (!(adyenProperties.containsKey(URL) || adyenProperties.containsKey(VERSION) || requestPathParam != null)) {
+	if (!(urlPropertiesPresent || requestPathParam != null)) {
 	    logger.error("Mandatory Properties Missing");
 	    JSONObject errorJSON = new JSONObject();
 	    errorJSON.put(ERROR_DESCRIPTION, "Mandatory Properties Missing");
 	    throw new PaymentConfigurationException(ExceptionError.PAY0005, errorJSON);
 	}
-	String url = adyenProperties.getProperty(URL);
-	String version = adyenProperties.getProperty(VERSION);
-	logger.debug(URL + "-" + url + ", " + VERSION + "-" + version);
-	AdyenRequestPathParam requestPathParams = (AdyenRequestPathParam) requestPathParam;
-	StringBuilder sb = new StringBuilder("");
-	if ((ServiceType.PROCESS_PAYMENTS).toString().equals(apiName)) {
-	    sb.append(url + "/").append(version).append(ENDPOINT_PAYMENTS);
-	} else if ((ServiceType.REVERSE).toString().equals(apiName)) {
-	    sb.append(url + "/").append(version).append(ENDPOINT_PAYMENTS + "/")
-		    .append(requestPathParams.getPspPaymentReference()).append(ENDPOINT_CANCELS);
-	} else if ((ServiceType.CAPTURE).toString().equals(apiName)) {
-	    sb.append(url + "/").append(version).append(ENDPOINT_PAYMENTS + "/")
-		    .append(requestPathParams.getPspPaymentReference()).append(ENDPOINT_CAPTURES);
-	} else if ((ServiceType.AMEND_AUTHORIZATION).toString().equals(apiName)) {
-	    sb.append(url + "/").append(version).append(ENDPOINT_PAYMENTS + "/")
-		    .append(requestPathParams.getPspPaymentReference()).append(ENDPOINT_AMEND_AUTHORIZATION);
-	} else if ((ServiceType.REFUND).toString().equals(apiName)) {
-	    sb.append(url + "/").append(version).append(ENDPOINT_PAYMENTS + "/")
-		    .append(requestPathParams.getPspPaymentReference()).append(ENDPOINT_REFUNDS);
+	ServiceType serviceType = SERVICE_TYPES.get(apiName);
+	if (serviceType == null) {
+	    return "";
 	}
-	logger.debug("getResourceURL - {}", sb.toString());
-	return sb.toString();
+	String resourceURL = urlTemplates.get(serviceType).build((AdyenRequestPathParam) requestPathParam);
+	logger.debug("getResourceURL - {}", resourceURL);
+	return resourceURL;
     }
 
     /**
@@ -179,9 +239,9 @@ public class RequestHandlersImpl<IRequest, IRequestHeaderParameter, IRequestConf
     @Override
     public IRequestConfigs getRequestConfig() {
 	logger.debug("RequestHandlersImpl - getRequestConfig ");
-	logger.debug(CONNECTION_REQUEST_TIMEOUT + " - " + adyenProperties.getProperty(CONNECTION_REQUEST_TIMEOUT) + ","
-		+ CONNECT_TIMEOUT + "-" + adyenProperties.getProperty(CONNECT_TIMEOUT) + ", " + SOCKET_TIMEOUT + "-"
-		+ adyenProperties.getProperty(SOCKET_TIMEOUT));
+	logger.debug(CONNECTION_REQUEST_TIMEOUT + " - {}, " + CONNECT_TIMEOUT + " - {}, " + SOCKET_TIMEOUT + " - {}",
+		adyenProperties.getProperty(CONNECTION_REQUEST_TIMEOUT), adyenProperties.getProperty(CONNECT_TIMEOUT),
+		adyenProperties.getProperty(SOCKET_TIMEOUT));
 	return (IRequestConfigs) org.apache.http.client.config.RequestConfig.custom()
 		.setConnectionRequestTimeout(
 			Integer.valueOf(adyenProperties.getProperty(CONNECTION_REQUEST_TIMEOUT, "1000")))
@@ -190,4 +250,38 @@ public class RequestHandlersImpl<IRequest, IRequestHeaderParameter, IRequestConf
 
     }
 
+    /**
+     * URL template of a service type, split into the part before and the part
+     * after the PSP reference.
+     */
+    private static final class UrlTemplate {
+
+	private final String prefix;
+	private final String suffix;
+
+	UrlTemplate(String prefix, String suffix) {
+	    this.prefix = prefix;
+	    this.suffix = suffix;
+	}
+
+	String build(AdyenRequestPathParam requestPathParams) {
+	    if (suffix == null) {
+		return prefix;
+	    }
+	    return new StringBuilder(prefix.length() + suffix.length() + 32).append(prefix)
+		    .append(requestPathParams.getPspPaymentReference()).append(suffix).toString();
+	}
+    }
+
+    /**
+     * Method used to get the merchant account of the Adyen request.
+     * 
+     * @param request Indicates the Adyen request object.
+     * @return The merchant account of the request, or null if it is not an
+     *         {@link AdyenRequest}.
+     */
+    @Override
+    public String getMerchantAccount(IRequest request) {
+	return request instanceof AdyenRequest ? ((AdyenRequest) request).getMerchantAccount() : null;
+    }
 }
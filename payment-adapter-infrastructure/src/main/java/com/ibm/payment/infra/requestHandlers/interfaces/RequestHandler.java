@@ -64,4 +64,15 @@ public interface RequestHandler<IRequest, IRequestHeaderParameter, IRequestConfi
      */
     public IRequestConfigs getRequestConfig();
 
+    /**
+     * Method used to get the merchant account of the request, used to label the
+     * monitoring of the call.
+     * 
+     * @param request Indicates the request object.
+     * @return The merchant account of the request, or null if it is not known.
+     */
+    public default String getMerchantAccount(IRequest request) {
+	return null;
+    }
+
 }
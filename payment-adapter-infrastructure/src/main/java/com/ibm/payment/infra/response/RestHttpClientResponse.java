@@ -17,7 +17,9 @@ package com.ibm.payment.infra.response;
  * 
  * RestHttpClientResponse class holds the response code and message. In
  * StandardHttpClient, it is used to set the response from various payment
- * gateways.
+ * gateways. In the streaming mode, the successful responses are parsed
+ * straight from the response stream and held as the response body instead of
+ * the response string.
  *
  */
 public class RestHttpClientResponse {
@@ -26,6 +28,8 @@ public class RestHttpClientResponse {
 
     private String response;
 
+    private Object responseBody;
+
     public int getResponseCode() {
 	return responseCode;
     }
@@ -42,4 +46,12 @@ public class RestHttpClientResponse {
 	this.response = response;
     }
 
+    public Object getResponseBody() {
+	return responseBody;
+    }
+
+    public void setResponseBody(Object responseBody) {
+	this.responseBody = responseBody;
+    }
+
 }
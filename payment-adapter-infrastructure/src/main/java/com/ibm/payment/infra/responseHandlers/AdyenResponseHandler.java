@@ -15,9 +15,12 @@ package com.ibm.payment.infra.responseHandlers;
 
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
+import org.json.JSONObject;
 
+import com.ibm.adapter.payment.enums.ServiceType;
 import com.ibm.adapter.payment.model.PaymentCollectionOutput;
 import com.ibm.model.adyen.AdyenResponse;
+import com.ibm.payment.infra.exception.PaymentMappingException;
 import com.ibm.payment.infra.interfaces.IAmountUpdatesResponseHandler;
 import com.ibm.payment.infra.interfaces.IAuthResponseHandler;
 import com.ibm.payment.infra.interfaces.IReverseResponseHandler;
@@ -25,6 +28,7 @@ import com.ibm.payment.infra.interfaces.ICaptureResponseHandler;
 import com.ibm.payment.infra.interfaces.IProcessPaymentResponseHandler;
 import com.ibm.payment.infra.interfaces.IRefundResponseHandler;
 import com.ibm.payment.infra.mapper.AdyenToPaymentResponseMapper;
+import com.ibm.payment.infra.response.ExceptionError;
 
 /**
  * This class implemented all the response handler interfaces and provided
@@ -163,4 +167,35 @@ public class AdyenResponseHandler implements IAuthResponseHandler<AdyenResponse,
 	logger.debug("AdyenResponseHandler - applyPaymentsResponse");
 	return AdyenToPaymentResponseMapper.MAPPER.adyenToPaymentsResponse(adyenResponse);
     }
+
+    /**
+     * This method will be invoked when the response of a call is handled outside
+     * of its infra service, like the calls replayed by the retry scheduler, to
+     * apply the response handler of the service type.
+     * 
+     * @param apiName       Holds the service type of the call like CAPTURE,
+     *                      REFUND, REVERSE, PROCESS_PAYMENTS and
+     *                      AMEND_AUTHORIZATION.
+     * @param adyenResponse holds {@link AdyenResponse} objects obtained from rest
+     *                      HttpClient
+     * @return The {@link PaymentCollectionOutput} - Adapter's output object
+     */
+    public PaymentCollectionOutput applyResponse(String apiName, AdyenResponse adyenResponse) {
+	logger.debug("AdyenResponseHandler - applyResponse");
+	switch (ServiceType.valueOf(apiName)) {
+	case CAPTURE:
+	    return applyCaptureResponse(adyenResponse);
+	case REFUND:
+	    return applyRefundResponse(adyenResponse);
+	case REVERSE:
+	    return applyReverseResponse(adyenResponse);
+	case PROCESS_PAYMENTS:
+	    return applyPaymentsResponse(adyenResponse);
+	case AMEND_AUTHORIZATION:
+	    return applyAmountUpdatesResponse(adyenResponse);
+	default:
+	    throw new PaymentMappingException(ExceptionError.PAY0006,
+		    new JSONObject().put("errorDescription", "No response handler for the API " + apiName));
+	}
+    }
 }
@@ -0,0 +1,75 @@
+/*
+IBM Confidential
+IBM Sterling OMS Payment Integration Adapter
+(C) Copyright IBM Corp. 2022
+Licensed under the Apache License, Version 2.0 (the "License");
+you may not use this file except in compliance with the License.
+http://www.apache.org/licenses/LICENSE-2.0
+Unless required by applicable law or agreed to in writing, software
+distributed under the License is distributed on an "AS IS" BASIS,
+WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+See the License for the specific language governing permissions and
+limitations under the License.
+*/
+package com.ibm.payment.infra.retry;
+
+import java.util.Map;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import com.ibm.model.adyen.AdyenRequest;
+import com.ibm.payment.infra.client.IRestHttpClient;
+import com.ibm.payment.infra.context.AdyenRequestPathParam;
+import com.ibm.payment.infra.exception.PaymentConnectionException;
+import com.ibm.payment.infra.exception.PaymentRejectedException;
+import com.ibm.payment.infra.response.RestHttpClientResponse;
+import com.ibm.payment.infra.util.IdempotencyKeys;
+
+/**
+ * JournalingRestHttpClient class decorates the RestHttpClient of the infra
+ * services, the calls failed with a {@link PaymentConnectionException} are
+ * submitted to the {@link RetryScheduler} before the exception is thrown back,
+ * so OMS still gets the transaction for retry while it is replayed in the
+ * background. The calls without an idempotency key are not replayed, as the
+ * payment provider could not recognise a call it already processed, and
+ * neither are the calls rejected with a {@link PaymentRejectedException}
+ * before they were sent, such as by an open circuit breaker or an exceeded
+ * rate limit.
+ */
+public class JournalingRestHttpClient implements IRestHttpClient<AdyenRequest, AdyenRequestPathParam> {
+
+    private static final Logger logger = LogManager.getLogger(JournalingRestHttpClient.class);
+
+    private final IRestHttpClient<AdyenRequest, AdyenRequestPathParam> restHttpClient;
+
+    private final RetryScheduler retryScheduler;
+
+    public JournalingRestHttpClient(IRestHttpClient<AdyenRequest, AdyenRequestPathParam> restHttpClient,
+	    RetryScheduler retryScheduler) {
+	this.restHttpClient = restHttpClient;
+	this.retryScheduler = retryScheduler;
+    }
+
+    @Override
+    public RestHttpClientResponse sendPost(String apiName, Map<String, String> requestConfig, AdyenRequest request,
+	    AdyenRequestPathParam requestPathParams) {
+	try {
+	    return restHttpClient.sendPost(apiName, requestConfig, request, requestPathParams);
+	} catch (PaymentRejectedException e) {
+	    throw e;
+	} catch (PaymentConnectionException e) {
+	    String idempotencyKey = requestConfig == null ? null : requestConfig.get(IdempotencyKeys.IDEMPOTENCY_KEY);
+	    if (idempotencyKey != null && retryScheduler.submit(idempotencyKey, apiName, request, requestPathParams)) {
+		logger.debug("JournalingRestHttpClient - the {} call {} is scheduled for replay", apiName,
+			idempotencyKey);
+	    }
+	    throw e;
+	}
+    }
+
+    public RetryScheduler getRetryScheduler() {
+	return retryScheduler;
+    }
+
+}
@@ -0,0 +1,131 @@
+/*
+IBM Confidential
+IBM Sterling OMS Payment Integration Adapter
+(C) Copyright IBM Corp. 2022
+Licensed under the Apache License, Version 2.0 (the "License");
+you may not use this file except in compliance with the License.
+http://www.apache.org/licenses/LICENSE-2.0
+Unless required by applicable law or agreed to in writing, software
+distributed under the License is distributed on an "AS IS" BASIS,
+WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+See the License for the specific language governing permissions and
+limitations under the License.
+*/
+package com.ibm.payment.infra.retry;
+
+import java.util.Properties;
+
+/**
+ * RetryConfig class holds the configurations of the {@link RetryScheduler}
+ * replaying the payment calls failed with a connection error. The values are
+ * loaded from the payment provider's properties file and the default values
+ * are used if they are not configured.
+ * <ul>
+ * <li>retryjournal - path of the journal file, the failed calls are not
+ * replayed if it is not configured.</li>
+ * <li>retryjournalsize - size of the memory-mapped journal file in
+ * bytes.</li>
+ * <li>retryjournalsync - false to leave the journal writes to the operating
+ * system instead of forcing them to the disk.</li>
+ * <li>retrymaxattempts - maximum replays of a failed call.</li>
+ * <li>retrybasedelay - milliseconds before the first replay, doubled on each
+ * replay.</li>
+ * <li>retrymaxdelay - maximum milliseconds between two replays.</li>
+ * </ul>
+ */
+public class RetryConfig {
+
+    public static final String RETRY_JOURNAL = "retryjournal";
+    public static final String RETRY_JOURNAL_SIZE = "retryjournalsize";
+    public static final String RETRY_JOURNAL_SYNC = "retryjournalsync";
+    public static final String RETRY_MAX_ATTEMPTS = "retrymaxattempts";
+    public static final String RETRY_BASE_DELAY = "retrybasedelay";
+    public static final String RETRY_MAX_DELAY = "retrymaxdelay";
+
+    private String journalPath;
+
+    private int journalSize = 16 * 1024 * 1024;
+
+    private boolean journalSync = true;
+
+    private int maxAttempts = 5;
+
+    private long baseDelay = 1000;
+
+    private long maxDelay = 30000;
+
+    /**
+     * Method used to create the retry configurations from the payment provider's
+     * properties.
+     * 
+     * @param properties Holds the payment provider's properties.
+     * @return The {@link RetryConfig} object.
+     */
+    public static RetryConfig fromProperties(Properties properties) {
+	RetryConfig config = new RetryConfig();
+	String journalPath = properties.getProperty(RETRY_JOURNAL, "").trim();
+	config.setJournalPath(journalPath.isEmpty() ? null : journalPath);
+	config.setJournalSize(Integer.parseInt(properties.getProperty(RETRY_JOURNAL_SIZE, "16777216").trim()));
+	config.setJournalSync(Boolean.parseBoolean(properties.getProperty(RETRY_JOURNAL_SYNC, "true").trim()));
+	config.setMaxAttempts(Integer.parseInt(properties.getProperty(RETRY_MAX_ATTEMPTS, "5").trim()));
+	config.setBaseDelay(Long.parseLong(properties.getProperty(RETRY_BASE_DELAY, "1000").trim()));
+	config.setMaxDelay(Long.parseLong(properties.getProperty(RETRY_MAX_DELAY, "30000").trim()));
+	return config;
+    }
+
+    /**
+     * @return true if the journal file is configured.
+     */
+    public boolean isEnabled() {
+	return journalPath != null;
+    }
+
+    public String getJournalPath() {
+	return journalPath;
+    }
+
+    public void setJournalPath(String journalPath) {
+	this.journalPath = journalPath;
+    }
+
+    public int getJournalSize() {
+	return journalSize;
+    }
+
+    public void setJournalSize(int journalSize) {
+	this.journalSize = journalSize;
+    }
+
+    public boolean isJournalSync() {
+	return journalSync;
+    }
+
+    public void setJournalSync(boolean journalSync) {
+	this.journalSync = journalSync;
+    }
+
+    public int getMaxAttempts() {
+	return maxAttempts;
+    }
+
+    public void setMaxAttempts(int maxAttempts) {
+	this.maxAttempts = maxAttempts;
+    }
+
+    public long getBaseDelay() {
+	return baseDelay;
+    }
+
+    public void setBaseDelay(long baseDelay) {
+	this.baseDelay = baseDelay;
+    }
+
+    public long getMaxDelay() {
+	return maxDelay;
+    }
+
+    public void setMaxDelay(long maxDelay) {
+	this.maxDelay = maxDelay;
+    }
+
+}
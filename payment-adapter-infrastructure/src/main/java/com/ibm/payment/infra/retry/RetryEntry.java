@@ -0,0 +1,68 @@
+/*
+IBM Confidential
+IBM Sterling OMS Payment Integration Adapter
+(C) Copyright IBM Corp. 2022
+Licensed under the Apache License, Version 2.0 (the "License");
+you may not use this file except in compliance with the License.
+http://www.apache.org/licenses/LICENSE-2.0
+Unless required by applicable law or agreed to in writing, software
+distributed under the License is distributed on an "AS IS" BASIS,
+WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+See the License for the specific language governing permissions and
+limitations under the License.
+*/
+package com.ibm.payment.infra.retry;
+
+/**
+ * RetryEntry class holds a payment call failed with a connection error, as it
+ * is recorded in the {@link RetryJournal}: the endpoint, the idempotency key,
+ * the PSP reference of the path and the request serialized as JSON.
+ */
+public class RetryEntry {
+
+    private final String idempotencyKey;
+
+    private final String apiName;
+
+    private final String pspReference;
+
+    private final String request;
+
+    private int attempts;
+
+    public RetryEntry(String idempotencyKey, String apiName, String pspReference, String request) {
+	this.idempotencyKey = idempotencyKey;
+	this.apiName = apiName;
+	this.pspReference = pspReference;
+	this.request = request;
+    }
+
+    public String getIdempotencyKey() {
+	return idempotencyKey;
+    }
+
+    public String getApiName() {
+	return apiName;
+    }
+
+    public String getPspReference() {
+	return pspReference;
+    }
+
+    public String getRequest() {
+	return request;
+    }
+
+    /**
+     * @return The number of the replays done so far, replays are not journaled
+     *         so the count restarts when the journal is recovered.
+     */
+    public int getAttempts() {
+	return attempts;
+    }
+
+    void incrementAttempts() {
+	attempts++;
+    }
+
+}
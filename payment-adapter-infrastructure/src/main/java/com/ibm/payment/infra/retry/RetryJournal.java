@@ -0,0 +1,319 @@
+/*
+IBM Confidential
+IBM Sterling OMS Payment Integration Adapter
+(C) Copyright IBM Corp. 2022
+Licensed under the Apache License, Version 2.0 (the "License");
+you may not use this file except in compliance with the License.
+http://www.apache.org/licenses/LICENSE-2.0
+Unless required by applicable law or agreed to in writing, software
+distributed under the License is distributed on an "AS IS" BASIS,
+WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+See the License for the specific language governing permissions and
+limitations under the License.
+*/
+package com.ibm.payment.infra.retry;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.zip.CRC32;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+/**
+ * RetryJournal class is an append-only journal of the payment calls waiting
+ * to be replayed, kept in a memory-mapped file so the calls are not lost when
+ * the process stops.
+ * <ul>
+ * <li>Each record is written as its body length, the CRC32 of the body and the
+ * body. The body is either a pending {@link RetryEntry} or the idempotency key
+ * of a completed entry.</li>
+ * <li>On opening, the records are read up to the first empty or corrupted
+ * record, which is where a crash during a write leaves the journal, and the
+ * entries not completed are pending again.</li>
+ * <li>When the file is full, the pending entries are written to a new file
+ * which atomically replaces the journal. The journal is reopened as it was if
+ * the compaction fails, and is kept as it is if the pending entries do not fit
+ * in the new file, so a pending entry is never dropped from the disk.</li>
+ * </ul>
+ * The previous mapping of a compacted journal is released by the garbage
+ * collector, Java 8 cannot unmap a file explicitly.
+ */
+public class RetryJournal implements Closeable {
+
+    private static final Logger logger = LogManager.getLogger(RetryJournal.class);
+
+    private static final byte PENDING = 1;
+
+    private static final byte COMPLETED = 2;
+
+    /** Body length and CRC32 of a record. */
+    private static final int RECORD_HEADER_SIZE = 8;
+
+    private final Path path;
+
+    private final int size;
+
+    private final boolean sync;
+
+    private final Map<String, RetryEntry> pendingEntries = new LinkedHashMap<>();
+
+    private FileChannel channel;
+
+    private MappedByteBuffer buffer;
+
+    /**
+     * Method used to open the journal file, creating it if it does not exist, and
+     * to recover its pending entries.
+     * 
+     * @param path Holds the path of the journal file.
+     * @param size Holds the size of the file in bytes.
+     * @param sync true to force each record to the disk once written.
+     * @throws IOException if the file could not be opened.
+     */
+    public RetryJournal(Path path, int size, boolean sync) throws IOException {
+	this.path = path;
+	this.size = size;
+	this.sync = sync;
+	Path parent = path.toAbsolutePath().getParent();
+	if (parent != null) {
+	    Files.createDirectories(parent);
+	}
+	map(path);
+	recover();
+    }
+
+    private void map(Path file) throws IOException {
+	channel = open(file);
+	buffer = channel.map(FileChannel.MapMode.READ_WRITE, 0, size);
+    }
+
+    private static FileChannel open(Path file) throws IOException {
+	return FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE);
+    }
+
+    /**
+     * Method used to read the records up to the first empty or corrupted record,
+     * the next records are appended from there.
+     */
+    private void recover() {
+	CRC32 crc = new CRC32();
+	while (buffer.remaining() >= RECORD_HEADER_SIZE) {
+	    int start = buffer.position();
+	    int length = buffer.getInt();
+	    int checksum = buffer.getInt();
+	    if (length <= 0 || length > buffer.remaining()) {
+		buffer.position(start);
+		break;
+	    }
+	    byte[] body = new byte[length];
+	    buffer.get(body);
+	    crc.reset();
+	    crc.update(body, 0, length);
+	    if ((int) crc.getValue() != checksum) {
+		logger.warn("RetryJournal - corrupted record at {} in {}, the next records are discarded", start, path);
+		buffer.position(start);
+		break;
+	    }
+	    apply(ByteBuffer.wrap(body));
+	}
+	logger.debug("RetryJournal - {} pending entries recovered from {}", pendingEntries.size(), path);
+    }
+
+    private void apply(ByteBuffer body) {
+	byte type = body.get();
+	String idempotencyKey = readString(body);
+	if (type == PENDING) {
+	    pendingEntries.put(idempotencyKey,
+		    new RetryEntry(idempotencyKey, readString(body), readString(body), readString(body)));
+	} else {
+	    pendingEntries.remove(idempotencyKey);
+	}
+    }
+
+    /**
+     * Method used to record a call to be replayed, an entry already pending for
+     * the same idempotency key is kept.
+     * 
+     * @param entry Holds the call to be replayed.
+     * @return true if the entry is pending, false if it does not fit in the
+     *         journal.
+     * @throws IOException if the journal could not be compacted.
+     */
+    public synchronized boolean append(RetryEntry entry) throws IOException {
+	if (pendingEntries.containsKey(entry.getIdempotencyKey())) {
+	    return true;
+	}
+	byte[] body = encode(entry);
+	if (!write(body)) {
+	    compact();
+	    if (!write(body)) {
+		logger.error("RetryJournal - entry of {} bytes does not fit in {}", body.length, path);
+		return false;
+	    }
+	}
+	pendingEntries.put(entry.getIdempotencyKey(), entry);
+	return true;
+    }
+
+    /**
+     * Method used to record that a pending call does not have to be replayed
+     * anymore.
+     * 
+     * @param idempotencyKey Holds the idempotency key of the call.
+     * @throws IOException if the journal could not be compacted.
+     */
+    public synchronized void complete(String idempotencyKey) throws IOException {
+	if (pendingEntries.remove(idempotencyKey) == null) {
+	    return;
+	}
+	byte[] body = encodeCompleted(idempotencyKey);
+	if (!write(body)) {
+	    // the compacted journal no longer holds the entry
+	    compact();
+	}
+    }
+
+    /**
+     * @return true if a call is pending for the idempotency key.
+     */
+    public synchronized boolean isPending(String idempotencyKey) {
+	return pendingEntries.containsKey(idempotencyKey);
+    }
+
+    /**
+     * @return The pending entries, in the order they were appended.
+     */
+    public synchronized List<RetryEntry> getPendingEntries() {
+	return new ArrayList<>(pendingEntries.values());
+    }
+
+    private boolean write(byte[] body) {
+	return write(buffer, body);
+    }
+
+    private boolean write(MappedByteBuffer target, byte[] body) {
+	if (target.remaining() < RECORD_HEADER_SIZE + body.length) {
+	    return false;
+	}
+	CRC32 crc = new CRC32();
+	crc.update(body, 0, body.length);
+	int start = target.position();
+	// the body is written before its length, so a partial record reads as empty
+	target.position(start + RECORD_HEADER_SIZE);
+	target.put(body);
+	target.putInt(start + 4, (int) crc.getValue());
+	target.putInt(start, body.length);
+	if (sync) {
+	    target.force();
+	}
+	return true;
+    }
+
+    /**
+     * Method used to write the pending entries to a new file replacing the
+     * journal. The journal stays open until the new file is written, and is
+     * reopened at its previous position if it could not be replaced.
+     * 
+     * @throws IOException if the new file could not be written, or if the pending
+     *                     entries do not fit in it, the journal is not replaced.
+     */
+    private void compact() throws IOException {
+	Path compacted = path.resolveSibling(path.getFileName() + ".tmp");
+	Files.deleteIfExists(compacted);
+	int compactedPosition;
+	try (FileChannel compactedChannel = open(compacted)) {
+	    MappedByteBuffer compactedBuffer = compactedChannel.map(FileChannel.MapMode.READ_WRITE, 0, size);
+	    List<String> overflowKeys = new ArrayList<>();
+	    for (RetryEntry entry : pendingEntries.values()) {
+		if (!overflowKeys.isEmpty() || !write(compactedBuffer, encode(entry))) {
+		    overflowKeys.add(entry.getIdempotencyKey());
+		}
+	    }
+	    if (!overflowKeys.isEmpty()) {
+		logger.error("RetryJournal - pending entries {} exceed the size of {}, the journal is not compacted",
+			overflowKeys, path);
+		throw new IOException("Pending entries exceed the size of " + path);
+	    }
+	    compactedBuffer.force();
+	    compactedPosition = compactedBuffer.position();
+	} catch (IOException e) {
+	    Files.deleteIfExists(compacted);
+	    throw e;
+	}
+	int position = buffer.position();
+	channel.close();
+	try {
+	    Files.move(compacted, path, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+	} catch (IOException e) {
+	    logger.error("RetryJournal - {} could not be replaced by the compacted journal", path, e);
+	    map(path);
+	    buffer.position(position);
+	    throw e;
+	}
+	map(path);
+	buffer.position(compactedPosition);
+	logger.debug("RetryJournal - {} compacted to {} pending entries", path, pendingEntries.size());
+    }
+
+    private static byte[] encode(RetryEntry entry) {
+	byte[][] fields = { bytes(entry.getIdempotencyKey()), bytes(entry.getApiName()),
+		bytes(entry.getPspReference()), bytes(entry.getRequest()) };
+	return encode(PENDING, fields);
+    }
+
+    private static byte[] encodeCompleted(String idempotencyKey) {
+	return encode(COMPLETED, new byte[][] { bytes(idempotencyKey) });
+    }
+
+    private static byte[] encode(byte type, byte[][] fields) {
+	int length = 1;
+	for (byte[] field : fields) {
+	    length += 4 + (field == null ? 0 : field.length);
+	}
+	ByteBuffer body = ByteBuffer.allocate(length).put(type);
+	for (byte[] field : fields) {
+	    if (field == null) {
+		body.putInt(-1);
+	    } else {
+		body.putInt(field.length).put(field);
+	    }
+	}
+	return body.array();
+    }
+
+    private static byte[] bytes(String value) {
+	return value == null ? null : value.getBytes(StandardCharsets.UTF_8);
+    }
+
+    private static String readString(ByteBuffer body) {
+	int length = body.getInt();
+	if (length < 0) {
+	    return null;
+	}
+	String value = new String(body.array(), body.arrayOffset() + body.position(), length, StandardCharsets.UTF_8);
+	body.position(body.position() + length);
+	return value;
+    }
+
+    @Override
+    public synchronized void close() throws IOException {
+	if (sync) {
+	    buffer.force();
+	}
+	channel.close();
+    }
+
+}
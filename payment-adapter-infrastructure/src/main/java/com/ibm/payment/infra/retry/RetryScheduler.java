@@ -0,0 +1,317 @@
+/*
+IBM Confidential
+IBM Sterling OMS Payment Integration Adapter
+(C) Copyright IBM Corp. 2022
+Licensed under the Apache License, Version 2.0 (the "License");
+you may not use this file except in compliance with the License.
+http://www.apache.org/licenses/LICENSE-2.0
+Unless required by applicable law or agreed to in writing, software
+distributed under the License is distributed on an "AS IS" BASIS,
+WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+See the License for the specific language governing permissions and
+limitations under the License.
+*/
+package com.ibm.payment.infra.retry;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.file.Paths;
+import java.util.Collections;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.BiFunction;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.json.JSONObject;
+
+import com.ibm.adapter.payment.model.PaymentCollectionOutput;
+import com.ibm.model.adyen.AdyenRequest;
+import com.ibm.payment.infra.client.IRestHttpClient;
+import com.ibm.payment.infra.context.AdyenRequestPathParam;
+import com.ibm.payment.infra.exception.PaymentConfigurationException;
+import com.ibm.payment.infra.exception.PaymentConnectionException;
+import com.ibm.payment.infra.exception.PaymentException;
+import com.ibm.payment.infra.response.ExceptionError;
+import com.ibm.payment.infra.response.RestHttpClientResponse;
+import com.ibm.payment.infra.responseHandlers.AdyenResponseHandler;
+import com.ibm.payment.infra.util.IdempotencyKeys;
+import com.ibm.payment.infra.util.IdempotentResponseCache;
+import com.ibm.payment.infra.util.InfraServiceUtils;
+import com.ibm.payment.infra.util.JsonCodec;
+
+/**
+ * RetryScheduler class replays in the background the payment calls failed
+ * with a connection error, so the transaction returned to OMS for retry is
+ * completed by the time OMS re-invokes it.
+ * <ul>
+ * <li>The calls are recorded in the {@link RetryJournal} before being
+ * scheduled, and the calls still pending in the journal are scheduled again
+ * when the scheduler is created.</li>
+ * <li>The replays are delayed by an exponential backoff with jitter, half of
+ * the delay is random so the calls failed together are not replayed
+ * together.</li>
+ * <li>The calls are replayed with the same idempotency key, so the payment
+ * provider does not process twice a call it received before the
+ * failure.</li>
+ * <li>A call failed with a connection or server error is replayed up to the
+ * maximum attempts, any other outcome completes it. The output of a completed
+ * call is kept in the {@link IdempotentResponseCache}, where the payment
+ * services find it when OMS re-invokes the transaction.</li>
+ * <li>A transaction re-invoked by OMS while its call is still pending is
+ * marked for retry by the payment services without being sent, see
+ * {@link #isReplayPending(String)}.</li>
+ * </ul>
+ */
+public class RetryScheduler implements Closeable {
+
+    private static final Logger logger = LogManager.getLogger(RetryScheduler.class);
+
+    private static final String SERVER_ERROR = PaymentException.PAY + ExceptionError.PAY0004.getCode();
+
+    private static final Set<RetryScheduler> openSchedulers = ConcurrentHashMap.newKeySet();
+
+    private final IRestHttpClient<AdyenRequest, AdyenRequestPathParam> restHttpClient;
+
+    private final RetryConfig config;
+
+    private final RetryJournal journal;
+
+    private final BiFunction<String, RestHttpClientResponse, PaymentCollectionOutput> responseHandler;
+
+    private final ScheduledExecutorService executor;
+
+    private final AtomicLong replayedCalls = new AtomicLong();
+
+    private final AtomicLong completedCalls = new AtomicLong();
+
+    private final AtomicLong abandonedCalls = new AtomicLong();
+
+    /**
+     * Method used to create the scheduler replaying the calls through the given
+     * client, the responses are converted by the {@link AdyenResponseHandler}.
+     * 
+     * @param restHttpClient Holds the client replaying the calls, which must not
+     *                       journal them again.
+     * @param config         Holds the retry configurations.
+     */
+    public RetryScheduler(IRestHttpClient<AdyenRequest, AdyenRequestPathParam> restHttpClient, RetryConfig config) {
+	this(restHttpClient, config, createResponseHandler());
+    }
+
+    RetryScheduler(IRestHttpClient<AdyenRequest, AdyenRequestPathParam> restHttpClient, RetryConfig config,
+	    BiFunction<String, RestHttpClientResponse, PaymentCollectionOutput> responseHandler) {
+	this.restHttpClient = restHttpClient;
+	this.config = config;
+	this.responseHandler = responseHandler;
+	try {
+	    this.journal = new RetryJournal(Paths.get(config.getJournalPath()), config.getJournalSize(),
+		    config.isJournalSync());
+	} catch (IOException e) {
+	    logger.error("RetryScheduler - unable to open the retry journal {}", config.getJournalPath(), e);
+	    throw new PaymentConfigurationException(ExceptionError.PAY0005,
+		    new JSONObject().put("errorDescription", "Unable to open the retry journal " + config.getJournalPath()));
+	}
+	this.executor = Executors.newSingleThreadScheduledExecutor(runnable -> {
+	    Thread thread = new Thread(runnable, "payment-retry-scheduler");
+	    thread.setDaemon(true);
+	    return thread;
+	});
+	for (RetryEntry entry : journal.getPendingEntries()) {
+	    schedule(entry);
+	}
+	openSchedulers.add(this);
+    }
+
+    /**
+     * Method used to check whether a call is waiting to be replayed by any open
+     * scheduler, so the transaction is not sent again while its replay is
+     * pending.
+     * 
+     * @param idempotencyKey Holds the idempotency key of the call, may be null.
+     * @return true if the call is pending in the journal of an open scheduler.
+     */
+    public static boolean isReplayPending(String idempotencyKey) {
+	if (idempotencyKey == null) {
+	    return false;
+	}
+	for (RetryScheduler scheduler : openSchedulers) {
+	    if (scheduler.isPending(idempotencyKey)) {
+		return true;
+	    }
+	}
+	return false;
+    }
+
+    /**
+     * @param idempotencyKey Holds the idempotency key of the call.
+     * @return true if the call is waiting to be replayed.
+     */
+    public boolean isPending(String idempotencyKey) {
+	return journal.isPending(idempotencyKey);
+    }
+
+    private static BiFunction<String, RestHttpClientResponse, PaymentCollectionOutput> createResponseHandler() {
+	AdyenResponseHandler adyenResponseHandler = new AdyenResponseHandler();
+	return (apiName, restHttpClientResponse) -> adyenResponseHandler.applyResponse(apiName,
+		InfraServiceUtils.getResponse(restHttpClientResponse));
+    }
+
+    /**
+     * Method used to record a failed call and schedule its replay.
+     * 
+     * @param idempotencyKey    Holds the idempotency key of the call.
+     * @param apiName           Holds the API name of the call.
+     * @param request           Holds the request of the call.
+     * @param requestPathParams Holds the request path parameters of the call.
+     * @return true if the call is scheduled or already pending, false if it could
+     *         not be recorded.
+     */
+    public synchronized boolean submit(String idempotencyKey, String apiName, AdyenRequest request,
+	    AdyenRequestPathParam requestPathParams) {
+	if (journal.isPending(idempotencyKey)) {
+	    return true;
+	}
+	try {
+	    RetryEntry entry = new RetryEntry(idempotencyKey, apiName,
+		    requestPathParams == null ? null : requestPathParams.getPspPaymentReference(),
+		    JsonCodec.writeValueAsString(request));
+	    if (!journal.append(entry)) {
+		return false;
+	    }
+	    schedule(entry);
+	    return true;
+	} catch (IOException e) {
+	    logger.error("RetryScheduler - unable to record the {} call {}", apiName, idempotencyKey, e);
+	    return false;
+	}
+    }
+
+    private void schedule(RetryEntry entry) {
+	long delay = getDelay(entry.getAttempts());
+	logger.debug("RetryScheduler - replaying the {} call {} in {} ms", entry.getApiName(),
+		entry.getIdempotencyKey(), delay);
+	executor.schedule(() -> replay(entry), delay, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * @return The delay before the next replay, the base delay doubled on each
+     *         attempt up to the maximum delay, of which the second half is
+     *         random.
+     */
+    long getDelay(int attempts) {
+	long delay = Math.min(config.getMaxDelay(), config.getBaseDelay() << Math.min(attempts, 30));
+	long half = delay / 2;
+	return delay - half + (half > 0 ? ThreadLocalRandom.current().nextLong(half + 1) : 0);
+    }
+
+    private void replay(RetryEntry entry) {
+	entry.incrementAttempts();
+	replayedCalls.incrementAndGet();
+	String idempotencyKey = entry.getIdempotencyKey();
+	try {
+	    AdyenRequestPathParam requestPathParams = new AdyenRequestPathParam();
+	    requestPathParams.setPspPaymentReference(entry.getPspReference());
+	    Map<String, String> requestConfig = Collections.singletonMap(IdempotencyKeys.IDEMPOTENCY_KEY,
+		    idempotencyKey);
+	    RestHttpClientResponse restHttpClientResponse = restHttpClient.sendPost(entry.getApiName(), requestConfig,
+		    JsonCodec.readAdyenRequest(entry.getRequest()), requestPathParams);
+	    complete(entry, responseHandler.apply(entry.getApiName(), restHttpClientResponse));
+	} catch (PaymentConnectionException e) {
+	    retryOrAbandon(entry, e.getErrorMessage());
+	} catch (PaymentException e) {
+	    if (SERVER_ERROR.equals(e.getErrorCode())) {
+		retryOrAbandon(entry, e.getErrorMessage());
+	    } else {
+		logger.error("RetryScheduler - the {} call {} failed with {}", entry.getApiName(), idempotencyKey,
+			e.getErrorCode());
+		complete(entry, null);
+	    }
+	} catch (Exception e) {
+	    logger.error("RetryScheduler - the {} call {} failed", entry.getApiName(), idempotencyKey, e);
+	    complete(entry, null);
+	}
+    }
+
+    private void retryOrAbandon(RetryEntry entry, String errorMessage) {
+	if (entry.getAttempts() < config.getMaxAttempts()) {
+	    logger.debug("RetryScheduler - attempt {} of the {} call {} failed: {}", entry.getAttempts(),
+		    entry.getApiName(), entry.getIdempotencyKey(), errorMessage);
+	    schedule(entry);
+	    return;
+	}
+	logger.error("RetryScheduler - the {} call {} is abandoned after {} attempts: {}", entry.getApiName(),
+		entry.getIdempotencyKey(), entry.getAttempts(), errorMessage);
+	abandonedCalls.incrementAndGet();
+	removeFromJournal(entry);
+    }
+
+    private void complete(RetryEntry entry, PaymentCollectionOutput output) {
+	completedCalls.incrementAndGet();
+	if (output != null) {
+	    IdempotentResponseCache.getInstance().put(entry.getIdempotencyKey(), output);
+	}
+	removeFromJournal(entry);
+    }
+
+    private void removeFromJournal(RetryEntry entry) {
+	try {
+	    journal.complete(entry.getIdempotencyKey());
+	} catch (IOException e) {
+	    logger.error("RetryScheduler - unable to record the completion of {}", entry.getIdempotencyKey(), e);
+	}
+    }
+
+    /**
+     * Method used to get the output of a replayed call, for OMS to pick up.
+     * 
+     * @param idempotencyKey Holds the idempotency key of the call.
+     * @return The output of the call, or null if it is not completed or its
+     *         output expired.
+     */
+    public PaymentCollectionOutput getResult(String idempotencyKey) {
+	return IdempotentResponseCache.getInstance().get(idempotencyKey);
+    }
+
+    /**
+     * @return The number of calls waiting to be replayed.
+     */
+    public int getPendingCalls() {
+	return journal.getPendingEntries().size();
+    }
+
+    public long getReplayedCalls() {
+	return replayedCalls.get();
+    }
+
+    public long getCompletedCalls() {
+	return completedCalls.get();
+    }
+
+    public long getAbandonedCalls() {
+	return abandonedCalls.get();
+    }
+
+    /**
+     * Method used to stop replaying the calls, the pending calls stay in the
+     * journal.
+     */
+    @Override
+    public void close() throws IOException {
+	openSchedulers.remove(this);
+	executor.shutdownNow();
+	try {
+	    executor.awaitTermination(5, TimeUnit.SECONDS);
+	} catch (InterruptedException e) {
+	    Thread.currentThread().interrupt();
+	}
+	journal.close();
+    }
+
+}
@@ -0,0 +1,103 @@
+/*
+IBM Confidential
+IBM Sterling OMS Payment Integration Adapter
+(C) Copyright IBM Corp. 2022
+Licensed under the Apache License, Version 2.0 (the "License");
+you may not use this file except in compliance with the License.
+http://www.apache.org/licenses/LICENSE-2.0
+Unless required by applicable law or agreed to in writing, software
+distributed under the License is distributed on an "AS IS" BASIS,
+WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+See the License for the specific language governing permissions and
+limitations under the License.
+*/
+package com.ibm.payment.infra.util;
+
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.UUID;
+
+import com.ibm.adapter.payment.model.PaymentCollectionInput;
+
+/**
+ * 
+ * Utility class used to derive the idempotency key of a payment call. The key
+ * is a name-based UUID of the service type, the payment key, the charge
+ * transaction key, the requested amount and the currency, so the same
+ * transaction re-invoked by OMS always gets the same key while two charges of
+ * the same amount against one payment get different keys.
+ * 
+ */
+public class IdempotencyKeys {
+
+    /**
+     * Request config entry holding the idempotency key, sent as the
+     * Idempotency-Key header by the request handler.
+     */
+    public static final String IDEMPOTENCY_KEY = "idempotency-key";
+
+    private IdempotencyKeys() {
+    }
+
+    /**
+     * Method used to derive the idempotency key of a payment call.
+     * 
+     * @param serviceType            Holds the service type of the call.
+     * @param paymentCollectionInput Holds the adapter's input object.
+     * @return The idempotency key, or null if the input has no payment key or no
+     *         charge transaction key, so the call is neither keyed nor cached.
+     */
+    public static String of(String serviceType, PaymentCollectionInput paymentCollectionInput) {
+	if (paymentCollectionInput == null || paymentCollectionInput.getPaymentKey() == null
+		|| paymentCollectionInput.getTransactionId() == null) {
+	    return null;
+	}
+	BigDecimal requestAmount = paymentCollectionInput.getRequestAmount();
+	String name = new StringBuilder(128).append(serviceType).append('|')
+		.append(paymentCollectionInput.getPaymentKey()).append('|')
+		.append(paymentCollectionInput.getTransactionId()).append('|')
+		.append(requestAmount == null ? null : requestAmount.stripTrailingZeros().toPlainString()).append('|')
+		.append(paymentCollectionInput.getCurrency()).toString();
+	return UUID.nameUUIDFromBytes(name.getBytes(StandardCharsets.UTF_8)).toString();
+    }
+
+    /**
+     * Method used to add the idempotency key of the call to a copy of the request
+     * configs, the given request configs are not modified. A key already held by
+     * the request configs, derived by the service layer, is kept as it is.
+     * 
+     * @param requestConfig          Holds the request configs of the call.
+     * @param serviceType            Holds the service type of the call.
+     * @param paymentCollectionInput Holds the adapter's input object.
+     * @return The request configs with the idempotency key, or the given request
+     *         configs if they already hold a key or no key is derived from the
+     *         input.
+     */
+    public static Map<String, String> withIdempotencyKey(Map<String, String> requestConfig, String serviceType,
+	    PaymentCollectionInput paymentCollectionInput) {
+	if (requestConfig != null && requestConfig.containsKey(IDEMPOTENCY_KEY)) {
+	    return requestConfig;
+	}
+	return withIdempotencyKey(requestConfig, of(serviceType, paymentCollectionInput));
+    }
+
+    /**
+     * Method used to add an idempotency key already derived by {@link #of} to a
+     * copy of the request configs, the given request configs are not modified.
+     * 
+     * @param requestConfig  Holds the request configs of the call.
+     * @param idempotencyKey Holds the idempotency key of the call, may be null.
+     * @return The request configs with the idempotency key, or the given request
+     *         configs if the key is null.
+     */
+    public static Map<String, String> withIdempotencyKey(Map<String, String> requestConfig, String idempotencyKey) {
+	if (idempotencyKey == null) {
+	    return requestConfig;
+	}
+	Map<String, String> config = requestConfig == null ? new HashMap<>() : new HashMap<>(requestConfig);
+	config.put(IDEMPOTENCY_KEY, idempotencyKey);
+	return config;
+    }
+}
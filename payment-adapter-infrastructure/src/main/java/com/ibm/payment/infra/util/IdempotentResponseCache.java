@@ -0,0 +1,223 @@
+/*
+IBM Confidential
+IBM Sterling OMS Payment Integration Adapter
+(C) Copyright IBM Corp. 2022
+Licensed under the Apache License, Version 2.0 (the "License");
+you may not use this file except in compliance with the License.
+http://www.apache.org/licenses/LICENSE-2.0
+Unless required by applicable law or agreed to in writing, software
+distributed under the License is distributed on an "AS IS" BASIS,
+WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+See the License for the specific language governing permissions and
+limitations under the License.
+*/
+package com.ibm.payment.infra.util;
+
+import java.util.Date;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.function.LongSupplier;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.json.JSONObject;
+
+import com.ibm.adapter.payment.model.PaymentCollectionOutput;
+import com.ibm.payment.infra.exception.PaymentConfigurationException;
+import com.ibm.payment.infra.response.ExceptionError;
+
+/**
+ * IdempotentResponseCache class keeps the outputs of the completed payment
+ * calls by their {@link IdempotencyKeys idempotency key}, so a transaction
+ * re-invoked by OMS after it succeeded is answered locally instead of calling
+ * the payment provider again.
+ * <ul>
+ * <li>Only the outputs which are neither marked for retry nor failed are
+ * kept.</li>
+ * <li>The entries expire after the configured time to live, and the oldest
+ * entries are evicted once the maximum size is reached.</li>
+ * <li>A copy of the output is kept and every call gets its own copy, so the
+ * callers may modify the returned outputs.</li>
+ * </ul>
+ * The shared cache keeps 10000 outputs for 30 minutes unless configured by
+ * {@link #configure(int, long)}.
+ */
+public class IdempotentResponseCache {
+
+    private static final Logger logger = LogManager.getLogger(IdempotentResponseCache.class);
+
+    private static volatile IdempotentResponseCache instance = new IdempotentResponseCache(10000,
+	    TimeUnit.MINUTES.toMillis(30));
+
+    private final int maximumSize;
+
+    private final long ttlNanos;
+
+    private final LongSupplier nanoClock;
+
+    private final LinkedHashMap<String, Entry> entries;
+
+    private long hits;
+
+    private long misses;
+
+    public IdempotentResponseCache(int maximumSize, long ttlMillis) {
+	this(maximumSize, ttlMillis, System::nanoTime);
+    }
+
+    IdempotentResponseCache(int maximumSize, long ttlMillis, LongSupplier nanoClock) {
+	if (maximumSize < 0 || ttlMillis < 0) {
+	    logger.error("IdempotentResponseCache - invalid maximum size {} or time to live {}", maximumSize,
+		    ttlMillis);
+	    throw new PaymentConfigurationException(ExceptionError.PAY0005, new JSONObject().put("errorDescription",
+		    "Idempotent response cache size and time to live must not be negative"));
+	}
+	this.maximumSize = maximumSize;
+	this.ttlNanos = TimeUnit.MILLISECONDS.toNanos(ttlMillis);
+	this.nanoClock = nanoClock;
+	this.entries = new LinkedHashMap<String, Entry>(16, 0.75f, false) {
+	    private static final long serialVersionUID = 1L;
+
+	    @Override
+	    protected boolean removeEldestEntry(Map.Entry<String, Entry> eldest) {
+		return size() > IdempotentResponseCache.this.maximumSize;
+	    }
+	};
+    }
+
+    /**
+     * @return The shared cache used by the payment services.
+     */
+    public static IdempotentResponseCache getInstance() {
+	return instance;
+    }
+
+    /**
+     * Method used to replace the shared cache, the outputs of the previous cache
+     * are dropped.
+     * 
+     * @param maximumSize maximum number of outputs kept, 0 disables the cache.
+     * @param ttlMillis   milliseconds an output is kept.
+     */
+    public static void configure(int maximumSize, long ttlMillis) {
+	instance = new IdempotentResponseCache(maximumSize, ttlMillis);
+    }
+
+    /**
+     * Method used to get the output of a completed call.
+     * 
+     * @param idempotencyKey Holds the idempotency key of the call, may be null.
+     * @return A copy of the cached output, or null if the call is not cached or
+     *         expired.
+     */
+    public synchronized PaymentCollectionOutput get(String idempotencyKey) {
+	if (idempotencyKey == null || maximumSize == 0) {
+	    return null;
+	}
+	Entry entry = entries.get(idempotencyKey);
+	if (entry != null && nanoClock.getAsLong() - entry.createdAt >= ttlNanos) {
+	    entries.remove(idempotencyKey);
+	    entry = null;
+	}
+	if (entry == null) {
+	    misses++;
+	    return null;
+	}
+	hits++;
+	return copyOf(entry.output);
+    }
+
+    /**
+     * Method used to keep the output of a call if it is completed, neither marked
+     * for retry nor failed.
+     * 
+     * @param idempotencyKey Holds the idempotency key of the call, may be null.
+     * @param output         Holds the output of the call.
+     */
+    public synchronized void put(String idempotencyKey, PaymentCollectionOutput output) {
+	if (idempotencyKey == null || maximumSize == 0 || !isCompleted(output)) {
+	    return;
+	}
+	long now = nanoClock.getAsLong();
+	evictExpired(now);
+	// re-inserted at the tail, keeping the entries in creation order
+	entries.remove(idempotencyKey);
+	entries.put(idempotencyKey, new Entry(copyOf(output), now));
+    }
+
+    /**
+     * Method used to copy an output, the dates are copied as well since they are
+     * mutable.
+     */
+    static PaymentCollectionOutput copyOf(PaymentCollectionOutput output) {
+	PaymentCollectionOutput copy = new PaymentCollectionOutput();
+	copy.setAuthorizationId(output.getAuthorizationId());
+	copy.setTransactionType(output.getTransactionType());
+	copy.setMerchantId(output.getMerchantId());
+	copy.setRequestAmount(output.getRequestAmount());
+	copy.setAuthorizedAmount(output.getAuthorizedAmount());
+	copy.setCurrency(output.getCurrency());
+	copy.setPaymentType(output.getPaymentType());
+	Date authExpiryDate = output.getAuthExpiryDate();
+	copy.setAuthExpiryDate(authExpiryDate == null ? null : new Date(authExpiryDate.getTime()));
+	copy.setDisplayCCNumber(output.getDisplayCCNumber());
+	copy.setPaymentReference(output.getPaymentReference());
+	copy.setRefundPaymentReference(output.getRefundPaymentReference());
+	copy.setCaptureReference(output.getCaptureReference());
+	copy.setReverseReference(output.getReverseReference());
+	copy.setPaymentReference1(output.getPaymentReference1());
+	copy.setPaymentReference2(output.getPaymentReference2());
+	copy.setPaymentReference3(output.getPaymentReference3());
+	copy.setOrderNo(output.getOrderNo());
+	copy.setAsyncReq(output.isAsyncReq());
+	copy.setAsyncReqId(output.getAsyncReqId());
+	copy.setCaptureDate(output.getCaptureDate());
+	copy.setFailedPayment(output.isFailedPayment());
+	copy.setRequiresAuthCall(output.getRequiresAuthCall());
+	copy.setRetry(output.getRetry());
+	return copy;
+    }
+
+    /**
+     * @return true if the output is neither marked for retry nor failed.
+     */
+    static boolean isCompleted(PaymentCollectionOutput output) {
+	return output != null && !"Y".equals(output.getRetry()) && !output.isFailedPayment();
+    }
+
+    /**
+     * The entries are kept in insertion order, so the expired entries are at the
+     * head.
+     */
+    private void evictExpired(long now) {
+	Iterator<Entry> iterator = entries.values().iterator();
+	while (iterator.hasNext() && now - iterator.next().createdAt >= ttlNanos) {
+	    iterator.remove();
+	}
+    }
+
+    public synchronized int size() {
+	return entries.size();
+    }
+
+    public synchronized long getHits() {
+	return hits;
+    }
+
+    public synchronized long getMisses() {
+	return misses;
+    }
+
+    private static final class Entry {
+
+	private final PaymentCollectionOutput output;
+	private final long createdAt;
+
+	Entry(PaymentCollectionOutput output, long createdAt) {
+	    this.output = output;
+	    this.createdAt = createdAt;
+	}
+    }
+}
@@ -13,10 +13,7 @@ limitations under the License.
 */
 package com.ibm.payment.infra.util;
 
-import java.util.Arrays;
-import java.util.Objects;
 import java.util.function.Predicate;
-import java.util.stream.Collectors;
 
 import com.ibm.model.adyen.AdyenResponse;
 import com.ibm.payment.infra.exception.PaymentException;
@@ -29,7 +26,6 @@ import org.apache.logging.log4j.Logger;
 import org.json.JSONObject;
 
 import com.fasterxml.jackson.core.JsonProcessingException;
-import com.fasterxml.jackson.databind.ObjectMapper;
 
 /**
  * 
@@ -56,10 +52,10 @@ public class InfraServiceUtils {
 	logger.debug("ResponseCode - {}", httpResponseCode);
 	try {
 	    if (isGoodClientResponse(restHttpClientResponse)) {
-		if (response != null) {
-		    adyenResponse = new AdyenResponse();
-		    ObjectMapper objectMapper = new ObjectMapper();
-		    adyenResponse = objectMapper.readValue(response, AdyenResponse.class);
+		if (restHttpClientResponse.getResponseBody() instanceof AdyenResponse) {
+		    adyenResponse = (AdyenResponse) restHttpClientResponse.getResponseBody();
+		} else if (response != null) {
+		    adyenResponse = JsonCodec.readAdyenResponse(response);
 		}
 	    } else {
 		switch (httpResponseCode) {
@@ -87,9 +83,8 @@ public class InfraServiceUtils {
 
 	} catch (JsonProcessingException e) {
 	    logger.error(
-		    "InfraServiceUtils - getResponse JsonProcessingException occurs while parsing the response.Please investigate this exception!"
-			    + Arrays.asList(e.getStackTrace()).stream().map(Objects::toString)
-				    .collect(Collectors.joining("\n")));
+		    "InfraServiceUtils - getResponse JsonProcessingException occurs while parsing the response.Please investigate this exception!",
+		    e);
 	    throw new PaymentMappingException(ExceptionError.PAY0006, new JSONObject(response));
 	}
 	return adyenResponse;
@@ -0,0 +1,128 @@
+/*
+IBM Confidential
+IBM Sterling OMS Payment Integration Adapter
+(C) Copyright IBM Corp. 2022
+Licensed under the Apache License, Version 2.0 (the "License");
+you may not use this file except in compliance with the License.
+http://www.apache.org/licenses/LICENSE-2.0
+Unless required by applicable law or agreed to in writing, software
+distributed under the License is distributed on an "AS IS" BASIS,
+WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+See the License for the specific language governing permissions and
+limitations under the License.
+*/
+package com.ibm.payment.infra.util;
+
+import java.io.IOException;
+import java.io.InputStream;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.ibm.model.adyen.AdyenRequest;
+import com.ibm.model.adyen.AdyenResponse;
+import com.ibm.payment.infra.webhook.NotificationRequest;
+
+/**
+ * 
+ * JsonCodec class holds the JSON reader and writers shared by the HTTP clients
+ * and all the infra services.
+ * <ul>
+ * <li>A single ObjectMapper is configured once, and the {@link ObjectReader}
+ * and {@link ObjectWriter} instances for {@link AdyenRequest},
+ * {@link AdyenResponse} and {@link NotificationRequest} are built from it up
+ * front, so the Jackson serializer/deserializer caches are reused across the
+ * payment calls.</li>
+ * <li>ObjectReader and ObjectWriter are immutable and thread-safe.</li>
+ * <li>The requests are written as compact JSON. The target stream is left
+ * open once a request is written into it.</li>
+ * </ul>
+ */
+public final class JsonCodec {
+
+    private static final ObjectMapper OBJECT_MAPPER = new ObjectMapper()
+	    .configure(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES, false)
+	    .configure(JsonGenerator.Feature.AUTO_CLOSE_TARGET, false);
+
+    private static final ObjectWriter WRITER = OBJECT_MAPPER.writer();
+
+    private static final ObjectWriter ADYEN_REQUEST_WRITER = OBJECT_MAPPER.writerFor(AdyenRequest.class);
+
+    private static final ObjectReader ADYEN_REQUEST_READER = OBJECT_MAPPER.readerFor(AdyenRequest.class);
+
+    private static final ObjectReader ADYEN_RESPONSE_READER = OBJECT_MAPPER.readerFor(AdyenResponse.class);
+
+    private static final ObjectReader NOTIFICATION_REQUEST_READER = OBJECT_MAPPER
+	    .readerFor(NotificationRequest.class);
+
+    private JsonCodec() {
+    }
+
+    /**
+     * Method used to get the writer for the request object, the pre-built
+     * {@link AdyenRequest} writer is used for the Adyen requests.
+     * 
+     * @param request Holds the post body request object.
+     * @return The {@link ObjectWriter} for the request.
+     */
+    public static ObjectWriter writerFor(Object request) {
+	return request instanceof AdyenRequest ? ADYEN_REQUEST_WRITER : WRITER;
+    }
+
+    /**
+     * Method used to serialize the request object to compact JSON.
+     * 
+     * @param request Holds the post body request object.
+     * @return The JSON string of the request.
+     * @throws JsonProcessingException if the request could not be serialized.
+     */
+    public static String writeValueAsString(Object request) throws JsonProcessingException {
+	return writerFor(request).writeValueAsString(request);
+    }
+
+    /**
+     * Method used to deserialize an Adyen request written by
+     * {@link #writeValueAsString(Object)}.
+     * 
+     * @param request Holds the JSON of the request.
+     * @return The {@link AdyenRequest} object.
+     * @throws JsonProcessingException if the request could not be parsed.
+     */
+    public static AdyenRequest readAdyenRequest(String request) throws JsonProcessingException {
+	return ADYEN_REQUEST_READER.readValue(request);
+    }
+
+    /**
+     * Method used to deserialize the Adyen response.
+     * 
+     * @param response Holds the response body from Adyen.
+     * @return The {@link AdyenResponse} object.
+     * @throws JsonProcessingException if the response could not be parsed.
+     */
+    public static AdyenResponse readAdyenResponse(String response) throws JsonProcessingException {
+	return ADYEN_RESPONSE_READER.readValue(response);
+    }
+
+    /**
+     * Method used to deserialize a batch of Adyen notifications.
+     * 
+     * @param notifications Holds the JSON body of the batch.
+     * @return The {@link NotificationRequest} object.
+     * @throws IOException if the batch could not be read or parsed.
+     */
+    public static NotificationRequest readNotificationRequest(InputStream notifications) throws IOException {
+	return NOTIFICATION_REQUEST_READER.readValue(notifications);
+    }
+
+    /**
+     * Method used to get the reader of {@link AdyenResponse}.
+     * 
+     * @return The {@link ObjectReader} for AdyenResponse.
+     */
+    public static ObjectReader getAdyenResponseReader() {
+	return ADYEN_RESPONSE_READER;
+    }
+}
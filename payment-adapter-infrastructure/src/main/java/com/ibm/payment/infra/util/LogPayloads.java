@@ -0,0 +1,123 @@
+/*
+IBM Confidential
+IBM Sterling OMS Payment Integration Adapter
+(C) Copyright IBM Corp. 2022
+Licensed under the Apache License, Version 2.0 (the "License");
+you may not use this file except in compliance with the License.
+http://www.apache.org/licenses/LICENSE-2.0
+Unless required by applicable law or agreed to in writing, software
+distributed under the License is distributed on an "AS IS" BASIS,
+WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+See the License for the specific language governing permissions and
+limitations under the License.
+*/
+package com.ibm.payment.infra.util;
+
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+
+/**
+ * 
+ * LogPayloads class builds the payloads written to the debug logs. The methods
+ * are meant to be called from the log4j2 Supplier parameters, so that the
+ * payloads are only serialized when the debug level is enabled.
+ * <ul>
+ * <li>The objects are serialized as compact JSON by {@link JsonCodec}.</li>
+ * <li>The card numbers keep their last four digits, the card security codes
+ * and the wallet tokens are fully masked.</li>
+ * <li>The values of the authentication headers are fully masked.</li>
+ * </ul>
+ */
+public final class LogPayloads {
+
+    private static final String MASK = "***";
+
+    private static final int PAN_VISIBLE_DIGITS = 4;
+
+    private static final Pattern PAN_FIELDS = fieldPattern(
+	    "primaryAccountNumber|cardNumber|number|encryptedCardNumber");
+
+    private static final Pattern SECRET_FIELDS = fieldPattern(
+	    "secureAuthenticationCode|cvc|cvv|securityCode|encryptedSecurityCode|applePayToken");
+
+    private LogPayloads() {
+    }
+
+    /**
+     * Method used to serialize the payload as compact JSON with the card data
+     * masked.
+     * 
+     * @param payload Holds the request, response or adapter's model object.
+     * @return The masked JSON string of the payload.
+     */
+    public static String toMaskedJson(Object payload) {
+	if (payload == null) {
+	    return null;
+	}
+	try {
+	    return mask(JsonCodec.writeValueAsString(payload));
+	} catch (JsonProcessingException e) {
+	    return payload.getClass().getSimpleName() + " could not be serialized - " + e.getOriginalMessage();
+	}
+    }
+
+    /**
+     * Method used to mask the card data of a JSON string. The JSON string may be
+     * truncated, such as the captured start of a streamed response.
+     * 
+     * @param json Holds the JSON string.
+     * @return The JSON string with the card data masked.
+     */
+    public static String mask(String json) {
+	if (json == null) {
+	    return null;
+	}
+	return maskFields(maskFields(json, PAN_FIELDS, true), SECRET_FIELDS, false);
+    }
+
+    /**
+     * Method used to mask the value of the authentication headers.
+     * 
+     * @param name  Holds the header name.
+     * @param value Holds the header value.
+     * @return The value to be logged for the header.
+     */
+    public static String maskHeader(String name, String value) {
+	if ("x-api-key".equalsIgnoreCase(name) || "authorization".equalsIgnoreCase(name)) {
+	    return MASK;
+	}
+	return value;
+    }
+
+    /**
+     * Method used to compile the pattern matching the string values of the given
+     * JSON fields. The groups are the field name, the separator, the value and the
+     * closing quote, which is missing when the JSON string is truncated.
+     */
+    private static Pattern fieldPattern(String fieldNames) {
+	return Pattern.compile("\"(" + fieldNames + ")\"(\\s*:\\s*)\"((?:[^\"\\\\]|\\\\.)*)(\"|$)");
+    }
+
+    private static String maskFields(String json, Pattern fields, boolean keepLastDigits) {
+	Matcher matcher = fields.matcher(json);
+	if (!matcher.find()) {
+	    return json;
+	}
+	StringBuffer masked = new StringBuffer(json.length());
+	do {
+	    String value = matcher.group(3);
+	    String closingQuote = matcher.group(4);
+	    // a truncated card number is fully masked, its last digits are not the
+	    // last digits of the card
+	    String maskedValue = keepLastDigits && !closingQuote.isEmpty() && value.length() > PAN_VISIBLE_DIGITS
+		    ? MASK + value.substring(value.length() - PAN_VISIBLE_DIGITS)
+		    : MASK;
+	    matcher.appendReplacement(masked, Matcher.quoteReplacement(
+		    "\"" + matcher.group(1) + "\"" + matcher.group(2) + "\"" + maskedValue + closingQuote));
+	} while (matcher.find());
+	matcher.appendTail(masked);
+	return masked.toString();
+    }
+}
@@ -0,0 +1,142 @@
+/*
+IBM Confidential
+IBM Sterling OMS Payment Integration Adapter
+(C) Copyright IBM Corp. 2022
+Licensed under the Apache License, Version 2.0 (the "License");
+you may not use this file except in compliance with the License.
+http://www.apache.org/licenses/LICENSE-2.0
+Unless required by applicable law or agreed to in writing, software
+distributed under the License is distributed on an "AS IS" BASIS,
+WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+See the License for the specific language governing permissions and
+limitations under the License.
+*/
+package com.ibm.payment.infra.util;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.util.HashMap;
+import java.util.Map;
+
+import org.json.JSONObject;
+
+import com.ibm.payment.infra.exception.PaymentMappingException;
+import com.ibm.payment.infra.response.ExceptionError;
+
+/**
+ * Utility class to convert the amounts of the adapter to the minor units of
+ * their currency, such as cents, as expected by the payment providers. The
+ * number of decimals of each currency is its ISO-4217 exponent, the currencies
+ * which are not listed have 2 decimals. <br>
+ * <ul>
+ * <li>The conversion is exact, an amount with more significant decimals than
+ * its currency allows, such as 10.5 JPY, is never rounded and fails with a
+ * {@link PaymentMappingException}.</li>
+ * <li>The amounts with at most as many decimals as their currency, which is
+ * the case of almost every payment, are converted with long arithmetic. An
+ * amount with decimals creates a single compact BigDecimal holding its
+ * unscaled value, instead of the BigDecimal and BigInteger of a rescaling,
+ * while an amount without decimals creates no object.</li>
+ * </ul>
+ */
+public final class MinorUnits {
+
+    private static final String ERROR_DESCRIPTION = "errorDescription";
+    private static final int DEFAULT_EXPONENT = 2;
+    // every value of 18 digits fits in a long
+    private static final int MAX_LONG_PRECISION = 18;
+    private static final long[] POWERS_OF_TEN = { 1L, 10L, 100L, 1000L, 10000L };
+
+    private static final Map<String, Integer> EXPONENTS = new HashMap<>();
+
+    static {
+	for (String currency : new String[] { "BIF", "CLP", "DJF", "GNF", "ISK", "JPY", "KMF", "KRW", "PYG", "RWF",
+		"UGX", "UYI", "VND", "VUV", "XAF", "XOF", "XPF" }) {
+	    EXPONENTS.put(currency, 0);
+	}
+	for (String currency : new String[] { "BHD", "IQD", "JOD", "KWD", "LYD", "OMR", "TND" }) {
+	    EXPONENTS.put(currency, 3);
+	}
+	for (String currency : new String[] { "CLF", "UYW" }) {
+	    EXPONENTS.put(currency, 4);
+	}
+    }
+
+    private MinorUnits() {
+    }
+
+    /**
+     * @param currency Holds the ISO-4217 code of the currency.
+     * @return The number of decimals of the currency, 2 if it is not known.
+     */
+    public static int exponentOf(String currency) {
+	Integer exponent = currency == null ? null : EXPONENTS.get(currency);
+	return exponent == null ? DEFAULT_EXPONENT : exponent;
+    }
+
+    /**
+     * Method used to convert an amount to the minor units of its currency.
+     * 
+     * @param amount   Holds the amount in the major units of the currency.
+     * @param currency Holds the ISO-4217 code of the currency.
+     * @return The amount in minor units.
+     * @throws PaymentMappingException if the amount is missing, has more
+     *                                 significant decimals than the currency
+     *                                 allows or does not fit in a long.
+     */
+    public static long toMinorUnits(BigDecimal amount, String currency) {
+	if (amount == null) {
+	    throw mappingError("Amount Missing");
+	}
+	int exponent = exponentOf(currency);
+	int scale = amount.scale();
+	if (scale >= 0 && scale <= exponent && amount.precision() + exponent - scale <= MAX_LONG_PRECISION) {
+	    // moving the point of a compact BigDecimal keeps it compact, so no BigInteger is created
+	    long unscaledValue = scale == 0 ? amount.longValueExact() : amount.movePointRight(scale).longValueExact();
+	    return unscaledValue * POWERS_OF_TEN[exponent - scale];
+	}
+	try {
+	    return amount.setScale(exponent, RoundingMode.UNNECESSARY).unscaledValue().longValueExact();
+	} catch (ArithmeticException e) {
+	    throw mappingError("Amount " + amount.toPlainString() + " Not Convertible To " + currency + " Minor Units");
+	}
+    }
+
+    /**
+     * Method used to get the value of a payment provider's amount, which is the
+     * absolute amount in the minor units of its currency.
+     * 
+     * @param amount   Holds the amount in the major units of the currency.
+     * @param currency Holds the ISO-4217 code of the currency.
+     * @return The absolute amount in minor units.
+     */
+    public static BigDecimal toAmountValue(BigDecimal amount, String currency) {
+	return BigDecimal.valueOf(Math.abs(toMinorUnits(amount, currency)));
+    }
+
+    /**
+     * Method used to get the value of a payment provider's amount holding the sum
+     * of two absolute amounts, such as the new total of an amended authorisation.
+     * 
+     * @param amount           Holds the first amount in the major units of the
+     *                         currency.
+     * @param additionalAmount Holds the second amount in the major units of the
+     *                         currency.
+     * @param currency         Holds the ISO-4217 code of the currency.
+     * @return The sum of the absolute amounts in minor units.
+     */
+    public static BigDecimal toAmountValue(BigDecimal amount, BigDecimal additionalAmount, String currency) {
+	try {
+	    return BigDecimal.valueOf(Math.addExact(Math.abs(toMinorUnits(amount, currency)),
+		    Math.abs(toMinorUnits(additionalAmount, currency))));
+	} catch (ArithmeticException e) {
+	    throw mappingError("Amount Not Convertible To " + currency + " Minor Units");
+	}
+    }
+
+    private static PaymentMappingException mappingError(String errorDescription) {
+	JSONObject errorJSON = new JSONObject();
+	errorJSON.put(ERROR_DESCRIPTION, errorDescription);
+	return new PaymentMappingException(ExceptionError.PAY0006, errorJSON);
+    }
+}
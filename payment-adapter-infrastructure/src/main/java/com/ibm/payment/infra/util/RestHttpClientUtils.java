@@ -13,25 +13,118 @@ limitations under the License.
 */
 package com.ibm.payment.infra.util;
 
+import com.ibm.payment.infra.client.HedgedAsyncHttpClient;
+import com.ibm.payment.infra.client.HedgedRestHttpClient;
+import com.ibm.payment.infra.client.IAsyncRestHttpClient;
 import com.ibm.payment.infra.client.IRestHttpClient;
-import com.ibm.payment.infra.client.StandardHttpClient;
 import com.ibm.payment.infra.requestHandlers.implementation.adyen.RequestHandlersImpl;
+import com.ibm.payment.infra.retry.RetryScheduler;
 
 /**
- * Utility class to store reusable code related to REST calls.
+ * Utility class to store reusable code related to REST calls. The request
+ * handler and the RestHttpClients of the configuration loaded from the
+ * properties file are created once per process and shared by all the infra
+ * services of the default configuration, see {@link RestHttpClients}.
  */
 public class RestHttpClientUtils {
 
+    private static volatile RestHttpClients defaultClients;
+
+    /**
+     * Method used to fetch the {@link RestHttpClients} of the configuration
+     * loaded from the properties file. They are created lazily once, so that the
+     * properties file is loaded a single time.
+     * 
+     * @return The {@link RestHttpClients} of the default configuration.
+     */
+    @SuppressWarnings("rawtypes")
+    public static RestHttpClients getDefaultClients() {
+	RestHttpClients clients = defaultClients;
+	if (clients == null) {
+	    synchronized (RestHttpClientUtils.class) {
+		clients = defaultClients;
+		if (clients == null) {
+		    clients = new RestHttpClients(new RequestHandlersImpl());
+		    defaultClients = clients;
+		}
+	    }
+	}
+	return clients;
+    }
+
+    /**
+     * Method used to fetch the request handler of payment provider, shared by the
+     * synchronous and the asynchronous RestHttpClients.
+     * 
+     * @return The request handler of payment provider.
+     */
+    @SuppressWarnings("rawtypes")
+    public static RequestHandlersImpl getRequestHandler() {
+	return getDefaultClients().getRequestHandler();
+    }
+
     /**
      * 
      * Method used to fetch the respective RestHttpClient for invoking external
-     * services.
+     * services. The RestHttpClient is created lazily once and shared by all the
+     * infra services, so that the pooled connections are reused across the
+     * payment calls.
      * 
      * @return The Respective RestHttpClient of payment provider.
      */
     @SuppressWarnings("rawtypes")
     public static IRestHttpClient getRestHttpClient() {
-	return new StandardHttpClient(new RequestHandlersImpl());
+	return getDefaultClients().getRestHttpClient();
+    }
+
+    /**
+     * Method used to fetch the scheduler replaying the calls failed with a
+     * connection error.
+     * 
+     * @return The {@link RetryScheduler}, or null if the retry journal is not
+     *         configured.
+     */
+    public static RetryScheduler getRetryScheduler() {
+	return getDefaultClients().getRetryScheduler();
+    }
+
+    /**
+     * 
+     * Method used to fetch the respective non-blocking RestHttpClient for invoking
+     * external services asynchronously. The client is created lazily once and
+     * shared by all the infra services.
+     * 
+     * @return The Respective asynchronous RestHttpClient of payment provider.
+     */
+    @SuppressWarnings("rawtypes")
+    public static IAsyncRestHttpClient getAsyncRestHttpClient() {
+	return getDefaultClients().getAsyncRestHttpClient();
+    }
+
+    /**
+     * 
+     * Method used to fetch the RestHttpClient hedging the calls to the secondary
+     * endpoint of payment provider.
+     * 
+     * @return The {@link HedgedRestHttpClient} of payment provider, or null if the
+     *         hedging is not configured.
+     */
+    @SuppressWarnings("rawtypes")
+    public static IRestHttpClient getHedgedRestHttpClient() {
+	return getDefaultClients().getHedgedRestHttpClient();
+    }
+
+    /**
+     * 
+     * Method used to fetch the asynchronous RestHttpClient hedging the calls to
+     * the secondary endpoint of payment provider.
+     * 
+     * @return The {@link HedgedAsyncHttpClient} of payment provider, or null if the
+     *         hedging is not configured.
+     */
+    @SuppressWarnings("rawtypes")
+    public static IAsyncRestHttpClient getHedgedAsyncRestHttpClient() {
+	return getDefaultClients().getHedgedAsyncRestHttpClient();
     }
 
 }
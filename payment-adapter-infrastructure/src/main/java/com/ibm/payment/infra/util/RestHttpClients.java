@@ -0,0 +1,279 @@
+/*
+IBM Confidential
+IBM Sterling OMS Payment Integration Adapter
+(C) Copyright IBM Corp. 2022
+Licensed under the Apache License, Version 2.0 (the "License");
+you may not use this file except in compliance with the License.
+http://www.apache.org/licenses/LICENSE-2.0
+Unless required by applicable law or agreed to in writing, software
+distributed under the License is distributed on an "AS IS" BASIS,
+WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+See the License for the specific language governing permissions and
+limitations under the License.
+*/
+package com.ibm.payment.infra.util;
+
+import java.util.Properties;
+
+import com.ibm.payment.infra.client.HedgedAsyncHttpClient;
+import com.ibm.payment.infra.client.HedgedRestHttpClient;
+import com.ibm.payment.infra.client.HedgingConfig;
+import com.ibm.payment.infra.client.HttpClientConfig;
+import com.ibm.payment.infra.client.IAsyncRestHttpClient;
+import com.ibm.payment.infra.client.IRestHttpClient;
+import com.ibm.payment.infra.client.RateLimiterConfig;
+import com.ibm.payment.infra.client.RateLimiters;
+import com.ibm.payment.infra.client.StandardAsyncHttpClient;
+import com.ibm.payment.infra.client.StandardHttpClient;
+import com.ibm.payment.infra.requestHandlers.implementation.adyen.RequestHandlersImpl;
+import com.ibm.payment.infra.retry.JournalingRestHttpClient;
+import com.ibm.payment.infra.retry.RetryConfig;
+import com.ibm.payment.infra.retry.RetryScheduler;
+
+/**
+ * RestHttpClients class holds the request handler and the RestHttpClients of
+ * one configuration of the payment provider, such as the properties of a
+ * merchant account. The clients are created lazily once and shared by all the
+ * infra services of the configuration, so that the pooled connections are
+ * reused across the payment calls. The clients share the {@link RateLimiters}
+ * of the merchant accounts of the configuration. The clients of the
+ * configuration loaded from the properties file are shared through
+ * {@link RestHttpClientUtils}.
+ * 
+ * Each configuration enabling the retry journal must use its own journal file.
+ */
+public class RestHttpClients {
+
+    @SuppressWarnings("rawtypes")
+    private final RequestHandlersImpl requestHandler;
+
+    private final RateLimiters rateLimiters;
+
+    @SuppressWarnings("rawtypes")
+    private volatile IRestHttpClient restHttpClient;
+
+    @SuppressWarnings("rawtypes")
+    private volatile IAsyncRestHttpClient asyncRestHttpClient;
+
+    private volatile RetryScheduler retryScheduler;
+
+    @SuppressWarnings("rawtypes")
+    private volatile IRestHttpClient hedgedRestHttpClient;
+
+    private volatile boolean hedgedClientResolved;
+
+    @SuppressWarnings("rawtypes")
+    private volatile IAsyncRestHttpClient hedgedAsyncRestHttpClient;
+
+    private volatile boolean hedgedAsyncClientResolved;
+
+    /**
+     * @param adyenProperties Holds the Adyen properties of the configuration.
+     */
+    @SuppressWarnings("rawtypes")
+    public RestHttpClients(Properties adyenProperties) {
+	this(new RequestHandlersImpl(adyenProperties));
+    }
+
+    /**
+     * @param requestHandler the request handler of the configuration.
+     */
+    @SuppressWarnings("rawtypes")
+    public RestHttpClients(RequestHandlersImpl requestHandler) {
+	this.requestHandler = requestHandler;
+	this.rateLimiters = new RateLimiters(RateLimiterConfig.fromProperties(requestHandler.adyenProperties));
+    }
+
+    /**
+     * Method used to fetch the request handler of the configuration, shared by
+     * the synchronous and the asynchronous RestHttpClients.
+     * 
+     * @return The request handler of payment provider.
+     */
+    @SuppressWarnings("rawtypes")
+    public RequestHandlersImpl getRequestHandler() {
+	return requestHandler;
+    }
+
+    /**
+     * Method used to fetch the RestHttpClient of the configuration for invoking
+     * external services.
+     * 
+     * @return The Respective RestHttpClient of payment provider.
+     */
+    @SuppressWarnings("rawtypes")
+    public IRestHttpClient getRestHttpClient() {
+	IRestHttpClient client = restHttpClient;
+	if (client == null) {
+	    synchronized (this) {
+		client = restHttpClient;
+		if (client == null) {
+		    client = createRestHttpClient();
+		    restHttpClient = client;
+		}
+	    }
+	}
+	return client;
+    }
+
+    /**
+     * Method used to create the RestHttpClient of payment provider along with the
+     * connection pool configurations of the configuration. If the retry journal
+     * is configured, the calls failed with a connection error are replayed in the
+     * background by a {@link RetryScheduler} sharing the same client.
+     * 
+     * @return The new RestHttpClient of payment provider.
+     */
+    @SuppressWarnings({ "rawtypes", "unchecked" })
+    private IRestHttpClient createRestHttpClient() {
+	StandardHttpClient client = new StandardHttpClient(requestHandler,
+		HttpClientConfig.fromProperties(requestHandler.adyenProperties), JsonCodec.getAdyenResponseReader(),
+		rateLimiters);
+	RetryConfig retryConfig = RetryConfig.fromProperties(requestHandler.adyenProperties);
+	if (!retryConfig.isEnabled()) {
+	    return client;
+	}
+	retryScheduler = new RetryScheduler(client, retryConfig);
+	return new JournalingRestHttpClient(client, retryScheduler);
+    }
+
+    /**
+     * Method used to fetch the scheduler replaying the calls of the configuration
+     * failed with a connection error.
+     * 
+     * @return The {@link RetryScheduler}, or null if the retry journal is not
+     *         configured.
+     */
+    public RetryScheduler getRetryScheduler() {
+	getRestHttpClient();
+	return retryScheduler;
+    }
+
+    /**
+     * Method used to fetch the non-blocking RestHttpClient of the configuration
+     * for invoking external services asynchronously.
+     * 
+     * @return The Respective asynchronous RestHttpClient of payment provider.
+     */
+    @SuppressWarnings("rawtypes")
+    public IAsyncRestHttpClient getAsyncRestHttpClient() {
+	IAsyncRestHttpClient client = asyncRestHttpClient;
+	if (client == null) {
+	    synchronized (this) {
+		client = asyncRestHttpClient;
+		if (client == null) {
+		    client = createAsyncRestHttpClient();
+		    asyncRestHttpClient = client;
+		}
+	    }
+	}
+	return client;
+    }
+
+    /**
+     * Method used to create the asynchronous RestHttpClient of payment provider
+     * along with the connection pool configurations of the configuration.
+     * 
+     * @return The new asynchronous RestHttpClient of payment provider.
+     */
+    @SuppressWarnings({ "rawtypes", "unchecked" })
+    private IAsyncRestHttpClient createAsyncRestHttpClient() {
+	return new StandardAsyncHttpClient(requestHandler,
+		HttpClientConfig.fromProperties(requestHandler.adyenProperties), JsonCodec.getAdyenResponseReader(),
+		rateLimiters);
+    }
+
+    /**
+     * Method used to fetch the RestHttpClient hedging the calls of the
+     * configuration to the secondary endpoint of payment provider. The calls of
+     * the primary endpoint are sent through {@link #getRestHttpClient()}, so that
+     * they are still journaled and rate limited.
+     * 
+     * @return The {@link HedgedRestHttpClient} of payment provider, or null if the
+     *         hedging is not configured.
+     */
+    @SuppressWarnings("rawtypes")
+    public IRestHttpClient getHedgedRestHttpClient() {
+	if (!hedgedClientResolved) {
+	    synchronized (this) {
+		if (!hedgedClientResolved) {
+		    hedgedRestHttpClient = createHedgedRestHttpClient();
+		    hedgedClientResolved = true;
+		}
+	    }
+	}
+	return hedgedRestHttpClient;
+    }
+
+    /**
+     * Method used to create the hedged RestHttpClient of payment provider.
+     * 
+     * @return The new hedged RestHttpClient, or null if the hedging is not
+     *         configured.
+     */
+    @SuppressWarnings({ "rawtypes", "unchecked" })
+    private IRestHttpClient createHedgedRestHttpClient() {
+	HedgingConfig hedgingConfig = HedgingConfig.fromProperties(requestHandler.adyenProperties);
+	if (!hedgingConfig.isActive()) {
+	    return null;
+	}
+	Properties secondaryProperties = getSecondaryProperties(hedgingConfig);
+	StandardHttpClient secondaryClient = new StandardHttpClient(new RequestHandlersImpl(secondaryProperties),
+		HttpClientConfig.fromProperties(secondaryProperties), JsonCodec.getAdyenResponseReader(), rateLimiters);
+	return new HedgedRestHttpClient(getRestHttpClient(), secondaryClient, hedgingConfig);
+    }
+
+    /**
+     * Method used to fetch the asynchronous RestHttpClient hedging the calls of
+     * the configuration to the secondary endpoint of payment provider. The
+     * connection pool of the primary endpoint is shared with
+     * {@link #getAsyncRestHttpClient()}.
+     * 
+     * @return The {@link HedgedAsyncHttpClient} of payment provider, or null if the
+     *         hedging is not configured.
+     */
+    @SuppressWarnings("rawtypes")
+    public IAsyncRestHttpClient getHedgedAsyncRestHttpClient() {
+	if (!hedgedAsyncClientResolved) {
+	    synchronized (this) {
+		if (!hedgedAsyncClientResolved) {
+		    hedgedAsyncRestHttpClient = createHedgedAsyncRestHttpClient();
+		    hedgedAsyncClientResolved = true;
+		}
+	    }
+	}
+	return hedgedAsyncRestHttpClient;
+    }
+
+    /**
+     * Method used to create the hedged asynchronous RestHttpClient of payment
+     * provider.
+     * 
+     * @return The new hedged asynchronous RestHttpClient, or null if the hedging
+     *         is not configured.
+     */
+    @SuppressWarnings({ "rawtypes", "unchecked" })
+    private IAsyncRestHttpClient createHedgedAsyncRestHttpClient() {
+	HedgingConfig hedgingConfig = HedgingConfig.fromProperties(requestHandler.adyenProperties);
+	if (!hedgingConfig.isActive()) {
+	    return null;
+	}
+	Properties secondaryProperties = getSecondaryProperties(hedgingConfig);
+	StandardAsyncHttpClient secondaryClient = new StandardAsyncHttpClient(
+		new RequestHandlersImpl(secondaryProperties), HttpClientConfig.fromProperties(secondaryProperties),
+		JsonCodec.getAdyenResponseReader(), rateLimiters);
+	return new HedgedAsyncHttpClient(getAsyncRestHttpClient(), secondaryClient, hedgingConfig);
+    }
+
+    /**
+     * @return The properties of the secondary endpoint, the same as the primary
+     *         one but the URL.
+     */
+    private Properties getSecondaryProperties(HedgingConfig hedgingConfig) {
+	Properties secondaryProperties = new Properties();
+	secondaryProperties.putAll(requestHandler.adyenProperties);
+	secondaryProperties.setProperty("url", hedgingConfig.getSecondaryUrl());
+	return secondaryProperties;
+    }
+
+}
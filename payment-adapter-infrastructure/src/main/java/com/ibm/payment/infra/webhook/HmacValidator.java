@@ -0,0 +1,122 @@
+/*
+IBM Confidential
+IBM Sterling OMS Payment Integration Adapter
+(C) Copyright IBM Corp. 2022
+Licensed under the Apache License, Version 2.0 (the "License");
+you may not use this file except in compliance with the License.
+http://www.apache.org/licenses/LICENSE-2.0
+Unless required by applicable law or agreed to in writing, software
+distributed under the License is distributed on an "AS IS" BASIS,
+WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+See the License for the specific language governing permissions and
+limitations under the License.
+*/
+package com.ibm.payment.infra.webhook;
+
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.security.MessageDigest;
+import java.util.Base64;
+import java.util.Map;
+
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
+
+import org.json.JSONObject;
+
+import com.ibm.payment.infra.exception.PaymentConfigurationException;
+import com.ibm.payment.infra.response.ExceptionError;
+
+/**
+ * HmacValidator class verifies the HMAC signature of the Adyen notifications.
+ * The signature is the Base64 HMAC-SHA256 of the pspReference,
+ * originalReference, merchantAccountCode, merchantReference, amount value,
+ * amount currency, eventCode and success fields joined by colons, signed with
+ * the hex encoded key configured in the Customer Area. A {@link Mac} is kept
+ * per thread, as it is not thread-safe.
+ */
+public class HmacValidator {
+
+    public static final String HMAC_SIGNATURE = "hmacSignature";
+
+    private static final String ALGORITHM = "HmacSHA256";
+
+    private final ThreadLocal<Mac> macs;
+
+    public HmacValidator(String hexKey) {
+	SecretKeySpec key = new SecretKeySpec(decodeHex(hexKey), ALGORITHM);
+	this.macs = ThreadLocal.withInitial(() -> {
+	    try {
+		Mac mac = Mac.getInstance(ALGORITHM);
+		mac.init(key);
+		return mac;
+	    } catch (GeneralSecurityException e) {
+		throw new PaymentConfigurationException(ExceptionError.PAY0005,
+			new JSONObject().put("errorDescription", "Unable to create the notification HMAC"));
+	    }
+	});
+	macs.get();
+    }
+
+    /**
+     * Method used to verify the signature sent in the additional data of the
+     * notification.
+     * 
+     * @param item Holds the notification.
+     * @return true if the notification is signed with the configured key.
+     */
+    public boolean isValid(NotificationRequestItem item) {
+	Map<String, String> additionalData = item.getAdditionalData();
+	String signature = additionalData == null ? null : additionalData.get(HMAC_SIGNATURE);
+	if (signature == null) {
+	    return false;
+	}
+	byte[] expected;
+	try {
+	    expected = Base64.getDecoder().decode(signature);
+	} catch (IllegalArgumentException e) {
+	    return false;
+	}
+	return MessageDigest.isEqual(expected, sign(item));
+    }
+
+    /**
+     * Method used to compute the signature of the notification.
+     * 
+     * @param item Holds the notification.
+     * @return The HMAC-SHA256 of the signed fields.
+     */
+    public byte[] sign(NotificationRequestItem item) {
+	NotificationAmount amount = item.getAmount();
+	String payload = new StringBuilder(192).append(valueOf(item.getPspReference())).append(':')
+		.append(valueOf(item.getOriginalReference())).append(':')
+		.append(valueOf(item.getMerchantAccountCode())).append(':')
+		.append(valueOf(item.getMerchantReference())).append(':')
+		.append(amount == null ? "" : String.valueOf(amount.getValue())).append(':')
+		.append(amount == null ? "" : valueOf(amount.getCurrency())).append(':')
+		.append(valueOf(item.getEventCode())).append(':').append(valueOf(item.getSuccess())).toString();
+	return macs.get().doFinal(payload.getBytes(StandardCharsets.UTF_8));
+    }
+
+    private static String valueOf(String value) {
+	return value == null ? "" : value;
+    }
+
+    private static byte[] decodeHex(String hex) {
+	if (hex == null || hex.isEmpty() || hex.length() % 2 != 0) {
+	    throw new PaymentConfigurationException(ExceptionError.PAY0005,
+		    new JSONObject().put("errorDescription", "Notification HMAC key must be hex encoded"));
+	}
+	byte[] bytes = new byte[hex.length() / 2];
+	for (int i = 0; i < bytes.length; i++) {
+	    int high = Character.digit(hex.charAt(2 * i), 16);
+	    int low = Character.digit(hex.charAt(2 * i + 1), 16);
+	    if (high < 0 || low < 0) {
+		throw new PaymentConfigurationException(ExceptionError.PAY0005,
+			new JSONObject().put("errorDescription", "Notification HMAC key must be hex encoded"));
+	    }
+	    bytes[i] = (byte) (high << 4 | low);
+	}
+	return bytes;
+    }
+}
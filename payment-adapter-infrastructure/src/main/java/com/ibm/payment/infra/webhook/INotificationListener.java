@@ -0,0 +1,34 @@
+/*
+IBM Confidential
+IBM Sterling OMS Payment Integration Adapter
+(C) Copyright IBM Corp. 2022
+Licensed under the Apache License, Version 2.0 (the "License");
+you may not use this file except in compliance with the License.
+http://www.apache.org/licenses/LICENSE-2.0
+Unless required by applicable law or agreed to in writing, software
+distributed under the License is distributed on an "AS IS" BASIS,
+WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+See the License for the specific language governing permissions and
+limitations under the License.
+*/
+package com.ibm.payment.infra.webhook;
+
+import com.ibm.adapter.payment.model.PaymentCollectionOutput;
+
+/**
+ * INotificationListener interface receives the final status of the
+ * asynchronous requests, as notified by the payment provider.
+ */
+@FunctionalInterface
+public interface INotificationListener {
+
+    /**
+     * Method invoked for each notification resolved to its pending request.
+     * 
+     * @param pendingRequest Holds the details of the request.
+     * @param update         Holds the {@link PaymentCollectionOutput} updated
+     *                       with the final status of the request.
+     */
+    public void onUpdate(PendingRequest pendingRequest, PaymentCollectionOutput update);
+
+}
@@ -0,0 +1,44 @@
+/*
+IBM Confidential
+IBM Sterling OMS Payment Integration Adapter
+(C) Copyright IBM Corp. 2022
+Licensed under the Apache License, Version 2.0 (the "License");
+you may not use this file except in compliance with the License.
+http://www.apache.org/licenses/LICENSE-2.0
+Unless required by applicable law or agreed to in writing, software
+distributed under the License is distributed on an "AS IS" BASIS,
+WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+See the License for the specific language governing permissions and
+limitations under the License.
+*/
+package com.ibm.payment.infra.webhook;
+
+/**
+ * IPendingRequestIndex interface provides methods to keep the asynchronous
+ * requests by their asyncReqId, the pspReference returned by the payment
+ * provider, until their final status is notified.
+ */
+public interface IPendingRequestIndex {
+
+    /**
+     * Method used to keep a request waiting for its notification.
+     * 
+     * @param pspReference   Holds the pspReference returned for the request.
+     * @param pendingRequest Holds the details of the request.
+     */
+    public void put(String pspReference, PendingRequest pendingRequest);
+
+    /**
+     * Method used to remove the request of a final notification.
+     * 
+     * @param pspReference Holds the pspReference of the notification.
+     * @return The request, or null if no request is waiting for it.
+     */
+    public PendingRequest remove(String pspReference);
+
+    /**
+     * @return The number of requests waiting for their notification.
+     */
+    public int size();
+
+}
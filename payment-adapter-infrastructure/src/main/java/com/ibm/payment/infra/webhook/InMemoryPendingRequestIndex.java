@@ -0,0 +1,42 @@
+/*
+IBM Confidential
+IBM Sterling OMS Payment Integration Adapter
+(C) Copyright IBM Corp. 2022
+Licensed under the Apache License, Version 2.0 (the "License");
+you may not use this file except in compliance with the License.
+http://www.apache.org/licenses/LICENSE-2.0
+Unless required by applicable law or agreed to in writing, software
+distributed under the License is distributed on an "AS IS" BASIS,
+WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+See the License for the specific language governing permissions and
+limitations under the License.
+*/
+package com.ibm.payment.infra.webhook;
+
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * InMemoryPendingRequestIndex class keeps the pending requests in a
+ * {@link ConcurrentHashMap}, the notifications are resolved concurrently by the
+ * webhook endpoint threads.
+ */
+public class InMemoryPendingRequestIndex implements IPendingRequestIndex {
+
+    private final ConcurrentHashMap<String, PendingRequest> pendingRequests = new ConcurrentHashMap<>();
+
+    @Override
+    public void put(String pspReference, PendingRequest pendingRequest) {
+	pendingRequests.put(pspReference, pendingRequest);
+    }
+
+    @Override
+    public PendingRequest remove(String pspReference) {
+	return pspReference == null ? null : pendingRequests.remove(pspReference);
+    }
+
+    @Override
+    public int size() {
+	return pendingRequests.size();
+    }
+
+}
@@ -0,0 +1,41 @@
+/*
+IBM Confidential
+IBM Sterling OMS Payment Integration Adapter
+(C) Copyright IBM Corp. 2022
+Licensed under the Apache License, Version 2.0 (the "License");
+you may not use this file except in compliance with the License.
+http://www.apache.org/licenses/LICENSE-2.0
+Unless required by applicable law or agreed to in writing, software
+distributed under the License is distributed on an "AS IS" BASIS,
+WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+See the License for the specific language governing permissions and
+limitations under the License.
+*/
+package com.ibm.payment.infra.webhook;
+
+/**
+ * This object holds the amount of a notification, the value is in the minor
+ * units of the currency.
+ */
+public class NotificationAmount {
+
+    private String currency;
+
+    private long value;
+
+    public String getCurrency() {
+	return currency;
+    }
+
+    public void setCurrency(String currency) {
+	this.currency = currency;
+    }
+
+    public long getValue() {
+	return value;
+    }
+
+    public void setValue(long value) {
+	this.value = value;
+    }
+}
@@ -0,0 +1,93 @@
+/*
+IBM Confidential
+IBM Sterling OMS Payment Integration Adapter
+(C) Copyright IBM Corp. 2022
+Licensed under the Apache License, Version 2.0 (the "License");
+you may not use this file except in compliance with the License.
+http://www.apache.org/licenses/LICENSE-2.0
+Unless required by applicable law or agreed to in writing, software
+distributed under the License is distributed on an "AS IS" BASIS,
+WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+See the License for the specific language governing permissions and
+limitations under the License.
+*/
+package com.ibm.payment.infra.webhook;
+
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.function.LongSupplier;
+
+/**
+ * NotificationDeduplicator class remembers the notifications already
+ * processed, as Adyen delivers a notification again until the batch holding
+ * it is accepted. A notification is identified by its pspReference, event code
+ * and success, so a failed event followed by a successful one is not dropped.
+ * The keys expire after the configured time to live, and the oldest keys are
+ * evicted once the maximum size is reached.
+ */
+public class NotificationDeduplicator {
+
+    private final int maximumSize;
+
+    private final long ttlNanos;
+
+    private final LongSupplier nanoClock;
+
+    private final LinkedHashMap<String, Long> processed = new LinkedHashMap<>();
+
+    public NotificationDeduplicator(int maximumSize, long ttlMillis) {
+	this(maximumSize, ttlMillis, System::nanoTime);
+    }
+
+    NotificationDeduplicator(int maximumSize, long ttlMillis, LongSupplier nanoClock) {
+	this.maximumSize = maximumSize;
+	this.ttlNanos = TimeUnit.MILLISECONDS.toNanos(ttlMillis);
+	this.nanoClock = nanoClock;
+    }
+
+    /**
+     * @return The key identifying the notification.
+     */
+    public static String keyOf(NotificationRequestItem item) {
+	return item.getPspReference() + '|' + item.getEventCode() + '|' + item.getSuccess();
+    }
+
+    /**
+     * Method used to remember a notification.
+     * 
+     * @param key Holds the key of the notification.
+     * @return true if the notification was not processed before.
+     */
+    public synchronized boolean add(String key) {
+	long now = nanoClock.getAsLong();
+	Iterator<Long> iterator = processed.values().iterator();
+	while (iterator.hasNext()) {
+	    long addedAt = iterator.next();
+	    if (now - addedAt < ttlNanos && processed.size() < maximumSize) {
+		break;
+	    }
+	    iterator.remove();
+	}
+	if (processed.containsKey(key)) {
+	    return false;
+	}
+	processed.put(key, now);
+	return true;
+    }
+
+    /**
+     * Method used to forget a notification which could not be processed, so it
+     * is processed when delivered again.
+     * 
+     * @param key Holds the key of the notification.
+     */
+    public synchronized void remove(String key) {
+	processed.remove(key);
+    }
+
+    public synchronized int size() {
+	return processed.size();
+    }
+
+}
@@ -0,0 +1,132 @@
+/*
+IBM Confidential
+IBM Sterling OMS Payment Integration Adapter
+(C) Copyright IBM Corp. 2022
+Licensed under the Apache License, Version 2.0 (the "License");
+you may not use this file except in compliance with the License.
+http://www.apache.org/licenses/LICENSE-2.0
+Unless required by applicable law or agreed to in writing, software
+distributed under the License is distributed on an "AS IS" BASIS,
+WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+See the License for the specific language governing permissions and
+limitations under the License.
+*/
+package com.ibm.payment.infra.webhook;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.apache.http.HttpStatus;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+
+/**
+ * NotificationEndpoint class receives the Adyen notification batches over
+ * HTTP, using the HTTP server embedded in the JDK. The batches are processed
+ * by the {@link NotificationProcessor} on a fixed pool of threads and
+ * acknowledged with [accepted], as expected by Adyen. A batch which could not
+ * be parsed is answered with 400, and a batch which could not be processed
+ * with 500 so that Adyen delivers it again.
+ * <p>
+ * TLS is expected to be terminated in front of the endpoint.
+ */
+public class NotificationEndpoint implements Closeable {
+
+    private static final Logger logger = LogManager.getLogger(NotificationEndpoint.class);
+
+    private static final byte[] ACCEPTED = "[accepted]".getBytes(StandardCharsets.UTF_8);
+
+    private final NotificationProcessor processor;
+
+    private final WebhookConfig config;
+
+    private HttpServer server;
+
+    private ExecutorService executor;
+
+    public NotificationEndpoint(NotificationProcessor processor, WebhookConfig config) {
+	this.processor = processor;
+	this.config = config;
+    }
+
+    /**
+     * Method used to start listening on the configured port and path.
+     * 
+     * @throws IOException if the port could not be bound.
+     */
+    public synchronized void start() throws IOException {
+	AtomicInteger threadCount = new AtomicInteger();
+	server = HttpServer.create(new InetSocketAddress(config.getPort()), 0);
+	executor = Executors.newFixedThreadPool(config.getThreads(), runnable -> {
+	    Thread thread = new Thread(runnable, "payment-webhook-" + threadCount.incrementAndGet());
+	    thread.setDaemon(true);
+	    return thread;
+	});
+	server.setExecutor(executor);
+	server.createContext(config.getPath(), this::handle);
+	server.start();
+	logger.debug("NotificationEndpoint - listening on port {} path {}", getPort(), config.getPath());
+    }
+
+    /**
+     * @return The port the endpoint listens on.
+     */
+    public int getPort() {
+	return server.getAddress().getPort();
+    }
+
+    private void handle(HttpExchange exchange) throws IOException {
+	try {
+	    if (!"POST".equals(exchange.getRequestMethod())) {
+		respond(exchange, HttpStatus.SC_METHOD_NOT_ALLOWED, null);
+		return;
+	    }
+	    try (InputStream body = exchange.getRequestBody()) {
+		processor.process(body);
+	    }
+	    respond(exchange, HttpStatus.SC_OK, ACCEPTED);
+	} catch (JsonProcessingException e) {
+	    logger.error("NotificationEndpoint - unable to parse the notifications", e);
+	    respond(exchange, HttpStatus.SC_BAD_REQUEST, null);
+	} catch (RuntimeException e) {
+	    logger.error("NotificationEndpoint - unable to process the notifications", e);
+	    respond(exchange, HttpStatus.SC_INTERNAL_SERVER_ERROR, null);
+	} finally {
+	    exchange.close();
+	}
+    }
+
+    private static void respond(HttpExchange exchange, int status, byte[] body) throws IOException {
+	exchange.sendResponseHeaders(status, body == null ? -1 : body.length);
+	if (body != null) {
+	    try (OutputStream out = exchange.getResponseBody()) {
+		out.write(body);
+	    }
+	}
+    }
+
+    /**
+     * Method used to stop the endpoint, the batches being processed are given a
+     * second to complete.
+     */
+    @Override
+    public synchronized void close() {
+	if (server != null) {
+	    server.stop(1);
+	    executor.shutdown();
+	    server = null;
+	}
+    }
+
+}
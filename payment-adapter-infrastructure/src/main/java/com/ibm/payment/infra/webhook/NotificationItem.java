@@ -0,0 +1,33 @@
+/*
+IBM Confidential
+IBM Sterling OMS Payment Integration Adapter
+(C) Copyright IBM Corp. 2022
+Licensed under the Apache License, Version 2.0 (the "License");
+you may not use this file except in compliance with the License.
+http://www.apache.org/licenses/LICENSE-2.0
+Unless required by applicable law or agreed to in writing, software
+distributed under the License is distributed on an "AS IS" BASIS,
+WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+See the License for the specific language governing permissions and
+limitations under the License.
+*/
+package com.ibm.payment.infra.webhook;
+
+import com.fasterxml.jackson.annotation.JsonProperty;
+
+/**
+ * This object wraps a single notification of a {@link NotificationRequest}.
+ */
+public class NotificationItem {
+
+    @JsonProperty("NotificationRequestItem")
+    private NotificationRequestItem notificationRequestItem;
+
+    public NotificationRequestItem getNotificationRequestItem() {
+	return notificationRequestItem;
+    }
+
+    public void setNotificationRequestItem(NotificationRequestItem notificationRequestItem) {
+	this.notificationRequestItem = notificationRequestItem;
+    }
+}
@@ -0,0 +1,243 @@
+/*
+IBM Confidential
+IBM Sterling OMS Payment Integration Adapter
+(C) Copyright IBM Corp. 2022
+Licensed under the Apache License, Version 2.0 (the "License");
+you may not use this file except in compliance with the License.
+http://www.apache.org/licenses/LICENSE-2.0
+Unless required by applicable law or agreed to in writing, software
+distributed under the License is distributed on an "AS IS" BASIS,
+WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+See the License for the specific language governing permissions and
+limitations under the License.
+*/
+package com.ibm.payment.infra.webhook;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import com.ibm.adapter.payment.enums.ServiceType;
+import com.ibm.adapter.payment.model.PaymentCollectionOutput;
+import com.ibm.payment.infra.util.JsonCodec;
+
+/**
+ * NotificationProcessor class processes the batches of Adyen standard
+ * notifications. For each notification:
+ * <ul>
+ * <li>The HMAC signature is verified, the notifications not signed with the
+ * configured key are dropped.</li>
+ * <li>The notifications already processed are dropped.</li>
+ * <li>The pspReference, or the originalReference of a modification, is
+ * resolved to the pending request through the {@link IPendingRequestIndex}.
+ * The originalReference only resolves a pending request of the service type of
+ * the eventCode, so the notification of a modification sent outside of the
+ * adapter does not complete the pending payment it refers to. The
+ * notifications of unknown requests are dropped without being recorded as
+ * processed, so a notification arriving before its request is registered is
+ * processed when Adyen delivers it again.</li>
+ * <li>A {@link PaymentCollectionOutput} holding the final status is emitted to
+ * the {@link INotificationListener}.</li>
+ * </ul>
+ * If the listener fails, the notification is restored so it is processed when
+ * Adyen delivers the batch again.
+ */
+public class NotificationProcessor {
+
+    private static final Logger logger = LogManager.getLogger(NotificationProcessor.class);
+
+    private static final Map<String, ServiceType> EVENT_CODES = new HashMap<>();
+
+    static {
+	EVENT_CODES.put("AUTHORISATION", ServiceType.PROCESS_PAYMENTS);
+	EVENT_CODES.put("CAPTURE", ServiceType.CAPTURE);
+	EVENT_CODES.put("CAPTURE_FAILED", ServiceType.CAPTURE);
+	EVENT_CODES.put("CANCELLATION", ServiceType.REVERSE);
+	EVENT_CODES.put("CANCEL_OR_REFUND", ServiceType.REVERSE);
+	EVENT_CODES.put("REFUND", ServiceType.REFUND);
+	EVENT_CODES.put("REFUND_FAILED", ServiceType.REFUND);
+	EVENT_CODES.put("AUTHORISATION_ADJUSTMENT", ServiceType.AMEND_AUTHORIZATION);
+    }
+
+    private final HmacValidator hmacValidator;
+
+    private final NotificationDeduplicator deduplicator;
+
+    private final IPendingRequestIndex pendingRequestIndex;
+
+    private final INotificationListener listener;
+
+    private final AtomicLong receivedNotifications = new AtomicLong();
+
+    private final AtomicLong invalidSignatures = new AtomicLong();
+
+    private final AtomicLong duplicateNotifications = new AtomicLong();
+
+    private final AtomicLong unmatchedNotifications = new AtomicLong();
+
+    private final AtomicLong processedNotifications = new AtomicLong();
+
+    public NotificationProcessor(HmacValidator hmacValidator, NotificationDeduplicator deduplicator,
+	    IPendingRequestIndex pendingRequestIndex, INotificationListener listener) {
+	this.hmacValidator = hmacValidator;
+	this.deduplicator = deduplicator;
+	this.pendingRequestIndex = pendingRequestIndex;
+	this.listener = listener;
+    }
+
+    public NotificationProcessor(WebhookConfig config, IPendingRequestIndex pendingRequestIndex,
+	    INotificationListener listener) {
+	this(new HmacValidator(config.getHmacKey()),
+		new NotificationDeduplicator(config.getDeduplicationSize(), config.getDeduplicationTtl()),
+		pendingRequestIndex, listener);
+    }
+
+    /**
+     * Method used to create the processor resolving the notifications through the
+     * index populated by the infra services, see {@link PendingRequests}.
+     * 
+     * @param config   Holds the webhook configurations.
+     * @param listener Holds the listener of the final statuses.
+     */
+    public NotificationProcessor(WebhookConfig config, INotificationListener listener) {
+	this(config, PendingRequests.getIndex(), listener);
+    }
+
+    /**
+     * Method used to process a batch of notifications as posted by Adyen.
+     * 
+     * @param body Holds the JSON body of the batch.
+     * @throws IOException if the batch could not be read or parsed.
+     */
+    public void process(InputStream body) throws IOException {
+	process(JsonCodec.readNotificationRequest(body));
+    }
+
+    /**
+     * Method used to process a batch of notifications.
+     * 
+     * @param notificationRequest Holds the batch of notifications.
+     */
+    public void process(NotificationRequest notificationRequest) {
+	List<NotificationItem> notificationItems = notificationRequest.getNotificationItems();
+	if (notificationItems == null) {
+	    return;
+	}
+	for (NotificationItem notificationItem : notificationItems) {
+	    if (notificationItem.getNotificationRequestItem() != null) {
+		process(notificationItem.getNotificationRequestItem());
+	    }
+	}
+    }
+
+    private void process(NotificationRequestItem item) {
+	receivedNotifications.incrementAndGet();
+	if (!hmacValidator.isValid(item)) {
+	    invalidSignatures.incrementAndGet();
+	    logger.warn("NotificationProcessor - invalid HMAC signature for {} {}", item.getEventCode(),
+		    item.getPspReference());
+	    return;
+	}
+	String key = NotificationDeduplicator.keyOf(item);
+	if (!deduplicator.add(key)) {
+	    duplicateNotifications.incrementAndGet();
+	    return;
+	}
+	String pspReference = item.getPspReference();
+	PendingRequest pendingRequest = pendingRequestIndex.remove(pspReference);
+	if (pendingRequest == null && item.getOriginalReference() != null) {
+	    pspReference = item.getOriginalReference();
+	    pendingRequest = pendingRequestIndex.remove(pspReference);
+	    if (pendingRequest != null && !isEventOf(item, pendingRequest)) {
+		// the pending request waits for a notification of another service type
+		pendingRequestIndex.put(pspReference, pendingRequest);
+		pendingRequest = null;
+	    }
+	}
+	if (pendingRequest == null) {
+	    deduplicator.remove(key);
+	    unmatchedNotifications.incrementAndGet();
+	    logger.debug("NotificationProcessor - no pending request for {} {}", item.getEventCode(),
+		    item.getPspReference());
+	    return;
+	}
+	try {
+	    listener.onUpdate(pendingRequest, toPaymentCollectionOutput(item, pendingRequest));
+	    processedNotifications.incrementAndGet();
+	} catch (RuntimeException e) {
+	    pendingRequestIndex.put(pspReference, pendingRequest);
+	    deduplicator.remove(key);
+	    throw e;
+	}
+    }
+
+    /**
+     * @return True if the eventCode of the notification is one of the service type
+     *         of the pending request.
+     */
+    private static boolean isEventOf(NotificationRequestItem item, PendingRequest pendingRequest) {
+	ServiceType serviceType = EVENT_CODES.get(item.getEventCode());
+	return serviceType != null && serviceType.name().equals(pendingRequest.getApiName());
+    }
+
+    /**
+     * Method used to convert the notification to the adapter's output object of
+     * the pending request.
+     */
+    static PaymentCollectionOutput toPaymentCollectionOutput(NotificationRequestItem item,
+	    PendingRequest pendingRequest) {
+	PaymentCollectionOutput update = new PaymentCollectionOutput();
+	update.setAsyncReq(false);
+	update.setAsyncReqId(item.getPspReference());
+	update.setFailedPayment(!item.hasSucceeded());
+	update.setMerchantId(item.getMerchantAccountCode());
+	update.setOrderNo(pendingRequest.getOrderNo());
+	update.setRequestAmount(pendingRequest.getAmount());
+	if (item.getAmount() != null) {
+	    update.setCurrency(item.getAmount().getCurrency());
+	}
+	switch (ServiceType.valueOf(pendingRequest.getApiName())) {
+	case CAPTURE:
+	    update.setCaptureReference(item.getPspReference());
+	    break;
+	case REFUND:
+	    update.setRefundPaymentReference(item.getPspReference());
+	    break;
+	case REVERSE:
+	    update.setReverseReference(item.getPspReference());
+	    break;
+	default:
+	    update.setPaymentReference(
+		    item.getOriginalReference() == null ? item.getPspReference() : item.getOriginalReference());
+	    break;
+	}
+	return update;
+    }
+
+    public long getReceivedNotifications() {
+	return receivedNotifications.get();
+    }
+
+    public long getInvalidSignatures() {
+	return invalidSignatures.get();
+    }
+
+    public long getDuplicateNotifications() {
+	return duplicateNotifications.get();
+    }
+
+    public long getUnmatchedNotifications() {
+	return unmatchedNotifications.get();
+    }
+
+    public long getProcessedNotifications() {
+	return processedNotifications.get();
+    }
+
+}
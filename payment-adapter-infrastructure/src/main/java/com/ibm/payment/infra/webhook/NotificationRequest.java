@@ -0,0 +1,44 @@
+/*
+IBM Confidential
+IBM Sterling OMS Payment Integration Adapter
+(C) Copyright IBM Corp. 2022
+Licensed under the Apache License, Version 2.0 (the "License");
+you may not use this file except in compliance with the License.
+http://www.apache.org/licenses/LICENSE-2.0
+Unless required by applicable law or agreed to in writing, software
+distributed under the License is distributed on an "AS IS" BASIS,
+WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+See the License for the specific language governing permissions and
+limitations under the License.
+*/
+package com.ibm.payment.infra.webhook;
+
+import java.util.List;
+
+/**
+ * This object holds a batch of Adyen standard notifications, as posted by
+ * Adyen to the webhook endpoint.
+ */
+public class NotificationRequest {
+
+    /** true if the notifications come from the live environment */
+    private String live;
+
+    private List<NotificationItem> notificationItems;
+
+    public String getLive() {
+	return live;
+    }
+
+    public void setLive(String live) {
+	this.live = live;
+    }
+
+    public List<NotificationItem> getNotificationItems() {
+	return notificationItems;
+    }
+
+    public void setNotificationItems(List<NotificationItem> notificationItems) {
+	this.notificationItems = notificationItems;
+    }
+}
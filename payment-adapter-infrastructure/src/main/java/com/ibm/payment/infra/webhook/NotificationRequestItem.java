@@ -0,0 +1,134 @@
+/*
+IBM Confidential
+IBM Sterling OMS Payment Integration Adapter
+(C) Copyright IBM Corp. 2022
+Licensed under the Apache License, Version 2.0 (the "License");
+you may not use this file except in compliance with the License.
+http://www.apache.org/licenses/LICENSE-2.0
+Unless required by applicable law or agreed to in writing, software
+distributed under the License is distributed on an "AS IS" BASIS,
+WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+See the License for the specific language governing permissions and
+limitations under the License.
+*/
+package com.ibm.payment.infra.webhook;
+
+import java.util.Map;
+
+/**
+ * This object holds the details of an Adyen standard notification, like the
+ * event code and the outcome of a payment or modification identified by its
+ * pspReference.
+ */
+public class NotificationRequestItem {
+
+    /** hmacSignature is sent in the additional data */
+    private Map<String, String> additionalData;
+
+    private NotificationAmount amount;
+
+    /** AUTHORISATION, CAPTURE, REFUND, CANCELLATION etc. */
+    private String eventCode;
+
+    private String eventDate;
+
+    private String merchantAccountCode;
+
+    private String merchantReference;
+
+    /** pspReference of the payment, sent for the modifications */
+    private String originalReference;
+
+    private String pspReference;
+
+    private String reason;
+
+    private String success;
+
+    public Map<String, String> getAdditionalData() {
+	return additionalData;
+    }
+
+    public void setAdditionalData(Map<String, String> additionalData) {
+	this.additionalData = additionalData;
+    }
+
+    public NotificationAmount getAmount() {
+	return amount;
+    }
+
+    public void setAmount(NotificationAmount amount) {
+	this.amount = amount;
+    }
+
+    public String getEventCode() {
+	return eventCode;
+    }
+
+    public void setEventCode(String eventCode) {
+	this.eventCode = eventCode;
+    }
+
+    public String getEventDate() {
+	return eventDate;
+    }
+
+    public void setEventDate(String eventDate) {
+	this.eventDate = eventDate;
+    }
+
+    public String getMerchantAccountCode() {
+	return merchantAccountCode;
+    }
+
+    public void setMerchantAccountCode(String merchantAccountCode) {
+	this.merchantAccountCode = merchantAccountCode;
+    }
+
+    public String getMerchantReference() {
+	return merchantReference;
+    }
+
+    public void setMerchantReference(String merchantReference) {
+	this.merchantReference = merchantReference;
+    }
+
+    public String getOriginalReference() {
+	return originalReference;
+    }
+
+    public void setOriginalReference(String originalReference) {
+	this.originalReference = originalReference;
+    }
+
+    public String getPspReference() {
+	return pspReference;
+    }
+
+    public void setPspReference(String pspReference) {
+	this.pspReference = pspReference;
+    }
+
+    public String getReason() {
+	return reason;
+    }
+
+    public void setReason(String reason) {
+	this.reason = reason;
+    }
+
+    public String getSuccess() {
+	return success;
+    }
+
+    public void setSuccess(String success) {
+	this.success = success;
+    }
+
+    /**
+     * @return true if the notified payment or modification succeeded.
+     */
+    public boolean hasSucceeded() {
+	return Boolean.parseBoolean(success);
+    }
+}
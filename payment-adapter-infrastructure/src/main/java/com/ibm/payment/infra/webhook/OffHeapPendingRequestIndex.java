@@ -0,0 +1,400 @@
+/*
+IBM Confidential
+IBM Sterling OMS Payment Integration Adapter
+(C) Copyright IBM Corp. 2022
+Licensed under the Apache License, Version 2.0 (the "License");
+you may not use this file except in compliance with the License.
+http://www.apache.org/licenses/LICENSE-2.0
+Unless required by applicable law or agreed to in writing, software
+distributed under the License is distributed on an "AS IS" BASIS,
+WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+See the License for the specific language governing permissions and
+limitations under the License.
+*/
+package com.ibm.payment.infra.webhook;
+
+import java.math.BigDecimal;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.LongSupplier;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.json.JSONObject;
+
+import com.ibm.adapter.payment.enums.ServiceType;
+import com.ibm.payment.infra.exception.PaymentConfigurationException;
+import com.ibm.payment.infra.response.ExceptionError;
+
+/**
+ * OffHeapPendingRequestIndex class keeps the pending requests in an open
+ * addressing hash table stored in direct buffers, so millions of outstanding
+ * modifications take no heap and no objects but the ones returned by
+ * {@link #remove(String)}.
+ * <ul>
+ * <li>The table is split in 16 segments locked independently, each a direct
+ * buffer of fixed-size slots probed linearly.</li>
+ * <li>A slot holds the pspReference, the service type, the amount as its
+ * unscaled value and scale, the payment key and the order number. The
+ * requests with a reference, payment key or order number longer than the slot
+ * allows, or with an amount not fitting in a long, are not kept.</li>
+ * <li>The requests expire after the configured time to live. A new request
+ * reuses a removed slot on its probe sequence. Otherwise, the expired and
+ * removed slots are reclaimed by rehashing the segment in place when the new
+ * request would fill more than three quarters of it.</li>
+ * <li>The table does not grow, the requests are dropped once a segment is
+ * full of live requests.</li>
+ * </ul>
+ */
+public class OffHeapPendingRequestIndex implements IPendingRequestIndex {
+
+    private static final Logger logger = LogManager.getLogger(OffHeapPendingRequestIndex.class);
+
+    private static final int SEGMENTS = 16;
+
+    private static final int MAX_KEY_LENGTH = 32;
+    private static final int MAX_PAYMENT_KEY_LENGTH = 40;
+    private static final int MAX_ORDER_NO_LENGTH = 40;
+
+    private static final byte EMPTY = 0;
+    private static final byte USED = 1;
+    private static final byte REMOVED = 2;
+
+    /** Scale of a request without amount. */
+    private static final byte NO_AMOUNT = Byte.MIN_VALUE;
+
+    private static final int STATE = 0;
+    private static final int KEY_LENGTH = 1;
+    private static final int PAYMENT_KEY_LENGTH = 2;
+    private static final int ORDER_NO_LENGTH = 3;
+    private static final int HASH = 4;
+    private static final int EXPIRES_AT = 8;
+    private static final int UNSCALED_AMOUNT = 16;
+    private static final int SERVICE_TYPE = 24;
+    private static final int SCALE = 25;
+    private static final int KEY = 26;
+    private static final int PAYMENT_KEY = KEY + MAX_KEY_LENGTH;
+    private static final int ORDER_NO = PAYMENT_KEY + MAX_PAYMENT_KEY_LENGTH;
+    private static final int SLOT_SIZE = (ORDER_NO + MAX_ORDER_NO_LENGTH + 7) & ~7;
+
+    private static final ServiceType[] SERVICE_TYPES = ServiceType.values();
+
+    private final Segment[] segments = new Segment[SEGMENTS];
+
+    private final long ttlMillis;
+
+    private final LongSupplier clock;
+
+    private final AtomicLong droppedRequests = new AtomicLong();
+
+    public OffHeapPendingRequestIndex(int capacity, long ttlMillis) {
+	this(capacity, ttlMillis, System::currentTimeMillis);
+    }
+
+    OffHeapPendingRequestIndex(int capacity, long ttlMillis, LongSupplier clock) {
+	if (capacity <= 0 || ttlMillis <= 0) {
+	    logger.error("OffHeapPendingRequestIndex - invalid capacity {} or time to live {}", capacity, ttlMillis);
+	    throw new PaymentConfigurationException(ExceptionError.PAY0005, new JSONObject().put("errorDescription",
+		    "Pending request index capacity and time to live must be positive"));
+	}
+	// a segment is filled up to three quarters of its slots
+	int slots = Integer.highestOneBit(Math.max(4, (capacity / SEGMENTS) * 4 / 3) - 1) << 1;
+	for (int i = 0; i < SEGMENTS; i++) {
+	    segments[i] = new Segment(slots);
+	}
+	this.ttlMillis = ttlMillis;
+	this.clock = clock;
+    }
+
+    @Override
+    public void put(String pspReference, PendingRequest pendingRequest) {
+	byte[] key = pspReference.getBytes(StandardCharsets.UTF_8);
+	byte[] paymentKey = bytes(pendingRequest.getPaymentKey());
+	byte[] orderNo = bytes(pendingRequest.getOrderNo());
+	BigDecimal amount = pendingRequest.getAmount();
+	int serviceType = serviceTypeOf(pendingRequest.getApiName());
+	if (key.length > MAX_KEY_LENGTH || (paymentKey != null && paymentKey.length > MAX_PAYMENT_KEY_LENGTH)
+		|| (orderNo != null && orderNo.length > MAX_ORDER_NO_LENGTH) || serviceType < 0
+		|| (amount != null && (amount.unscaledValue().bitLength() > 63 || amount.scale() <= NO_AMOUNT
+			|| amount.scale() > Byte.MAX_VALUE))) {
+	    logger.warn("OffHeapPendingRequestIndex - the {} request {} does not fit in the index",
+		    pendingRequest.getApiName(), pspReference);
+	    droppedRequests.incrementAndGet();
+	    return;
+	}
+	int hash = hash(pspReference);
+	Segment segment = segmentOf(hash);
+	long now = clock.getAsLong();
+	synchronized (segment) {
+	    if (!segment.put(key, hash, now)) {
+		logger.warn("OffHeapPendingRequestIndex - index is full, the {} request {} is dropped",
+			pendingRequest.getApiName(), pspReference);
+		droppedRequests.incrementAndGet();
+		return;
+	    }
+	    ByteBuffer slots = segment.slots;
+	    int slot = segment.lastSlot;
+	    slots.putLong(slot + EXPIRES_AT, now + ttlMillis);
+	    slots.put(slot + SERVICE_TYPE, (byte) serviceType);
+	    slots.put(slot + SCALE, amount == null ? NO_AMOUNT : (byte) amount.scale());
+	    slots.putLong(slot + UNSCALED_AMOUNT, amount == null ? 0 : amount.unscaledValue().longValue());
+	    write(slots, slot + PAYMENT_KEY_LENGTH, slot + PAYMENT_KEY, paymentKey);
+	    write(slots, slot + ORDER_NO_LENGTH, slot + ORDER_NO, orderNo);
+	}
+    }
+
+    @Override
+    public PendingRequest remove(String pspReference) {
+	if (pspReference == null) {
+	    return null;
+	}
+	byte[] key = pspReference.getBytes(StandardCharsets.UTF_8);
+	if (key.length > MAX_KEY_LENGTH) {
+	    return null;
+	}
+	int hash = hash(pspReference);
+	Segment segment = segmentOf(hash);
+	long now = clock.getAsLong();
+	synchronized (segment) {
+	    int slot = segment.find(key, hash);
+	    if (slot < 0) {
+		return null;
+	    }
+	    ByteBuffer slots = segment.slots;
+	    segment.remove(slot);
+	    if (slots.getLong(slot + EXPIRES_AT) <= now) {
+		return null;
+	    }
+	    byte scale = slots.get(slot + SCALE);
+	    BigDecimal amount = scale == NO_AMOUNT ? null
+		    : BigDecimal.valueOf(slots.getLong(slot + UNSCALED_AMOUNT), scale);
+	    return new PendingRequest(SERVICE_TYPES[slots.get(slot + SERVICE_TYPE)].name(),
+		    read(slots, slot + PAYMENT_KEY_LENGTH, slot + PAYMENT_KEY),
+		    read(slots, slot + ORDER_NO_LENGTH, slot + ORDER_NO), amount);
+	}
+    }
+
+    /**
+     * @return The number of requests kept, including the expired requests not
+     *         reclaimed yet.
+     */
+    @Override
+    public int size() {
+	int size = 0;
+	for (Segment segment : segments) {
+	    synchronized (segment) {
+		size += segment.size;
+	    }
+	}
+	return size;
+    }
+
+    /**
+     * @return The number of requests which could not be kept.
+     */
+    public long getDroppedRequests() {
+	return droppedRequests.get();
+    }
+
+    /**
+     * @return The off-heap bytes used by the index.
+     */
+    public long getMemoryUsage() {
+	return (long) SEGMENTS * segments[0].capacity * SLOT_SIZE;
+    }
+
+    private Segment segmentOf(int hash) {
+	return segments[hash >>> 28];
+    }
+
+    private static int hash(String pspReference) {
+	int hash = pspReference.hashCode() * 0x9E3779B9;
+	return hash ^ (hash >>> 16);
+    }
+
+    private static int serviceTypeOf(String apiName) {
+	for (ServiceType serviceType : SERVICE_TYPES) {
+	    if (serviceType.name().equals(apiName)) {
+		return serviceType.ordinal();
+	    }
+	}
+	return -1;
+    }
+
+    private static byte[] bytes(String value) {
+	return value == null ? null : value.getBytes(StandardCharsets.UTF_8);
+    }
+
+    private static void write(ByteBuffer slots, int lengthIndex, int index, byte[] value) {
+	slots.put(lengthIndex, (byte) (value == null ? -1 : value.length));
+	if (value != null) {
+	    for (int i = 0; i < value.length; i++) {
+		slots.put(index + i, value[i]);
+	    }
+	}
+    }
+
+    private static String read(ByteBuffer slots, int lengthIndex, int index) {
+	int length = slots.get(lengthIndex);
+	if (length < 0) {
+	    return null;
+	}
+	byte[] value = new byte[length];
+	for (int i = 0; i < length; i++) {
+	    value[i] = slots.get(index + i);
+	}
+	return new String(value, StandardCharsets.UTF_8);
+    }
+
+    /**
+     * A segment of the table, the methods are called holding the lock of the
+     * segment.
+     */
+    private static final class Segment {
+
+	private final ByteBuffer slots;
+
+	private final int capacity;
+
+	private final int mask;
+
+	private int size;
+
+	private int removed;
+
+	/** Slot found by the last {@link #put} call. */
+	private int lastSlot;
+
+	Segment(int capacity) {
+	    this.slots = ByteBuffer.allocateDirect(capacity * SLOT_SIZE);
+	    this.capacity = capacity;
+	    this.mask = capacity - 1;
+	}
+
+	/**
+	 * Method used to find the slot of the key, the slot is left in
+	 * {@link #lastSlot} with the key and the hash written.
+	 * 
+	 * @return false if the segment is full of live requests.
+	 */
+	boolean put(byte[] key, int hash, long now) {
+	    int slot = find(key, hash);
+	    if (slot >= 0) {
+		lastSlot = slot;
+		return true;
+	    }
+	    if ((size + 1) * 4L > capacity * 3L) {
+		reclaim(now, false);
+		if ((size + 1) * 4L > capacity * 3L) {
+		    return false;
+		}
+	    }
+	    slot = freeSlot(hash);
+	    if (slots.get(slot + STATE) == REMOVED) {
+		removed--;
+	    } else if ((size + removed + 1) * 4L > capacity * 3L) {
+		// the removed slots are reclaimed so that a quarter of the slots stays empty
+		reclaim(now, true);
+		slot = freeSlot(hash);
+	    }
+	    slots.put(slot + STATE, USED);
+	    slots.putInt(slot + HASH, hash);
+	    slots.put(slot + KEY_LENGTH, (byte) key.length);
+	    for (int i = 0; i < key.length; i++) {
+		slots.put(slot + KEY + i, key[i]);
+	    }
+	    size++;
+	    lastSlot = slot;
+	    return true;
+	}
+
+	/**
+	 * @return The first slot not used by a request from the index of the hash.
+	 */
+	private int freeSlot(int hash) {
+	    int index = hash & mask;
+	    while (slots.get(index * SLOT_SIZE + STATE) == USED) {
+		index = (index + 1) & mask;
+	    }
+	    return index * SLOT_SIZE;
+	}
+
+	/**
+	 * @return The slot of the key, or -1 if the key is not found.
+	 */
+	int find(byte[] key, int hash) {
+	    int index = hash & mask;
+	    for (int probes = 0; probes < capacity; probes++) {
+		int slot = index * SLOT_SIZE;
+		byte state = slots.get(slot + STATE);
+		if (state == EMPTY) {
+		    return -1;
+		}
+		if (state == USED && slots.getInt(slot + HASH) == hash && matches(slot, key)) {
+		    return slot;
+		}
+		index = (index + 1) & mask;
+	    }
+	    return -1;
+	}
+
+	private boolean matches(int slot, byte[] key) {
+	    if (slots.get(slot + KEY_LENGTH) != key.length) {
+		return false;
+	    }
+	    for (int i = 0; i < key.length; i++) {
+		if (slots.get(slot + KEY + i) != key[i]) {
+		    return false;
+		}
+	    }
+	    return true;
+	}
+
+	void remove(int slot) {
+	    slots.put(slot + STATE, REMOVED);
+	    size--;
+	    removed++;
+	}
+
+	/**
+	 * Method used to remove the expired requests, and to rehash the segment in
+	 * place once the removed slots make up a quarter of it.
+	 * 
+	 * @param rehash holds true to rehash the segment if any slot is removed.
+	 */
+	private void reclaim(long now, boolean rehash) {
+	    for (int slot = 0; slot < capacity * SLOT_SIZE; slot += SLOT_SIZE) {
+		if (slots.get(slot + STATE) == USED && slots.getLong(slot + EXPIRES_AT) <= now) {
+		    remove(slot);
+		}
+	    }
+	    if (removed == 0 || (!rehash && removed * 4L < capacity)) {
+		return;
+	    }
+	    byte[] live = new byte[size * SLOT_SIZE];
+	    int count = 0;
+	    for (int slot = 0; slot < capacity * SLOT_SIZE; slot += SLOT_SIZE) {
+		if (slots.get(slot + STATE) == USED) {
+		    slots.position(slot);
+		    slots.get(live, count * SLOT_SIZE, SLOT_SIZE);
+		    count++;
+		}
+		slots.put(slot + STATE, EMPTY);
+	    }
+	    for (int i = 0; i < count; i++) {
+		int hash = ByteBuffer.wrap(live, i * SLOT_SIZE + HASH, 4).getInt();
+		int index = hash & mask;
+		while (slots.get(index * SLOT_SIZE + STATE) != EMPTY) {
+		    index = (index + 1) & mask;
+		}
+		slots.position(index * SLOT_SIZE);
+		slots.put(live, i * SLOT_SIZE, SLOT_SIZE);
+	    }
+	    slots.clear();
+	    removed = 0;
+	    logger.debug("OffHeapPendingRequestIndex - segment rehashed with {} requests", count);
+	}
+    }
+
+}
@@ -0,0 +1,55 @@
+/*
+IBM Confidential
+IBM Sterling OMS Payment Integration Adapter
+(C) Copyright IBM Corp. 2022
+Licensed under the Apache License, Version 2.0 (the "License");
+you may not use this file except in compliance with the License.
+http://www.apache.org/licenses/LICENSE-2.0
+Unless required by applicable law or agreed to in writing, software
+distributed under the License is distributed on an "AS IS" BASIS,
+WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+See the License for the specific language governing permissions and
+limitations under the License.
+*/
+package com.ibm.payment.infra.webhook;
+
+import java.math.BigDecimal;
+
+/**
+ * This object holds the details of an asynchronous request waiting for its
+ * final status, to correlate the Adyen notification bearing its pspReference.
+ */
+public class PendingRequest {
+
+    /** ServiceType of the request */
+    private final String apiName;
+
+    private final String paymentKey;
+
+    private final String orderNo;
+
+    private final BigDecimal amount;
+
+    public PendingRequest(String apiName, String paymentKey, String orderNo, BigDecimal amount) {
+	this.apiName = apiName;
+	this.paymentKey = paymentKey;
+	this.orderNo = orderNo;
+	this.amount = amount;
+    }
+
+    public String getApiName() {
+	return apiName;
+    }
+
+    public String getPaymentKey() {
+	return paymentKey;
+    }
+
+    public String getOrderNo() {
+	return orderNo;
+    }
+
+    public BigDecimal getAmount() {
+	return amount;
+    }
+}
@@ -0,0 +1,101 @@
+/*
+IBM Confidential
+IBM Sterling OMS Payment Integration Adapter
+(C) Copyright IBM Corp. 2022
+Licensed under the Apache License, Version 2.0 (the "License");
+you may not use this file except in compliance with the License.
+http://www.apache.org/licenses/LICENSE-2.0
+Unless required by applicable law or agreed to in writing, software
+distributed under the License is distributed on an "AS IS" BASIS,
+WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+See the License for the specific language governing permissions and
+limitations under the License.
+*/
+package com.ibm.payment.infra.webhook;
+
+import java.util.Properties;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import com.ibm.adapter.payment.model.PaymentCollectionInput;
+import com.ibm.adapter.payment.model.PaymentCollectionOutput;
+import com.ibm.payment.infra.util.RestHttpClientUtils;
+
+/**
+ * Utility class keeping the asynchronous requests of the infra services in the
+ * shared {@link IPendingRequestIndex}, until their final status is notified.
+ * The shared index is an {@link OffHeapPendingRequestIndex} created lazily
+ * from the payment provider's properties:
+ * <ul>
+ * <li>pendingrequestcapacity - number of requests kept, 50000 by
+ * default.</li>
+ * <li>pendingrequestttl - milliseconds a request is kept, 7 days by
+ * default.</li>
+ * </ul>
+ */
+public class PendingRequests {
+
+    private static final Logger logger = LogManager.getLogger(PendingRequests.class);
+
+    public static final String PENDING_REQUEST_CAPACITY = "pendingrequestcapacity";
+    public static final String PENDING_REQUEST_TTL = "pendingrequestttl";
+
+    private static volatile IPendingRequestIndex index;
+
+    private PendingRequests() {
+    }
+
+    /**
+     * @return The index shared by the infra services and the notification
+     *         processor.
+     */
+    public static IPendingRequestIndex getIndex() {
+	IPendingRequestIndex pendingRequestIndex = index;
+	if (pendingRequestIndex == null) {
+	    synchronized (PendingRequests.class) {
+		pendingRequestIndex = index;
+		if (pendingRequestIndex == null) {
+		    Properties properties = RestHttpClientUtils.getRequestHandler().adyenProperties;
+		    pendingRequestIndex = new OffHeapPendingRequestIndex(
+			    Integer.parseInt(properties.getProperty(PENDING_REQUEST_CAPACITY, "50000").trim()),
+			    Long.parseLong(properties.getProperty(PENDING_REQUEST_TTL, "604800000").trim()));
+		    index = pendingRequestIndex;
+		}
+	    }
+	}
+	return pendingRequestIndex;
+    }
+
+    /**
+     * Method used to replace the shared index, the requests of the previous index
+     * are dropped.
+     * 
+     * @param pendingRequestIndex Holds the new index.
+     */
+    public static void setIndex(IPendingRequestIndex pendingRequestIndex) {
+	index = pendingRequestIndex;
+    }
+
+    /**
+     * Method used to keep the request if the payment provider completes it
+     * asynchronously, the request is kept by the asyncReqId of the output.
+     * 
+     * @param apiName                 Holds the service type of the request.
+     * @param paymentCollectionInput  Holds the adapter's input object.
+     * @param paymentCollectionOutput Holds the adapter's output object.
+     * @return The given output.
+     */
+    public static PaymentCollectionOutput register(String apiName, PaymentCollectionInput paymentCollectionInput,
+	    PaymentCollectionOutput paymentCollectionOutput) {
+	if (paymentCollectionOutput != null && paymentCollectionOutput.isAsyncReq()
+		&& paymentCollectionOutput.getAsyncReqId() != null) {
+	    logger.debug("PendingRequests - {} request {} pending", apiName, paymentCollectionOutput.getAsyncReqId());
+	    getIndex().put(paymentCollectionOutput.getAsyncReqId(),
+		    new PendingRequest(apiName, paymentCollectionInput.getPaymentKey(),
+			    paymentCollectionInput.getOrderNo(), paymentCollectionInput.getRequestAmount()));
+	}
+	return paymentCollectionOutput;
+    }
+
+}
@@ -0,0 +1,122 @@
+/*
+IBM Confidential
+IBM Sterling OMS Payment Integration Adapter
+(C) Copyright IBM Corp. 2022
+Licensed under the Apache License, Version 2.0 (the "License");
+you may not use this file except in compliance with the License.
+http://www.apache.org/licenses/LICENSE-2.0
+Unless required by applicable law or agreed to in writing, software
+distributed under the License is distributed on an "AS IS" BASIS,
+WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+See the License for the specific language governing permissions and
+limitations under the License.
+*/
+package com.ibm.payment.infra.webhook;
+
+import java.util.Properties;
+
+/**
+ * WebhookConfig class holds the configurations of the Adyen notification
+ * endpoint. The values are loaded from the payment provider's properties file
+ * and the default values are used if they are not configured.
+ * <ul>
+ * <li>webhookhmackey - hex encoded HMAC key verifying the notifications,
+ * mandatory.</li>
+ * <li>webhookport - port of the endpoint, 0 for any free port.</li>
+ * <li>webhookpath - path the notifications are posted to.</li>
+ * <li>webhookthreads - threads processing the notification batches.</li>
+ * <li>webhookdeduplicationsize - maximum notifications remembered to drop the
+ * duplicates.</li>
+ * <li>webhookdeduplicationttl - milliseconds a notification is
+ * remembered.</li>
+ * </ul>
+ */
+public class WebhookConfig {
+
+    public static final String WEBHOOK_HMAC_KEY = "webhookhmackey";
+    public static final String WEBHOOK_PORT = "webhookport";
+    public static final String WEBHOOK_PATH = "webhookpath";
+    public static final String WEBHOOK_THREADS = "webhookthreads";
+    public static final String WEBHOOK_DEDUPLICATION_SIZE = "webhookdeduplicationsize";
+    public static final String WEBHOOK_DEDUPLICATION_TTL = "webhookdeduplicationttl";
+
+    private String hmacKey;
+
+    private int port = 8080;
+
+    private String path = "/adyen/notifications";
+
+    private int threads = 8;
+
+    private int deduplicationSize = 100000;
+
+    private long deduplicationTtl = 86400000;
+
+    /**
+     * Method used to create the webhook configurations from the payment
+     * provider's properties.
+     * 
+     * @param properties Holds the payment provider's properties.
+     * @return The {@link WebhookConfig} object.
+     */
+    public static WebhookConfig fromProperties(Properties properties) {
+	WebhookConfig config = new WebhookConfig();
+	config.setHmacKey(properties.getProperty(WEBHOOK_HMAC_KEY, "").trim());
+	config.setPort(Integer.parseInt(properties.getProperty(WEBHOOK_PORT, "8080").trim()));
+	config.setPath(properties.getProperty(WEBHOOK_PATH, "/adyen/notifications").trim());
+	config.setThreads(Integer.parseInt(properties.getProperty(WEBHOOK_THREADS, "8").trim()));
+	config.setDeduplicationSize(
+		Integer.parseInt(properties.getProperty(WEBHOOK_DEDUPLICATION_SIZE, "100000").trim()));
+	config.setDeduplicationTtl(Long.parseLong(properties.getProperty(WEBHOOK_DEDUPLICATION_TTL, "86400000").trim()));
+	return config;
+    }
+
+    public String getHmacKey() {
+	return hmacKey;
+    }
+
+    public void setHmacKey(String hmacKey) {
+	this.hmacKey = hmacKey;
+    }
+
+    public int getPort() {
+	return port;
+    }
+
+    public void setPort(int port) {
+	this.port = port;
+    }
+
+    public String getPath() {
+	return path;
+    }
+
+    public void setPath(String path) {
+	this.path = path;
+    }
+
+    public int getThreads() {
+	return threads;
+    }
+
+    public void setThreads(int threads) {
+	this.threads = threads;
+    }
+
+    public int getDeduplicationSize() {
+	return deduplicationSize;
+    }
+
+    public void setDeduplicationSize(int deduplicationSize) {
+	this.deduplicationSize = deduplicationSize;
+    }
+
+    public long getDeduplicationTtl() {
+	return deduplicationTtl;
+    }
+
+    public void setDeduplicationTtl(long deduplicationTtl) {
+	this.deduplicationTtl = deduplicationTtl;
+    }
+
+}
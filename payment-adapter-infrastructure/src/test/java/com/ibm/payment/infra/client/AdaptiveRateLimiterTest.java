@@ -0,0 +1,92 @@
+/*
+IBM Confidential
+IBM Sterling OMS Payment Integration Adapter
+(C) Copyright IBM Corp. 2022
+Licensed under the Apache License, Version 2.0 (the "License");
+you may not use this file except in compliance with the License.
+http://www.apache.org/licenses/LICENSE-2.0
+Unless required by applicable law or agreed to in writing, software
+distributed under the License is distributed on an "AS IS" BASIS,
+WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+See the License for the specific language governing permissions and
+limitations under the License.
+*/
+package com.ibm.payment.infra.client;
+
+import static com.ibm.payment.mapper.test.util.MockHelper.createRateLimiterConfig;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.junit.Test;
+
+import com.ibm.payment.infra.exception.PaymentConnectionException;
+
+public class AdaptiveRateLimiterTest {
+
+    private static final long MAX_WAIT = TimeUnit.MILLISECONDS.toNanos(500);
+
+    private final AtomicLong clock = new AtomicLong();
+
+    private AdaptiveRateLimiter createRateLimiter() {
+	return new AdaptiveRateLimiter("IBMTest533ECOM", createRateLimiterConfig(), clock::get);
+    }
+
+    @Test
+    public void test01BurstAndWait() {
+	AdaptiveRateLimiter rateLimiter = createRateLimiter();
+	// one second of calls is available straight away
+	for (int i = 0; i < 4; i++) {
+	    assertEquals(0, rateLimiter.reserve(MAX_WAIT));
+	}
+	assertEquals(TimeUnit.MILLISECONDS.toNanos(250), rateLimiter.reserve(MAX_WAIT));
+	assertEquals(TimeUnit.MILLISECONDS.toNanos(500), rateLimiter.reserve(MAX_WAIT));
+	assertThrows(PaymentConnectionException.class, () -> rateLimiter.reserve(MAX_WAIT));
+	assertEquals(2, rateLimiter.getDelayedCalls());
+	assertEquals(1, rateLimiter.getRejectedCalls());
+
+	clock.addAndGet(TimeUnit.SECONDS.toNanos(1));
+	assertEquals(0, rateLimiter.reserve(MAX_WAIT));
+    }
+
+    @Test
+    public void test02DecreaseOnThrottledAndRampUp() {
+	AdaptiveRateLimiter rateLimiter = createRateLimiter();
+	rateLimiter.onThrottled(0);
+	assertEquals(2.0, rateLimiter.getRate());
+	// the responses within a second of the decrease do not decrease it again
+	rateLimiter.onThrottled(0);
+	assertEquals(2.0, rateLimiter.getRate());
+	clock.addAndGet(TimeUnit.SECONDS.toNanos(1));
+	rateLimiter.onThrottled(0);
+	assertEquals(1.0, rateLimiter.getRate());
+	clock.addAndGet(TimeUnit.SECONDS.toNanos(1));
+	rateLimiter.onThrottled(0);
+	assertEquals(1.0, rateLimiter.getRate());
+	assertEquals(4, rateLimiter.getThrottledResponses());
+
+	rateLimiter.onSuccess();
+	assertEquals(2.0, rateLimiter.getRate());
+	rateLimiter.onSuccess();
+	rateLimiter.onSuccess();
+	assertTrue(rateLimiter.getRate() > 2.5);
+	for (int i = 0; i < 10; i++) {
+	    rateLimiter.onSuccess();
+	}
+	assertEquals(4.0, rateLimiter.getRate());
+    }
+
+    @Test
+    public void test03RetryAfterHoldsBackCalls() {
+	AdaptiveRateLimiter rateLimiter = createRateLimiter();
+	rateLimiter.onThrottled(2000);
+	assertThrows(PaymentConnectionException.class, () -> rateLimiter.reserve(MAX_WAIT));
+	clock.addAndGet(TimeUnit.SECONDS.toNanos(2));
+	assertEquals(TimeUnit.MILLISECONDS.toNanos(500), rateLimiter.reserve(MAX_WAIT));
+	clock.addAndGet(TimeUnit.SECONDS.toNanos(1));
+	assertEquals(0, rateLimiter.reserve(MAX_WAIT));
+    }
+}
@@ -0,0 +1,149 @@
+/*
+IBM Confidential
+IBM Sterling OMS Payment Integration Adapter
+(C) Copyright IBM Corp. 2022
+Licensed under the Apache License, Version 2.0 (the "License");
+you may not use this file except in compliance with the License.
+http://www.apache.org/licenses/LICENSE-2.0
+Unless required by applicable law or agreed to in writing, software
+distributed under the License is distributed on an "AS IS" BASIS,
+WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+See the License for the specific language governing permissions and
+limitations under the License.
+*/
+package com.ibm.payment.infra.client;
+
+import static com.ibm.payment.mapper.test.util.MockHelper.createCircuitBreakerConfig;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.Properties;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.junit.Test;
+
+public class CircuitBreakerTest {
+
+    private final AtomicLong clock = new AtomicLong();
+
+    private CircuitBreaker createCircuitBreaker() {
+	return new CircuitBreaker("test", createCircuitBreakerConfig(4, 2), clock::get);
+    }
+
+    @Test
+    public void test01OpensOnFailureRate() {
+	CircuitBreaker circuitBreaker = createCircuitBreaker();
+	circuitBreaker.onSuccess(0);
+	circuitBreaker.onFailure(0);
+	circuitBreaker.onSuccess(0);
+	assertEquals(CircuitBreaker.State.CLOSED, circuitBreaker.getState());
+	circuitBreaker.onFailure(0);
+
+	assertEquals(CircuitBreaker.State.OPEN, circuitBreaker.getState());
+	assertFalse(circuitBreaker.tryAcquirePermission());
+	assertEquals(1, circuitBreaker.getNotPermittedCalls());
+    }
+
+    @Test
+    public void test02SlidingWindowEvictsOldCalls() {
+	CircuitBreaker circuitBreaker = createCircuitBreaker();
+	circuitBreaker.onFailure(0);
+	circuitBreaker.onSuccess(0);
+	circuitBreaker.onSuccess(0);
+	circuitBreaker.onSuccess(0);
+	assertEquals(25f, circuitBreaker.getFailureRate());
+	// the failure is evicted from the window
+	circuitBreaker.onSuccess(0);
+	assertEquals(0f, circuitBreaker.getFailureRate());
+	assertEquals(CircuitBreaker.State.CLOSED, circuitBreaker.getState());
+    }
+
+    @Test
+    public void test03OpensOnSlowCallRate() {
+	CircuitBreaker circuitBreaker = createCircuitBreaker();
+	long slow = TimeUnit.SECONDS.toNanos(2);
+	for (int i = 0; i < 4; i++) {
+	    assertTrue(circuitBreaker.tryAcquirePermission());
+	    circuitBreaker.onSuccess(slow);
+	}
+	assertEquals(CircuitBreaker.State.OPEN, circuitBreaker.getState());
+    }
+
+    @Test
+    public void test04HalfOpenClosesAfterTrialCalls() {
+	CircuitBreaker circuitBreaker = createCircuitBreaker();
+	for (int i = 0; i < 4; i++) {
+	    circuitBreaker.onFailure(0);
+	}
+	assertFalse(circuitBreaker.tryAcquirePermission());
+
+	clock.addAndGet(TimeUnit.SECONDS.toNanos(5));
+	assertTrue(circuitBreaker.tryAcquirePermission());
+	assertEquals(CircuitBreaker.State.HALF_OPEN, circuitBreaker.getState());
+	assertTrue(circuitBreaker.tryAcquirePermission());
+	// only the trial calls are permitted
+	assertFalse(circuitBreaker.tryAcquirePermission());
+
+	circuitBreaker.onSuccess(0);
+	circuitBreaker.onSuccess(0);
+	assertEquals(CircuitBreaker.State.CLOSED, circuitBreaker.getState());
+	assertTrue(circuitBreaker.tryAcquirePermission());
+    }
+
+    @Test
+    public void test05HalfOpenReopensOnFailures() {
+	CircuitBreaker circuitBreaker = createCircuitBreaker();
+	for (int i = 0; i < 4; i++) {
+	    circuitBreaker.onFailure(0);
+	}
+	clock.addAndGet(TimeUnit.SECONDS.toNanos(5));
+	assertTrue(circuitBreaker.tryAcquirePermission());
+	assertTrue(circuitBreaker.tryAcquirePermission());
+	// the released permission can be used by another trial call
+	circuitBreaker.releasePermission();
+	assertTrue(circuitBreaker.tryAcquirePermission());
+
+	circuitBreaker.onSuccess(0);
+	circuitBreaker.onFailure(0);
+	assertEquals(CircuitBreaker.State.OPEN, circuitBreaker.getState());
+	assertFalse(circuitBreaker.tryAcquirePermission());
+    }
+
+    @Test
+    public void test06EndpointConfigOverrides() {
+	Properties properties = new Properties();
+	properties.setProperty(CircuitBreakerConfig.FAILURE_RATE_THRESHOLD, "60");
+	properties.setProperty(CircuitBreakerConfig.FAILURE_RATE_THRESHOLD + ".CAPTURE", "30");
+	properties.setProperty(CircuitBreakerConfig.CIRCUIT_BREAKER_ENABLED + ".REFUND", "false");
+	HttpClientConfig httpClientConfig = HttpClientConfig.fromProperties(properties);
+
+	assertEquals(60, httpClientConfig.getCircuitBreakerConfig("PROCESS_PAYMENTS").getFailureRateThreshold());
+	assertEquals(30, httpClientConfig.getCircuitBreakerConfig("CAPTURE").getFailureRateThreshold());
+	assertEquals(60, httpClientConfig.getCircuitBreakerConfig("REFUND").getFailureRateThreshold());
+	assertFalse(httpClientConfig.getCircuitBreakerConfig("REFUND").isEnabled());
+	assertTrue(httpClientConfig.getCircuitBreakerConfig("CAPTURE").isEnabled());
+    }
+
+    @Test
+    public void test07HalfOpenCallsAboveWindowSize() {
+	CircuitBreaker circuitBreaker = new CircuitBreaker("test", createCircuitBreakerConfig(2, 4), clock::get);
+	circuitBreaker.onFailure(0);
+	circuitBreaker.onFailure(0);
+	assertEquals(CircuitBreaker.State.OPEN, circuitBreaker.getState());
+
+	clock.addAndGet(TimeUnit.SECONDS.toNanos(5));
+	for (int i = 0; i < 4; i++) {
+	    assertTrue(circuitBreaker.tryAcquirePermission());
+	}
+	assertFalse(circuitBreaker.tryAcquirePermission());
+	circuitBreaker.onFailure(0);
+	for (int i = 0; i < 3; i++) {
+	    assertEquals(CircuitBreaker.State.HALF_OPEN, circuitBreaker.getState());
+	    circuitBreaker.onSuccess(0);
+	}
+	// the last trial calls in the window decide the state
+	assertEquals(CircuitBreaker.State.CLOSED, circuitBreaker.getState());
+    }
+}
@@ -0,0 +1,178 @@
+/*
+IBM Confidential
+IBM Sterling OMS Payment Integration Adapter
+(C) Copyright IBM Corp. 2022
+Licensed under the Apache License, Version 2.0 (the "License");
+you may not use this file except in compliance with the License.
+http://www.apache.org/licenses/LICENSE-2.0
+Unless required by applicable law or agreed to in writing, software
+distributed under the License is distributed on an "AS IS" BASIS,
+WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+See the License for the specific language governing permissions and
+limitations under the License.
+*/
+package com.ibm.payment.infra.client;
+
+import static com.ibm.payment.mapper.test.util.MockHelper.createHedgingConfig;
+import static com.ibm.payment.mapper.test.util.MockHelper.createRequestConfig;
+import static com.ibm.payment.mapper.test.util.MockHelper.createRestHttpClientResponse;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.lang.management.ManagementFactory;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+
+import org.junit.After;
+import org.junit.Test;
+
+import com.ibm.adapter.payment.enums.ServiceType;
+import com.ibm.model.adyen.AdyenRequest;
+import com.ibm.payment.infra.context.AdyenRequestPathParam;
+import com.ibm.payment.infra.exception.PaymentConnectionException;
+import com.ibm.payment.infra.response.RestHttpClientResponse;
+
+public class HedgedAsyncHttpClientTest {
+
+    private static final String API_NAME = ServiceType.PROCESS_PAYMENTS.toString();
+    private static final String PSP_RESPONSE = "{\"pspReference\":\"D84R7TVTWTTFWR82\"}";
+
+    private final List<Map<String, String>> primaryConfigs = new CopyOnWriteArrayList<>();
+    private final List<Map<String, String>> secondaryConfigs = new CopyOnWriteArrayList<>();
+    private HedgedAsyncHttpClient<AdyenRequest, AdyenRequestPathParam> hedgedClient;
+
+    private HedgedAsyncHttpClient<AdyenRequest, AdyenRequestPathParam> createClient(
+	    CompletableFuture<RestHttpClientResponse> primaryFuture,
+	    CompletableFuture<RestHttpClientResponse> secondaryFuture) {
+	HedgingConfig config = createHedgingConfig();
+	config.setMaxRate(100);
+	hedgedClient = new HedgedAsyncHttpClient<>((apiName, requestConfig, request, requestPathParams) -> {
+	    primaryConfigs.add(requestConfig);
+	    return primaryFuture;
+	}, (apiName, requestConfig, request, requestPathParams) -> {
+	    secondaryConfigs.add(requestConfig);
+	    return secondaryFuture;
+	}, config);
+	return hedgedClient;
+    }
+
+    /**
+     * The primary endpoint does not answer within the delay, the secondary one
+     * answers first with the same idempotency key.
+     */
+    @Test
+    public void test01HedgeAnsweredBySecondary() throws Exception {
+	RestHttpClientResponse secondaryResponse = createRestHttpClientResponse(200, PSP_RESPONSE);
+	createClient(new CompletableFuture<>(), CompletableFuture.completedFuture(secondaryResponse));
+
+	RestHttpClientResponse response = hedgedClient
+		.sendPostAsync(API_NAME, createRequestConfig(), new AdyenRequest(), new AdyenRequestPathParam())
+		.get(5, TimeUnit.SECONDS);
+	assertSame(secondaryResponse, response);
+	assertEquals(primaryConfigs, secondaryConfigs);
+	assertEquals(1, hedgedClient.getHedgingMetrics().getHedgedCalls());
+	assertEquals(1, hedgedClient.getHedgingMetrics().getSecondaryWins());
+	assertEquals(1.0, hedgedClient.getHedgingMetrics().getHedgeRate());
+    }
+
+    /**
+     * A connection error of the primary endpoint fails over to the secondary one
+     * without waiting for the delay, and the error is returned when both fail.
+     */
+    @Test
+    public void test02FailoverOnPrimaryFailure() throws Exception {
+	CompletableFuture<RestHttpClientResponse> primaryFuture = new CompletableFuture<>();
+	primaryFuture.completeExceptionally(new PaymentConnectionException("Connection refused"));
+	CompletableFuture<RestHttpClientResponse> secondaryFuture = new CompletableFuture<>();
+	createClient(primaryFuture, secondaryFuture);
+
+	CompletableFuture<RestHttpClientResponse> future = hedgedClient.sendPostAsync(API_NAME, createRequestConfig(),
+		new AdyenRequest(), new AdyenRequestPathParam());
+	assertEquals(1, secondaryConfigs.size());
+	assertEquals(1, hedgedClient.getHedgingMetrics().getFailoverCalls());
+	assertEquals(0, hedgedClient.getHedgingMetrics().getHedgedCalls());
+
+	secondaryFuture.complete(createRestHttpClientResponse(503, PSP_RESPONSE));
+	try {
+	    future.get(5, TimeUnit.SECONDS);
+	} catch (ExecutionException e) {
+	    assertTrue(e.getCause() instanceof PaymentConnectionException);
+	}
+	assertTrue(future.isCompletedExceptionally());
+    }
+
+    /**
+     * The calls without an idempotency key, and the ones answered before the
+     * delay, are only sent to the primary endpoint.
+     */
+    @Test
+    public void test03NotHedged() throws Exception {
+	RestHttpClientResponse primaryResponse = createRestHttpClientResponse(422, PSP_RESPONSE);
+	createClient(CompletableFuture.completedFuture(primaryResponse), new CompletableFuture<>());
+
+	assertSame(primaryResponse, hedgedClient.sendPostAsync(API_NAME, Collections.emptyMap(), new AdyenRequest(),
+		new AdyenRequestPathParam()).get(5, TimeUnit.SECONDS));
+	assertSame(primaryResponse, hedgedClient
+		.sendPostAsync(API_NAME, createRequestConfig(), new AdyenRequest(), new AdyenRequestPathParam())
+		.get(5, TimeUnit.SECONDS));
+	Thread.sleep(100);
+	assertEquals(2, primaryConfigs.size());
+	assertTrue(secondaryConfigs.isEmpty());
+	assertEquals(1, hedgedClient.getHedgingMetrics().getCalls());
+	assertEquals(0.0, hedgedClient.getHedgingMetrics().getHedgeRate());
+    }
+
+    /**
+     * The secondary endpoint answers the hedge with a client error while the
+     * primary call is still in flight, the call waits for the primary endpoint.
+     */
+    @Test
+    public void test04ClientErrorWaitsForOtherEndpoint() throws Exception {
+	CompletableFuture<RestHttpClientResponse> primaryFuture = new CompletableFuture<>();
+	createClient(primaryFuture, CompletableFuture.completedFuture(createRestHttpClientResponse(422, PSP_RESPONSE)));
+
+	CompletableFuture<RestHttpClientResponse> future = hedgedClient.sendPostAsync(API_NAME, createRequestConfig(),
+		new AdyenRequest(), new AdyenRequestPathParam());
+	long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+	while (secondaryConfigs.isEmpty()) {
+	    assertTrue(System.nanoTime() < deadline, "the call is not hedged in time");
+	    Thread.sleep(5);
+	}
+	assertFalse(future.isDone());
+
+	RestHttpClientResponse primaryResponse = createRestHttpClientResponse(200, PSP_RESPONSE);
+	primaryFuture.complete(primaryResponse);
+	assertSame(primaryResponse, future.get(5, TimeUnit.SECONDS));
+	assertEquals(0, hedgedClient.getHedgingMetrics().getSecondaryWins());
+    }
+
+    /**
+     * Closing the client unregisters the MBean of its hedging metrics.
+     */
+    @Test
+    public void test05UnregistersHedgingMetricsOnClose() throws Exception {
+	createClient(new CompletableFuture<>(), new CompletableFuture<>());
+	ObjectName objectName = new ObjectName(
+		"com.ibm.payment.infra:type=Hedging,name=" + hedgedClient.getHedgingMetrics().getName());
+	MBeanServer mBeanServer = ManagementFactory.getPlatformMBeanServer();
+	assertTrue(mBeanServer.isRegistered(objectName));
+
+	hedgedClient.close();
+	assertFalse(mBeanServer.isRegistered(objectName));
+    }
+
+    @After
+    public void tearDown() throws Exception {
+	hedgedClient.close();
+    }
+}
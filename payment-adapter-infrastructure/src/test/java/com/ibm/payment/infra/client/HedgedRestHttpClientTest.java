@@ -0,0 +1,157 @@
+/*
+IBM Confidential
+IBM Sterling OMS Payment Integration Adapter
+(C) Copyright IBM Corp. 2022
+Licensed under the Apache License, Version 2.0 (the "License");
+you may not use this file except in compliance with the License.
+http://www.apache.org/licenses/LICENSE-2.0
+Unless required by applicable law or agreed to in writing, software
+distributed under the License is distributed on an "AS IS" BASIS,
+WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+See the License for the specific language governing permissions and
+limitations under the License.
+*/
+package com.ibm.payment.infra.client;
+
+import static com.ibm.payment.mapper.test.util.MockHelper.createAdyenRequest;
+import static com.ibm.payment.mapper.test.util.MockHelper.createHedgingConfig;
+import static com.ibm.payment.mapper.test.util.MockHelper.createRequestConfig;
+import static com.ibm.payment.mapper.test.util.MockHelper.createRetryConfig;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.File;
+import java.util.Collections;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.After;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import com.ibm.adapter.payment.enums.ServiceType;
+import com.ibm.model.adyen.AdyenRequest;
+import com.ibm.payment.infra.context.AdyenRequestPathParam;
+import com.ibm.payment.infra.exception.PaymentConnectionException;
+import com.ibm.payment.infra.metrics.HedgingMetrics;
+import com.ibm.payment.infra.response.RestHttpClientResponse;
+import com.ibm.payment.infra.retry.JournalingRestHttpClient;
+import com.ibm.payment.infra.retry.RetryScheduler;
+
+public class HedgedRestHttpClientTest {
+
+    private static final String API_NAME = ServiceType.PROCESS_PAYMENTS.toString();
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    private final AtomicInteger secondaryCalls = new AtomicInteger();
+    private RetryScheduler retryScheduler;
+    private HedgedRestHttpClient<AdyenRequest, AdyenRequestPathParam> hedgedClient;
+
+    /**
+     * @return A hedged client whose primary endpoint is refused and journaled.
+     */
+    private HedgedRestHttpClient<AdyenRequest, AdyenRequestPathParam> createClient(
+	    IRestHttpClient<AdyenRequest, AdyenRequestPathParam> secondaryClient) throws Exception {
+	IRestHttpClient<AdyenRequest, AdyenRequestPathParam> refusedClient = (apiName, requestConfig, request,
+		requestPathParams) -> {
+	    throw new PaymentConnectionException("IOException occurs while making HttpClient connection");
+	};
+	// no replay during the test
+	retryScheduler = new RetryScheduler(refusedClient,
+		createRetryConfig(new File(folder.getRoot(), "retry.journal"), 60000));
+	HedgingConfig config = createHedgingConfig();
+	config.setThreads(4);
+	config.setTimeout(5000);
+	hedgedClient = new HedgedRestHttpClient<>(new JournalingRestHttpClient(refusedClient, retryScheduler),
+		(apiName, requestConfig, request, requestPathParams) -> {
+		    secondaryCalls.incrementAndGet();
+		    return secondaryClient.sendPost(apiName, requestConfig, request, requestPathParams);
+		}, config);
+	return hedgedClient;
+    }
+
+    /**
+     * A connection failure of the primary endpoint is journaled and fails over
+     * to the secondary endpoint.
+     */
+    @Test
+    public void test01ConnectionFailureFailsOver() throws Exception {
+	createClient((apiName, requestConfig, request, requestPathParams) -> {
+	    RestHttpClientResponse response = new RestHttpClientResponse();
+	    response.setResponseCode(200);
+	    return response;
+	});
+
+	assertEquals(200, hedgedClient
+		.sendPost(API_NAME, createRequestConfig(), createAdyenRequest(), new AdyenRequestPathParam())
+		.getResponseCode());
+	assertEquals(1, secondaryCalls.get());
+	HedgingMetrics hedgingMetrics = hedgedClient.getHedgedClient().getHedgingMetrics();
+	// the secondary call is a failover, or a hedge if journaling the failure took longer than the delay
+	assertEquals(1, hedgingMetrics.getFailoverCalls() + hedgingMetrics.getHedgedCalls());
+	long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+	while (retryScheduler.getPendingCalls() == 0 && System.nanoTime() < deadline) {
+	    Thread.sleep(5);
+	}
+	assertEquals(1, retryScheduler.getPendingCalls());
+    }
+
+    /**
+     * The connection failure of the primary endpoint is thrown when the secondary
+     * endpoint fails too, even if the secondary one fails first, and the calls without idempotency key are not hedged.
+     */
+    @Test
+    public void test02ConnectionFailureOfBothEndpoints() throws Exception {
+	createClient((apiName, requestConfig, request, requestPathParams) -> {
+	    throw new PaymentConnectionException("Connection refused");
+	});
+
+	PaymentConnectionException exception = assertThrows(PaymentConnectionException.class,
+		() -> hedgedClient.sendPost(API_NAME, createRequestConfig(), createAdyenRequest(),
+			new AdyenRequestPathParam()));
+	assertEquals("IOException occurs while making HttpClient connection", exception.getErrorMessage());
+	assertEquals(1, retryScheduler.getPendingCalls());
+
+	assertThrows(PaymentConnectionException.class, () -> hedgedClient.sendPost(API_NAME,
+		Collections.emptyMap(), createAdyenRequest(), new AdyenRequestPathParam()));
+	assertEquals(1, secondaryCalls.get());
+    }
+
+    /**
+     * An interrupted caller stops waiting with a connection failure and keeps
+     * its interrupt flag.
+     */
+    @Test
+    public void test03InterruptedWait() throws Exception {
+	CountDownLatch latch = new CountDownLatch(1);
+	createClient((apiName, requestConfig, request, requestPathParams) -> {
+	    try {
+		latch.await();
+	    } catch (InterruptedException e) {
+		Thread.currentThread().interrupt();
+	    }
+	    throw new PaymentConnectionException("Connection refused");
+	});
+
+	Thread.currentThread().interrupt();
+	try {
+	    assertThrows(PaymentConnectionException.class, () -> hedgedClient.sendPost(API_NAME, createRequestConfig(),
+		    createAdyenRequest(), new AdyenRequestPathParam()));
+	    assertTrue(Thread.currentThread().isInterrupted());
+	} finally {
+	    Thread.interrupted();
+	    latch.countDown();
+	}
+    }
+
+    @After
+    public void tearDown() throws Exception {
+	hedgedClient.close();
+	retryScheduler.close();
+    }
+}
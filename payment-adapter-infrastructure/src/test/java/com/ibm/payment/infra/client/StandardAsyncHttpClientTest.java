@@ -0,0 +1,150 @@
+/*
+IBM Confidential
+IBM Sterling OMS Payment Integration Adapter
+(C) Copyright IBM Corp. 2022
+Licensed under the Apache License, Version 2.0 (the "License");
+you may not use this file except in compliance with the License.
+http://www.apache.org/licenses/LICENSE-2.0
+Unless required by applicable law or agreed to in writing, software
+distributed under the License is distributed on an "AS IS" BASIS,
+WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+See the License for the specific language governing permissions and
+limitations under the License.
+*/
+package com.ibm.payment.infra.client;
+
+import static com.ibm.payment.mapper.test.util.MockHelper.createAdyenRequest;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.util.HashMap;
+import java.util.Properties;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import com.ibm.adapter.payment.enums.ServiceType;
+import com.ibm.model.adyen.AdyenRequest;
+import com.ibm.payment.infra.context.AdyenRequestPathParam;
+import com.ibm.payment.infra.exception.PaymentConnectionException;
+import com.ibm.payment.infra.response.RestHttpClientResponse;
+import com.ibm.payment.infra.util.RestHttpClientUtils;
+import com.ibm.payment.infra.util.RestHttpClients;
+import com.ibm.payment.mapper.test.util.MockHelper;
+
+import lombok.SneakyThrows;
+import okhttp3.mockwebserver.Dispatcher;
+import okhttp3.mockwebserver.MockResponse;
+import okhttp3.mockwebserver.MockWebServer;
+import okhttp3.mockwebserver.RecordedRequest;
+import okhttp3.mockwebserver.SocketPolicy;
+
+public class StandardAsyncHttpClientTest {
+    public MockWebServer mockWebServer;
+    public IAsyncRestHttpClient<AdyenRequest, AdyenRequestPathParam> asyncRestHttpClient;
+
+    @SuppressWarnings("unchecked")
+    @SneakyThrows
+    @Before
+    public void init() {
+	mockWebServer = new MockWebServer();
+	mockWebServer.start(8085);
+	asyncRestHttpClient = RestHttpClientUtils.getAsyncRestHttpClient();
+    }
+
+    @Test
+    public void test01CapturePositive() throws Exception {
+	String expectedResponseMessage = "{\"pspReference\":\"D84R7TVTWTTFWR82\",\"status\":\"received\"}";
+	CountDownLatch answer = new CountDownLatch(1);
+	mockWebServer.setDispatcher(new Dispatcher() {
+	    @Override
+	    public MockResponse dispatch(RecordedRequest recordedRequest) throws InterruptedException {
+		answer.await(5, TimeUnit.SECONDS);
+		return new MockResponse().setResponseCode(201).setBody(expectedResponseMessage);
+	    }
+	});
+	AdyenRequestPathParam adyenRequestPathParam = new AdyenRequestPathParam();
+	adyenRequestPathParam.setPspPaymentReference("D84R7TVTWTTFWR82");
+
+	CompletableFuture<RestHttpClientResponse> future = asyncRestHttpClient.sendPostAsync(
+		ServiceType.CAPTURE.toString(), new HashMap<>(), createAdyenRequest(), adyenRequestPathParam);
+	// the stage is registered before the answer, so it runs on the thread
+	// completing the future, which is a callback thread of the client
+	CompletableFuture<String> completingThread = future
+		.thenApply(restHttpClientResponse -> Thread.currentThread().getName());
+	answer.countDown();
+	String threadName = completingThread.get(5, TimeUnit.SECONDS);
+	String callbackThreadPrefix = ((StandardAsyncHttpClient<?, ?>) asyncRestHttpClient).getConnectionPoolMetrics()
+		.getName() + "-callback-";
+	assertTrue(threadName, threadName.startsWith(callbackThreadPrefix));
+	RestHttpClientResponse response = future.get();
+	assertEquals(201, response.getResponseCode());
+	assertEquals(expectedResponseMessage, response.getResponse());
+	assertEquals("/v68/payments/D84R7TVTWTTFWR82/captures", mockWebServer.takeRequest().getPath());
+    }
+
+    @Test
+    public void test02ErrorStatusReturned() throws Exception {
+	String expectedResponseMessage = "{\"status\":422,\"errorCode\":\"167\"}";
+	mockWebServer.enqueue(new MockResponse().setResponseCode(422).setBody(expectedResponseMessage));
+
+	RestHttpClientResponse response = asyncRestHttpClient.sendPostAsync(ServiceType.PROCESS_PAYMENTS.toString(),
+		new HashMap<>(), createAdyenRequest(), new AdyenRequestPathParam()).get(5, TimeUnit.SECONDS);
+	assertEquals(422, response.getResponseCode());
+	assertEquals(expectedResponseMessage, response.getResponse());
+    }
+
+    @Test
+    public void test03ConnectionFailure() throws Exception {
+	mockWebServer.enqueue(new MockResponse().setSocketPolicy(SocketPolicy.NO_RESPONSE));
+
+	CompletableFuture<RestHttpClientResponse> future = asyncRestHttpClient.sendPostAsync(
+		ServiceType.PROCESS_PAYMENTS.toString(), new HashMap<>(), createAdyenRequest(),
+		new AdyenRequestPathParam());
+	try {
+	    future.get(5, TimeUnit.SECONDS);
+	} catch (ExecutionException e) {
+	    assertTrue(e.getCause() instanceof PaymentConnectionException);
+	}
+	assertTrue(future.isCompletedExceptionally());
+    }
+
+    /**
+     * A request which cannot be sent fails its future and gives back the
+     * permission of the circuit breaker without recording a failure.
+     */
+    @SuppressWarnings("unchecked")
+    @Test
+    public void test04ClosedClientFailsFuture() throws Exception {
+	Properties properties = MockHelper.createAdyenProperties();
+	properties.setProperty(CircuitBreakerConfig.CIRCUIT_BREAKER_ENABLED, "true");
+	StandardAsyncHttpClient<AdyenRequest, AdyenRequestPathParam> closedClient =
+		(StandardAsyncHttpClient<AdyenRequest, AdyenRequestPathParam>) new RestHttpClients(properties)
+			.getAsyncRestHttpClient();
+	closedClient.close();
+
+	CompletableFuture<RestHttpClientResponse> future = closedClient.sendPostAsync(
+		ServiceType.PROCESS_PAYMENTS.toString(), new HashMap<>(), createAdyenRequest(),
+		new AdyenRequestPathParam());
+	try {
+	    future.get(5, TimeUnit.SECONDS);
+	} catch (ExecutionException e) {
+	    assertTrue(e.getCause() instanceof PaymentConnectionException);
+	}
+	assertTrue(future.isCompletedExceptionally());
+	CircuitBreaker circuitBreaker = closedClient.getCircuitBreaker(ServiceType.PROCESS_PAYMENTS.toString());
+	assertEquals(CircuitBreaker.State.CLOSED, circuitBreaker.getState());
+	assertEquals(0f, circuitBreaker.getFailureRate(), 0f);
+	assertEquals(0, mockWebServer.getRequestCount());
+    }
+
+    @After
+    public void tearDown() throws Exception {
+	mockWebServer.shutdown();
+    }
+}
@@ -14,17 +14,32 @@ limitations under the License.
 package com.ibm.payment.infra.client;
 
 import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
 
+import java.io.ByteArrayOutputStream;
+import java.lang.management.ManagementFactory;
 import java.math.BigDecimal;
 import java.util.HashMap;
 import java.util.Map;
+import java.util.Properties;
 import java.util.concurrent.TimeUnit;
 
+import javax.management.ObjectName;
+
 import com.ibm.model.adyen.AdyenRequest;
+import com.ibm.model.adyen.AdyenResponse;
 import com.ibm.model.adyen.Amount;
 import com.ibm.payment.infra.context.AdyenRequestPathParam;
+import com.ibm.payment.infra.exception.PaymentConnectionException;
+import com.ibm.payment.infra.exception.PaymentRejectedException;
+import com.ibm.payment.infra.metrics.ConnectionPoolSnapshot;
+import com.ibm.payment.infra.requestHandlers.implementation.adyen.RequestHandlersImpl;
 import com.ibm.payment.infra.response.RestHttpClientResponse;
+import com.ibm.payment.infra.util.InfraServiceUtils;
+import com.ibm.payment.infra.util.JsonCodec;
 import com.ibm.payment.infra.util.RestHttpClientUtils;
 import org.junit.After;
 import org.junit.Before;
@@ -38,6 +53,7 @@ import com.ibm.adapter.payment.enums.ServiceType;
 import lombok.SneakyThrows;
 import okhttp3.mockwebserver.MockResponse;
 import okhttp3.mockwebserver.MockWebServer;
+import okhttp3.mockwebserver.RecordedRequest;
 import okhttp3.mockwebserver.SocketPolicy;
 
 @TestMethodOrder(MethodOrderer.MethodName.class)
@@ -844,6 +860,200 @@ public class StandardHttpClientTest {
 	assertEquals(expectedResponseMessage, restHttpClientResponse.getResponse());
     }
 
+    @Test
+    public void test26PooledConnectionReused() throws Exception {
+	AdyenRequest adyenRequest = new AdyenRequest();
+	adyenRequest.setMerchantAccount("IBMTest533ECOM");
+	adyenRequest.setReference("00001");
+
+	Map<String, String> config = new HashMap<>();
+	AdyenRequestPathParam pathParam = new AdyenRequestPathParam();
+	pathParam.setPspPaymentReference(pspReference);
+
+	String expectedResponseMessage = "{\"merchantAccount\":\"IBMTest533ECOM\",\"paymentPspReference\":"
+		+ pspReference + ",\"pspReference\":\"JP3W2WDJMGXXGN82\","
+		+ "\"reference\":\"00001\",\"status\":\"received\"}";
+	mockWebServer.enqueue(new MockResponse().setResponseCode(200).setBody(expectedResponseMessage));
+	mockWebServer.enqueue(new MockResponse().setResponseCode(200).setBody(expectedResponseMessage));
+
+	restHttpClient.sendPost(ServiceType.CAPTURE.toString(), config, adyenRequest, pathParam);
+	restHttpClient.sendPost(ServiceType.CAPTURE.toString(), config, adyenRequest, pathParam);
+
+	// assert, second request is sent over the same pooled connection
+	assertEquals(0, mockWebServer.takeRequest().getSequenceNumber());
+	assertEquals(1, mockWebServer.takeRequest().getSequenceNumber());
+    }
+
+    @Test
+    public void test27StreamingModeParsesResponseStream() throws Exception {
+	AdyenRequest adyenRequest = new AdyenRequest();
+	adyenRequest.setMerchantAccount("IBMTest533ECOM");
+	adyenRequest.setReference("00001");
+
+	AdyenRequestPathParam pathParam = new AdyenRequestPathParam();
+	pathParam.setPspPaymentReference(pspReference);
+
+	String expectedResponseMessage = "{\"pspReference\":\"JP3W2WDJMGXXGN82\",\"status\":\"received\"}";
+	mockWebServer.enqueue(new MockResponse().setResponseCode(201).setBody(expectedResponseMessage));
+	mockWebServer.enqueue(new MockResponse().setResponseCode(422).setBody("{\"errorCode\":\"167\"}"));
+
+	RequestHandlersImpl requestHandler = new RequestHandlersImpl();
+	HttpClientConfig httpClientConfig = HttpClientConfig.fromProperties(requestHandler.adyenProperties);
+	httpClientConfig.setStreamingMode(true);
+	try (StandardHttpClient<AdyenRequest, AdyenRequestPathParam> streamingClient = new StandardHttpClient<>(
+		requestHandler, httpClientConfig, JsonCodec.getAdyenResponseReader())) {
+	    RestHttpClientResponse response = streamingClient.sendPost(ServiceType.CAPTURE.toString(),
+		    new HashMap<>(), adyenRequest, pathParam);
+	    assertEquals(201, response.getResponseCode());
+	    assertNull(response.getResponse());
+	    assertEquals("JP3W2WDJMGXXGN82", ((AdyenResponse) response.getResponseBody()).getPspReference());
+	    assertEquals("JP3W2WDJMGXXGN82", InfraServiceUtils.getResponse(response).getPspReference());
+	    RecordedRequest recordedRequest = mockWebServer.takeRequest();
+	    assertEquals("{\"reference\":\"00001\",\"merchantAccount\":\"IBMTest533ECOM\"}",
+		    recordedRequest.getBody().readUtf8());
+	    // the streamed request is sent chunked, its size is counted while it is written
+	    assertEquals("chunked", recordedRequest.getHeader("Transfer-Encoding"));
+	    JsonStreamingEntity entity = new JsonStreamingEntity(adyenRequest);
+	    assertEquals(-1, StandardHttpClient.contentLength(entity));
+	    entity.writeTo(new ByteArrayOutputStream());
+	    assertEquals(recordedRequest.getBodySize(), StandardHttpClient.contentLength(entity));
+
+	    // error responses are still read as string for the error mapping
+	    RestHttpClientResponse errorResponse = streamingClient.sendPost(ServiceType.CAPTURE.toString(),
+		    new HashMap<>(), adyenRequest, pathParam);
+	    assertEquals(422, errorResponse.getResponseCode());
+	    assertEquals("{\"errorCode\":\"167\"}", errorResponse.getResponse());
+	    assertNull(errorResponse.getResponseBody());
+	}
+    }
+
+    @Test
+    public void test28ConnectionPoolMetrics() throws Exception {
+	AdyenRequest adyenRequest = new AdyenRequest();
+	adyenRequest.setMerchantAccount("IBMTest533ECOM");
+	adyenRequest.setReference("00001");
+
+	AdyenRequestPathParam pathParam = new AdyenRequestPathParam();
+	pathParam.setPspPaymentReference(pspReference);
+	mockWebServer.enqueue(new MockResponse().setResponseCode(201).setBody("{\"status\":\"received\"}"));
+	mockWebServer.enqueue(new MockResponse().setResponseCode(201).setBody("{\"status\":\"received\"}"));
+
+	RequestHandlersImpl requestHandler = new RequestHandlersImpl();
+	ObjectName objectName;
+	try (StandardHttpClient<AdyenRequest, AdyenRequestPathParam> client = new StandardHttpClient<>(requestHandler,
+		HttpClientConfig.fromProperties(requestHandler.adyenProperties))) {
+	    client.sendPost(ServiceType.CAPTURE.toString(), new HashMap<>(), adyenRequest, pathParam);
+	    client.sendPost(ServiceType.CAPTURE.toString(), new HashMap<>(), adyenRequest, pathParam);
+
+	    ConnectionPoolSnapshot snapshot = client.getConnectionPoolMetrics().snapshot();
+	    assertEquals(2, snapshot.getLeaseCount());
+	    assertEquals(1, snapshot.getConnectionsCreated());
+	    assertEquals(0, snapshot.getLeased());
+	    assertEquals(1, snapshot.getAvailable());
+	    assertEquals(0, snapshot.getConnectionsClosed());
+	    assertEquals(40, snapshot.getMaxTotal());
+	    objectName = new ObjectName(
+		    "com.ibm.payment.infra:type=ConnectionPool,name=" + client.getConnectionPoolMetrics().getName());
+	    assertEquals(1, ManagementFactory.getPlatformMBeanServer().getAttribute(objectName, "Available"));
+	}
+	// unregistered once the client is closed
+	assertFalse(ManagementFactory.getPlatformMBeanServer().isRegistered(objectName));
+    }
+
+    @Test
+    public void test29CircuitBreakerFailsFast() throws Exception {
+	AdyenRequest adyenRequest = new AdyenRequest();
+	adyenRequest.setMerchantAccount("IBMTest533ECOM");
+	adyenRequest.setReference("00001");
+
+	AdyenRequestPathParam pathParam = new AdyenRequestPathParam();
+	pathParam.setPspPaymentReference(pspReference);
+	mockWebServer.enqueue(new MockResponse().setResponseCode(503).setBody("{\"status\":503}"));
+	mockWebServer.enqueue(new MockResponse().setResponseCode(503).setBody("{\"status\":503}"));
+
+	RequestHandlersImpl requestHandler = new RequestHandlersImpl();
+	Properties properties = new Properties();
+	properties.putAll(requestHandler.adyenProperties);
+	properties.setProperty(CircuitBreakerConfig.SLIDING_WINDOW_SIZE, "2");
+	properties.setProperty(CircuitBreakerConfig.MINIMUM_NUMBER_OF_CALLS, "2");
+	try (StandardHttpClient<AdyenRequest, AdyenRequestPathParam> client = new StandardHttpClient<>(requestHandler,
+		HttpClientConfig.fromProperties(properties))) {
+	    client.sendPost(ServiceType.CAPTURE.toString(), new HashMap<>(), adyenRequest, pathParam);
+	    client.sendPost(ServiceType.CAPTURE.toString(), new HashMap<>(), adyenRequest, pathParam);
+	    assertEquals(CircuitBreaker.State.OPEN, client.getCircuitBreaker(ServiceType.CAPTURE.toString()).getState());
+
+	    assertThrows(PaymentConnectionException.class, () -> client.sendPost(ServiceType.CAPTURE.toString(),
+		    new HashMap<>(), adyenRequest, pathParam));
+	    // the open circuit does not reach the payment provider
+	    assertEquals(2, mockWebServer.getRequestCount());
+	    // the other endpoints are not affected
+	    assertEquals(CircuitBreaker.State.CLOSED, client.getCircuitBreaker(ServiceType.REFUND.toString()).getState());
+	}
+    }
+
+    @Test
+    public void test30RateLimiterBacksOffOnThrottling() throws Exception {
+	AdyenRequest adyenRequest = new AdyenRequest();
+	adyenRequest.setMerchantAccount("IBMTest533ECOM");
+	adyenRequest.setReference("00001");
+
+	AdyenRequestPathParam pathParam = new AdyenRequestPathParam();
+	pathParam.setPspPaymentReference(pspReference);
+	mockWebServer.enqueue(new MockResponse().setResponseCode(429).setBody("{\"status\":429}"));
+	mockWebServer.enqueue(new MockResponse().setResponseCode(201).setBody("{\"status\":\"received\"}"));
+
+	RequestHandlersImpl requestHandler = new RequestHandlersImpl();
+	Properties properties = new Properties();
+	properties.putAll(requestHandler.adyenProperties);
+	properties.setProperty(RateLimiterConfig.RATE_LIMIT_ENABLED, "true");
+	properties.setProperty(RateLimiterConfig.MAX_RATE, "20");
+	try (StandardHttpClient<AdyenRequest, AdyenRequestPathParam> client = new StandardHttpClient<>(requestHandler,
+		HttpClientConfig.fromProperties(properties))) {
+	    RestHttpClientResponse restHttpClientResponse = client.sendPost(ServiceType.CAPTURE.toString(),
+		    new HashMap<>(), adyenRequest, pathParam);
+	    assertEquals(429, restHttpClientResponse.getResponseCode());
+	    AdaptiveRateLimiter rateLimiter = client.getRateLimiter("IBMTest533ECOM");
+	    assertEquals(10.0, rateLimiter.getRate());
+	    assertEquals(1, rateLimiter.getThrottledResponses());
+
+	    client.sendPost(ServiceType.CAPTURE.toString(), new HashMap<>(), adyenRequest, pathParam);
+	    assertEquals(10.1, rateLimiter.getRate(), 0.0001);
+	    // the other merchant accounts are not slowed down
+	    assertEquals(20.0, client.getRateLimiter("IBMTest534ECOM").getRate());
+	}
+    }
+
+    @Test
+    public void test31OpenCircuitDoesNotTakeRate() throws Exception {
+	AdyenRequest adyenRequest = new AdyenRequest();
+	adyenRequest.setMerchantAccount("IBMTest533ECOM");
+	adyenRequest.setReference("00001");
+
+	AdyenRequestPathParam pathParam = new AdyenRequestPathParam();
+	pathParam.setPspPaymentReference(pspReference);
+
+	RequestHandlersImpl requestHandler = new RequestHandlersImpl();
+	Properties properties = new Properties();
+	properties.putAll(requestHandler.adyenProperties);
+	properties.setProperty(CircuitBreakerConfig.SLIDING_WINDOW_SIZE, "2");
+	properties.setProperty(CircuitBreakerConfig.MINIMUM_NUMBER_OF_CALLS, "2");
+	properties.setProperty(RateLimiterConfig.RATE_LIMIT_ENABLED, "true");
+	properties.setProperty(RateLimiterConfig.MAX_RATE, "1");
+	properties.setProperty(RateLimiterConfig.MAX_WAIT, "0");
+	try (StandardHttpClient<AdyenRequest, AdyenRequestPathParam> client = new StandardHttpClient<>(requestHandler,
+		HttpClientConfig.fromProperties(properties))) {
+	    CircuitBreaker circuitBreaker = client.getCircuitBreaker(ServiceType.CAPTURE.toString());
+	    circuitBreaker.onFailure(0);
+	    circuitBreaker.onFailure(0);
+
+	    assertThrows(PaymentRejectedException.class, () -> client.sendPost(ServiceType.CAPTURE.toString(),
+		    new HashMap<>(), adyenRequest, pathParam));
+	    // the call permitted in the current second is still available
+	    assertEquals(0, client.getRateLimiter("IBMTest533ECOM").reserve(0));
+	    assertEquals(0, mockWebServer.getRequestCount());
+	}
+    }
+
     @SneakyThrows
     @After
     public void tearDown() {
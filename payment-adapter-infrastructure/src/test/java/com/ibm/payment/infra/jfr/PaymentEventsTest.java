@@ -0,0 +1,81 @@
+/*
+IBM Confidential
+IBM Sterling OMS Payment Integration Adapter
+(C) Copyright IBM Corp. 2022
+Licensed under the Apache License, Version 2.0 (the "License");
+you may not use this file except in compliance with the License.
+http://www.apache.org/licenses/LICENSE-2.0
+Unless required by applicable law or agreed to in writing, software
+distributed under the License is distributed on an "AS IS" BASIS,
+WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+See the License for the specific language governing permissions and
+limitations under the License.
+*/
+package com.ibm.payment.infra.jfr;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import org.json.JSONObject;
+import org.junit.Test;
+
+import com.ibm.adapter.payment.enums.ServiceType;
+import com.ibm.payment.infra.exception.PaymentException;
+import com.ibm.payment.infra.response.ExceptionError;
+
+import jdk.jfr.Recording;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordingFile;
+
+public class PaymentEventsTest {
+
+    @Test
+    public void test01NoEventWithoutRecording() {
+	assertNull(PaymentEvents.beginCall());
+	assertNull(PaymentEvents.beginOperation());
+	// a null event is ignored
+	PaymentEvents.commitCall(null, ServiceType.CAPTURE.toString(), "merchant", 200, 10, 20, false);
+    }
+
+    @Test
+    public void test02EventsCommittedWhileRecording() throws Exception {
+	Path recordingFile = Files.createTempFile("payment-events", ".jfr");
+	try (Recording recording = new Recording()) {
+	    recording.enable(PaymentCallEvent.NAME);
+	    recording.enable(PaymentOperationEvent.NAME);
+	    recording.start();
+
+	    Object paymentCallEvent = PaymentEvents.beginCall();
+	    assertNotNull(paymentCallEvent);
+	    PaymentEvents.commitCall(paymentCallEvent, ServiceType.CAPTURE.toString(), "TestMerchant", 201, 120, 240,
+		    false);
+	    PaymentEvents.commitOperation(PaymentEvents.beginOperation(), ServiceType.REFUND.toString(),
+		    "TestMerchant", new PaymentException(ExceptionError.PAY0004, new JSONObject()));
+
+	    recording.stop();
+	    recording.dump(recordingFile);
+	}
+	List<RecordedEvent> events = RecordingFile.readAllEvents(recordingFile).stream()
+		.filter(event -> event.getEventType().getName().startsWith("com.ibm.payment."))
+		.collect(Collectors.toList());
+	Files.delete(recordingFile);
+
+	assertEquals(2, events.size());
+	RecordedEvent callEvent = events.stream()
+		.filter(event -> event.getEventType().getName().equals(PaymentCallEvent.NAME)).findFirst().get();
+	assertEquals("CAPTURE", callEvent.getString("serviceType"));
+	assertEquals("TestMerchant", callEvent.getString("merchantAccount"));
+	assertEquals(201, callEvent.getInt("httpStatus"));
+	assertEquals(240, callEvent.getLong("responseBytes"));
+	RecordedEvent operationEvent = events.stream()
+		.filter(event -> event.getEventType().getName().equals(PaymentOperationEvent.NAME)).findFirst().get();
+	assertEquals("PAY0004", operationEvent.getString("outcome"));
+	assertEquals(false, operationEvent.getBoolean("retry"));
+    }
+}
@@ -0,0 +1,76 @@
+/*
+IBM Confidential
+IBM Sterling OMS Payment Integration Adapter
+(C) Copyright IBM Corp. 2022
+Licensed under the Apache License, Version 2.0 (the "License");
+you may not use this file except in compliance with the License.
+http://www.apache.org/licenses/LICENSE-2.0
+Unless required by applicable law or agreed to in writing, software
+distributed under the License is distributed on an "AS IS" BASIS,
+WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+See the License for the specific language governing permissions and
+limitations under the License.
+*/
+package com.ibm.payment.infra.metrics;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.apache.http.HttpHost;
+import org.apache.http.conn.ConnectionRequest;
+import org.apache.http.conn.routing.HttpRoute;
+import org.apache.http.impl.conn.PoolingHttpClientConnectionManager;
+import org.junit.Test;
+
+public class ConnectionPoolMetricsTest {
+
+    @Test
+    public void test01SaturationAlarm() throws Exception {
+	List<ConnectionPoolSnapshot> alarms = new ArrayList<>();
+	PaymentMetrics.registerReporter(new IMetricsReporter() {
+	    @Override
+	    public long getReportIntervalSeconds() {
+		return 0;
+	    }
+
+	    @Override
+	    public void report(List<OperationMetricsSnapshot> snapshots) {
+	    }
+
+	    @Override
+	    public void poolSaturated(ConnectionPoolSnapshot snapshot) {
+		alarms.add(snapshot);
+	    }
+	});
+	try (PoolingHttpClientConnectionManager connectionManager = new PoolingHttpClientConnectionManager()) {
+	    connectionManager.setMaxTotal(2);
+	    ConnectionPoolMetrics connectionPoolMetrics = new ConnectionPoolMetrics("test-pool", connectionManager, 90);
+	    HttpRoute route = new HttpRoute(new HttpHost("localhost", 8087));
+
+	    ConnectionRequest first = connectionManager.requestConnection(route, null);
+	    first.get(1, TimeUnit.SECONDS);
+	    connectionPoolMetrics.recordLease(TimeUnit.MILLISECONDS.toNanos(1));
+	    assertFalse(connectionPoolMetrics.isSaturated());
+	    assertTrue(alarms.isEmpty());
+
+	    ConnectionRequest second = connectionManager.requestConnection(route, null);
+	    second.get(1, TimeUnit.SECONDS);
+	    connectionPoolMetrics.recordLease(TimeUnit.MILLISECONDS.toNanos(1));
+	    connectionPoolMetrics.recordLeaseTimeout();
+
+	    assertTrue(connectionPoolMetrics.isSaturated());
+	    assertEquals(2, connectionPoolMetrics.getSaturationCount());
+	    // the alarm is raised once per interval
+	    assertEquals(1, alarms.size());
+	    assertEquals("test-pool", alarms.get(0).getName());
+	    assertEquals(2, alarms.get(0).getLeased());
+	    assertEquals(1, connectionPoolMetrics.getLeaseTimeouts());
+	    assertEquals(2, connectionPoolMetrics.getLeaseCount());
+	}
+    }
+}
@@ -0,0 +1,124 @@
+/*
+IBM Confidential
+IBM Sterling OMS Payment Integration Adapter
+(C) Copyright IBM Corp. 2022
+Licensed under the Apache License, Version 2.0 (the "License");
+you may not use this file except in compliance with the License.
+http://www.apache.org/licenses/LICENSE-2.0
+Unless required by applicable law or agreed to in writing, software
+distributed under the License is distributed on an "AS IS" BASIS,
+WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+See the License for the specific language governing permissions and
+limitations under the License.
+*/
+package com.ibm.payment.infra.metrics;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+
+import java.lang.management.ManagementFactory;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import javax.management.ObjectName;
+
+import org.json.JSONObject;
+import org.junit.Test;
+
+import com.ibm.adapter.payment.enums.ServiceType;
+import com.ibm.payment.infra.exception.PaymentConfigurationException;
+import com.ibm.payment.infra.exception.PaymentConnectionException;
+import com.ibm.payment.infra.exception.PaymentException;
+import com.ibm.payment.infra.response.ExceptionError;
+
+public class PaymentMetricsTest {
+
+    @Test
+    public void test01OutcomeOfExceptions() {
+	assertEquals(PaymentOutcome.CONNECTION_RETRY, PaymentOutcome.of(new PaymentConnectionException("timeout")));
+	assertEquals(PaymentOutcome.PAY0001,
+		PaymentOutcome.of(new PaymentException(ExceptionError.PAY0001, new JSONObject())));
+	assertEquals(PaymentOutcome.PAY0005,
+		PaymentOutcome.of(new PaymentConfigurationException(ExceptionError.PAY0005, new JSONObject())));
+	assertEquals(PaymentOutcome.OTHER_FAILURE, PaymentOutcome.of(new IllegalStateException()));
+    }
+
+    @Test
+    public void test02RecordLatencyAndOutcomes() {
+	OperationMetrics operationMetrics = new OperationMetrics(ServiceType.CAPTURE);
+	for (int i = 1; i <= 100; i++) {
+	    operationMetrics.record(TimeUnit.MILLISECONDS.toNanos(i), PaymentOutcome.SUCCESS);
+	}
+	operationMetrics.record(TimeUnit.MILLISECONDS.toNanos(5), PaymentOutcome.CONNECTION_RETRY);
+	operationMetrics.recordRequestBytes(120);
+	operationMetrics.recordResponseBytes(240);
+
+	OperationMetricsSnapshot snapshot = operationMetrics.snapshot();
+
+	assertEquals(101, snapshot.getCount());
+	assertEquals(100, snapshot.getOutcomeCount(PaymentOutcome.SUCCESS));
+	assertEquals(1, snapshot.getOutcomeCount(PaymentOutcome.CONNECTION_RETRY));
+	// 2 significant digits, the values are within 1%
+	assertEquals(99000, snapshot.getLatencyMicrosAtPercentile(99.0), 1000);
+	assertEquals(100000, snapshot.getLatencyMaxMicros(), 1000);
+	assertEquals(120, snapshot.getRequestBytesMax(), 1);
+	assertEquals(240, snapshot.getResponseBytesMax(), 3);
+    }
+
+    @Test
+    public void test03OperationMetricsByApiName() {
+	assertSame(PaymentMetrics.getOperationMetrics(ServiceType.REFUND),
+		PaymentMetrics.getOperationMetrics(ServiceType.REFUND.toString()));
+	assertNull(PaymentMetrics.getOperationMetrics("UNKNOWN"));
+    }
+
+    @Test
+    public void test04ReportAndJmx() throws Exception {
+	PaymentMetrics.getOperationMetrics(ServiceType.REVERSE).record(1000, PaymentOutcome.PAY0004);
+	List<OperationMetricsSnapshot> reported = new ArrayList<>();
+	PaymentMetrics.registerReporter(new IMetricsReporter() {
+	    @Override
+	    public long getReportIntervalSeconds() {
+		return 0;
+	    }
+
+	    @Override
+	    public void report(List<OperationMetricsSnapshot> snapshots) {
+		reported.addAll(snapshots);
+	    }
+	});
+
+	PaymentMetrics.report();
+
+	assertEquals(ServiceType.values().length, reported.size());
+	ObjectName objectName = new ObjectName("com.ibm.payment.infra:type=PaymentMetrics,serviceType=REVERSE");
+	Object count = ManagementFactory.getPlatformMBeanServer().getAttribute(objectName, "Count");
+	assertEquals(true, (Long) count >= 1);
+    }
+
+    @Test
+    public void test05RecordPhases() {
+	PhaseTimings phaseTimings = new PhaseTimings();
+	PhaseTimings previous = PhaseTimings.attach(phaseTimings);
+	try {
+	    PaymentMetrics.recordPhase(ServiceType.CAPTURE.toString(), PaymentPhase.POST_PROCESS,
+		    TimeUnit.MILLISECONDS.toNanos(3));
+	    PaymentMetrics.recordPhase("UNKNOWN", PaymentPhase.PRE_PROCESS, TimeUnit.MILLISECONDS.toNanos(1));
+	    String mapped = PaymentMetrics.time(ServiceType.CAPTURE.toString(), PaymentPhase.REQUEST_MAPPING,
+		    () -> "mapped");
+	    assertEquals("mapped", mapped);
+	} finally {
+	    PhaseTimings.attach(previous);
+	}
+
+	assertEquals(TimeUnit.MILLISECONDS.toNanos(3), phaseTimings.getNanos(PaymentPhase.POST_PROCESS));
+	assertEquals(TimeUnit.MILLISECONDS.toNanos(1), phaseTimings.getNanos(PaymentPhase.PRE_PROCESS));
+	assertEquals(Long.valueOf(3000), phaseTimings.toMicros().get(PaymentPhase.POST_PROCESS));
+	assertNull(PhaseTimings.current());
+	OperationMetricsSnapshot snapshot = PaymentMetrics.getOperationMetrics(ServiceType.CAPTURE).snapshot();
+	assertEquals(3000, snapshot.getPhaseMicrosAtPercentile(PaymentPhase.POST_PROCESS, 100.0), 30);
+	assertEquals(1, snapshot.getPhaseHistogram(PaymentPhase.REQUEST_MAPPING).getTotalCount());
+    }
+}
@@ -14,9 +14,15 @@ limitations under the License.
 package com.ibm.payment.infra.requestHandlers.implementation.adyen;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.util.HashMap;
+import java.util.Map;
 
 import com.ibm.model.adyen.AdyenRequest;
 import com.ibm.payment.infra.context.AdyenRequestPathParam;
+import com.ibm.payment.infra.util.IdempotencyKeys;
 import org.apache.http.client.config.RequestConfig;
 import org.junit.Test;
 import org.junit.jupiter.api.MethodOrderer;
@@ -94,4 +100,40 @@ public class RequestHandlersImplTest {
 
 	assertEquals(expectedURL, actualURL);
     }
+
+    @Test
+    public void test06UnknownApiNameGetResorcesURL() throws Exception {
+
+	String actualURL = request.getResourceURL("UNKNOWN", new AdyenRequestPathParam());
+
+	assertEquals("", actualURL);
+    }
+
+    @Test
+    public void test07GetHeaderSharedPerContentType() throws Exception {
+
+	Map<String, String> requestConfig = new HashMap<>();
+	requestConfig.put("content-type", "application/json");
+
+	Map<String, String> header = request.getHeader(requestConfig, new AdyenRequest());
+
+	assertEquals("application/json", header.get("content-type"));
+	assertEquals(2, header.size());
+	assertSame(header, request.getHeader(requestConfig, new AdyenRequest()));
+	assertThrows(UnsupportedOperationException.class, () -> header.put("x-api-key", "changed"));
+    }
+
+    @Test
+    public void test08GetHeaderWithIdempotencyKey() throws Exception {
+
+	Map<String, String> requestConfig = new HashMap<>();
+	requestConfig.put(IdempotencyKeys.IDEMPOTENCY_KEY, "5f0c3c1e-7d4b-3f2a-9c1d-2b7e8f6a4d10");
+
+	Map<String, String> header = request.getHeader(requestConfig, new AdyenRequest());
+
+	assertEquals("5f0c3c1e-7d4b-3f2a-9c1d-2b7e8f6a4d10", header.get("Idempotency-Key"));
+	assertEquals(3, header.size());
+	// the shared headers are not modified
+	assertEquals(2, request.getHeader(new HashMap<>(), new AdyenRequest()).size());
+    }
 }
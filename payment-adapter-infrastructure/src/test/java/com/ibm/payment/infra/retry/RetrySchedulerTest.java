@@ -0,0 +1,223 @@
+/*
+IBM Confidential
+IBM Sterling OMS Payment Integration Adapter
+(C) Copyright IBM Corp. 2022
+Licensed under the Apache License, Version 2.0 (the "License");
+you may not use this file except in compliance with the License.
+http://www.apache.org/licenses/LICENSE-2.0
+Unless required by applicable law or agreed to in writing, software
+distributed under the License is distributed on an "AS IS" BASIS,
+WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+See the License for the specific language governing permissions and
+limitations under the License.
+*/
+package com.ibm.payment.infra.retry;
+
+import static com.ibm.payment.mapper.test.util.MockHelper.createAdyenRequest;
+import static com.ibm.payment.mapper.test.util.MockHelper.createAdyenRequestPathParam;
+import static com.ibm.payment.mapper.test.util.MockHelper.createRestHttpClientResponse;
+import static com.ibm.payment.mapper.test.util.MockHelper.createRetryConfig;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.BooleanSupplier;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import com.ibm.adapter.payment.model.PaymentCollectionOutput;
+import com.ibm.model.adyen.AdyenRequest;
+import com.ibm.payment.infra.client.IRestHttpClient;
+import com.ibm.payment.infra.context.AdyenRequestPathParam;
+import com.ibm.payment.infra.exception.PaymentConnectionException;
+import com.ibm.payment.infra.exception.PaymentRejectedException;
+import com.ibm.payment.infra.response.RestHttpClientResponse;
+import com.ibm.payment.infra.util.IdempotencyKeys;
+
+public class RetrySchedulerTest {
+
+    private static final AdyenRequestPathParam PATH_PARAMS = createAdyenRequestPathParam("QFQTPCQ8HXSKGK82");
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    private final List<Map<String, String>> replayedConfigs = new CopyOnWriteArrayList<>();
+
+    /**
+     * @return A client failing the given number of calls before succeeding.
+     */
+    private IRestHttpClient<AdyenRequest, AdyenRequestPathParam> createClient(int failures) {
+	AtomicInteger calls = new AtomicInteger();
+	return (apiName, requestConfig, request, requestPathParams) -> {
+	    replayedConfigs.add(requestConfig);
+	    if (calls.incrementAndGet() <= failures) {
+		throw new PaymentConnectionException("IOException occurs while making HttpClient connection");
+	    }
+	    return createRestHttpClientResponse(201, request.getMerchantAccount());
+	};
+    }
+
+    private static PaymentCollectionOutput toOutput(String apiName, RestHttpClientResponse response) {
+	PaymentCollectionOutput output = new PaymentCollectionOutput();
+	output.setMerchantId(response.getResponse());
+	return output;
+    }
+
+    private static void await(BooleanSupplier condition) throws InterruptedException {
+	long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(10);
+	while (!condition.getAsBoolean()) {
+	    assertTrue(System.nanoTime() < deadline, "condition not met in time");
+	    Thread.sleep(5);
+	}
+    }
+
+    @Test
+    public void test01ReplaysFailedCallsUntilCompleted() throws Exception {
+	File journal = new File(folder.getRoot(), "retry.journal");
+	String key = "test01-" + System.nanoTime();
+	try (RetryScheduler scheduler = new RetryScheduler(createClient(2), createRetryConfig(journal, 1),
+		RetrySchedulerTest::toOutput)) {
+	    JournalingRestHttpClient client = new JournalingRestHttpClient(createClient(1), scheduler);
+
+	    assertThrows(PaymentConnectionException.class, () -> client.sendPost("CAPTURE",
+		    Collections.singletonMap(IdempotencyKeys.IDEMPOTENCY_KEY, key), createAdyenRequest(), PATH_PARAMS));
+	    await(() -> scheduler.getCompletedCalls() == 1);
+
+	    // the third replay succeeds after two connection errors
+	    assertEquals(3, scheduler.getReplayedCalls());
+	    assertEquals(0, scheduler.getPendingCalls());
+	    assertEquals(0, scheduler.getAbandonedCalls());
+	    PaymentCollectionOutput output = scheduler.getResult(key);
+	    assertNotNull(output);
+	    assertEquals("IBMTest533ECOM", output.getMerchantId());
+	    assertEquals(key, replayedConfigs.get(replayedConfigs.size() - 1).get(IdempotencyKeys.IDEMPOTENCY_KEY));
+
+	    // the calls without an idempotency key are not replayed
+	    assertThrows(PaymentConnectionException.class,
+		    () -> new JournalingRestHttpClient(createClient(1), scheduler).sendPost("CAPTURE",
+			    Collections.emptyMap(), createAdyenRequest(), PATH_PARAMS));
+	    assertEquals(0, scheduler.getPendingCalls());
+	}
+    }
+
+    @Test
+    public void test02RecoversPendingCallsAfterRestart() throws Exception {
+	File journal = new File(folder.getRoot(), "retry.journal");
+	String key = "test02-" + System.nanoTime();
+	try (RetryScheduler scheduler = new RetryScheduler(createClient(0), createRetryConfig(journal, 60000),
+		RetrySchedulerTest::toOutput)) {
+	    assertTrue(scheduler.submit(key + "-1", "CAPTURE", createAdyenRequest(), PATH_PARAMS));
+	    assertTrue(scheduler.submit(key + "-2", "REFUND", createAdyenRequest(), PATH_PARAMS));
+	    assertTrue(scheduler.submit(key + "-1", "CAPTURE", createAdyenRequest(), PATH_PARAMS));
+	    assertEquals(2, scheduler.getPendingCalls());
+	}
+
+	try (RetryScheduler scheduler = new RetryScheduler(createClient(0), createRetryConfig(journal, 1),
+		RetrySchedulerTest::toOutput)) {
+	    await(() -> scheduler.getCompletedCalls() == 2);
+	    assertNotNull(scheduler.getResult(key + "-1"));
+	    assertNotNull(scheduler.getResult(key + "-2"));
+	}
+
+	// the completed calls are not replayed again
+	try (RetryJournal retryJournal = new RetryJournal(journal.toPath(), 4096, true)) {
+	    assertTrue(retryJournal.getPendingEntries().isEmpty());
+	}
+    }
+
+    @Test
+    public void test03AbandonsCallsAndCompactsJournal() throws Exception {
+	File journal = new File(folder.getRoot(), "retry.journal");
+	String key = "test03-" + System.nanoTime();
+	try (RetryScheduler scheduler = new RetryScheduler(createClient(Integer.MAX_VALUE),
+		createRetryConfig(journal, 1), RetrySchedulerTest::toOutput)) {
+	    // each call is a few hundred bytes, so the journal is compacted several times
+	    for (int i = 0; i < 50; i++) {
+		assertTrue(scheduler.submit(key + "-" + i, "CAPTURE", createAdyenRequest(), PATH_PARAMS));
+		long abandoned = i + 1;
+		await(() -> scheduler.getAbandonedCalls() == abandoned);
+	    }
+	    assertEquals(150, scheduler.getReplayedCalls());
+	    assertEquals(0, scheduler.getPendingCalls());
+	    assertEquals(0, scheduler.getCompletedCalls());
+	}
+	assertFalse(new File(folder.getRoot(), "retry.journal.tmp").exists());
+	try (RetryJournal retryJournal = new RetryJournal(journal.toPath(), 4096, true)) {
+	    assertTrue(retryJournal.getPendingEntries().isEmpty());
+	}
+    }
+
+    @Test
+    public void test04SkipsRejectedCallsAndSurvivesFailedCompaction() throws Exception {
+	File journal = new File(folder.getRoot(), "retry.journal");
+	String key = "test04-" + System.nanoTime();
+	try (RetryScheduler scheduler = new RetryScheduler(createClient(0), createRetryConfig(journal, 60000),
+		RetrySchedulerTest::toOutput)) {
+	    // the calls rejected before they were sent are not replayed
+	    JournalingRestHttpClient client = new JournalingRestHttpClient((apiName, requestConfig, request,
+		    requestPathParams) -> {
+		throw new PaymentRejectedException("Circuit breaker is open for the endpoint " + apiName);
+	    }, scheduler);
+	    assertThrows(PaymentRejectedException.class, () -> client.sendPost("CAPTURE",
+		    Collections.singletonMap(IdempotencyKeys.IDEMPOTENCY_KEY, key), createAdyenRequest(), PATH_PARAMS));
+	    assertEquals(0, scheduler.getPendingCalls());
+	}
+
+	File blocker = new File(folder.getRoot(), "retry.journal.tmp");
+	try (RetryJournal retryJournal = new RetryJournal(journal.toPath(), 512, true)) {
+	    assertTrue(retryJournal.append(new RetryEntry(key + "-1", "CAPTURE", "QFQTPCQ8HXSKGK82", "{}")));
+	    // a directory in place of the compacted file fails the compaction
+	    assertTrue(new File(blocker, "busy").mkdirs());
+	    int appended = 1;
+	    try {
+		while (retryJournal.append(new RetryEntry(key + "-" + (appended + 1), "CAPTURE", "QFQTPCQ8HXSKGK82",
+			"{}"))) {
+		    appended++;
+		}
+	    } catch (IOException e) {
+		// the journal is full and could not be compacted
+	    }
+	    assertEquals(appended, retryJournal.getPendingEntries().size());
+
+	    new File(blocker, "busy").delete();
+	    blocker.delete();
+	    retryJournal.complete(key + "-1");
+	    // an entry of the size of the completed one fits in the compacted journal
+	    assertTrue(retryJournal.append(new RetryEntry(key + "-0", "CAPTURE", "QFQTPCQ8HXSKGK82", "{}")));
+	    assertEquals(appended, retryJournal.getPendingEntries().size());
+	}
+	try (RetryJournal retryJournal = new RetryJournal(journal.toPath(), 512, true)) {
+	    assertFalse(retryJournal.isPending(key + "-1"));
+	    assertTrue(retryJournal.isPending(key + "-0"));
+	}
+    }
+
+    @Test
+    public void test05ReportsPendingReplays() throws Exception {
+	File journal = new File(folder.getRoot(), "retry.journal");
+	String key = "test05-" + System.nanoTime();
+	try (RetryScheduler scheduler = new RetryScheduler(createClient(0), createRetryConfig(journal, 60000),
+		RetrySchedulerTest::toOutput)) {
+	    assertFalse(RetryScheduler.isReplayPending(key));
+	    assertFalse(RetryScheduler.isReplayPending(null));
+	    assertTrue(scheduler.submit(key, "CAPTURE", createAdyenRequest(), PATH_PARAMS));
+
+	    assertTrue(scheduler.isPending(key));
+	    assertTrue(RetryScheduler.isReplayPending(key));
+	}
+	// the calls of a closed scheduler are not replayed until it is opened again
+	assertFalse(RetryScheduler.isReplayPending(key));
+    }
+}
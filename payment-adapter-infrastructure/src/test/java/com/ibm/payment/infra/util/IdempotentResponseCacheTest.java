@@ -0,0 +1,122 @@
+/*
+IBM Confidential
+IBM Sterling OMS Payment Integration Adapter
+(C) Copyright IBM Corp. 2022
+Licensed under the Apache License, Version 2.0 (the "License");
+you may not use this file except in compliance with the License.
+http://www.apache.org/licenses/LICENSE-2.0
+Unless required by applicable law or agreed to in writing, software
+distributed under the License is distributed on an "AS IS" BASIS,
+WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+See the License for the specific language governing permissions and
+limitations under the License.
+*/
+package com.ibm.payment.infra.util;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+
+import java.math.BigDecimal;
+import java.util.Collections;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.junit.Test;
+
+import com.ibm.adapter.payment.model.PaymentCollectionInput;
+import com.ibm.adapter.payment.model.PaymentCollectionOutput;
+
+public class IdempotentResponseCacheTest {
+
+    private final AtomicLong clock = new AtomicLong();
+
+    private static PaymentCollectionInput createInput(String transactionId, String amount) {
+	PaymentCollectionInput paymentCollectionInput = new PaymentCollectionInput();
+	paymentCollectionInput.setPaymentKey("202201010001");
+	paymentCollectionInput.setTransactionId(transactionId);
+	paymentCollectionInput.setRequestAmount(new BigDecimal(amount));
+	paymentCollectionInput.setCurrency("USD");
+	return paymentCollectionInput;
+    }
+
+    @Test
+    public void test01IdempotencyKeyIsDeterministic() {
+	String key = IdempotencyKeys.of("CAPTURE", createInput("CTK01", "10.00"));
+
+	assertEquals(key, IdempotencyKeys.of("CAPTURE", createInput("CTK01", "10")));
+	assertNotEquals(key, IdempotencyKeys.of("REFUND", createInput("CTK01", "10.00")));
+	assertNotEquals(key, IdempotencyKeys.of("CAPTURE", createInput("CTK02", "10.00")));
+	assertNotEquals(key, IdempotencyKeys.of("CAPTURE", createInput("CTK01", "5.00")));
+	assertNull(IdempotencyKeys.of("CAPTURE", new PaymentCollectionInput()));
+	// two calls without a charge transaction key do not share a key
+	assertNull(IdempotencyKeys.of("CAPTURE", createInput(null, "10.00")));
+	Map<String, String> noKeyConfig = Collections.singletonMap("content-type", "application/json");
+	assertSame(noKeyConfig,
+		IdempotencyKeys.withIdempotencyKey(noKeyConfig, "CAPTURE", createInput(null, "10.00")));
+
+	Map<String, String> requestConfig = Collections.singletonMap("content-type", "application/json");
+	Map<String, String> config = IdempotencyKeys.withIdempotencyKey(requestConfig, "CAPTURE",
+		createInput("CTK01", "10.00"));
+	assertEquals(key, config.get(IdempotencyKeys.IDEMPOTENCY_KEY));
+	assertEquals("application/json", config.get("content-type"));
+	assertEquals(1, requestConfig.size());
+	// a key already in the request configs is kept
+	assertSame(config, IdempotencyKeys.withIdempotencyKey(config, "CAPTURE", createInput("CTK02", "10.00")));
+    }
+
+    @Test
+    public void test02CachesCompletedOutputs() {
+	IdempotentResponseCache cache = new IdempotentResponseCache(10, 1000, clock::get);
+	PaymentCollectionOutput completed = new PaymentCollectionOutput();
+	PaymentCollectionOutput retry = new PaymentCollectionOutput();
+	retry.setRetry("Y");
+	PaymentCollectionOutput failed = new PaymentCollectionOutput();
+	failed.setFailedPayment(true);
+
+	cache.put("completed", completed);
+	cache.put("retry", retry);
+	cache.put("failed", failed);
+	cache.put(null, completed);
+
+	PaymentCollectionOutput cached = cache.get("completed");
+	assertEquals(completed, cached);
+	assertNotSame(completed, cached);
+	// the callers modifying their outputs do not change the cached output
+	completed.setPaymentReference("PSP01");
+	cached.setRetry("Y");
+	assertNull(cache.get("completed").getPaymentReference());
+	assertNull(cache.get("completed").getRetry());
+	assertNull(cache.get("retry"));
+	assertNull(cache.get("failed"));
+	assertEquals(1, cache.size());
+	assertEquals(3, cache.getHits());
+	assertEquals(2, cache.getMisses());
+    }
+
+    @Test
+    public void test03ExpiresAndEvictsOldestOutputs() {
+	IdempotentResponseCache cache = new IdempotentResponseCache(2, 1000, clock::get);
+	cache.put("first", new PaymentCollectionOutput());
+	clock.addAndGet(TimeUnit.MILLISECONDS.toNanos(500));
+	cache.put("second", new PaymentCollectionOutput());
+	cache.put("third", new PaymentCollectionOutput());
+	// the maximum size evicts the oldest output
+	assertNull(cache.get("first"));
+	assertEquals(2, cache.size());
+
+	clock.addAndGet(TimeUnit.MILLISECONDS.toNanos(500));
+	cache.put("fourth", new PaymentCollectionOutput());
+	assertNull(cache.get("second"));
+
+	clock.addAndGet(TimeUnit.MILLISECONDS.toNanos(500));
+	// the outputs are kept for 1000 ms
+	assertNull(cache.get("third"));
+	assertNotNull(cache.get("fourth"));
+	assertEquals(1, cache.size());
+    }
+}
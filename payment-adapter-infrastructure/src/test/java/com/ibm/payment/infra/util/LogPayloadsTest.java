@@ -0,0 +1,55 @@
+/*
+IBM Confidential
+IBM Sterling OMS Payment Integration Adapter
+(C) Copyright IBM Corp. 2022
+Licensed under the Apache License, Version 2.0 (the "License");
+you may not use this file except in compliance with the License.
+http://www.apache.org/licenses/LICENSE-2.0
+Unless required by applicable law or agreed to in writing, software
+distributed under the License is distributed on an "AS IS" BASIS,
+WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+See the License for the specific language governing permissions and
+limitations under the License.
+*/
+package com.ibm.payment.infra.util;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.math.BigDecimal;
+
+import org.junit.Test;
+
+import com.ibm.adapter.payment.model.PaymentCollectionInput;
+
+public class LogPayloadsTest {
+
+    @Test
+    public void test01MaskCardNumberAndSecurityCode() {
+	PaymentCollectionInput paymentCollectionInput = new PaymentCollectionInput();
+	paymentCollectionInput.setCardNumber("4111111111111111");
+	paymentCollectionInput.setSecureAuthenticationCode("737");
+	paymentCollectionInput.setRequestAmount(new BigDecimal("10.00"));
+
+	String json = LogPayloads.toMaskedJson(paymentCollectionInput);
+
+	assertEquals(true, json.contains("\"cardNumber\":\"***1111\""));
+	assertEquals(true, json.contains("\"secureAuthenticationCode\":\"***\""));
+	assertEquals(true, json.contains("\"requestAmount\":10.00"));
+	assertEquals(false, json.contains("4111111111111111"));
+	assertEquals(false, json.contains("\n"));
+    }
+
+    @Test
+    public void test02MaskTruncatedJson() {
+	String json = "{\"paymentMethod\":{\"type\":\"scheme\",\"cvc\" : \"737\",\"number\":\"41111111";
+
+	assertEquals("{\"paymentMethod\":{\"type\":\"scheme\",\"cvc\" : \"***\",\"number\":\"***",
+		LogPayloads.mask(json));
+    }
+
+    @Test
+    public void test03MaskHeader() {
+	assertEquals("***", LogPayloads.maskHeader("x-api-key", "secret"));
+	assertEquals("application/json", LogPayloads.maskHeader("content-type", "application/json"));
+    }
+}
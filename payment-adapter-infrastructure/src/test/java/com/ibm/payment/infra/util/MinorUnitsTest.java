@@ -0,0 +1,67 @@
+/*
+IBM Confidential
+IBM Sterling OMS Payment Integration Adapter
+(C) Copyright IBM Corp. 2022
+Licensed under the Apache License, Version 2.0 (the "License");
+you may not use this file except in compliance with the License.
+http://www.apache.org/licenses/LICENSE-2.0
+Unless required by applicable law or agreed to in writing, software
+distributed under the License is distributed on an "AS IS" BASIS,
+WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+See the License for the specific language governing permissions and
+limitations under the License.
+*/
+package com.ibm.payment.infra.util;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.math.BigDecimal;
+
+import org.junit.Test;
+
+import com.ibm.adapter.payment.model.PaymentCollectionInput;
+import com.ibm.model.adyen.AdyenRequest;
+import com.ibm.payment.infra.exception.PaymentMappingException;
+import com.ibm.payment.infra.mapper.PaymentToAdyenRequestMapper;
+
+public class MinorUnitsTest {
+
+    @Test
+    public void test01ConvertsWithCurrencyExponent() {
+	assertEquals(1050L, MinorUnits.toMinorUnits(new BigDecimal("10.5"), "USD"));
+	assertEquals(1000L, MinorUnits.toMinorUnits(new BigDecimal("10"), "EUR"));
+	assertEquals(1050L, MinorUnits.toMinorUnits(new BigDecimal("1050"), "JPY"));
+	assertEquals(1050L, MinorUnits.toMinorUnits(new BigDecimal("1050.000"), "JPY"));
+	assertEquals(12345L, MinorUnits.toMinorUnits(new BigDecimal("12.345"), "KWD"));
+	assertEquals(-1234L, MinorUnits.toMinorUnits(new BigDecimal("-12.34"), null));
+	assertEquals(100000L, MinorUnits.toMinorUnits(new BigDecimal("1E+3"), "USD"));
+	assertEquals(new BigDecimal(1234), MinorUnits.toAmountValue(new BigDecimal("-12.34"), "USD"));
+	assertEquals(new BigDecimal(1500), MinorUnits.toAmountValue(new BigDecimal("500"), new BigDecimal("-1000"), "JPY"));
+    }
+
+    @Test
+    public void test02RejectsInexactAmounts() {
+	assertThrows(PaymentMappingException.class, () -> MinorUnits.toMinorUnits(new BigDecimal("10.5"), "JPY"));
+	assertThrows(PaymentMappingException.class, () -> MinorUnits.toMinorUnits(new BigDecimal("10.001"), "USD"));
+	assertThrows(PaymentMappingException.class,
+		() -> MinorUnits.toMinorUnits(new BigDecimal("100000000000000000000"), "USD"));
+	assertThrows(PaymentMappingException.class, () -> MinorUnits.toMinorUnits(null, "USD"));
+    }
+
+    @Test
+    public void test03MapperUsesCurrencyExponent() {
+	PaymentCollectionInput paymentCollectionInput = new PaymentCollectionInput();
+	paymentCollectionInput.setPaymentKey("202201010001");
+	paymentCollectionInput.setMerchantId("IBMTest533ECOM");
+	paymentCollectionInput.setCurrency("JPY");
+	paymentCollectionInput.setRequestAmount(new BigDecimal("-2500"));
+	paymentCollectionInput.setAuthorizedAmount(new BigDecimal("7500"));
+
+	AdyenRequest captureRequest = PaymentToAdyenRequestMapper.MAPPER.paymentToAdyenCaptureReq(paymentCollectionInput);
+	assertEquals(new BigDecimal(2500), captureRequest.getAmount().getValue());
+	AdyenRequest amountUpdatesRequest = PaymentToAdyenRequestMapper.MAPPER
+		.paymentToAdyenAmountUpdatesReq(paymentCollectionInput);
+	assertEquals(new BigDecimal(10000), amountUpdatesRequest.getAmount().getValue());
+    }
+}
@@ -0,0 +1,103 @@
+/*
+IBM Confidential
+IBM Sterling OMS Payment Integration Adapter
+(C) Copyright IBM Corp. 2022
+Licensed under the Apache License, Version 2.0 (the "License");
+you may not use this file except in compliance with the License.
+http://www.apache.org/licenses/LICENSE-2.0
+Unless required by applicable law or agreed to in writing, software
+distributed under the License is distributed on an "AS IS" BASIS,
+WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+See the License for the specific language governing permissions and
+limitations under the License.
+*/
+package com.ibm.payment.infra.util;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+
+import java.util.HashMap;
+import java.util.Properties;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import com.ibm.adapter.payment.enums.ServiceType;
+import com.ibm.model.adyen.AdyenRequest;
+import com.ibm.payment.infra.client.AdaptiveRateLimiter;
+import com.ibm.payment.infra.client.IRestHttpClient;
+import com.ibm.payment.infra.client.RateLimiterConfig;
+import com.ibm.payment.infra.client.StandardAsyncHttpClient;
+import com.ibm.payment.infra.client.StandardHttpClient;
+import com.ibm.payment.infra.context.AdyenRequestPathParam;
+import com.ibm.payment.infra.response.RestHttpClientResponse;
+import com.ibm.payment.mapper.test.util.MockHelper;
+
+import okhttp3.mockwebserver.MockResponse;
+import okhttp3.mockwebserver.MockWebServer;
+
+public class RestHttpClientsTest {
+
+    private MockWebServer mockWebServer;
+
+    @Before
+    public void init() throws Exception {
+	mockWebServer = new MockWebServer();
+	mockWebServer.start(8087);
+    }
+
+    /**
+     * The clients of a configuration are created once and send the calls to the
+     * endpoint of the configuration, not to the one of the properties file.
+     */
+    @SuppressWarnings("unchecked")
+    @Test
+    public void test01ClientsOfConfiguration() throws Exception {
+	Properties properties = MockHelper.createAdyenProperties();
+	properties.setProperty("url", "http://localhost:8087");
+	properties.setProperty("xapikey", "merchant-account-2");
+	RestHttpClients restHttpClients = new RestHttpClients(properties);
+
+	assertSame(properties, restHttpClients.getRequestHandler().adyenProperties);
+	assertNotSame(RestHttpClientUtils.getRestHttpClient(), restHttpClients.getRestHttpClient());
+	assertSame(restHttpClients.getRestHttpClient(), restHttpClients.getRestHttpClient());
+	assertSame(restHttpClients.getAsyncRestHttpClient(), restHttpClients.getAsyncRestHttpClient());
+	assertNull(restHttpClients.getHedgedRestHttpClient());
+
+	mockWebServer.enqueue(new MockResponse().setResponseCode(200).setBody("{\"resultCode\":\"Authorised\"}"));
+	IRestHttpClient<AdyenRequest, AdyenRequestPathParam> restHttpClient = restHttpClients.getRestHttpClient();
+	RestHttpClientResponse response = restHttpClient.sendPost(ServiceType.PROCESS_PAYMENTS.toString(),
+		new HashMap<>(), new AdyenRequest(), new AdyenRequestPathParam());
+	assertEquals(200, response.getResponseCode());
+	assertEquals("merchant-account-2",
+		mockWebServer.takeRequest(5, TimeUnit.SECONDS).getHeader("x-api-key"));
+    }
+
+    /**
+     * The blocking and the non-blocking clients of a configuration share the rate
+     * of each merchant account.
+     */
+    @SuppressWarnings("rawtypes")
+    @Test
+    public void test02ClientsShareRateLimiters() {
+	Properties properties = MockHelper.createAdyenProperties();
+	properties.setProperty(RateLimiterConfig.RATE_LIMIT_ENABLED, "true");
+	RestHttpClients restHttpClients = new RestHttpClients(properties);
+
+	AdaptiveRateLimiter rateLimiter = ((StandardHttpClient) restHttpClients.getRestHttpClient())
+		.getRateLimiter("IBMTest533ECOM");
+	assertSame(rateLimiter,
+		((StandardAsyncHttpClient) restHttpClients.getAsyncRestHttpClient()).getRateLimiter("IBMTest533ECOM"));
+	assertNotSame(rateLimiter, ((StandardHttpClient) new RestHttpClients(properties).getRestHttpClient())
+		.getRateLimiter("IBMTest533ECOM"));
+    }
+
+    @After
+    public void tearDown() throws Exception {
+	mockWebServer.shutdown();
+    }
+}
@@ -0,0 +1,243 @@
+/*
+IBM Confidential
+IBM Sterling OMS Payment Integration Adapter
+(C) Copyright IBM Corp. 2022
+Licensed under the Apache License, Version 2.0 (the "License");
+you may not use this file except in compliance with the License.
+http://www.apache.org/licenses/LICENSE-2.0
+Unless required by applicable law or agreed to in writing, software
+distributed under the License is distributed on an "AS IS" BASIS,
+WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+See the License for the specific language governing permissions and
+limitations under the License.
+*/
+package com.ibm.payment.infra.webhook;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.net.HttpURLConnection;
+import java.net.URL;
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicLong;
+
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
+
+import org.json.JSONArray;
+import org.json.JSONObject;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import com.ibm.adapter.payment.model.PaymentCollectionOutput;
+import com.ibm.payment.infra.util.JsonCodec;
+
+public class NotificationEndpointTest {
+
+    private static final String HMAC_KEY = "44782DEF547AAA06C910C43932B1EB0C71FC68D9D0C057550C48EC2ACF6BA056";
+
+    private final List<PaymentCollectionOutput> updates = new CopyOnWriteArrayList<>();
+
+    private final List<PendingRequest> pendingRequests = new CopyOnWriteArrayList<>();
+
+    private final InMemoryPendingRequestIndex pendingRequestIndex = new InMemoryPendingRequestIndex();
+
+    private NotificationProcessor processor;
+
+    private NotificationEndpoint endpoint;
+
+    @Before
+    public void setUp() throws IOException {
+	WebhookConfig config = new WebhookConfig();
+	config.setHmacKey(HMAC_KEY);
+	config.setPort(0);
+	config.setThreads(2);
+	processor = new NotificationProcessor(config, pendingRequestIndex, (pendingRequest, update) -> {
+	    pendingRequests.add(pendingRequest);
+	    updates.add(update);
+	});
+	endpoint = new NotificationEndpoint(processor, config);
+	endpoint.start();
+    }
+
+    @After
+    public void tearDown() {
+	endpoint.close();
+    }
+
+    /**
+     * Signs the notification as Adyen does.
+     */
+    private static JSONObject createItem(String pspReference, String originalReference, String eventCode,
+	    String success, String key) throws Exception {
+	String payload = pspReference + ":" + (originalReference == null ? "" : originalReference)
+		+ ":IBMTest533ECOM:Y100003200:1000:USD:" + eventCode + ":" + success;
+	Mac mac = Mac.getInstance("HmacSHA256");
+	mac.init(new SecretKeySpec(new BigInteger(key, 16).toByteArray(), "HmacSHA256"));
+	String signature = Base64.getEncoder().encodeToString(mac.doFinal(payload.getBytes(StandardCharsets.UTF_8)));
+	JSONObject item = new JSONObject().put("pspReference", pspReference).put("eventCode", eventCode)
+		.put("success", success).put("merchantAccountCode", "IBMTest533ECOM")
+		.put("merchantReference", "Y100003200").put("eventDate", "2022-01-01T01:00:00+01:00")
+		.put("amount", new JSONObject().put("currency", "USD").put("value", 1000))
+		.put("additionalData", new JSONObject().put("hmacSignature", signature));
+	if (originalReference != null) {
+	    item.put("originalReference", originalReference);
+	}
+	return new JSONObject().put("NotificationRequestItem", item);
+    }
+
+    private int post(String body, ByteArrayOutputStream response) throws IOException {
+	HttpURLConnection connection = (HttpURLConnection) new URL(
+		"http://localhost:" + endpoint.getPort() + "/adyen/notifications").openConnection();
+	connection.setRequestMethod("POST");
+	connection.setDoOutput(true);
+	connection.setRequestProperty("Content-Type", "application/json");
+	try (OutputStream out = connection.getOutputStream()) {
+	    out.write(body.getBytes(StandardCharsets.UTF_8));
+	}
+	int status = connection.getResponseCode();
+	if (status == 200) {
+	    try (InputStream in = connection.getInputStream()) {
+		byte[] buffer = new byte[64];
+		for (int read; (read = in.read(buffer)) > 0;) {
+		    response.write(buffer, 0, read);
+		}
+	    }
+	}
+	connection.disconnect();
+	return status;
+    }
+
+    @Test
+    public void test01ProcessesSignedNotifications() throws Exception {
+	pendingRequestIndex.put("QFQTPCQ8HXSKGK82", new PendingRequest("PROCESS_PAYMENTS", "202201010001",
+		"Y100003200", new BigDecimal("10.00")));
+	pendingRequestIndex.put("NC6HT9CRT65ZGN82", new PendingRequest("CAPTURE", "202201010002", "Y100003200",
+		new BigDecimal("10.00")));
+	String other = "F0F0F0F0F0F0F0F0F0F0F0F0F0F0F0F0F0F0F0F0F0F0F0F0F0F0F0F0F0F0F0F0";
+	JSONArray items = new JSONArray().put(createItem("QFQTPCQ8HXSKGK82", null, "AUTHORISATION", "true", HMAC_KEY))
+		.put(createItem("QFQTPCQ8HXSKGK82", null, "AUTHORISATION", "true", HMAC_KEY))
+		.put(createItem("NC6HT9CRT65ZGN82", "QFQTPCQ8HXSKGK82", "CAPTURE", "false", other))
+		.put(createItem("NC6HT9CRT65ZGN82", "QFQTPCQ8HXSKGK82", "CAPTURE", "false", HMAC_KEY))
+		.put(createItem("UNKNOWN00000001", null, "AUTHORISATION", "true", HMAC_KEY));
+	ByteArrayOutputStream response = new ByteArrayOutputStream();
+
+	assertEquals(200, post(new JSONObject().put("live", "false").put("notificationItems", items).toString(),
+		response));
+	assertEquals("[accepted]", response.toString("UTF-8"));
+
+	assertEquals(5, processor.getReceivedNotifications());
+	assertEquals(1, processor.getInvalidSignatures());
+	assertEquals(1, processor.getDuplicateNotifications());
+	assertEquals(1, processor.getUnmatchedNotifications());
+	assertEquals(2, processor.getProcessedNotifications());
+	assertEquals(0, pendingRequestIndex.size());
+
+	PaymentCollectionOutput authorisation = updates.get(0);
+	assertEquals("202201010001", pendingRequests.get(0).getPaymentKey());
+	assertFalse(authorisation.isAsyncReq());
+	assertEquals("QFQTPCQ8HXSKGK82", authorisation.getAsyncReqId());
+	assertEquals("QFQTPCQ8HXSKGK82", authorisation.getPaymentReference());
+	assertEquals("Y100003200", authorisation.getOrderNo());
+	assertEquals("USD", authorisation.getCurrency());
+	assertFalse(authorisation.isFailedPayment());
+
+	PaymentCollectionOutput capture = updates.get(1);
+	assertEquals("202201010002", pendingRequests.get(1).getPaymentKey());
+	assertEquals("NC6HT9CRT65ZGN82", capture.getCaptureReference());
+	assertTrue(capture.isFailedPayment());
+    }
+
+    @Test
+    public void test02RejectsInvalidBatches() throws Exception {
+	assertEquals(400, post("{\"notificationItems\": [", new ByteArrayOutputStream()));
+	assertEquals(0, processor.getReceivedNotifications());
+    }
+
+    @Test
+    public void test03RestoresNotificationsOnListenerFailure() throws Exception {
+	pendingRequestIndex.put("KHQC5N7G84BLNK43", new PendingRequest("REFUND", "202201010001", "Y100003200",
+		new BigDecimal("5.00")));
+	AtomicLong failures = new AtomicLong(1);
+	WebhookConfig config = new WebhookConfig();
+	config.setHmacKey(HMAC_KEY);
+	NotificationProcessor failingProcessor = new NotificationProcessor(config, pendingRequestIndex,
+		(request, update) -> {
+		    if (failures.getAndDecrement() > 0) {
+			throw new IllegalStateException("OMS is not available");
+		    }
+		    updates.add(update);
+		});
+	NotificationRequest notificationRequest = JsonCodec.readNotificationRequest(new ByteArrayInputStream(
+		new JSONObject().put("notificationItems", new JSONArray()
+			.put(createItem("KHQC5N7G84BLNK43", "QFQTPCQ8HXSKGK82", "REFUND", "true", HMAC_KEY)))
+			.toString().getBytes(StandardCharsets.UTF_8)));
+
+	assertThrows(IllegalStateException.class, () -> failingProcessor.process(notificationRequest));
+	assertTrue(updates.isEmpty());
+	assertEquals(1, pendingRequestIndex.size());
+
+	// delivered again by Adyen
+	failingProcessor.process(notificationRequest);
+	assertEquals("KHQC5N7G84BLNK43", updates.get(0).getRefundPaymentReference());
+	assertNull(pendingRequestIndex.remove("KHQC5N7G84BLNK43"));
+    }
+
+    @Test
+    public void test04ProcessesNotificationsDeliveredBeforeRegistration() throws Exception {
+	NotificationRequest notificationRequest = JsonCodec.readNotificationRequest(new ByteArrayInputStream(
+		new JSONObject().put("notificationItems", new JSONArray()
+			.put(createItem("V4HZ4RBFJGXXGN82", null, "AUTHORISATION", "true", HMAC_KEY)))
+			.toString().getBytes(StandardCharsets.UTF_8)));
+
+	// the notification overtakes the response of the payment call
+	processor.process(notificationRequest);
+	assertEquals(1, processor.getUnmatchedNotifications());
+	assertTrue(updates.isEmpty());
+
+	pendingRequestIndex.put("V4HZ4RBFJGXXGN82", new PendingRequest("PROCESS_PAYMENTS", "202201010003",
+		"Y100003200", new BigDecimal("10.00")));
+	// delivered again by Adyen
+	processor.process(notificationRequest);
+	assertEquals(0, processor.getDuplicateNotifications());
+	assertEquals(1, processor.getProcessedNotifications());
+	assertEquals("V4HZ4RBFJGXXGN82", updates.get(0).getPaymentReference());
+    }
+
+    @Test
+    public void test05ResolvesOriginalReferenceOfSameServiceType() throws Exception {
+	pendingRequestIndex.put("JQ8CVPRR5XKJ9M82", new PendingRequest("PROCESS_PAYMENTS", "202201010004",
+		"Y100003200", new BigDecimal("10.00")));
+	pendingRequestIndex.put("WBBD6CQ3KRQVJ982", new PendingRequest("AMEND_AUTHORIZATION", "202201010005",
+		"Y100003200", new BigDecimal("15.00")));
+	NotificationRequest notificationRequest = JsonCodec.readNotificationRequest(new ByteArrayInputStream(
+		new JSONObject().put("notificationItems", new JSONArray()
+			// a capture sent outside of the adapter refers to the pending payment
+			.put(createItem("GX3M2VQ9LN8KTJ82", "JQ8CVPRR5XKJ9M82", "CAPTURE", "true", HMAC_KEY))
+			.put(createItem("C4TZ7H2NRWPLKX82", "WBBD6CQ3KRQVJ982", "AUTHORISATION_ADJUSTMENT", "true",
+				HMAC_KEY)))
+			.toString().getBytes(StandardCharsets.UTF_8)));
+
+	processor.process(notificationRequest);
+	assertEquals(1, processor.getUnmatchedNotifications());
+	assertEquals(1, processor.getProcessedNotifications());
+	assertEquals("202201010005", pendingRequests.get(0).getPaymentKey());
+	assertEquals(1, pendingRequestIndex.size());
+	assertEquals("202201010004", pendingRequestIndex.remove("JQ8CVPRR5XKJ9M82").getPaymentKey());
+    }
+
+}
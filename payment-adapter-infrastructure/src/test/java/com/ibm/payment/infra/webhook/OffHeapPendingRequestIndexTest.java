@@ -0,0 +1,120 @@
+/*
+IBM Confidential
+IBM Sterling OMS Payment Integration Adapter
+(C) Copyright IBM Corp. 2022
+Licensed under the Apache License, Version 2.0 (the "License");
+you may not use this file except in compliance with the License.
+http://www.apache.org/licenses/LICENSE-2.0
+Unless required by applicable law or agreed to in writing, software
+distributed under the License is distributed on an "AS IS" BASIS,
+WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+See the License for the specific language governing permissions and
+limitations under the License.
+*/
+package com.ibm.payment.infra.webhook;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+
+import java.math.BigDecimal;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.junit.Test;
+
+import com.ibm.adapter.payment.model.PaymentCollectionInput;
+import com.ibm.adapter.payment.model.PaymentCollectionOutput;
+
+public class OffHeapPendingRequestIndexTest {
+
+    private final AtomicLong clock = new AtomicLong();
+
+    @Test
+    public void test01PutAndRemove() {
+	OffHeapPendingRequestIndex index = new OffHeapPendingRequestIndex(1000, 1000, clock::get);
+	index.put("QFQTPCQ8HXSKGK82",
+		new PendingRequest("CAPTURE", "202201010001", "Y100003200", new BigDecimal("-12.345")));
+	index.put("NC6HT9CRT65ZGN82", new PendingRequest("REFUND", null, null, null));
+	index.put("NC6HT9CRT65ZGN82", new PendingRequest("REFUND", "202201010002", null, BigDecimal.TEN));
+	assertEquals(2, index.size());
+
+	PendingRequest capture = index.remove("QFQTPCQ8HXSKGK82");
+	assertEquals("CAPTURE", capture.getApiName());
+	assertEquals("202201010001", capture.getPaymentKey());
+	assertEquals("Y100003200", capture.getOrderNo());
+	assertEquals(new BigDecimal("-12.345"), capture.getAmount());
+	assertNull(index.remove("QFQTPCQ8HXSKGK82"));
+
+	PendingRequest refund = index.remove("NC6HT9CRT65ZGN82");
+	assertEquals("202201010002", refund.getPaymentKey());
+	assertNull(refund.getOrderNo());
+	assertEquals(BigDecimal.TEN, refund.getAmount());
+	assertEquals(0, index.size());
+
+	// does not fit in a slot
+	index.put("QFQTPCQ8HXSKGK82", new PendingRequest("CAPTURE", "202201010001",
+		"Y100003200Y100003200Y100003200Y100003200Y", BigDecimal.ONE));
+	index.put("QFQTPCQ8HXSKGK82", new PendingRequest("AUTHORIZATION", "202201010001", null, BigDecimal.ONE));
+	assertEquals(0, index.size());
+	assertEquals(2, index.getDroppedRequests());
+    }
+
+    @Test
+    public void test02ExpiresAndReclaimsSlots() {
+	OffHeapPendingRequestIndex index = new OffHeapPendingRequestIndex(1600, 1000, clock::get);
+	index.put("EXPIRED", new PendingRequest("CAPTURE", "202201010001", null, BigDecimal.ONE));
+	clock.set(1000);
+	assertNull(index.remove("EXPIRED"));
+
+	// the requests are removed and expire many times over the capacity
+	for (int i = 0; i < 20000; i++) {
+	    index.put("PSP" + i, new PendingRequest("CAPTURE", "PK" + i, null, BigDecimal.valueOf(i, 2)));
+	    if (i % 2 == 0) {
+		assertEquals(BigDecimal.valueOf(i, 2), index.remove("PSP" + i).getAmount());
+	    }
+	    clock.incrementAndGet();
+	}
+	assertEquals(0, index.getDroppedRequests());
+	assertEquals("PK19999", index.remove("PSP19999").getPaymentKey());
+	assertNull(index.remove("PSP1"));
+    }
+
+    @Test
+    public void test03DropsRequestsWhenFull() {
+	OffHeapPendingRequestIndex index = new OffHeapPendingRequestIndex(16, 1000, clock::get);
+	for (int i = 0; i < 1000; i++) {
+	    index.put("PSP" + i, new PendingRequest("CAPTURE", null, null, null));
+	}
+	assertEquals(1000 - index.getDroppedRequests(), index.size());
+	assertEquals(true, index.getDroppedRequests() > 0);
+
+	PendingRequests.setIndex(index);
+	PaymentCollectionInput input = new PaymentCollectionInput();
+	input.setPaymentKey("202201010001");
+	input.setOrderNo("Y100003200");
+	PaymentCollectionOutput output = new PaymentCollectionOutput();
+	output.setAsyncReq(true);
+	output.setAsyncReqId("PSP0");
+	index.remove("PSP0");
+	assertSame(output, PendingRequests.register("PROCESS_PAYMENTS", input, output));
+	assertEquals("Y100003200", index.remove("PSP0").getOrderNo());
+    }
+
+    @Test
+    public void test04ReusesRemovedSlotsNearLoadLimit() {
+	// 48 live requests per segment
+	OffHeapPendingRequestIndex index = new OffHeapPendingRequestIndex(768, 1000, clock::get);
+	for (int i = 0; i < 560; i++) {
+	    index.put("PSP" + i, new PendingRequest("CAPTURE", null, null, null));
+	}
+	long dropped = index.getDroppedRequests();
+	// every put replaces a removed request, the live requests never grow
+	for (int i = 560; i < 20000; i++) {
+	    index.put("PSP" + i, new PendingRequest("CAPTURE", null, null, null));
+	    index.remove("PSP" + (i - 560));
+	}
+	assertEquals(dropped, index.getDroppedRequests());
+	assertEquals(560 - dropped, index.size());
+    }
+
+}
@@ -18,8 +18,20 @@ import com.fasterxml.jackson.databind.ObjectMapper;
 import com.ibm.adapter.payment.model.PaymentCollectionInput;
 import com.ibm.adapter.payment.model.PaymentCollectionOutput;
 import java.io.File;
+import java.util.Collections;
+import java.util.Map;
+import java.util.Properties;
 
+import com.ibm.model.adyen.AdyenRequest;
 import com.ibm.model.adyen.AdyenResponse;
+import com.ibm.payment.infra.client.CircuitBreakerConfig;
+import com.ibm.payment.infra.client.HedgingConfig;
+import com.ibm.payment.infra.client.RateLimiterConfig;
+import com.ibm.payment.infra.context.AdyenRequestPathParam;
+import com.ibm.payment.infra.response.RestHttpClientResponse;
+import com.ibm.payment.infra.retry.RetryConfig;
+import com.ibm.payment.infra.util.IdempotencyKeys;
+import com.ibm.payment.infra.util.RestHttpClientUtils;
 import lombok.SneakyThrows;
 
 public class MockHelper<T, V> {
@@ -47,4 +59,88 @@ public class MockHelper<T, V> {
             AdyenResponse.class);
 
   }
+
+  public static AdyenRequest createAdyenRequest() {
+    AdyenRequest request = new AdyenRequest();
+    request.setMerchantAccount("IBMTest533ECOM");
+    request.setReference("CTK01");
+    return request;
+  }
+
+  public static AdyenRequestPathParam createAdyenRequestPathParam(String pspReference) {
+    AdyenRequestPathParam requestPathParams = new AdyenRequestPathParam();
+    requestPathParams.setPspPaymentReference(pspReference);
+    return requestPathParams;
+  }
+
+  /**
+   * @return The request config of a call carrying an idempotency key.
+   */
+  public static Map<String, String> createRequestConfig() {
+    return Collections.singletonMap(IdempotencyKeys.IDEMPOTENCY_KEY, "5f0c7a36-4a3e-3b8e-9d1c-2f6b8a1e7c40");
+  }
+
+  public static RestHttpClientResponse createRestHttpClientResponse(int responseCode, String response) {
+    RestHttpClientResponse restHttpClientResponse = new RestHttpClientResponse();
+    restHttpClientResponse.setResponseCode(responseCode);
+    restHttpClientResponse.setResponse(response);
+    return restHttpClientResponse;
+  }
+
+  /**
+   * @return A copy of the properties of adyen.properties, to be changed by a
+   *         test.
+   */
+  public static Properties createAdyenProperties() {
+    Properties properties = new Properties();
+    properties.putAll(RestHttpClientUtils.getRequestHandler().adyenProperties);
+    return properties;
+  }
+
+  /**
+   * @return A circuit breaker opening at half of the calls failed in a window
+   *         of the given size, and half-opening after five seconds.
+   */
+  public static CircuitBreakerConfig createCircuitBreakerConfig(int windowSize, int halfOpenCalls) {
+    CircuitBreakerConfig config = new CircuitBreakerConfig();
+    config.setSlidingWindowSize(windowSize);
+    config.setMinimumNumberOfCalls(windowSize);
+    config.setFailureRateThreshold(50);
+    config.setSlowCallRateThreshold(100);
+    config.setSlowCallDuration(1000);
+    config.setOpenStateDuration(5000);
+    config.setHalfOpenCalls(halfOpenCalls);
+    return config;
+  }
+
+  public static RateLimiterConfig createRateLimiterConfig() {
+    RateLimiterConfig config = new RateLimiterConfig();
+    config.setMaxRate(4);
+    config.setMinRate(1);
+    config.setRateIncrease(1);
+    config.setRateDecrease(0.5);
+    return config;
+  }
+
+  /**
+   * @return Hedging to a local secondary endpoint after 10 to 50 ms.
+   */
+  public static HedgingConfig createHedgingConfig() {
+    HedgingConfig config = new HedgingConfig();
+    config.setEnabled(true);
+    config.setSecondaryUrl("http://localhost:8086");
+    config.setMinDelay(10);
+    config.setMaxDelay(50);
+    return config;
+  }
+
+  public static RetryConfig createRetryConfig(File journal, long baseDelay) {
+    RetryConfig config = new RetryConfig();
+    config.setJournalPath(journal.getPath());
+    config.setJournalSize(4096);
+    config.setMaxAttempts(3);
+    config.setBaseDelay(baseDelay);
+    config.setMaxDelay(baseDelay * 4);
+    return config;
+  }
 }
@@ -13,10 +13,10 @@ limitations under the License.
 */
 package com.ibm.adapter.sample;
 
-import com.ibm.adapter.context.GenericPaymentServiceInjector;
+import com.ibm.adapter.context.PaymentContextRegistry;
+import com.ibm.adapter.context.PaymentRouter;
 import com.ibm.adapter.context.PaymentServiceContext;
 import com.ibm.adapter.context.RequestContext;
-import com.ibm.adapter.enums.PaymentServiceProvider;
 import com.ibm.adapter.payment.model.PaymentCollectionInput;
 import com.ibm.adapter.payment.model.PaymentCollectionOutput;
 import com.ibm.adapter.sample.mapper.PaymentMapper;
@@ -24,22 +24,28 @@ import com.ibm.adapter.sample.model.ExternalPaymentInput;
 import com.ibm.adapter.sample.model.ExternalPaymentoutput;
 import com.ibm.adapter.service.interfaces.IPaymentProcessingAdapter;
 
-import java.util.Objects;
-
 /**
  * Sample implementation for payment adapter
  */
 public class AdyenAdapter implements IPaymentProcessingAdapter<ExternalPaymentInput, ExternalPaymentoutput> {
-    private static PaymentServiceContext _paymentServiceContext;
+    private final String pspType;
 
     /**
      * Inject the Implementation classes to constructor
-     * @param pspType
+     * @param pspType payment service provider of the calls, null to route each call by the PaymentRouter rules
      */
     private AdyenAdapter(String pspType) {
-        if (pspType.contentEquals(PaymentServiceProvider.ADYEN.name()) && Objects.isNull(_paymentServiceContext)) {
-            _paymentServiceContext = new GenericPaymentServiceInjector().getServiceContext();
+        this.pspType = pspType;
+    }
+
+    /**
+     * Select the service context of the payment service provider of the call
+     */
+    private PaymentServiceContext serviceContext(RequestContext requestContext, PaymentCollectionInput paymentCollectionInput) {
+        if (pspType == null || requestContext.getPaymentServiceProvider() != null) {
+            return PaymentRouter.getInstance().selectServiceContext(requestContext, paymentCollectionInput);
         }
+        return PaymentContextRegistry.getServiceContext(PaymentContextRegistry.providerOf(pspType));
     }
 
     /**
@@ -55,7 +61,7 @@ public class AdyenAdapter implements IPaymentProcessingAdapter<ExternalPaymentIn
      */
     @Override
     public PaymentCollectionOutput performCharge(RequestContext requestContext, PaymentCollectionInput paymentCollectionInput) {
-        return _paymentServiceContext.getCaptureEngine().execute(requestContext, paymentCollectionInput);
+        return serviceContext(requestContext, paymentCollectionInput).getCaptureEngine().execute(requestContext, paymentCollectionInput);
     }
 
     /**
@@ -63,7 +69,7 @@ public class AdyenAdapter implements IPaymentProcessingAdapter<ExternalPaymentIn
      */
     @Override
     public PaymentCollectionOutput performReverseAuth(RequestContext requestContext, PaymentCollectionInput paymentCollectionInput) {
-        return _paymentServiceContext.getReverseEngine().execute(requestContext, paymentCollectionInput);
+        return serviceContext(requestContext, paymentCollectionInput).getReverseEngine().execute(requestContext, paymentCollectionInput);
     }
 
     /**
@@ -71,7 +77,7 @@ public class AdyenAdapter implements IPaymentProcessingAdapter<ExternalPaymentIn
      */
     @Override
     public PaymentCollectionOutput performRefund(RequestContext requestContext, PaymentCollectionInput paymentCollectionInput) {
-        return _paymentServiceContext.getRefundEngine().execute(requestContext, paymentCollectionInput);
+        return serviceContext(requestContext, paymentCollectionInput).getRefundEngine().execute(requestContext, paymentCollectionInput);
     }
 
     /**
@@ -79,7 +85,7 @@ public class AdyenAdapter implements IPaymentProcessingAdapter<ExternalPaymentIn
      */
     @Override
     public PaymentCollectionOutput amendAuthorization(RequestContext requestContext, PaymentCollectionInput paymentCollectionInput) {
-        return _paymentServiceContext.getAmendAuthEngine().execute(requestContext, paymentCollectionInput);
+        return serviceContext(requestContext, paymentCollectionInput).getAmendAuthEngine().execute(requestContext, paymentCollectionInput);
     }
 
     /**
@@ -87,7 +93,7 @@ public class AdyenAdapter implements IPaymentProcessingAdapter<ExternalPaymentIn
      */
     @Override
     public PaymentCollectionOutput processPayment(RequestContext requestContext, PaymentCollectionInput paymentCollectionInput) {
-        return _paymentServiceContext.getProcessPaymentEngine().execute(requestContext, paymentCollectionInput);
+        return serviceContext(requestContext, paymentCollectionInput).getProcessPaymentEngine().execute(requestContext, paymentCollectionInput);
     }
 
     /**
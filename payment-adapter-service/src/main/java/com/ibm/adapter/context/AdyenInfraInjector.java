@@ -13,23 +13,56 @@ limitations under the License.
 */
 package com.ibm.adapter.context;
 
+import java.util.Properties;
+
 import com.ibm.adapter.service.interfaces.PaymentInfraInjector;
 import com.ibm.payment.infra.implementation.AmendAuthInfraService;
 import com.ibm.payment.infra.implementation.ReverseInfraService;
 import com.ibm.payment.infra.implementation.CaptureInfraService;
 import com.ibm.payment.infra.implementation.ProcessPaymentsInfraService;
 import com.ibm.payment.infra.implementation.RefundInfraService;
+import com.ibm.payment.infra.util.RestHttpClientUtils;
+import com.ibm.payment.infra.util.RestHttpClients;
 
 /**
  * This class implements from {@link PaymentInfraContext} interface, holds the
  * implementation class for invoking capture, reverseauth, amend auth, refund
- * interfaces specific to Adyen payment gateway.
+ * interfaces specific to Adyen payment gateway. The infra services share the
+ * request handler and the RestHttpClients of one configuration, by default the
+ * one loaded from the properties file.
  * 
  */
 public class AdyenInfraInjector implements PaymentInfraInjector {
 
+    private final RestHttpClients restHttpClients;
+
     private PaymentInfraContext paymentInfraContext;
 
+    /**
+     * The infra services use the configuration loaded from the properties file,
+     * which is only loaded when the infra context is built.
+     */
+    public AdyenInfraInjector() {
+	this((RestHttpClients) null);
+    }
+
+    /**
+     * @param adyenProperties Holds the Adyen properties of the configuration,
+     *                        such as the URL and the API key of another merchant
+     *                        account.
+     */
+    public AdyenInfraInjector(Properties adyenProperties) {
+	this(new RestHttpClients(adyenProperties));
+    }
+
+    /**
+     * @param restHttpClients holds the request handler and the RestHttpClients of
+     *                        the configuration.
+     */
+    public AdyenInfraInjector(RestHttpClients restHttpClients) {
+	this.restHttpClients = restHttpClients;
+    }
+
     /**
      * 
      * Method used to get the payment infracontext which injects various Adyen's
@@ -53,8 +86,11 @@ public class AdyenInfraInjector implements PaymentInfraInjector {
      */
     @Override
     public PaymentInfraContext getInfraContext() {
-	paymentInfraContext = new PaymentInfraContext(new CaptureInfraService(), new ReverseInfraService(),
-		new RefundInfraService(), new AmendAuthInfraService(), new ProcessPaymentsInfraService());
+	RestHttpClients restHttpClients = this.restHttpClients == null ? RestHttpClientUtils.getDefaultClients()
+		: this.restHttpClients;
+	paymentInfraContext = new PaymentInfraContext(new CaptureInfraService(restHttpClients),
+		new ReverseInfraService(restHttpClients), new RefundInfraService(restHttpClients),
+		new AmendAuthInfraService(restHttpClients), new ProcessPaymentsInfraService(restHttpClients));
 	return paymentInfraContext;
     }
 }
@@ -0,0 +1,74 @@
+/*
+IBM Confidential
+IBM Sterling OMS Payment Integration Adapter
+(C) Copyright IBM Corp. 2022
+Licensed under the Apache License, Version 2.0 (the "License");
+you may not use this file except in compliance with the License.
+http://www.apache.org/licenses/LICENSE-2.0
+Unless required by applicable law or agreed to in writing, software
+distributed under the License is distributed on an "AS IS" BASIS,
+WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+See the License for the specific language governing permissions and
+limitations under the License.
+*/
+package com.ibm.adapter.context;
+
+import lombok.Getter;
+
+/**
+ * <ul>
+ * <li>BatchItemResult class holds the outcome of a single input processed by
+ * the batch execution of the payment adapter.</li>
+ * 
+ * <li>Each result keeps the position of the input in the batch, along with
+ * either the adapter's output or the exception raised while processing it, so
+ * that a failure of one payment does not affect the other payments of the
+ * batch.</li>
+ * </ul>
+ *
+ * @param <O> Client specific output, typically ExternalPaymentOutput
+ */
+@Getter
+public class BatchItemResult<O> {
+
+    private final int index;
+    private final O output;
+    private final Exception exception;
+
+    private BatchItemResult(int index, O output, Exception exception) {
+	this.index = index;
+	this.output = output;
+	this.exception = exception;
+    }
+
+    /**
+     * Method used to create the result of a successfully processed input.
+     * 
+     * @param index  position of the input in the batch.
+     * @param output adapter's output of the input.
+     * @return The successful {@link BatchItemResult} object.
+     */
+    public static <O> BatchItemResult<O> success(int index, O output) {
+	return new BatchItemResult<>(index, output, null);
+    }
+
+    /**
+     * Method used to create the result of an input failed with an exception.
+     * 
+     * @param index     position of the input in the batch.
+     * @param exception exception raised while processing the input.
+     * @return The failed {@link BatchItemResult} object.
+     */
+    public static <O> BatchItemResult<O> failure(int index, Exception exception) {
+	return new BatchItemResult<>(index, null, exception);
+    }
+
+    /**
+     * Method used to check whether the input was processed without exception.
+     * 
+     * @return true if the input was processed successfully.
+     */
+    public boolean isSuccess() {
+	return exception == null;
+    }
+}
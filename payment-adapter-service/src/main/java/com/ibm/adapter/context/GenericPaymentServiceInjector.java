@@ -13,6 +13,7 @@ limitations under the License.
 */
 package com.ibm.adapter.context;
 
+import com.ibm.adapter.enums.PaymentServiceProvider;
 import com.ibm.adapter.service.implementation.AmendAuthService;
 import com.ibm.adapter.service.implementation.ReverseService;
 import com.ibm.adapter.service.implementation.CaptureService;
@@ -42,10 +43,21 @@ public class GenericPaymentServiceInjector implements IPaymentServiceInjector {
      * 
      * Return The {@link GenericPaymentServiceInjector} object, also inject the
      * {@link AdyenInfraInjector} to the {@link PaymentInfraContext} object for
-     * invoking respective payment providers.
+     * invoking respective payment providers. The Adyen infracontext is shared
+     * through the {@link PaymentContextRegistry}.
      */
     public GenericPaymentServiceInjector() {
-	this.paymentInfraContext = new AdyenInfraInjector().getInfraContext();
+	this(PaymentContextRegistry.getInfraContext(PaymentServiceProvider.ADYEN));
+    }
+
+    /**
+     * Constructor used for injecting the given {@link PaymentInfraContext} object
+     * into the services of the {@link PaymentServiceContext}.
+     * 
+     * @param paymentInfraContext holds the infra services of the payment provider.
+     */
+    public GenericPaymentServiceInjector(PaymentInfraContext paymentInfraContext) {
+	this.paymentInfraContext = paymentInfraContext;
     }
 
     /**
@@ -0,0 +1,239 @@
+/*
+IBM Confidential
+IBM Sterling OMS Payment Integration Adapter
+(C) Copyright IBM Corp. 2022
+Licensed under the Apache License, Version 2.0 (the "License");
+you may not use this file except in compliance with the License.
+http://www.apache.org/licenses/LICENSE-2.0
+Unless required by applicable law or agreed to in writing, software
+distributed under the License is distributed on an "AS IS" BASIS,
+WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+See the License for the specific language governing permissions and
+limitations under the License.
+*/
+package com.ibm.adapter.context;
+
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.json.JSONObject;
+
+import com.ibm.adapter.enums.PaymentServiceProvider;
+import com.ibm.adapter.service.interfaces.PaymentInfraInjector;
+import com.ibm.payment.infra.exception.PaymentConfigurationException;
+import com.ibm.payment.infra.response.ExceptionError;
+
+/**
+ * PaymentContextRegistry class holds the {@link PaymentInfraContext} and the
+ * {@link PaymentServiceContext} of each payment service provider and
+ * configuration for the whole process. The contexts are built lazily and
+ * exactly once on the first call for the payment service provider and
+ * configuration, and then shared by all the adapters and threads. The infra
+ * services of a configuration share a single request handler and HTTP client,
+ * so the properties file is only loaded once. The Adyen infra injector is
+ * registered as the {@link #DEFAULT_CONFIGURATION} by default, the other
+ * payment service providers and configurations are registered by
+ * {@link #registerInfraInjector}.
+ * 
+ * The shared contexts must not be modified by the callers.
+ * 
+ */
+public final class PaymentContextRegistry {
+
+    private static final Logger logger = LogManager.getLogger(PaymentContextRegistry.class);
+
+    /** Name of the configuration used when the call does not select one. */
+    public static final String DEFAULT_CONFIGURATION = "default";
+
+    private static final ConcurrentMap<ContextKey, PaymentInfraInjector> infraInjectors = new ConcurrentHashMap<>();
+    private static final ConcurrentMap<ContextKey, PaymentInfraContext> infraContexts = new ConcurrentHashMap<>();
+    private static final ConcurrentMap<ContextKey, PaymentServiceContext> serviceContexts =
+	    new ConcurrentHashMap<>();
+
+    static {
+	infraInjectors.put(new ContextKey(PaymentServiceProvider.ADYEN, DEFAULT_CONFIGURATION),
+		new AdyenInfraInjector());
+    }
+
+    private PaymentContextRegistry() {
+    }
+
+    /**
+     * Method used to get the shared payment infracontext of the default
+     * configuration of the payment service provider, built on the first call.
+     * 
+     * @param paymentServiceProvider the payment service provider.
+     * @return The {@link PaymentInfraContext} object of the payment service
+     *         provider.
+     */
+    public static PaymentInfraContext getInfraContext(PaymentServiceProvider paymentServiceProvider) {
+	return getInfraContext(paymentServiceProvider, DEFAULT_CONFIGURATION);
+    }
+
+    /**
+     * Method used to get the shared payment infracontext of a configuration of
+     * the payment service provider, built on the first call.
+     * 
+     * @param paymentServiceProvider the payment service provider.
+     * @param configuration          the name of the configuration, the default
+     *                               configuration is used if it is null.
+     * @return The {@link PaymentInfraContext} object of the payment service
+     *         provider and configuration.
+     */
+    public static PaymentInfraContext getInfraContext(PaymentServiceProvider paymentServiceProvider,
+	    String configuration) {
+	return infraContexts.computeIfAbsent(new ContextKey(paymentServiceProvider, configuration), key -> {
+	    logger.debug("PaymentContextRegistry - building the infra context of {}", key);
+	    PaymentInfraInjector infraInjector = infraInjectors.get(key);
+	    if (infraInjector == null) {
+		throw unsupportedProvider(key);
+	    }
+	    return infraInjector.getInfraContext();
+	});
+    }
+
+    /**
+     * Method used to register the infra injector of the default configuration of
+     * a payment service provider, so its contexts can be built and selected by
+     * the {@link PaymentRouter}. The contexts already built for the payment
+     * service provider and configuration are dropped.
+     * 
+     * @param paymentServiceProvider the payment service provider.
+     * @param infraInjector          the injector building the
+     *                               {@link PaymentInfraContext} of the payment
+     *                               service provider.
+     */
+    public static void registerInfraInjector(PaymentServiceProvider paymentServiceProvider,
+	    PaymentInfraInjector infraInjector) {
+	registerInfraInjector(paymentServiceProvider, DEFAULT_CONFIGURATION, infraInjector);
+    }
+
+    /**
+     * Method used to register the infra injector of a configuration of a payment
+     * service provider, such as an {@link AdyenInfraInjector} built from the
+     * properties of another merchant account. The contexts already built for the payment service
+     * provider and configuration are dropped.
+     * 
+     * @param paymentServiceProvider the payment service provider.
+     * @param configuration          the name of the configuration, the default
+     *                               configuration is used if it is null.
+     * @param infraInjector          the injector building the
+     *                               {@link PaymentInfraContext} of the
+     *                               configuration.
+     */
+    public static void registerInfraInjector(PaymentServiceProvider paymentServiceProvider, String configuration,
+	    PaymentInfraInjector infraInjector) {
+	ContextKey key = new ContextKey(paymentServiceProvider, configuration);
+	infraInjectors.put(key, infraInjector);
+	serviceContexts.remove(key);
+	infraContexts.remove(key);
+    }
+
+    /**
+     * Method used to get the shared payment service context of the default
+     * configuration of the payment service provider, built on the first call
+     * along with its payment infracontext.
+     * 
+     * @param paymentServiceProvider the payment service provider.
+     * @return The {@link PaymentServiceContext} object of the payment service
+     *         provider.
+     */
+    public static PaymentServiceContext getServiceContext(PaymentServiceProvider paymentServiceProvider) {
+	return getServiceContext(paymentServiceProvider, DEFAULT_CONFIGURATION);
+    }
+
+    /**
+     * Method used to get the shared payment service context of a configuration of
+     * the payment service provider, built on the first call along with its
+     * payment infracontext.
+     * 
+     * @param paymentServiceProvider the payment service provider.
+     * @param configuration          the name of the configuration, the default
+     *                               configuration is used if it is null.
+     * @return The {@link PaymentServiceContext} object of the payment service
+     *         provider and configuration.
+     */
+    public static PaymentServiceContext getServiceContext(PaymentServiceProvider paymentServiceProvider,
+	    String configuration) {
+	return serviceContexts.computeIfAbsent(new ContextKey(paymentServiceProvider, configuration), key -> {
+	    logger.debug("PaymentContextRegistry - building the service context of {}", key);
+	    return new GenericPaymentServiceInjector(getInfraContext(key.paymentServiceProvider, key.configuration))
+		    .getServiceContext();
+	});
+    }
+
+    /**
+     * Method used to get the shared payment service context of the payment service
+     * provider and configuration of the request context.
+     * 
+     * @param requestContext holds the name of the payment service provider and of
+     *                       the configuration.
+     * @return The {@link PaymentServiceContext} object of the payment service
+     *         provider.
+     */
+    public static PaymentServiceContext getServiceContext(RequestContext requestContext) {
+	return getServiceContext(providerOf(requestContext.getPaymentServiceProvider()),
+		requestContext.getPaymentConfiguration());
+    }
+
+    /**
+     * Method used to get the payment service provider of the given name, ignoring
+     * the case.
+     * 
+     * @param paymentServiceProvider the name of the payment service provider.
+     * @return The {@link PaymentServiceProvider}.
+     */
+    public static PaymentServiceProvider providerOf(String paymentServiceProvider) {
+	for (PaymentServiceProvider psp : PaymentServiceProvider.values()) {
+	    if (psp.name().equalsIgnoreCase(paymentServiceProvider)) {
+		return psp;
+	    }
+	}
+	throw unsupportedProvider(paymentServiceProvider);
+    }
+
+    private static PaymentConfigurationException unsupportedProvider(Object paymentServiceProvider) {
+	logger.error("Unsupported payment service provider {}", paymentServiceProvider);
+	JSONObject errorJSON = new JSONObject();
+	errorJSON.put("errorDescription", "Unsupported payment service provider " + paymentServiceProvider);
+	return new PaymentConfigurationException(ExceptionError.PAY0005, errorJSON);
+    }
+
+    /**
+     * Key of the contexts, the payment service provider and the name of its
+     * configuration.
+     */
+    private static final class ContextKey {
+
+	private final PaymentServiceProvider paymentServiceProvider;
+	private final String configuration;
+
+	ContextKey(PaymentServiceProvider paymentServiceProvider, String configuration) {
+	    this.paymentServiceProvider = paymentServiceProvider;
+	    this.configuration = configuration == null ? DEFAULT_CONFIGURATION : configuration;
+	}
+
+	@Override
+	public boolean equals(Object other) {
+	    if (!(other instanceof ContextKey)) {
+		return false;
+	    }
+	    ContextKey key = (ContextKey) other;
+	    return paymentServiceProvider == key.paymentServiceProvider && configuration.equals(key.configuration);
+	}
+
+	@Override
+	public int hashCode() {
+	    return 31 * Objects.hashCode(paymentServiceProvider) + configuration.hashCode();
+	}
+
+	@Override
+	public String toString() {
+	    return DEFAULT_CONFIGURATION.equals(configuration) ? String.valueOf(paymentServiceProvider)
+		    : paymentServiceProvider + "/" + configuration;
+	}
+    }
+}
@@ -0,0 +1,182 @@
+/*
+IBM Confidential
+IBM Sterling OMS Payment Integration Adapter
+(C) Copyright IBM Corp. 2022
+Licensed under the Apache License, Version 2.0 (the "License");
+you may not use this file except in compliance with the License.
+http://www.apache.org/licenses/LICENSE-2.0
+Unless required by applicable law or agreed to in writing, software
+distributed under the License is distributed on an "AS IS" BASIS,
+WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+See the License for the specific language governing permissions and
+limitations under the License.
+*/
+package com.ibm.adapter.context;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import com.ibm.adapter.enums.PaymentServiceProvider;
+import com.ibm.adapter.payment.model.PaymentCollectionInput;
+
+/**
+ * PaymentRouter class selects the payment service provider of each call, so
+ * the volume can be shifted between the providers without redeploying the
+ * adapter.
+ * <ul>
+ * <li>The payment service provider set in the {@link RequestContext} is always
+ * used.</li>
+ * <li>Otherwise the {@link RoutingRule}s are matched on the merchant, currency
+ * and payment type of the input. A rule naming the merchant wins over a rule
+ * for any merchant, then the same applies to the currency and the payment type.
+ * The first of two rules with the same criteria wins.</li>
+ * <li>The payments matching no rule are routed to the default provider.</li>
+ * </ul>
+ * The rules are compiled once into nested hash tables, so a call is routed
+ * with at most eight lookups and no allocation. The contexts of each provider
+ * are built once and shared through the {@link PaymentContextRegistry}.
+ * 
+ * The shared router routes all the payments to Adyen until it is replaced by
+ * {@link #configure(PaymentRouter)}.
+ */
+public final class PaymentRouter {
+
+    private static final Logger logger = LogManager.getLogger(PaymentRouter.class);
+
+    private static final String ANY = "*";
+
+    private static volatile PaymentRouter instance = new PaymentRouter(PaymentServiceProvider.ADYEN, null);
+
+    private final PaymentServiceProvider defaultProvider;
+
+    // merchant -> currency -> payment type -> provider
+    private final Map<String, Map<String, Map<String, PaymentServiceProvider>>> routes = new HashMap<>();
+
+    /**
+     * Constructor used to compile the routing rules.
+     * 
+     * @param defaultProvider the provider of the payments matching no rule.
+     * @param rules           the routing rules, may be null.
+     */
+    public PaymentRouter(PaymentServiceProvider defaultProvider, List<RoutingRule> rules) {
+	this.defaultProvider = defaultProvider;
+	if (rules != null) {
+	    for (RoutingRule rule : rules) {
+		routes.computeIfAbsent(keyOf(rule.getMerchantId()), merchant -> new HashMap<>())
+			.computeIfAbsent(keyOf(rule.getCurrency()), currency -> new HashMap<>())
+			.putIfAbsent(keyOf(rule.getPaymentType()), rule.getPaymentServiceProvider());
+	    }
+	}
+    }
+
+    /**
+     * @return The router shared by the adapters.
+     */
+    public static PaymentRouter getInstance() {
+	return instance;
+    }
+
+    /**
+     * Method used to replace the shared router, the calls in progress complete
+     * with the previous router.
+     * 
+     * @param paymentRouter the new router.
+     */
+    public static void configure(PaymentRouter paymentRouter) {
+	logger.debug("PaymentRouter - routing rules replaced, default provider {}", paymentRouter.defaultProvider);
+	instance = paymentRouter;
+    }
+
+    /**
+     * Method used to select the payment service provider of the call.
+     * 
+     * @param requestContext         holds the payment service provider requested
+     *                               for the call, may be null.
+     * @param paymentCollectionInput holds the merchant, currency and payment type
+     *                               of the call.
+     * @return The {@link PaymentServiceProvider} of the call.
+     */
+    public PaymentServiceProvider route(RequestContext requestContext,
+	    PaymentCollectionInput paymentCollectionInput) {
+	String requestedProvider = requestContext == null ? null : requestContext.getPaymentServiceProvider();
+	if (requestedProvider != null && !requestedProvider.isEmpty()) {
+	    return PaymentContextRegistry.providerOf(requestedProvider);
+	}
+	PaymentServiceProvider provider = lookup(paymentCollectionInput.getMerchantId(),
+		paymentCollectionInput.getCurrency(), paymentCollectionInput.getPaymentType());
+	return provider == null ? defaultProvider : provider;
+    }
+
+    /**
+     * Method used to select the shared payment infracontext of the call.
+     * 
+     * @param requestContext         holds the payment service provider and the
+     *                               configuration requested for the call, may
+     *                               be null.
+     * @param paymentCollectionInput holds the merchant, currency and payment type
+     *                               of the call.
+     * @return The {@link PaymentInfraContext} of the selected provider and
+     *         configuration.
+     */
+    public PaymentInfraContext selectInfraContext(RequestContext requestContext,
+	    PaymentCollectionInput paymentCollectionInput) {
+	return PaymentContextRegistry.getInfraContext(route(requestContext, paymentCollectionInput),
+		configurationOf(requestContext));
+    }
+
+    /**
+     * Method used to select the shared payment service context of the call.
+     * 
+     * @param requestContext         holds the payment service provider and the
+     *                               configuration requested for the call, may
+     *                               be null.
+     * @param paymentCollectionInput holds the merchant, currency and payment type
+     *                               of the call.
+     * @return The {@link PaymentServiceContext} of the selected provider and
+     *         configuration.
+     */
+    public PaymentServiceContext selectServiceContext(RequestContext requestContext,
+	    PaymentCollectionInput paymentCollectionInput) {
+	return PaymentContextRegistry.getServiceContext(route(requestContext, paymentCollectionInput),
+		configurationOf(requestContext));
+    }
+
+    private static String configurationOf(RequestContext requestContext) {
+	return requestContext == null ? null : requestContext.getPaymentConfiguration();
+    }
+
+    private PaymentServiceProvider lookup(String merchantId, String currency, String paymentType) {
+	PaymentServiceProvider provider = lookup(routes.get(keyOf(merchantId)), currency, paymentType);
+	return provider == null ? lookup(routes.get(ANY), currency, paymentType) : provider;
+    }
+
+    private static PaymentServiceProvider lookup(Map<String, Map<String, PaymentServiceProvider>> currencies,
+	    String currency, String paymentType) {
+	if (currencies == null) {
+	    return null;
+	}
+	PaymentServiceProvider provider = lookup(currencies.get(keyOf(currency)), paymentType);
+	return provider == null ? lookup(currencies.get(ANY), paymentType) : provider;
+    }
+
+    private static PaymentServiceProvider lookup(Map<String, PaymentServiceProvider> paymentTypes,
+	    String paymentType) {
+	if (paymentTypes == null) {
+	    return null;
+	}
+	PaymentServiceProvider provider = paymentTypes.get(keyOf(paymentType));
+	return provider == null ? paymentTypes.get(ANY) : provider;
+    }
+
+    private static String keyOf(String criterion) {
+	return criterion == null ? ANY : criterion;
+    }
+
+    public PaymentServiceProvider getDefaultProvider() {
+	return defaultProvider;
+    }
+}
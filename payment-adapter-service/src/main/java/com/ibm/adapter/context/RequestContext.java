@@ -16,6 +16,9 @@ package com.ibm.adapter.context;
 import java.util.HashMap;
 import java.util.Map;
 
+import com.ibm.adapter.enums.ExecutorMode;
+import com.ibm.payment.infra.metrics.PhaseTimings;
+
 import lombok.Getter;
 import lombok.Setter;
 
@@ -31,6 +34,8 @@ public class RequestContext {
 
     private String contextId;
     private String paymentServiceProvider;
+    // configuration of the payment service provider, the default one if null
+    private String paymentConfiguration;
     private boolean skipAuthCall;
     private boolean skipCaptureCall;
     private boolean skipReverseCall;
@@ -41,4 +46,40 @@ public class RequestContext {
     private Object requestPathParams;
     private Map<String, String> properties = new HashMap<>();
 
+    // maximum number of inputs processed concurrently by executeBatch
+    private int batchParallelism = 10;
+
+    // threads used by executeBatch, VIRTUAL requires Java 21
+    private ExecutorMode executorMode = ExecutorMode.PLATFORM;
+
+    // attaches a new PhaseTimings record to the context on each execute
+    private boolean recordPhaseTimings;
+
+    // time spent in each phase of the last execute, when recordPhaseTimings is set
+    private PhaseTimings phaseTimings;
+
+    /**
+     * Method used to create a copy of this context, so that each payment of a
+     * batch sets its own request path parameters.
+     * 
+     * @return The copy of the {@link RequestContext} object.
+     */
+    public RequestContext copy() {
+	RequestContext requestContext = new RequestContext();
+	requestContext.setContextId(contextId);
+	requestContext.setPaymentServiceProvider(paymentServiceProvider);
+	requestContext.setPaymentConfiguration(paymentConfiguration);
+	requestContext.setSkipAuthCall(skipAuthCall);
+	requestContext.setSkipCaptureCall(skipCaptureCall);
+	requestContext.setSkipReverseCall(skipReverseCall);
+	requestContext.setSkipRefundCall(skipRefundCall);
+	requestContext.setSkipAmountUpdatesCall(skipAmountUpdatesCall);
+	requestContext.setRequestPathParams(requestPathParams);
+	requestContext.setProperties(new HashMap<>(properties));
+	requestContext.setBatchParallelism(batchParallelism);
+	requestContext.setExecutorMode(executorMode);
+	requestContext.setRecordPhaseTimings(recordPhaseTimings);
+	return requestContext;
+    }
+
 }
@@ -0,0 +1,41 @@
+/*
+IBM Confidential
+IBM Sterling OMS Payment Integration Adapter
+(C) Copyright IBM Corp. 2022
+Licensed under the Apache License, Version 2.0 (the "License");
+you may not use this file except in compliance with the License.
+http://www.apache.org/licenses/LICENSE-2.0
+Unless required by applicable law or agreed to in writing, software
+distributed under the License is distributed on an "AS IS" BASIS,
+WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+See the License for the specific language governing permissions and
+limitations under the License.
+*/
+package com.ibm.adapter.context;
+
+import com.ibm.adapter.enums.PaymentServiceProvider;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+/**
+ * RoutingRule class holds a rule of the {@link PaymentRouter}, the payments
+ * matching the merchant, currency and payment type of the rule are routed to
+ * its payment service provider. A null criterion matches any value, e.g. a rule
+ * with only the currency JPY routes all the JPY payments.
+ * 
+ */
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+public class RoutingRule {
+
+    private String merchantId;
+    private String currency;
+    // payment type or card brand of the payment, e.g. CREDIT_CARD
+    private String paymentType;
+    private PaymentServiceProvider paymentServiceProvider;
+}
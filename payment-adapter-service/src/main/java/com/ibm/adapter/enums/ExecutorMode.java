@@ -0,0 +1,29 @@
+/*
+IBM Confidential
+IBM Sterling OMS Payment Integration Adapter
+(C) Copyright IBM Corp. 2022
+Licensed under the Apache License, Version 2.0 (the "License");
+you may not use this file except in compliance with the License.
+http://www.apache.org/licenses/LICENSE-2.0
+Unless required by applicable law or agreed to in writing, software
+distributed under the License is distributed on an "AS IS" BASIS,
+WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+See the License for the specific language governing permissions and
+limitations under the License.
+*/
+package com.ibm.adapter.enums;
+
+/**
+ * 
+ * ExecutorMode class contains the threading modes used for processing the
+ * payments of a batch
+ * <ul>
+ * <li>PLATFORM - payments run on a shared pool of platform threads.</li>
+ * <li>VIRTUAL - each payment runs on its own virtual thread, available from
+ * Java 21. Falls back to PLATFORM on older runtimes.</li>
+ * </ul>
+ *
+ */
+public enum ExecutorMode {
+    PLATFORM, VIRTUAL
+}
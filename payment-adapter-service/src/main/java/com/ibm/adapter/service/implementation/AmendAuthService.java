@@ -13,6 +13,8 @@ limitations under the License.
 */
 package com.ibm.adapter.service.implementation;
 
+import java.util.concurrent.CompletableFuture;
+
 import com.ibm.adapter.context.RequestContext;
 import com.ibm.adapter.util.ServiceUtils;
 import org.apache.logging.log4j.LogManager;
@@ -23,7 +25,6 @@ import com.ibm.adapter.payment.enums.ServiceType;
 import com.ibm.adapter.payment.model.PaymentCollectionInput;
 import com.ibm.adapter.payment.model.PaymentCollectionOutput;
 import com.ibm.adapter.service.interfaces.IAmendAuthEngine;
-import com.ibm.payment.infra.exception.PaymentConnectionException;
 
 /**
  * AmendAuthService implements from {@link IAmendAuthEngine} interface, used for
@@ -80,18 +81,37 @@ public class AmendAuthService implements IAmendAuthEngine {
     public PaymentCollectionOutput execute(RequestContext requestContext,
 	    PaymentCollectionInput paymentCollectionInput) {
 	logger.debug("AmendAuthService - execute()");
-	PaymentCollectionOutput paymentCollectionOutput = new PaymentCollectionOutput();
-	try {
+	return ServiceUtils.perform(getServiceType(), paymentCollectionInput,
+		requestContext.getProperties(), requestConfig -> {
 	    ServiceUtils.setRequestPathParams(requestContext, paymentCollectionInput);
-	    paymentCollectionOutput = paymentInfraContext.getAmountUpdatesInfraService().performAmendAuth(
-		    paymentCollectionInput, requestContext.getProperties(), getServiceType(),
+	    return paymentInfraContext.getAmountUpdatesInfraService().performAmendAuth(
+		    paymentCollectionInput, requestConfig, getServiceType(),
 		    requestContext.getRequestPathParams());
-	} catch (PaymentConnectionException e) {
-	    ServiceUtils.handlePaymentConnectionException(paymentCollectionOutput, e);
-	} catch (Exception e) {
-	    ServiceUtils.handleGenericException(e);
-	}
-	return paymentCollectionOutput;
+	});
+    }
+
+    /**
+     * Method used to call the Implementation of the Payment Gateway for processing
+     * amend authorisation API without blocking the calling thread. The
+     * PaymentConnectionException is handled the same way as {@link #execute}.
+     * 
+     * @param requestContext         holds {@link RequestContext} object containing
+     *                               the request's headers and path parameters.
+     * @param paymentCollectionInput holds {@link PaymentCollectionInput} adapter's
+     *                               input object.
+     * @return The {@link CompletableFuture} completed with the
+     *         {@link PaymentCollectionOutput} adapter's output object.
+     */
+    @SuppressWarnings("unchecked")
+    @Override
+    public CompletableFuture<PaymentCollectionOutput> executeAsync(RequestContext requestContext,
+	    PaymentCollectionInput paymentCollectionInput) {
+	logger.debug("AmendAuthService - executeAsync()");
+	return ServiceUtils.performAsync(getServiceType(), paymentCollectionInput,
+		requestContext.getProperties(), requestConfig -> {
+	    return paymentInfraContext.getAmountUpdatesInfraService().performAmendAuthAsync(paymentCollectionInput,
+		    requestConfig, getServiceType(), ServiceUtils.createRequestPathParams(paymentCollectionInput));
+	});
     }
 
     /**
@@ -13,6 +13,8 @@ limitations under the License.
 */
 package com.ibm.adapter.service.implementation;
 
+import java.util.concurrent.CompletableFuture;
+
 import com.ibm.adapter.service.interfaces.ICaptureEngine;
 import com.ibm.adapter.util.ServiceUtils;
 import org.apache.logging.log4j.LogManager;
@@ -23,7 +25,6 @@ import com.ibm.adapter.context.RequestContext;
 import com.ibm.adapter.payment.enums.ServiceType;
 import com.ibm.adapter.payment.model.PaymentCollectionInput;
 import com.ibm.adapter.payment.model.PaymentCollectionOutput;
-import com.ibm.payment.infra.exception.PaymentConnectionException;
 
 /**
  * CaptureService class implements from {@link ICaptureEngine} interface, used
@@ -78,18 +79,37 @@ public class CaptureService implements ICaptureEngine {
     public PaymentCollectionOutput execute(RequestContext requestContext,
 	    PaymentCollectionInput paymentCollectionInput) {
 	logger.debug("CaptureService - execute()");
-	PaymentCollectionOutput paymentCollectionOutput = new PaymentCollectionOutput();
-	try {
+	return ServiceUtils.perform(getServiceType(), paymentCollectionInput,
+		requestContext.getProperties(), requestConfig -> {
 	    ServiceUtils.setRequestPathParams(requestContext, paymentCollectionInput);
-	    paymentCollectionOutput = paymentInfraContext.getCaptureInfraService().performCapture(
-		    paymentCollectionInput, requestContext.getProperties(), getServiceType(),
+	    return paymentInfraContext.getCaptureInfraService().performCapture(
+		    paymentCollectionInput, requestConfig, getServiceType(),
 		    requestContext.getRequestPathParams());
-	} catch (PaymentConnectionException e) {
-	    ServiceUtils.handlePaymentConnectionException(paymentCollectionOutput, e);
-	} catch (Exception e) {
-	    ServiceUtils.handleGenericException(e);
-	}
-	return paymentCollectionOutput;
+	});
+    }
+
+    /**
+     * Method used to call the Implementation of the Payment Gateway for processing
+     * capture payment API without blocking the calling thread. The
+     * PaymentConnectionException is handled the same way as {@link #execute}.
+     * 
+     * @param requestContext         holds {@link RequestContext} object containing
+     *                               the request's headers and path parameters.
+     * @param paymentCollectionInput holds {@link PaymentCollectionInput} adapter's
+     *                               input object.
+     * @return The {@link CompletableFuture} completed with the
+     *         {@link PaymentCollectionOutput} adapter's output object.
+     */
+    @SuppressWarnings("unchecked")
+    @Override
+    public CompletableFuture<PaymentCollectionOutput> executeAsync(RequestContext requestContext,
+	    PaymentCollectionInput paymentCollectionInput) {
+	logger.debug("CaptureService - executeAsync()");
+	return ServiceUtils.performAsync(getServiceType(), paymentCollectionInput,
+		requestContext.getProperties(), requestConfig -> {
+	    return paymentInfraContext.getCaptureInfraService().performCaptureAsync(paymentCollectionInput,
+		    requestConfig, getServiceType(), ServiceUtils.createRequestPathParams(paymentCollectionInput));
+	});
     }
 
     /**
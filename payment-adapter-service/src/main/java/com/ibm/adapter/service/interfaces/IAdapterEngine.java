@@ -13,6 +13,8 @@ limitations under the License.
 */
 package com.ibm.adapter.service.interfaces;
 
+import java.util.concurrent.CompletableFuture;
+
 import com.ibm.adapter.context.RequestContext;
 
 /**
@@ -49,6 +51,19 @@ public interface IAdapterEngine<T, V> {
      */
     V execute(RequestContext requestContext, T t);
 
+    /**
+     * Method used to call Infrastructure layer for processing payment providers
+     * without blocking the calling thread, so that many payment operations can be
+     * in flight at once without holding a thread per call.
+     * 
+     * @param requestContext holds {@link RequestContext} request context object
+     *                       containing the request's headers and path parameters.
+     * @param t              adapter's input which used to construct the request
+     *                       based on the payment provider's request.
+     * @return The {@link CompletableFuture} completed with the adapter's output.
+     */
+    CompletableFuture<V> executeAsync(RequestContext requestContext, T t);
+
     /**
      * Method used to check eligibility for process payments API.
      * 
@@ -13,6 +13,8 @@ limitations under the License.
 */
 package com.ibm.adapter.service.interfaces;
 
+import java.util.concurrent.CompletableFuture;
+
 import com.ibm.adapter.context.RequestContext;
 import com.ibm.adapter.payment.enums.ServiceType;
 import com.ibm.adapter.payment.model.PaymentCollectionInput;
@@ -65,6 +67,22 @@ public interface ICaptureEngine extends IAdapterEngine<PaymentCollectionInput, P
      */
     PaymentCollectionOutput execute(RequestContext requestContext, PaymentCollectionInput paymentCollectionInput);
 
+    /**
+     * Method used to call the implementation of the Payment Gateway for processing
+     * capture payment API without blocking the calling thread. Connectivity issues
+     * are handled the same way as {@link #execute}, the returned output is marked
+     * for retry.
+     * 
+     * @param requestContext         holds {@link RequestContext} object containing
+     *                               the request's headers and path parameters.
+     * @param paymentCollectionInput holds {@link PaymentCollectionInput} adapter's
+     *                               input object.
+     * @return The {@link CompletableFuture} completed with the
+     *         {@link PaymentCollectionOutput} adapter's output object.
+     */
+    CompletableFuture<PaymentCollectionOutput> executeAsync(RequestContext requestContext,
+	    PaymentCollectionInput paymentCollectionInput);
+
     /**
      * Method used to check eligibility for processing capture payment API.
      * 
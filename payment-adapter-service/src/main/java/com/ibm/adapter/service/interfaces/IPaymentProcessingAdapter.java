@@ -13,14 +13,18 @@ limitations under the License.
 */
 package com.ibm.adapter.service.interfaces;
 
-import com.fasterxml.jackson.databind.DeserializationFeature;
-import com.fasterxml.jackson.databind.ObjectMapper;
-import com.fasterxml.jackson.databind.SerializationFeature;
+import java.util.List;
+
+import com.ibm.adapter.context.BatchItemResult;
 import com.ibm.adapter.context.RequestContext;
 import com.ibm.adapter.payment.model.PaymentCollectionInput;
 import com.ibm.adapter.payment.model.PaymentCollectionOutput;
+import com.ibm.adapter.util.BatchExecutor;
 import com.ibm.adapter.util.ServiceUtils;
-import lombok.SneakyThrows;
+import com.ibm.payment.infra.metrics.PaymentMetrics;
+import com.ibm.payment.infra.metrics.PaymentPhase;
+import com.ibm.payment.infra.metrics.PhaseTimings;
+import com.ibm.payment.infra.util.LogPayloads;
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
 
@@ -49,9 +53,6 @@ import org.apache.logging.log4j.Logger;
  */
 public interface IPaymentProcessingAdapter<ExternalPaymentInput, ExternalPaymentOutput> {
     static final Logger logger = LogManager.getLogger(IPaymentProcessingAdapter.class);
-    static ObjectMapper objectMapper = new ObjectMapper()
-	    .configure(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES, false)
-	    .enable(SerializationFeature.INDENT_OUTPUT);
 
     /**
      * This method can be leveraged to map oms objects to adapter domain object.
@@ -169,42 +170,88 @@ public interface IPaymentProcessingAdapter<ExternalPaymentInput, ExternalPayment
      * call performReverse(requestContext,paymentCollectionInput).</li>
      * <li>postprocess - convert adapters output model to client specific model</li>
      * </ul>
+     * The time spent in each {@link PaymentPhase} is recorded in the
+     * {@link PaymentMetrics} of the action, and in a new {@link PhaseTimings}
+     * record set on the request context when
+     * {@link RequestContext#isRecordPhaseTimings()}.
      * 
      * @param requestContext       context object
      * @param externalPaymentInput adapter's input object
      * @return adapter's output object
      */
-    @SneakyThrows
     default ExternalPaymentOutput execute(RequestContext requestContext, ExternalPaymentInput externalPaymentInput) {
-	PaymentCollectionInput paymentCollectionInput = preProcess(requestContext, externalPaymentInput);
-	logger.debug("After preprocess >> " + objectMapper.writeValueAsString(paymentCollectionInput));
-	// Determine payment service to be invoked
-	String action = ServiceUtils.determineAction(paymentCollectionInput);
-	logger.debug("Action determined is " + action);
-	PaymentCollectionOutput paymentCollectionOutput = null;
-	switch (action) {
-	case "REVERSE": {
-	    paymentCollectionOutput = performReverseAuth(requestContext, paymentCollectionInput);
-	    break;
-	}
-	case "AMEND_AUTHORIZATION": {
-	    paymentCollectionOutput = amendAuthorization(requestContext, paymentCollectionInput);
-	    break;
-	}
-	case "CAPTURE": {
-	    paymentCollectionOutput = performCharge(requestContext, paymentCollectionInput);
-	    break;
-	}
-	case "REFUND": {
-	    paymentCollectionOutput = performRefund(requestContext, paymentCollectionInput);
-	    break;
+	PhaseTimings phaseTimings = requestContext.isRecordPhaseTimings() ? new PhaseTimings() : null;
+	requestContext.setPhaseTimings(phaseTimings);
+	PhaseTimings previousPhaseTimings = PhaseTimings.attach(phaseTimings);
+	try {
+	    long startTime = System.nanoTime();
+	    PaymentCollectionInput paymentCollectionInput = preProcess(requestContext, externalPaymentInput);
+	    long preProcessNanos = System.nanoTime() - startTime;
+	    logger.debug("After preprocess >> {}", () -> LogPayloads.toMaskedJson(paymentCollectionInput));
+	    // Determine payment service to be invoked
+	    startTime = System.nanoTime();
+	    String action = ServiceUtils.determineAction(paymentCollectionInput);
+	    PaymentMetrics.recordPhase(action, PaymentPhase.PRE_PROCESS, preProcessNanos);
+	    PaymentMetrics.recordPhase(action, PaymentPhase.DETERMINE_ACTION, System.nanoTime() - startTime);
+	    logger.debug("Action determined is {}", action);
+	    PaymentCollectionOutput paymentCollectionOutput = null;
+	    switch (action) {
+	    case "REVERSE": {
+		paymentCollectionOutput = performReverseAuth(requestContext, paymentCollectionInput);
+		break;
+	    }
+	    case "AMEND_AUTHORIZATION": {
+		paymentCollectionOutput = amendAuthorization(requestContext, paymentCollectionInput);
+		break;
+	    }
+	    case "CAPTURE": {
+		paymentCollectionOutput = performCharge(requestContext, paymentCollectionInput);
+		break;
+	    }
+	    case "REFUND": {
+		paymentCollectionOutput = performRefund(requestContext, paymentCollectionInput);
+		break;
+	    }
+	    case "PROCESS_PAYMENTS": {
+		paymentCollectionOutput = processPayment(requestContext, paymentCollectionInput);
+		break;
+	    }
+	    }
+	    startTime = System.nanoTime();
+	    ExternalPaymentOutput externalPaymentOutput = postProcess(requestContext, paymentCollectionOutput);
+	    PaymentMetrics.recordPhase(action, PaymentPhase.POST_PROCESS, System.nanoTime() - startTime);
+	    return externalPaymentOutput;
+	} finally {
+	    PhaseTimings.attach(previousPhaseTimings);
 	}
-	case "PROCESS_PAYMENTS": {
-	    paymentCollectionOutput = processPayment(requestContext, paymentCollectionInput);
-	    break;
-	}
-	}
-	return postProcess(requestContext, paymentCollectionOutput);
+    }
+
+    /**
+     * This method processes many inputs concurrently, each of them the same way as
+     * {@link #execute}: preprocess, determine the action, invoke the respective
+     * payment service interface and postprocess. <br>
+     * <ul>
+     * <li>At most {@link RequestContext#getBatchParallelism()} inputs are processed
+     * at the same time.</li>
+     * <li>The inputs run on the threads of
+     * {@link RequestContext#getExecutorMode()}, VIRTUAL runs each input on its own
+     * virtual thread on Java 21 and later.</li>
+     * <li>Each input is processed with its own copy of the request context.</li>
+     * <li>The results are returned in the same order as the inputs. An exception
+     * for one input is returned in its result and does not fail the batch.</li>
+     * </ul>
+     * 
+     * @param requestContext        context object
+     * @param externalPaymentInputs adapter's input objects
+     * @return results holding the adapter's output object or the exception of each
+     *         input
+     */
+    default List<BatchItemResult<ExternalPaymentOutput>> executeBatch(RequestContext requestContext,
+	    List<ExternalPaymentInput> externalPaymentInputs) {
+	logger.debug("Executing batch of {} payments", externalPaymentInputs.size());
+	return BatchExecutor.execute(externalPaymentInputs, requestContext.getBatchParallelism(),
+		requestContext.getExecutorMode(),
+		externalPaymentInput -> execute(requestContext.copy(), externalPaymentInput));
     }
 
     /**
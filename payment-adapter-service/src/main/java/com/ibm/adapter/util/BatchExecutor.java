@@ -0,0 +1,233 @@
+/*
+IBM Confidential
+IBM Sterling OMS Payment Integration Adapter
+(C) Copyright IBM Corp. 2022
+Licensed under the Apache License, Version 2.0 (the "License");
+you may not use this file except in compliance with the License.
+http://www.apache.org/licenses/LICENSE-2.0
+Unless required by applicable law or agreed to in writing, software
+distributed under the License is distributed on an "AS IS" BASIS,
+WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+See the License for the specific language governing permissions and
+limitations under the License.
+*/
+package com.ibm.adapter.util;
+
+import java.lang.reflect.Method;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.json.JSONObject;
+
+import com.ibm.adapter.context.BatchItemResult;
+import com.ibm.adapter.enums.ExecutorMode;
+import com.ibm.payment.infra.exception.PaymentConfigurationException;
+import com.ibm.payment.infra.exception.PaymentException;
+import com.ibm.payment.infra.response.ExceptionError;
+
+/**
+ * Utility class used to process a batch of payment inputs concurrently.
+ * <ul>
+ * <li>At most the configured parallelism number of inputs of a batch are
+ * processed at the same time.</li>
+ * <li>The inputs run on the threads of the requested {@link ExecutorMode}.
+ * Virtual threads are looked up at runtime, so the adapter keeps running on
+ * Java 8 and uses them only when the runtime provides them.</li>
+ * <li>The results are returned in the same order as the inputs.</li>
+ * <li>The platform threads are shared by all the batches and bounded by
+ * {@link #setMaxPlatformThreads(int)}, 64 by default, the inputs beyond it
+ * wait for a free thread.</li>
+ * <li>An exception or error raised for one input is captured in its
+ * {@link BatchItemResult} and does not stop the rest of the batch.</li>
+ * </ul>
+ */
+public class BatchExecutor {
+
+    private static final Logger logger = LogManager.getLogger(BatchExecutor.class);
+
+    private static final String ERROR_DESCRIPTION = "errorDescription";
+
+    private static final int DEFAULT_MAX_PLATFORM_THREADS = 64;
+
+    private static final ThreadPoolExecutor platformExecutorService = createPlatformExecutorService();
+
+    private static final ExecutorService virtualExecutorService = createVirtualExecutorService();
+
+    private BatchExecutor() {
+    }
+
+    /**
+     * Method used to create the shared pool of platform threads, its idle threads
+     * are stopped after a minute.
+     * 
+     * @return The bounded {@link ThreadPoolExecutor}.
+     */
+    private static ThreadPoolExecutor createPlatformExecutorService() {
+	ThreadPoolExecutor executor = new ThreadPoolExecutor(DEFAULT_MAX_PLATFORM_THREADS,
+		DEFAULT_MAX_PLATFORM_THREADS, 60, TimeUnit.SECONDS, new LinkedBlockingQueue<>(), new ThreadFactory() {
+		    private final AtomicInteger threadCount = new AtomicInteger();
+
+		    @Override
+		    public Thread newThread(Runnable runnable) {
+			Thread thread = new Thread(runnable, "payment-batch-" + threadCount.incrementAndGet());
+			thread.setDaemon(true);
+			return thread;
+		    }
+		});
+	executor.allowCoreThreadTimeOut(true);
+	return executor;
+    }
+
+    /**
+     * Method used to bound the platform threads shared by all the batches.
+     * 
+     * @param maxThreads maximum number of platform threads processing inputs.
+     */
+    public static synchronized void setMaxPlatformThreads(int maxThreads) {
+	if (maxThreads < 1) {
+	    logger.error("BatchExecutor - invalid maximum platform threads {}", maxThreads);
+	    throw new PaymentConfigurationException(ExceptionError.PAY0005,
+		    new JSONObject().put(ERROR_DESCRIPTION, "Batch platform threads must be greater than zero"));
+	}
+	// the maximum size must never be below the core size
+	if (maxThreads > platformExecutorService.getMaximumPoolSize()) {
+	    platformExecutorService.setMaximumPoolSize(maxThreads);
+	    platformExecutorService.setCorePoolSize(maxThreads);
+	} else {
+	    platformExecutorService.setCorePoolSize(maxThreads);
+	    platformExecutorService.setMaximumPoolSize(maxThreads);
+	}
+    }
+
+    /**
+     * @return The maximum number of platform threads shared by all the batches.
+     */
+    public static int getMaxPlatformThreads() {
+	return platformExecutorService.getMaximumPoolSize();
+    }
+
+    /**
+     * Method used to create the virtual thread per task executor when the runtime
+     * supports virtual threads.
+     * 
+     * @return The virtual thread per task executor, or null on runtimes older than
+     *         Java 21.
+     */
+    private static ExecutorService createVirtualExecutorService() {
+	try {
+	    Method method = Executors.class.getMethod("newVirtualThreadPerTaskExecutor");
+	    return (ExecutorService) method.invoke(null);
+	} catch (ReflectiveOperationException e) {
+	    logger.debug("BatchExecutor - virtual threads are not supported by this runtime");
+	    return null;
+	}
+    }
+
+    /**
+     * Method used to check whether the runtime supports the virtual thread
+     * executor mode.
+     * 
+     * @return true if payments can run on virtual threads.
+     */
+    public static boolean isVirtualThreadSupported() {
+	return virtualExecutorService != null;
+    }
+
+    /**
+     * Method used to get the executor of the executor mode. VIRTUAL falls back to
+     * the platform threads when the runtime does not support virtual threads.
+     * 
+     * @param executorMode executor mode of the batch.
+     * @return The respective {@link ExecutorService}.
+     */
+    static ExecutorService getExecutorService(ExecutorMode executorMode) {
+	if (executorMode == ExecutorMode.VIRTUAL) {
+	    if (virtualExecutorService != null) {
+		return virtualExecutorService;
+	    }
+	    logger.warn("BatchExecutor - virtual threads are not supported by this runtime, using platform threads");
+	}
+	return platformExecutorService;
+    }
+
+    /**
+     * Method used to process the inputs concurrently on platform threads with
+     * bounded parallelism and wait for all of them to complete.
+     * 
+     * @param inputs      inputs of the batch.
+     * @param parallelism maximum number of inputs processed at the same time.
+     * @param processor   function processing a single input.
+     * @return The list of {@link BatchItemResult} in the same order as the inputs.
+     */
+    public static <I, O> List<BatchItemResult<O>> execute(List<I> inputs, int parallelism,
+	    Function<I, O> processor) {
+	return execute(inputs, parallelism, ExecutorMode.PLATFORM, processor);
+    }
+
+    /**
+     * Method used to process the inputs concurrently with bounded parallelism and
+     * wait for all of them to complete. Each input is submitted as its own task
+     * once a permit is available, so in VIRTUAL mode every payment runs on a new
+     * virtual thread.
+     * 
+     * @param inputs       inputs of the batch.
+     * @param parallelism  maximum number of inputs processed at the same time.
+     * @param executorMode threads used to process the inputs.
+     * @param processor    function processing a single input.
+     * @return The list of {@link BatchItemResult} in the same order as the inputs.
+     */
+    public static <I, O> List<BatchItemResult<O>> execute(List<I> inputs, int parallelism,
+	    ExecutorMode executorMode, Function<I, O> processor) {
+	if (parallelism < 1) {
+	    logger.error("BatchExecutor - invalid batch parallelism {}", parallelism);
+	    throw new PaymentConfigurationException(ExceptionError.PAY0005,
+		    new JSONObject().put(ERROR_DESCRIPTION, "Batch parallelism must be greater than zero"));
+	}
+	ExecutorService executorService = getExecutorService(executorMode);
+	int size = inputs.size();
+	@SuppressWarnings("unchecked")
+	BatchItemResult<O>[] results = new BatchItemResult[size];
+	Semaphore permits = new Semaphore(parallelism);
+	List<CompletableFuture<Void>> futures = new ArrayList<>(size);
+	for (int i = 0; i < size; i++) {
+	    int index = i;
+	    I input = inputs.get(index);
+	    permits.acquireUninterruptibly();
+	    futures.add(CompletableFuture.runAsync(() -> {
+		try {
+		    results[index] = process(index, input, processor);
+		} finally {
+		    permits.release();
+		}
+	    }, executorService));
+	}
+	CompletableFuture.allOf(futures.toArray(new CompletableFuture[0])).join();
+	return Arrays.asList(results);
+    }
+
+    private static <I, O> BatchItemResult<O> process(int index, I input, Function<I, O> processor) {
+	try {
+	    return BatchItemResult.success(index, processor.apply(input));
+	} catch (Exception e) {
+	    logger.error("BatchExecutor - Exception occurs while processing the batch input at index {}", index, e);
+	    return BatchItemResult.failure(index, e);
+	} catch (Error e) {
+	    // an error must not leave the result of the input empty
+	    logger.error("BatchExecutor - Error occurs while processing the batch input at index {}", index, e);
+	    return BatchItemResult.failure(index, new PaymentException(e));
+	}
+    }
+}
@@ -0,0 +1,258 @@
+/*
+IBM Confidential
+IBM Sterling OMS Payment Integration Adapter
+(C) Copyright IBM Corp. 2022
+Licensed under the Apache License, Version 2.0 (the "License");
+you may not use this file except in compliance with the License.
+http://www.apache.org/licenses/LICENSE-2.0
+Unless required by applicable law or agreed to in writing, software
+distributed under the License is distributed on an "AS IS" BASIS,
+WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+See the License for the specific language governing permissions and
+limitations under the License.
+*/
+package com.ibm.adapter.util;
+
+import java.lang.management.ManagementFactory;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.json.JSONObject;
+
+import com.ibm.adapter.payment.enums.ServiceType;
+import com.ibm.payment.infra.exception.PaymentConfigurationException;
+import com.ibm.payment.infra.exception.PaymentRejectedException;
+import com.ibm.payment.infra.metrics.PaymentMetrics;
+import com.ibm.payment.infra.response.ExceptionError;
+
+/**
+ * Bulkhead class limits the number of concurrent calls of a service type, so a
+ * burst of one service type (e.g. REFUND) cannot take all the threads and HTTP
+ * connections needed by the others (e.g. CAPTURE).
+ * <ul>
+ * <li>At most maxConcurrentCalls calls of the service type run at the same
+ * time.</li>
+ * <li>A call finding no free permit waits up to maxWaitMillis, with at most
+ * maxQueueDepth calls waiting at the same time.</li>
+ * <li>A rejected call fails with {@link PaymentRejectedException}, so the
+ * payment is marked for retry by the service layer.</li>
+ * </ul>
+ * The service types are not limited until they are configured by
+ * {@link #configure(ServiceType, int, int, long)}. Each bulkhead is exposed
+ * through JMX as com.ibm.payment.infra:type=Bulkhead,name=SERVICE_TYPE, in the
+ * {@link PaymentMetrics#JMX_DOMAIN} of the adapter.
+ */
+public class Bulkhead implements BulkheadMXBean {
+
+    private static final Logger logger = LogManager.getLogger(Bulkhead.class);
+
+    private static final String OBJECT_NAME = PaymentMetrics.JMX_DOMAIN + ":type=Bulkhead,name=";
+
+    private static final String ERROR_DESCRIPTION = "errorDescription";
+
+    private static final Map<String, Bulkhead> bulkheads = new ConcurrentHashMap<>();
+
+    private final String serviceType;
+
+    private final int maxConcurrentCalls;
+
+    private final int maxQueueDepth;
+
+    private final long maxWaitMillis;
+
+    private final Semaphore permits;
+
+    private final AtomicInteger queueDepth = new AtomicInteger();
+
+    private final AtomicInteger peakQueueDepth = new AtomicInteger();
+
+    private final LongAdder permittedCalls = new LongAdder();
+
+    private final LongAdder rejectedCalls = new LongAdder();
+
+    Bulkhead(String serviceType, int maxConcurrentCalls, int maxQueueDepth, long maxWaitMillis) {
+	this.serviceType = serviceType;
+	this.maxConcurrentCalls = maxConcurrentCalls;
+	this.maxQueueDepth = maxQueueDepth;
+	this.maxWaitMillis = maxWaitMillis;
+	this.permits = new Semaphore(maxConcurrentCalls, true);
+    }
+
+    /**
+     * Method used to limit the concurrent calls of a service type. Replaces the
+     * previous bulkhead of the service type, the calls holding a permit of the
+     * previous one release it when they complete.
+     * 
+     * @param serviceType        service type to be limited.
+     * @param maxConcurrentCalls maximum calls of the service type running at the
+     *                           same time.
+     * @param maxQueueDepth      maximum calls waiting for a permit, 0 rejects the
+     *                           calls straight away when all the permits are
+     *                           taken.
+     * @param maxWaitMillis      maximum milliseconds a call waits for a permit.
+     * @return The configured {@link Bulkhead}.
+     */
+    public static Bulkhead configure(ServiceType serviceType, int maxConcurrentCalls, int maxQueueDepth,
+	    long maxWaitMillis) {
+	if (maxConcurrentCalls < 1 || maxQueueDepth < 0 || maxWaitMillis < 0) {
+	    logger.error("Bulkhead - invalid configuration of {}", serviceType);
+	    throw new PaymentConfigurationException(ExceptionError.PAY0005, new JSONObject().put(ERROR_DESCRIPTION,
+		    "Bulkhead of " + serviceType + " must permit at least one call and must not have negative limits"));
+	}
+	Bulkhead bulkhead = new Bulkhead(serviceType.name(), maxConcurrentCalls, maxQueueDepth, maxWaitMillis);
+	bulkheads.put(serviceType.name(), bulkhead);
+	registerMBean(bulkhead);
+	return bulkhead;
+    }
+
+    /**
+     * Method used to remove the limit of a service type.
+     * 
+     * @param serviceType service type to be no longer limited.
+     */
+    public static void remove(ServiceType serviceType) {
+	if (bulkheads.remove(serviceType.name()) != null) {
+	    try {
+		MBeanServer mBeanServer = ManagementFactory.getPlatformMBeanServer();
+		ObjectName objectName = new ObjectName(OBJECT_NAME + serviceType.name());
+		if (mBeanServer.isRegistered(objectName)) {
+		    mBeanServer.unregisterMBean(objectName);
+		}
+	    } catch (Exception e) {
+		logger.warn("Bulkhead - could not unregister the MBean of {}", serviceType, e);
+	    }
+	}
+    }
+
+    /**
+     * @param serviceType service type of the call.
+     * @return The {@link Bulkhead} of the service type, or null if the service
+     *         type is not limited.
+     */
+    public static Bulkhead of(String serviceType) {
+	return bulkheads.get(serviceType);
+    }
+
+    private static void registerMBean(Bulkhead bulkhead) {
+	try {
+	    MBeanServer mBeanServer = ManagementFactory.getPlatformMBeanServer();
+	    ObjectName objectName = new ObjectName(OBJECT_NAME + bulkhead.getServiceType());
+	    if (mBeanServer.isRegistered(objectName)) {
+		mBeanServer.unregisterMBean(objectName);
+	    }
+	    mBeanServer.registerMBean(bulkhead, objectName);
+	} catch (Exception e) {
+	    logger.warn("Bulkhead - could not register the MBean of {}", bulkhead.getServiceType(), e);
+	}
+    }
+
+    /**
+     * Method used to take a permit, waiting up to maxWaitMillis when all the
+     * permits are taken. The permit must be given back by {@link #release()}.
+     * 
+     * @throws PaymentRejectedException if the queue is full, the wait times out
+     *                                  or the thread is interrupted.
+     */
+    public void acquire() {
+	if (permits.tryAcquire()) {
+	    permittedCalls.increment();
+	    return;
+	}
+	int depth = queueDepth.incrementAndGet();
+	try {
+	    if (depth > maxQueueDepth) {
+		throw reject("queue is full");
+	    }
+	    peakQueueDepth.accumulateAndGet(depth, Math::max);
+	    if (!permits.tryAcquire(maxWaitMillis, TimeUnit.MILLISECONDS)) {
+		throw reject("no permit within " + maxWaitMillis + " ms");
+	    }
+	    permittedCalls.increment();
+	} catch (InterruptedException e) {
+	    Thread.currentThread().interrupt();
+	    throw reject("interrupted while waiting for a permit");
+	} finally {
+	    queueDepth.decrementAndGet();
+	}
+    }
+
+    /**
+     * Method used to take a permit without waiting, used by the asynchronous
+     * calls which must not block the calling thread.
+     * 
+     * @throws PaymentRejectedException if all the permits are taken.
+     */
+    public void tryAcquire() {
+	if (!permits.tryAcquire()) {
+	    throw reject("no permit available");
+	}
+	permittedCalls.increment();
+    }
+
+    /**
+     * Method used to give back the permit of a completed call.
+     */
+    public void release() {
+	permits.release();
+    }
+
+    private PaymentRejectedException reject(String reason) {
+	rejectedCalls.increment();
+	logger.warn("Bulkhead - {} call rejected, {}", serviceType, reason);
+	return new PaymentRejectedException("Bulkhead of " + serviceType + " rejected the call, " + reason);
+    }
+
+    @Override
+    public String getServiceType() {
+	return serviceType;
+    }
+
+    @Override
+    public int getMaxConcurrentCalls() {
+	return maxConcurrentCalls;
+    }
+
+    @Override
+    public int getMaxQueueDepth() {
+	return maxQueueDepth;
+    }
+
+    @Override
+    public long getMaxWaitMillis() {
+	return maxWaitMillis;
+    }
+
+    @Override
+    public int getActiveCalls() {
+	return maxConcurrentCalls - permits.availablePermits();
+    }
+
+    @Override
+    public int getQueueDepth() {
+	return Math.max(0, queueDepth.get());
+    }
+
+    @Override
+    public int getPeakQueueDepth() {
+	return peakQueueDepth.get();
+    }
+
+    @Override
+    public long getPermittedCalls() {
+	return permittedCalls.sum();
+    }
+
+    @Override
+    public long getRejectedCalls() {
+	return rejectedCalls.sum();
+    }
+}
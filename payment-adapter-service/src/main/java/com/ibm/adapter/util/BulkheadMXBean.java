@@ -0,0 +1,42 @@
+/*
+IBM Confidential
+IBM Sterling OMS Payment Integration Adapter
+(C) Copyright IBM Corp. 2022
+Licensed under the Apache License, Version 2.0 (the "License");
+you may not use this file except in compliance with the License.
+http://www.apache.org/licenses/LICENSE-2.0
+Unless required by applicable law or agreed to in writing, software
+distributed under the License is distributed on an "AS IS" BASIS,
+WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+See the License for the specific language governing permissions and
+limitations under the License.
+*/
+package com.ibm.adapter.util;
+
+/**
+ * 
+ * BulkheadMXBean interface exposes the concurrency limit of a service type and
+ * its rejected calls through JMX. The counts are since the bulkhead is
+ * configured.
+ *
+ */
+public interface BulkheadMXBean {
+
+    String getServiceType();
+
+    int getMaxConcurrentCalls();
+
+    int getMaxQueueDepth();
+
+    long getMaxWaitMillis();
+
+    int getActiveCalls();
+
+    int getQueueDepth();
+
+    int getPeakQueueDepth();
+
+    long getPermittedCalls();
+
+    long getRejectedCalls();
+}
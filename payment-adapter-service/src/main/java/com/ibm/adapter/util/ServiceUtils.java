@@ -20,16 +20,24 @@ import com.ibm.adapter.payment.model.PaymentCollectionInput;
 import com.ibm.adapter.payment.model.PaymentCollectionOutput;
 import com.ibm.payment.infra.context.AdyenRequestPathParam;
 import com.ibm.payment.infra.exception.PaymentConnectionException;
+import com.ibm.payment.infra.jfr.PaymentEvents;
+import com.ibm.payment.infra.metrics.OperationMetrics;
+import com.ibm.payment.infra.metrics.PaymentMetrics;
+import com.ibm.payment.infra.retry.RetryScheduler;
+import com.ibm.payment.infra.util.IdempotencyKeys;
+import com.ibm.payment.infra.util.IdempotentResponseCache;
 import lombok.SneakyThrows;
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
 
 import java.math.BigDecimal;
-import java.util.Arrays;
+import java.util.Map;
 import java.util.Objects;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
 import java.util.function.BiPredicate;
+import java.util.function.Function;
 import java.util.function.Predicate;
-import java.util.stream.Collectors;
 
 /**
  * Utility class provide similar methods used in the service layer. Below are
@@ -42,6 +50,10 @@ import java.util.stream.Collectors;
  * <li>handle payment connection exception if connection related issues occurs
  * from the infrastructure layer.</li>
  * <li>handle generic exception to log the other error occurs.</li>
+ * <li>apply the exception handling and record the metrics of the
+ * infrastructure calls.</li>
+ * <li>apply the same exception handling on the results of the asynchronous
+ * infrastructure calls.</li>
  * </ul>
  */
 public class ServiceUtils {
@@ -59,9 +71,21 @@ public class ServiceUtils {
      */
     public static void setRequestPathParams(RequestContext requestContext,
 	    PaymentCollectionInput paymentCollectionInput) {
+	requestContext.setRequestPathParams(createRequestPathParams(paymentCollectionInput));
+    }
+
+    /**
+     * Method used to create the request path parameters of a single call. The
+     * asynchronous calls pass them to the infrastructure services directly, as a
+     * {@link RequestContext} may be shared by concurrent calls.
+     * 
+     * @param paymentCollectionInput object used to get authorisation id.
+     * @return The {@link AdyenRequestPathParam} holding the PspPaymentReference.
+     */
+    public static AdyenRequestPathParam createRequestPathParams(PaymentCollectionInput paymentCollectionInput) {
 	AdyenRequestPathParam params = new AdyenRequestPathParam();
 	params.setPspPaymentReference(paymentCollectionInput.getPaymentReference());
-	requestContext.setRequestPathParams(params);
+	return params;
     }
 
     /**
@@ -147,9 +171,7 @@ public class ServiceUtils {
      */
     public static PaymentCollectionOutput handlePaymentConnectionException(
 	    PaymentCollectionOutput paymentCollectionOutput, PaymentConnectionException e) {
-	logger.error("PaymentConnectionException Occurs, setting field for retry"
-		+ Arrays.asList(e.getStackTrace()).stream().map(Objects::toString).collect(Collectors.joining("\n")));
-	logger.error("PaymentConnectionException Occurs, setting field for retry");
+	logger.error("PaymentConnectionException Occurs, setting field for retry", e);
 	paymentCollectionOutput.setRetry("Y");
 	return paymentCollectionOutput;
     }
@@ -162,8 +184,190 @@ public class ServiceUtils {
      */
     @SneakyThrows
     public static void handleGenericException(Exception e) {
-	logger.error("Exception Occurs while calling Payment service provider.Please investigate this exception!"
-		+ Arrays.asList(e.getStackTrace()).stream().map(Objects::toString).collect(Collectors.joining("\n")));
+	logger.error("Exception Occurs while calling Payment service provider.Please investigate this exception!", e);
 	throw e;
     }
+
+    /**
+     * Method used to invoke the infrastructure call of a service and apply the
+     * exception handling of the service layer.
+     * <ul>
+     * <li>PaymentConnectionException - handled by
+     * {@link #handlePaymentConnectionException}, the output is marked for
+     * retry.</li>
+     * <li>Other exceptions - logged and rethrown by
+     * {@link #handleGenericException}.</li>
+     * </ul>
+     * A transaction which already completed is answered from the
+     * {@link IdempotentResponseCache} without calling the infrastructure service,
+     * and a transaction whose call is still waiting to be replayed by the
+     * {@link RetryScheduler} is marked for retry without being sent again.
+     * Otherwise the infrastructure service gets the request configs with the
+     * idempotency key used for the cache.
+     * The call waits for a permit of the {@link Bulkhead} of the service type
+     * when it is configured, a rejected call is marked for retry. The latency and
+     * the outcome of the call are recorded in the operation metrics and in the
+     * Flight Recorder event of the operation.
+     * 
+     * @param serviceType            holds the service type of the call.
+     * @param paymentCollectionInput holds the adapter's input object.
+     * @param config                 holds the request configs of the call.
+     * @param infraCall              function invoking the infrastructure service
+     *                               with the request configs.
+     * @return The PaymentCollection output object.
+     */
+    public static PaymentCollectionOutput perform(String serviceType, PaymentCollectionInput paymentCollectionInput,
+	    Map<String, String> config, Function<Map<String, String>, PaymentCollectionOutput> infraCall) {
+	IdempotentResponseCache responseCache = IdempotentResponseCache.getInstance();
+	String idempotencyKey = IdempotencyKeys.of(serviceType, paymentCollectionInput);
+	PaymentCollectionOutput cachedOutput = responseCache.get(idempotencyKey);
+	if (cachedOutput != null) {
+	    logger.debug("{} is already completed, returning the cached output", serviceType);
+	    return cachedOutput;
+	}
+	if (RetryScheduler.isReplayPending(idempotencyKey)) {
+	    return replayPendingOutput(serviceType);
+	}
+	OperationMetrics operationMetrics = PaymentMetrics.getOperationMetrics(serviceType);
+	Object paymentOperationEvent = PaymentEvents.beginOperation();
+	long startTime = System.nanoTime();
+	PaymentCollectionOutput paymentCollectionOutput = new PaymentCollectionOutput();
+	Bulkhead bulkhead = Bulkhead.of(serviceType);
+	boolean permitted = false;
+	Throwable failure = null;
+	try {
+	    if (bulkhead != null) {
+		bulkhead.acquire();
+		permitted = true;
+	    }
+	    paymentCollectionOutput = infraCall.apply(IdempotencyKeys.withIdempotencyKey(config, idempotencyKey));
+	    responseCache.put(idempotencyKey, paymentCollectionOutput);
+	} catch (PaymentConnectionException e) {
+	    failure = e;
+	    handlePaymentConnectionException(paymentCollectionOutput, e);
+	} catch (Exception e) {
+	    failure = e;
+	    handleGenericException(e);
+	} finally {
+	    if (permitted) {
+		bulkhead.release();
+	    }
+	    recordOutcome(operationMetrics, paymentOperationEvent, serviceType, paymentCollectionInput, startTime,
+		    failure);
+	}
+	return paymentCollectionOutput;
+    }
+
+    /**
+     * Method used to invoke the asynchronous infrastructure call and apply the
+     * same exception handling as the synchronous services on its result.
+     * <ul>
+     * <li>PaymentConnectionException - handled by
+     * {@link #handlePaymentConnectionException}, the future is completed with the
+     * output marked for retry.</li>
+     * <li>Other exceptions - logged by {@link #handleGenericException} and the
+     * future is completed exceptionally.</li>
+     * </ul>
+     * Exceptions thrown while preparing the request are reported through the
+     * returned future as well. A transaction which already completed is answered
+     * from the {@link IdempotentResponseCache}, and a transaction whose call is
+     * still waiting to be replayed is marked for retry, otherwise the
+     * infrastructure service gets the request configs with the idempotency key
+     * used for the cache. The call is rejected without waiting when the
+     * {@link Bulkhead} of the service type has no free permit, the permit is
+     * held until the future is completed. The latency and the outcome of the call are
+     * recorded in the operation metrics and in the Flight Recorder event of the
+     * operation.
+     * 
+     * @param serviceType            holds the service type of the call.
+     * @param paymentCollectionInput holds the adapter's input object.
+     * @param config                 holds the request configs of the call.
+     * @param infraCall              function invoking the asynchronous
+     *                               infrastructure service with the request
+     *                               configs.
+     * @return The {@link CompletableFuture} completed with the PaymentCollection
+     *         output object.
+     */
+    public static CompletableFuture<PaymentCollectionOutput> performAsync(String serviceType,
+	    PaymentCollectionInput paymentCollectionInput, Map<String, String> config,
+	    Function<Map<String, String>, CompletableFuture<PaymentCollectionOutput>> infraCall) {
+	IdempotentResponseCache responseCache = IdempotentResponseCache.getInstance();
+	String idempotencyKey = IdempotencyKeys.of(serviceType, paymentCollectionInput);
+	PaymentCollectionOutput cachedOutput = responseCache.get(idempotencyKey);
+	if (cachedOutput != null) {
+	    logger.debug("{} is already completed, returning the cached output", serviceType);
+	    return CompletableFuture.completedFuture(cachedOutput);
+	}
+	if (RetryScheduler.isReplayPending(idempotencyKey)) {
+	    return CompletableFuture.completedFuture(replayPendingOutput(serviceType));
+	}
+	OperationMetrics operationMetrics = PaymentMetrics.getOperationMetrics(serviceType);
+	Object paymentOperationEvent = PaymentEvents.beginOperation();
+	long startTime = System.nanoTime();
+	Bulkhead bulkhead = Bulkhead.of(serviceType);
+	boolean permitted = false;
+	CompletableFuture<PaymentCollectionOutput> responseFuture;
+	try {
+	    if (bulkhead != null) {
+		bulkhead.tryAcquire();
+		permitted = true;
+	    }
+	    responseFuture = infraCall.apply(IdempotencyKeys.withIdempotencyKey(config, idempotencyKey));
+	} catch (Exception e) {
+	    responseFuture = new CompletableFuture<>();
+	    responseFuture.completeExceptionally(e);
+	}
+	boolean release = permitted;
+	return responseFuture.handle((paymentCollectionOutput, throwable) -> {
+	    if (release) {
+		bulkhead.release();
+	    }
+	    if (throwable == null) {
+		responseCache.put(idempotencyKey, paymentCollectionOutput);
+		recordOutcome(operationMetrics, paymentOperationEvent, serviceType, paymentCollectionInput, startTime,
+			null);
+		return paymentCollectionOutput;
+	    }
+	    Throwable cause = throwable;
+	    while (cause instanceof CompletionException && cause.getCause() != null) {
+		cause = cause.getCause();
+	    }
+	    recordOutcome(operationMetrics, paymentOperationEvent, serviceType, paymentCollectionInput, startTime,
+		    cause);
+	    if (cause instanceof PaymentConnectionException) {
+		return handlePaymentConnectionException(new PaymentCollectionOutput(),
+			(PaymentConnectionException) cause);
+	    }
+	    if (cause instanceof Exception) {
+		handleGenericException((Exception) cause);
+	    }
+	    throw new CompletionException(cause);
+	});
+    }
+
+    /**
+     * @return The output marking for retry a transaction whose call is still
+     *         waiting to be replayed.
+     */
+    private static PaymentCollectionOutput replayPendingOutput(String serviceType) {
+	logger.debug("{} is waiting for its replay, setting field for retry", serviceType);
+	PaymentCollectionOutput paymentCollectionOutput = new PaymentCollectionOutput();
+	paymentCollectionOutput.setRetry("Y");
+	return paymentCollectionOutput;
+    }
+
+    /**
+     * Method used to record the latency and the outcome of a call in the
+     * operation metrics and to commit its Flight Recorder event.
+     */
+    private static void recordOutcome(OperationMetrics operationMetrics, Object paymentOperationEvent,
+	    String serviceType, PaymentCollectionInput paymentCollectionInput, long startTime, Throwable failure) {
+	if (failure == null) {
+	    operationMetrics.recordSuccess(startTime);
+	} else {
+	    operationMetrics.recordFailure(startTime, failure);
+	}
+	PaymentEvents.commitOperation(paymentOperationEvent, serviceType, paymentCollectionInput.getMerchantId(),
+		failure);
+    }
 }
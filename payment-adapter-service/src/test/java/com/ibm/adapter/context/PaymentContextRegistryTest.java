@@ -0,0 +1,102 @@
+/*
+IBM Confidential
+IBM Sterling OMS Payment Integration Adapter
+(C) Copyright IBM Corp. 2022
+Licensed under the Apache License, Version 2.0 (the "License");
+you may not use this file except in compliance with the License.
+http://www.apache.org/licenses/LICENSE-2.0
+Unless required by applicable law or agreed to in writing, software
+distributed under the License is distributed on an "AS IS" BASIS,
+WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+See the License for the specific language governing permissions and
+limitations under the License.
+*/
+package com.ibm.adapter.context;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.Test;
+
+import com.ibm.adapter.enums.PaymentServiceProvider;
+import com.ibm.adapter.payment.model.PaymentCollectionInput;
+import com.ibm.adapter.service.interfaces.PaymentInfraInjector;
+import com.ibm.payment.infra.exception.PaymentConfigurationException;
+
+public class PaymentContextRegistryTest {
+
+    /**
+     * Injector counting the infra contexts it builds.
+     */
+    private static class CountingInfraInjector implements PaymentInfraInjector {
+
+	private final AtomicInteger builtContexts = new AtomicInteger();
+
+	@Override
+	public PaymentInfraContext getInfraContext() {
+	    builtContexts.incrementAndGet();
+	    return new PaymentInfraContext();
+	}
+    }
+
+    @Test
+    public void test01ContextsAreKeyedByProviderAndConfiguration() {
+	CountingInfraInjector defaultInjector = new CountingInfraInjector();
+	CountingInfraInjector merchantInjector = new CountingInfraInjector();
+	PaymentContextRegistry.registerInfraInjector(PaymentServiceProvider.DUMMY, defaultInjector);
+	PaymentContextRegistry.registerInfraInjector(PaymentServiceProvider.DUMMY, "merchant-2", merchantInjector);
+
+	PaymentInfraContext defaultContext = PaymentContextRegistry.getInfraContext(PaymentServiceProvider.DUMMY);
+	PaymentInfraContext merchantContext = PaymentContextRegistry.getInfraContext(PaymentServiceProvider.DUMMY,
+		"merchant-2");
+
+	assertNotSame(defaultContext, merchantContext);
+	// a null configuration selects the default one
+	assertSame(defaultContext, PaymentContextRegistry.getInfraContext(PaymentServiceProvider.DUMMY, null));
+	assertSame(defaultContext, PaymentContextRegistry.getInfraContext(PaymentServiceProvider.DUMMY,
+		PaymentContextRegistry.DEFAULT_CONFIGURATION));
+	assertSame(merchantContext,
+		PaymentContextRegistry.getInfraContext(PaymentServiceProvider.DUMMY, "merchant-2"));
+	assertEquals(1, defaultInjector.builtContexts.get());
+	assertEquals(1, merchantInjector.builtContexts.get());
+    }
+
+    @Test
+    public void test02RegisteringDropsBuiltContexts() {
+	PaymentContextRegistry.registerInfraInjector(PaymentServiceProvider.DUMMY, "merchant-3",
+		new CountingInfraInjector());
+	PaymentInfraContext infraContext = PaymentContextRegistry.getInfraContext(PaymentServiceProvider.DUMMY,
+		"merchant-3");
+
+	CountingInfraInjector infraInjector = new CountingInfraInjector();
+	PaymentContextRegistry.registerInfraInjector(PaymentServiceProvider.DUMMY, "merchant-3", infraInjector);
+
+	assertNotSame(infraContext,
+		PaymentContextRegistry.getInfraContext(PaymentServiceProvider.DUMMY, "merchant-3"));
+	assertEquals(1, infraInjector.builtContexts.get());
+    }
+
+    @Test
+    public void test03UnknownConfigurationIsRejected() {
+	assertThrows(PaymentConfigurationException.class,
+		() -> PaymentContextRegistry.getInfraContext(PaymentServiceProvider.DUMMY, "unknown"));
+	assertThrows(PaymentConfigurationException.class, () -> PaymentContextRegistry.providerOf("unknown"));
+	assertEquals(PaymentServiceProvider.DUMMY, PaymentContextRegistry.providerOf("Dummy"));
+    }
+
+    @Test
+    public void test04RouterSelectsContextOfConfiguration() {
+	PaymentContextRegistry.registerInfraInjector(PaymentServiceProvider.DUMMY, "merchant-4",
+		new CountingInfraInjector());
+	RequestContext requestContext = new RequestContext();
+	requestContext.setPaymentServiceProvider(PaymentServiceProvider.DUMMY.name());
+	requestContext.setPaymentConfiguration("merchant-4");
+
+	assertSame(PaymentContextRegistry.getInfraContext(PaymentServiceProvider.DUMMY, "merchant-4"),
+		PaymentRouter.getInstance().selectInfraContext(requestContext, new PaymentCollectionInput()));
+    }
+}
@@ -0,0 +1,115 @@
+/*
+IBM Confidential
+IBM Sterling OMS Payment Integration Adapter
+(C) Copyright IBM Corp. 2022
+Licensed under the Apache License, Version 2.0 (the "License");
+you may not use this file except in compliance with the License.
+http://www.apache.org/licenses/LICENSE-2.0
+Unless required by applicable law or agreed to in writing, software
+distributed under the License is distributed on an "AS IS" BASIS,
+WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+See the License for the specific language governing permissions and
+limitations under the License.
+*/
+package com.ibm.adapter.context;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+
+import java.util.Arrays;
+
+import org.junit.Test;
+
+import com.ibm.adapter.enums.PaymentServiceProvider;
+import com.ibm.adapter.payment.model.PaymentCollectionInput;
+
+public class PaymentRouterTest {
+
+    private static PaymentCollectionInput createInput(String merchantId, String currency, String paymentType) {
+	PaymentCollectionInput paymentCollectionInput = new PaymentCollectionInput();
+	paymentCollectionInput.setMerchantId(merchantId);
+	paymentCollectionInput.setCurrency(currency);
+	paymentCollectionInput.setPaymentType(paymentType);
+	return paymentCollectionInput;
+    }
+
+    @Test
+    public void test01DefaultProviderWithoutMatchingRule() {
+	PaymentRouter paymentRouter = new PaymentRouter(PaymentServiceProvider.ADYEN,
+		Arrays.asList(new RoutingRule("M2", "EUR", null, PaymentServiceProvider.DUMMY)));
+
+	assertEquals(PaymentServiceProvider.ADYEN,
+		paymentRouter.route(new RequestContext(), createInput("M1", "EUR", "CREDIT_CARD")));
+	assertEquals(PaymentServiceProvider.ADYEN,
+		paymentRouter.route(new RequestContext(), createInput("M2", "USD", "CREDIT_CARD")));
+	assertEquals(PaymentServiceProvider.ADYEN,
+		new PaymentRouter(PaymentServiceProvider.ADYEN, null).route(null, createInput("M1", "EUR", null)));
+    }
+
+    @Test
+    public void test02RequestedProviderWins() {
+	PaymentRouter paymentRouter = new PaymentRouter(PaymentServiceProvider.ADYEN,
+		Arrays.asList(new RoutingRule("M1", null, null, PaymentServiceProvider.ADYEN)));
+	RequestContext requestContext = new RequestContext();
+	requestContext.setPaymentServiceProvider("dummy");
+
+	assertEquals(PaymentServiceProvider.DUMMY,
+		paymentRouter.route(requestContext, createInput("M1", "EUR", "CREDIT_CARD")));
+    }
+
+    @Test
+    public void test03MerchantRuleBeforeAnyMerchantRule() {
+	PaymentRouter paymentRouter = new PaymentRouter(PaymentServiceProvider.ADYEN,
+		Arrays.asList(new RoutingRule(null, "EUR", null, PaymentServiceProvider.ADYEN),
+			new RoutingRule("M1", "EUR", null, PaymentServiceProvider.DUMMY)));
+
+	assertEquals(PaymentServiceProvider.DUMMY,
+		paymentRouter.route(new RequestContext(), createInput("M1", "EUR", "CREDIT_CARD")));
+	assertEquals(PaymentServiceProvider.ADYEN,
+		paymentRouter.route(new RequestContext(), createInput("M2", "EUR", "CREDIT_CARD")));
+    }
+
+    @Test
+    public void test04CurrencyRuleBeforePaymentTypeRule() {
+	PaymentRouter paymentRouter = new PaymentRouter(PaymentServiceProvider.ADYEN,
+		Arrays.asList(new RoutingRule("M1", null, "CREDIT_CARD", PaymentServiceProvider.ADYEN),
+			new RoutingRule("M1", "EUR", null, PaymentServiceProvider.DUMMY)));
+
+	assertEquals(PaymentServiceProvider.DUMMY,
+		paymentRouter.route(new RequestContext(), createInput("M1", "EUR", "CREDIT_CARD")));
+	assertEquals(PaymentServiceProvider.ADYEN,
+		paymentRouter.route(new RequestContext(), createInput("M1", "USD", "CREDIT_CARD")));
+    }
+
+    @Test
+    public void test05AnyMerchantRuleWhenMerchantRulesDoNotMatch() {
+	PaymentRouter paymentRouter = new PaymentRouter(PaymentServiceProvider.ADYEN,
+		Arrays.asList(new RoutingRule("M1", "USD", null, PaymentServiceProvider.ADYEN),
+			new RoutingRule(null, null, "PAYPAL", PaymentServiceProvider.DUMMY)));
+
+	assertEquals(PaymentServiceProvider.DUMMY,
+		paymentRouter.route(new RequestContext(), createInput("M1", "EUR", "PAYPAL")));
+    }
+
+    @Test
+    public void test06FirstRuleWins() {
+	PaymentRouter paymentRouter = new PaymentRouter(PaymentServiceProvider.ADYEN,
+		Arrays.asList(new RoutingRule("M1", "EUR", "CREDIT_CARD", PaymentServiceProvider.DUMMY),
+			new RoutingRule("M1", "EUR", "CREDIT_CARD", PaymentServiceProvider.ADYEN)));
+
+	assertEquals(PaymentServiceProvider.DUMMY,
+		paymentRouter.route(new RequestContext(), createInput("M1", "EUR", "CREDIT_CARD")));
+    }
+
+    @Test
+    public void test07ConfigureReplacesSharedRouter() {
+	PaymentRouter previousRouter = PaymentRouter.getInstance();
+	PaymentRouter paymentRouter = new PaymentRouter(PaymentServiceProvider.DUMMY, null);
+	try {
+	    PaymentRouter.configure(paymentRouter);
+	    assertSame(paymentRouter, PaymentRouter.getInstance());
+	} finally {
+	    PaymentRouter.configure(previousRouter);
+	}
+    }
+}
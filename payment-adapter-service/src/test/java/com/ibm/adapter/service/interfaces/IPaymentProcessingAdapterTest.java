@@ -0,0 +1,165 @@
+/*
+IBM Confidential
+IBM Sterling OMS Payment Integration Adapter
+(C) Copyright IBM Corp. 2022
+Licensed under the Apache License, Version 2.0 (the "License");
+you may not use this file except in compliance with the License.
+http://www.apache.org/licenses/LICENSE-2.0
+Unless required by applicable law or agreed to in writing, software
+distributed under the License is distributed on an "AS IS" BASIS,
+WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+See the License for the specific language governing permissions and
+limitations under the License.
+*/
+package com.ibm.adapter.service.interfaces;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.math.BigDecimal;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.Test;
+
+import com.ibm.adapter.context.BatchItemResult;
+import com.ibm.adapter.context.RequestContext;
+import com.ibm.adapter.enums.TransactionType;
+import com.ibm.adapter.payment.model.PaymentCollectionInput;
+import com.ibm.adapter.payment.model.PaymentCollectionOutput;
+
+public class IPaymentProcessingAdapterTest {
+
+    /**
+     * Adapter charging the payment reference given as input, the references
+     * starting with "invalid" fail in the preprocess.
+     */
+    private static class ChargeAdapter implements IPaymentProcessingAdapter<String, String> {
+
+	private final Map<String, RequestContext> requestContexts = new ConcurrentHashMap<>();
+
+	@Override
+	public PaymentCollectionInput preProcess(RequestContext requestContext, String paymentReference) {
+	    if (paymentReference.startsWith("invalid")) {
+		throw new IllegalArgumentException("Invalid payment reference " + paymentReference);
+	    }
+	    PaymentCollectionInput paymentCollectionInput = new PaymentCollectionInput();
+	    paymentCollectionInput.setTransactionType(TransactionType.CHARGE.name());
+	    paymentCollectionInput.setRequestAmount(BigDecimal.TEN);
+	    paymentCollectionInput.setAuthorizedAmount(BigDecimal.TEN);
+	    paymentCollectionInput.setPaymentReference(paymentReference);
+	    return paymentCollectionInput;
+	}
+
+	@Override
+	public PaymentCollectionOutput performCharge(RequestContext requestContext,
+		PaymentCollectionInput paymentCollectionInput) {
+	    // the payments complete in a different order than they were submitted
+	    sleep(ThreadLocalRandom.current().nextInt(20));
+	    requestContexts.put(paymentCollectionInput.getPaymentReference(), requestContext);
+	    PaymentCollectionOutput paymentCollectionOutput = new PaymentCollectionOutput();
+	    paymentCollectionOutput.setPaymentReference(paymentCollectionInput.getPaymentReference());
+	    return paymentCollectionOutput;
+	}
+
+	@Override
+	public PaymentCollectionOutput performReverseAuth(RequestContext requestContext,
+		PaymentCollectionInput paymentCollectionInput) {
+	    throw new UnsupportedOperationException();
+	}
+
+	@Override
+	public PaymentCollectionOutput performRefund(RequestContext requestContext,
+		PaymentCollectionInput paymentCollectionInput) {
+	    throw new UnsupportedOperationException();
+	}
+
+	@Override
+	public PaymentCollectionOutput amendAuthorization(RequestContext requestContext,
+		PaymentCollectionInput paymentCollectionInput) {
+	    throw new UnsupportedOperationException();
+	}
+
+	@Override
+	public PaymentCollectionOutput processPayment(RequestContext requestContext,
+		PaymentCollectionInput paymentCollectionInput) {
+	    throw new UnsupportedOperationException();
+	}
+
+	@Override
+	public String postProcess(RequestContext requestContext, PaymentCollectionOutput paymentOutput) {
+	    return "charged " + paymentOutput.getPaymentReference();
+	}
+    }
+
+    private static void sleep(long millis) {
+	try {
+	    TimeUnit.MILLISECONDS.sleep(millis);
+	} catch (InterruptedException e) {
+	    Thread.currentThread().interrupt();
+	}
+    }
+
+    @Test
+    public void test01ResultsInInputOrder() {
+	ChargeAdapter adapter = new ChargeAdapter();
+	RequestContext requestContext = new RequestContext();
+	requestContext.setBatchParallelism(4);
+	List<String> paymentReferences = Arrays.asList("P1", "P2", "P3", "P4", "P5", "P6", "P7", "P8", "P9",
+		"P10");
+
+	List<BatchItemResult<String>> results = adapter.executeBatch(requestContext, paymentReferences);
+
+	assertEquals(paymentReferences.size(), results.size());
+	for (int i = 0; i < paymentReferences.size(); i++) {
+	    assertEquals(i, results.get(i).getIndex());
+	    assertTrue(results.get(i).isSuccess());
+	    assertEquals("charged " + paymentReferences.get(i), results.get(i).getOutput());
+	}
+    }
+
+    @Test
+    public void test02CapturesErrorOfEachInput() {
+	ChargeAdapter adapter = new ChargeAdapter();
+	RequestContext requestContext = new RequestContext();
+	requestContext.setBatchParallelism(2);
+
+	List<BatchItemResult<String>> results = adapter.executeBatch(requestContext,
+		Arrays.asList("P1", "invalid-2", "P3", "invalid-4"));
+
+	assertEquals("charged P1", results.get(0).getOutput());
+	assertEquals("charged P3", results.get(2).getOutput());
+	for (int i : new int[] { 1, 3 }) {
+	    BatchItemResult<String> result = results.get(i);
+	    assertEquals(i, result.getIndex());
+	    assertFalse(result.isSuccess());
+	    assertNull(result.getOutput());
+	    assertTrue(result.getException() instanceof IllegalArgumentException);
+	    assertEquals("Invalid payment reference invalid-" + (i + 1), result.getException().getMessage());
+	}
+    }
+
+    @Test
+    public void test03EachInputHasItsOwnRequestContext() {
+	ChargeAdapter adapter = new ChargeAdapter();
+	RequestContext requestContext = new RequestContext();
+	requestContext.setPaymentConfiguration("merchant-2");
+
+	adapter.executeBatch(requestContext, Arrays.asList("P1", "P2"));
+
+	RequestContext firstContext = adapter.requestContexts.get("P1");
+	RequestContext secondContext = adapter.requestContexts.get("P2");
+	assertNotSame(requestContext, firstContext);
+	assertNotSame(requestContext, secondContext);
+	assertNotSame(firstContext, secondContext);
+	assertEquals("merchant-2", firstContext.getPaymentConfiguration());
+	assertEquals("merchant-2", secondContext.getPaymentConfiguration());
+    }
+}
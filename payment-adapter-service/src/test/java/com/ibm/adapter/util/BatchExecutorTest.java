@@ -0,0 +1,128 @@
+/*
+IBM Confidential
+IBM Sterling OMS Payment Integration Adapter
+(C) Copyright IBM Corp. 2022
+Licensed under the Apache License, Version 2.0 (the "License");
+you may not use this file except in compliance with the License.
+http://www.apache.org/licenses/LICENSE-2.0
+Unless required by applicable law or agreed to in writing, software
+distributed under the License is distributed on an "AS IS" BASIS,
+WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+See the License for the specific language governing permissions and
+limitations under the License.
+*/
+package com.ibm.adapter.util;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Collectors;
+
+import org.junit.Test;
+
+import com.ibm.adapter.context.BatchItemResult;
+import com.ibm.adapter.enums.ExecutorMode;
+import com.ibm.payment.infra.exception.PaymentConfigurationException;
+import com.ibm.payment.infra.exception.PaymentException;
+
+public class BatchExecutorTest {
+
+    private static final String PLATFORM_THREAD_PREFIX = "payment-batch-";
+
+    private static List<Integer> createInputs(int size) {
+	List<Integer> inputs = new ArrayList<>(size);
+	for (int i = 0; i < size; i++) {
+	    inputs.add(i);
+	}
+	return inputs;
+    }
+
+    private static List<String> threadNames(List<BatchItemResult<String>> results) {
+	return results.stream().map(BatchItemResult::getOutput).collect(Collectors.toList());
+    }
+
+    @Test
+    public void test01PlatformModeRunsOnBatchThreads() {
+	List<BatchItemResult<String>> results = BatchExecutor.execute(createInputs(4), 2, ExecutorMode.PLATFORM,
+		input -> Thread.currentThread().getName());
+
+	for (String threadName : threadNames(results)) {
+	    assertTrue(threadName.startsWith(PLATFORM_THREAD_PREFIX), threadName);
+	}
+    }
+
+    @Test
+    public void test02VirtualModeRunsOnVirtualThreads() {
+	List<BatchItemResult<String>> results = BatchExecutor.execute(createInputs(4), 2, ExecutorMode.VIRTUAL,
+		input -> Thread.currentThread().getName());
+
+	// the virtual threads are unnamed, older runtimes fall back to the platform
+	// threads
+	for (String threadName : threadNames(results)) {
+	    assertEquals(!BatchExecutor.isVirtualThreadSupported(), threadName.startsWith(PLATFORM_THREAD_PREFIX),
+		    threadName);
+	}
+    }
+
+    @Test
+    public void test03ParallelismIsBounded() {
+	AtomicInteger activeInputs = new AtomicInteger();
+	AtomicInteger peakActiveInputs = new AtomicInteger();
+
+	List<BatchItemResult<Integer>> results = BatchExecutor.execute(createInputs(12), 3, input -> {
+	    peakActiveInputs.accumulateAndGet(activeInputs.incrementAndGet(), Math::max);
+	    try {
+		TimeUnit.MILLISECONDS.sleep(50);
+	    } catch (InterruptedException e) {
+		Thread.currentThread().interrupt();
+	    } finally {
+		activeInputs.decrementAndGet();
+	    }
+	    return input;
+	});
+
+	assertEquals(3, peakActiveInputs.get());
+	assertEquals(createInputs(12), results.stream().map(BatchItemResult::getOutput).collect(Collectors.toList()));
+    }
+
+    @Test
+    public void test04ErrorIsCapturedAsPaymentException() {
+	List<BatchItemResult<Integer>> results = BatchExecutor.execute(createInputs(2), 2, input -> {
+	    if (input == 1) {
+		throw new AssertionError("input " + input);
+	    }
+	    return input;
+	});
+
+	assertTrue(results.get(0).isSuccess());
+	assertFalse(results.get(1).isSuccess());
+	assertTrue(results.get(1).getException() instanceof PaymentException);
+    }
+
+    @Test
+    public void test05InvalidLimitsAreRejected() {
+	assertThrows(PaymentConfigurationException.class,
+		() -> BatchExecutor.execute(Collections.singletonList(1), 0, input -> input));
+	assertThrows(PaymentConfigurationException.class, () -> BatchExecutor.setMaxPlatformThreads(0));
+    }
+
+    @Test
+    public void test06MaxPlatformThreadsCanBeChanged() {
+	int maxThreads = BatchExecutor.getMaxPlatformThreads();
+	try {
+	    BatchExecutor.setMaxPlatformThreads(maxThreads + 8);
+	    assertEquals(maxThreads + 8, BatchExecutor.getMaxPlatformThreads());
+	    BatchExecutor.setMaxPlatformThreads(2);
+	    assertEquals(2, BatchExecutor.getMaxPlatformThreads());
+	} finally {
+	    BatchExecutor.setMaxPlatformThreads(maxThreads);
+	}
+    }
+}
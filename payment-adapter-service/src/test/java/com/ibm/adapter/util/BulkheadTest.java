@@ -0,0 +1,123 @@
+/*
+IBM Confidential
+IBM Sterling OMS Payment Integration Adapter
+(C) Copyright IBM Corp. 2022
+Licensed under the Apache License, Version 2.0 (the "License");
+you may not use this file except in compliance with the License.
+http://www.apache.org/licenses/LICENSE-2.0
+Unless required by applicable law or agreed to in writing, software
+distributed under the License is distributed on an "AS IS" BASIS,
+WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+See the License for the specific language governing permissions and
+limitations under the License.
+*/
+package com.ibm.adapter.util;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.lang.management.ManagementFactory;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+import javax.management.ObjectName;
+
+import org.junit.Test;
+
+import com.ibm.adapter.payment.enums.ServiceType;
+import com.ibm.payment.infra.exception.PaymentConfigurationException;
+import com.ibm.payment.infra.exception.PaymentRejectedException;
+
+public class BulkheadTest {
+
+    private static void awaitQueueDepth(Bulkhead bulkhead, int queueDepth) throws InterruptedException {
+	long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+	while (bulkhead.getQueueDepth() != queueDepth && System.nanoTime() < deadline) {
+	    TimeUnit.MILLISECONDS.sleep(5);
+	}
+	assertEquals(queueDepth, bulkhead.getQueueDepth());
+    }
+
+    @Test
+    public void test01PermitsUpToMaxConcurrentCalls() {
+	Bulkhead bulkhead = new Bulkhead("CAPTURE", 2, 0, 0);
+	bulkhead.acquire();
+	bulkhead.acquire();
+	assertEquals(2, bulkhead.getActiveCalls());
+
+	assertThrows(PaymentRejectedException.class, bulkhead::acquire);
+	assertEquals(2, bulkhead.getPermittedCalls());
+	assertEquals(1, bulkhead.getRejectedCalls());
+
+	bulkhead.release();
+	bulkhead.acquire();
+	assertEquals(3, bulkhead.getPermittedCalls());
+    }
+
+    @Test
+    public void test02RejectsWhenQueueIsFull() throws Exception {
+	Bulkhead bulkhead = new Bulkhead("CAPTURE", 1, 1, 5000);
+	bulkhead.acquire();
+	CompletableFuture<Void> queuedCall = CompletableFuture.runAsync(bulkhead::acquire);
+	awaitQueueDepth(bulkhead, 1);
+
+	// the queue holds a single waiting call
+	assertThrows(PaymentRejectedException.class, bulkhead::acquire);
+	assertEquals(1, bulkhead.getRejectedCalls());
+	assertEquals(1, bulkhead.getPeakQueueDepth());
+
+	bulkhead.release();
+	queuedCall.get(5, TimeUnit.SECONDS);
+	assertEquals(0, bulkhead.getQueueDepth());
+	assertEquals(1, bulkhead.getActiveCalls());
+	assertEquals(2, bulkhead.getPermittedCalls());
+    }
+
+    @Test
+    public void test03RejectsAfterMaxWait() {
+	Bulkhead bulkhead = new Bulkhead("CAPTURE", 1, 1, 50);
+	bulkhead.acquire();
+
+	long startTime = System.nanoTime();
+	assertThrows(PaymentRejectedException.class, bulkhead::acquire);
+	assertTrue(System.nanoTime() - startTime >= TimeUnit.MILLISECONDS.toNanos(50));
+	assertEquals(1, bulkhead.getRejectedCalls());
+	assertEquals(0, bulkhead.getQueueDepth());
+    }
+
+    @Test
+    public void test04TryAcquireDoesNotWait() {
+	Bulkhead bulkhead = new Bulkhead("CAPTURE", 1, 1, 5000);
+	bulkhead.tryAcquire();
+
+	assertThrows(PaymentRejectedException.class, bulkhead::tryAcquire);
+	assertEquals(1, bulkhead.getRejectedCalls());
+	assertEquals(0, bulkhead.getPeakQueueDepth());
+    }
+
+    @Test
+    public void test05ConfigureRegistersBulkheadOfServiceType() throws Exception {
+	ObjectName objectName = new ObjectName("com.ibm.payment.infra:type=Bulkhead,name=REFUND");
+	Bulkhead bulkhead = Bulkhead.configure(ServiceType.REFUND, 4, 2, 100);
+	try {
+	    assertSame(bulkhead, Bulkhead.of(ServiceType.REFUND.name()));
+	    assertEquals(4, bulkhead.getMaxConcurrentCalls());
+	    assertTrue(ManagementFactory.getPlatformMBeanServer().isRegistered(objectName));
+	} finally {
+	    Bulkhead.remove(ServiceType.REFUND);
+	}
+	assertNull(Bulkhead.of(ServiceType.REFUND.name()));
+	assertFalse(ManagementFactory.getPlatformMBeanServer().isRegistered(objectName));
+    }
+
+    @Test
+    public void test06ConfigureRejectsInvalidLimits() {
+	assertThrows(PaymentConfigurationException.class, () -> Bulkhead.configure(ServiceType.REFUND, 0, 0, 0));
+	assertThrows(PaymentConfigurationException.class, () -> Bulkhead.configure(ServiceType.REFUND, 1, -1, 0));
+	assertNull(Bulkhead.of(ServiceType.REFUND.name()));
+    }
+}